@@ -0,0 +1,44 @@
+package com.spms.backend.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Settings for the executor that runs Flowable future delegates such as approval services.
+ * <p>
+ * At most {@code threads} delegates run at once and {@code queue-capacity} more wait; when the queue
+ * is full the engine thread runs the delegate itself. With {@code virtual-threads} each delegate gets
+ * a virtual thread, still limited to {@code threads} at once; this needs Java 21 and falls back to
+ * the platform thread pool on older runtimes.
+ */
+@Component
+@ConfigurationProperties(prefix = "spms.approval.executor")
+public class ApprovalExecutorProperties {
+    private int threads = Math.max(2, Runtime.getRuntime().availableProcessors());
+    private int queueCapacity = 1000;
+    private boolean virtualThreads = false;
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public void setQueueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+
+    public boolean isVirtualThreads() {
+        return virtualThreads;
+    }
+
+    public void setVirtualThreads(boolean virtualThreads) {
+        this.virtualThreads = virtualThreads;
+    }
+}
@@ -0,0 +1,40 @@
+package com.spms.backend.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Settings for picking one department member in BPMN expressions.
+ * <p>
+ * The weighted strategy picks users in proportion to {@code weights} (username to weight); users
+ * without an entry weigh {@code default-weight}, and a weight of 0 leaves a user out.
+ */
+@Component
+@ConfigurationProperties(prefix = "spms.assignment")
+public class AssignmentProperties {
+    private int defaultWeight = 1;
+    private Map<String, Integer> weights = new HashMap<>();
+
+    public int getDefaultWeight() {
+        return defaultWeight;
+    }
+
+    public void setDefaultWeight(int defaultWeight) {
+        this.defaultWeight = defaultWeight;
+    }
+
+    public Map<String, Integer> getWeights() {
+        return weights;
+    }
+
+    public void setWeights(Map<String, Integer> weights) {
+        this.weights = weights;
+    }
+
+    public int weightOf(String username) {
+        return Math.max(0, weights.getOrDefault(username, defaultWeight));
+    }
+}
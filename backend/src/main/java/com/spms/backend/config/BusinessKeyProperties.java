@@ -0,0 +1,25 @@
+package com.spms.backend.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Settings for the business key allocator.
+ * <p>
+ * {@code blockSize} is the number of sequence values a node reserves per prefix
+ * in a single database round trip. Larger blocks mean fewer row locks under load,
+ * at the cost of bigger gaps when a node is restarted.
+ */
+@Component
+@ConfigurationProperties(prefix = "spms.business-key")
+public class BusinessKeyProperties {
+    private int blockSize = 50;
+
+    public int getBlockSize() {
+        return blockSize;
+    }
+
+    public void setBlockSize(int blockSize) {
+        this.blockSize = blockSize;
+    }
+}
@@ -0,0 +1,32 @@
+package com.spms.backend.config;
+
+import com.spms.backend.service.process.engine.EngineQueryCounter;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Scopes {@link EngineQueryCounter} to a single HTTP request and logs how many
+ * Flowable engine commands the request issued.
+ */
+public class EngineQueryCountInterceptor implements HandlerInterceptor {
+
+    private static final Logger log = LoggerFactory.getLogger(EngineQueryCountInterceptor.class);
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        EngineQueryCounter.reset();
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        int queries = EngineQueryCounter.get();
+        if (queries > 0) {
+            log.debug("{} {} issued {} engine commands", request.getMethod(), request.getRequestURI(), queries);
+        }
+        EngineQueryCounter.reset();
+    }
+}
@@ -0,0 +1,34 @@
+package com.spms.backend.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Settings for Excel imports.
+ * <p>
+ * {@code batchSize} is the number of rows sent in one JDBC batch. {@code chunkSize} is the number
+ * of sheet rows written per transaction; a failing chunk is retried row by row so that only the
+ * bad rows are reported and the rest of the file is kept.
+ */
+@Component
+@ConfigurationProperties(prefix = "spms.excel-import")
+public class ExcelImportProperties {
+    private int batchSize = 500;
+    private int chunkSize = 2000;
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    public void setChunkSize(int chunkSize) {
+        this.chunkSize = chunkSize;
+    }
+}
@@ -0,0 +1,88 @@
+package com.spms.backend.config;
+
+import com.spms.backend.service.process.engine.ApprovalTaskInvoker;
+import com.spms.backend.service.process.engine.FormDataVariableType;
+import com.spms.backend.service.process.engine.ProcessCommandMetricsInterceptor;
+import com.spms.backend.service.process.engine.ProcessMetrics;
+import com.spms.backend.service.process.engine.ProcessMetricsEventListener;
+import com.spms.backend.service.process.engine.UserTaskLoadEventListener;
+import com.spms.backend.service.process.engine.UserWorkItemEventListener;
+import com.spms.backend.service.timecard.WorkingCalendar;
+import org.flowable.common.engine.api.delegate.event.FlowableEventListener;
+import org.flowable.common.engine.impl.interceptor.CommandInterceptor;
+import org.flowable.spring.SpringProcessEngineConfiguration;
+import org.flowable.spring.boot.EngineConfigurationConfigurer;
+import org.flowable.variable.api.types.VariableType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Customizes the Flowable process engine created by the Spring Boot starter.
+ * <p>
+ * Registers {@link FormDataVariableType} ahead of the built-in variable types so form payloads are
+ * stored as compact binary instead of Java serialization, and makes {@link WorkingCalendar} available
+ * to expressions as {@code workingCalendar}. Engine commands are timed by {@link ProcessCommandMetricsInterceptor}
+ * and engine events tag the running {@link ProcessMetrics} operation with its process definition.
+ * Future delegates run their asynchronous part on the bounded {@link ApprovalTaskInvoker}.
+ * {@link UserWorkItemEventListener} maintains the "my work" read model and
+ * {@link UserTaskLoadEventListener} the open task count per user.
+ */
+@Configuration
+public class FlowableEngineConfig implements EngineConfigurationConfigurer<SpringProcessEngineConfiguration> {
+
+    @Value("${spms.form-data.compression-threshold:" + FormDataVariableType.DEFAULT_COMPRESSION_THRESHOLD + "}")
+    private int compressionThreshold;
+
+    private final WorkingCalendar workingCalendar;
+    private final ProcessMetrics processMetrics;
+    private final ApprovalTaskInvoker approvalTaskInvoker;
+    private final UserWorkItemEventListener userWorkItemEventListener;
+    private final UserTaskLoadEventListener userTaskLoadEventListener;
+
+    public FlowableEngineConfig(WorkingCalendar workingCalendar, ProcessMetrics processMetrics,
+                                ApprovalTaskInvoker approvalTaskInvoker,
+                                UserWorkItemEventListener userWorkItemEventListener,
+                                UserTaskLoadEventListener userTaskLoadEventListener) {
+        this.workingCalendar = workingCalendar;
+        this.processMetrics = processMetrics;
+        this.approvalTaskInvoker = approvalTaskInvoker;
+        this.userWorkItemEventListener = userWorkItemEventListener;
+        this.userTaskLoadEventListener = userTaskLoadEventListener;
+    }
+
+    @Override
+    public void configure(SpringProcessEngineConfiguration engineConfiguration) {
+        List<VariableType> preTypes = new ArrayList<>();
+        if (engineConfiguration.getCustomPreVariableTypes() != null) {
+            preTypes.addAll(engineConfiguration.getCustomPreVariableTypes());
+        }
+        preTypes.add(new FormDataVariableType(compressionThreshold));
+        engineConfiguration.setCustomPreVariableTypes(preTypes);
+
+        List<CommandInterceptor> interceptors = new ArrayList<>();
+        if (engineConfiguration.getCustomPreCommandInterceptors() != null) {
+            interceptors.addAll(engineConfiguration.getCustomPreCommandInterceptors());
+        }
+        interceptors.add(new ProcessCommandMetricsInterceptor(processMetrics));
+        engineConfiguration.setCustomPreCommandInterceptors(interceptors);
+
+        List<FlowableEventListener> listeners = new ArrayList<>();
+        if (engineConfiguration.getEventListeners() != null) {
+            listeners.addAll(engineConfiguration.getEventListeners());
+        }
+        listeners.add(new ProcessMetricsEventListener());
+        listeners.add(userWorkItemEventListener);
+        listeners.add(userTaskLoadEventListener);
+        engineConfiguration.setEventListeners(listeners);
+
+        engineConfiguration.setAsyncTaskInvoker(approvalTaskInvoker);
+
+        // Expressions see every Spring bean unless the bean map is restricted; keep the calendar visible then
+        if (engineConfiguration.getBeans() != null) {
+            engineConfiguration.getBeans().put("workingCalendar", workingCalendar);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.spms.backend.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * Settings for the notification dispatch pipeline.
+ * <p>
+ * Every enabled channel has its own queue of {@code queue-capacity} notifications; a publisher
+ * waits up to {@code offer-timeout} for room before the notification goes to the dead-letter store.
+ * A channel worker hands the handler up to {@code batch-size} notifications at a time; the email
+ * channel first waits {@code digest-window} so notifications to the same recipient become one digest.
+ * Failed deliveries are retried up to {@code max-attempts} times, waiting {@code initial-backoff}
+ * and doubling up to {@code max-backoff}. Templates missing for a notification's locale and its language
+ * fall back to {@code default-locale}.
+ */
+@Component
+@ConfigurationProperties(prefix = "spms.notification")
+public class NotificationProperties {
+    private int queueCapacity = 1000;
+    private Duration offerTimeout = Duration.ofSeconds(2);
+    private int batchSize = 50;
+    private Duration digestWindow = Duration.ofSeconds(30);
+    private int maxAttempts = 5;
+    private Duration initialBackoff = Duration.ofSeconds(1);
+    private Duration maxBackoff = Duration.ofMinutes(5);
+    private Locale defaultLocale = Locale.ENGLISH;
+
+    /**
+     * Delay before the given retry: {@code initial-backoff * 2^(attempt - 1)}, at most {@code max-backoff}.
+     *
+     * @param attempt number of the failed attempt, starting at 1
+     */
+    public Duration backoff(int attempt) {
+        Duration delay = initialBackoff;
+        for (int i = 1; i < attempt && delay.compareTo(maxBackoff) < 0; i++) {
+            delay = delay.multipliedBy(2);
+        }
+        return delay.compareTo(maxBackoff) > 0 ? maxBackoff : delay;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public void setQueueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+
+    public Duration getOfferTimeout() {
+        return offerTimeout;
+    }
+
+    public void setOfferTimeout(Duration offerTimeout) {
+        this.offerTimeout = offerTimeout;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public Duration getDigestWindow() {
+        return digestWindow;
+    }
+
+    public void setDigestWindow(Duration digestWindow) {
+        this.digestWindow = digestWindow;
+    }
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    public void setMaxAttempts(int maxAttempts) {
+        this.maxAttempts = maxAttempts;
+    }
+
+    public Duration getInitialBackoff() {
+        return initialBackoff;
+    }
+
+    public void setInitialBackoff(Duration initialBackoff) {
+        this.initialBackoff = initialBackoff;
+    }
+
+    public Duration getMaxBackoff() {
+        return maxBackoff;
+    }
+
+    public void setMaxBackoff(Duration maxBackoff) {
+        this.maxBackoff = maxBackoff;
+    }
+
+    public Locale getDefaultLocale() {
+        return defaultLocale;
+    }
+
+    public void setDefaultLocale(Locale defaultLocale) {
+        this.defaultLocale = defaultLocale;
+    }
+}
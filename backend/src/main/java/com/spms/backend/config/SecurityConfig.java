@@ -69,6 +69,9 @@ public class SecurityConfig {
                         // 放行 Swagger 相关路径
                         .requestMatchers("/swagger-ui/**", "/v3/api-docs/**").permitAll()
 
+                        // 放行健康检查和 Prometheus 抓取（仅在内部管理端口 management.server.port 暴露）
+                        .requestMatchers("/actuator/health/**", "/actuator/prometheus").permitAll()
+
                         // API 路径要求认证但禁用重定向
                         .requestMatchers("/api/v1/**").authenticated()
 
@@ -0,0 +1,105 @@
+package com.spms.backend.config;
+
+import com.spms.backend.repository.entities.sys.StatisticResolution;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Settings for collected system statistics.
+ * <p>
+ * {@code sample-interval} is how often the data processing job samples every collector.
+ * Each resolution keeps its rows for its retention period; range queries use the finest
+ * resolution that still covers the range in at most {@code max-points} points per statistic.
+ * Collectors run concurrently on {@code collector-threads} threads and each may take at most
+ * {@code collector-timeout}, counted from the start of the sampling run.
+ */
+@Component
+@ConfigurationProperties(prefix = "spms.statistics")
+public class StatisticsProperties {
+    private Duration sampleInterval = Duration.ofSeconds(30);
+    private int maxPoints = 500;
+    private Duration rawRetention = Duration.ofDays(2);
+    private Duration fiveMinuteRetention = Duration.ofDays(14);
+    private Duration hourlyRetention = Duration.ofDays(180);
+    private Duration dailyRetention = Duration.ofDays(3650);
+    private Duration collectorTimeout = Duration.ofSeconds(10);
+    private int collectorThreads = 8;
+
+    /**
+     * How long rows of a resolution are kept.
+     */
+    public Duration retention(StatisticResolution resolution) {
+        return switch (resolution) {
+            case RAW -> rawRetention;
+            case FIVE_MINUTES -> fiveMinuteRetention;
+            case HOURLY -> hourlyRetention;
+            case DAILY -> dailyRetention;
+        };
+    }
+
+    public Duration getSampleInterval() {
+        return sampleInterval;
+    }
+
+    public void setSampleInterval(Duration sampleInterval) {
+        this.sampleInterval = sampleInterval;
+    }
+
+    public int getMaxPoints() {
+        return maxPoints;
+    }
+
+    public void setMaxPoints(int maxPoints) {
+        this.maxPoints = maxPoints;
+    }
+
+    public Duration getRawRetention() {
+        return rawRetention;
+    }
+
+    public void setRawRetention(Duration rawRetention) {
+        this.rawRetention = rawRetention;
+    }
+
+    public Duration getFiveMinuteRetention() {
+        return fiveMinuteRetention;
+    }
+
+    public void setFiveMinuteRetention(Duration fiveMinuteRetention) {
+        this.fiveMinuteRetention = fiveMinuteRetention;
+    }
+
+    public Duration getHourlyRetention() {
+        return hourlyRetention;
+    }
+
+    public void setHourlyRetention(Duration hourlyRetention) {
+        this.hourlyRetention = hourlyRetention;
+    }
+
+    public Duration getDailyRetention() {
+        return dailyRetention;
+    }
+
+    public void setDailyRetention(Duration dailyRetention) {
+        this.dailyRetention = dailyRetention;
+    }
+
+    public Duration getCollectorTimeout() {
+        return collectorTimeout;
+    }
+
+    public void setCollectorTimeout(Duration collectorTimeout) {
+        this.collectorTimeout = collectorTimeout;
+    }
+
+    public int getCollectorThreads() {
+        return collectorThreads;
+    }
+
+    public void setCollectorThreads(int collectorThreads) {
+        this.collectorThreads = collectorThreads;
+    }
+}
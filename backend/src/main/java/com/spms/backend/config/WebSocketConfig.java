@@ -1,19 +1,67 @@
 package com.spms.backend.config;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketSession;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
+import org.springframework.web.socket.handler.WebSocketHandlerDecorator;
+import org.springframework.web.socket.server.support.DefaultHandshakeHandler;
 
+import java.security.Principal;
+import java.util.Map;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * STOMP over WebSocket for pushing notifications.
+ * <p>
+ * Each user subscribes to {@code /user/queue/notifications} and only receives their own
+ * notifications; sessions are named after the SPMS username. Every session has a bounded send
+ * buffer and sessions that cannot keep up are closed (see {@link WebSocketProperties}). Metrics:
+ * {@code spms.websocket.sessions} and {@code spms.websocket.evictions}.
+ */
 @Configuration
 @EnableWebSocketMessageBroker
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
+    /**
+     * Per-user destination of notifications, below the {@code /user} prefix.
+     */
+    public static final String NOTIFICATION_QUEUE = "/queue/notifications";
+
+    private final WebSocketProperties properties;
+    private final AtomicInteger sessions = new AtomicInteger();
+    private final Counter evictions;
+
+    public WebSocketConfig(WebSocketProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        Gauge.builder("spms.websocket.sessions", sessions, AtomicInteger::get)
+                .description("Open WebSocket sessions")
+                .register(meterRegistry);
+        this.evictions = Counter.builder("spms.websocket.evictions")
+                .description("Sessions closed because they could not keep up with their messages")
+                .register(meterRegistry);
+    }
+
     @Override
     public void registerStompEndpoints(StompEndpointRegistry registry) {
         // Endpoint clients connect to
-        registry.addEndpoint("/ws").withSockJS(); // Use .withSockJS() for fallback
+        registry.addEndpoint("/ws")
+                .setHandshakeHandler(new SpmsUserHandshakeHandler())
+                .withSockJS(); // Use .withSockJS() for fallback
     }
 
     @Override
@@ -21,7 +69,74 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
         // Prefix for client-to-server messages
         registry.setApplicationDestinationPrefixes("/app");
 
+        // Prefix for per-user destinations, e.g. /user/queue/notifications
+        registry.setUserDestinationPrefix("/user");
+
+        // Sessions are written in parallel, messages of one session stay in order
+        registry.setPreservePublishOrder(true);
+
         // Prefix for server-to-client messages (topic for pub-sub, queue for point-to-point)
         registry.enableSimpleBroker("/topic", "/queue");
     }
-}
\ No newline at end of file
+
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        registration.setSendTimeLimit((int) properties.getSendTimeLimit().toMillis())
+                .setSendBufferSizeLimit((int) properties.getSendBufferSizeLimit().toBytes())
+                .setMessageSizeLimit((int) properties.getMessageSizeLimit().toBytes())
+                .addDecoratorFactory(this::countSessions);
+    }
+
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(properties.getOutboundThreads());
+        executor.setMaxPoolSize(properties.getOutboundThreads());
+        executor.setQueueCapacity(properties.getOutboundQueueCapacity());
+        executor.setThreadNamePrefix("websocket-out-");
+        // Slow the publisher down instead of dropping messages when all writers are busy
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        registration.taskExecutor(executor);
+    }
+
+    private WebSocketHandler countSessions(WebSocketHandler handler) {
+        return new WebSocketHandlerDecorator(handler) {
+            @Override
+            public void afterConnectionEstablished(WebSocketSession session) throws Exception {
+                sessions.incrementAndGet();
+                super.afterConnectionEstablished(session);
+            }
+
+            @Override
+            public void afterConnectionClosed(WebSocketSession session, CloseStatus closeStatus) throws Exception {
+                sessions.decrementAndGet();
+                // Spring closes sessions that exceed the send time or buffer limit with this status
+                if (CloseStatus.SESSION_NOT_RELIABLE.equals(closeStatus)) {
+                    evictions.increment();
+                }
+                super.afterConnectionClosed(session, closeStatus);
+            }
+        };
+    }
+
+    /**
+     * Names the session after the SPMS username rather than the identity provider's subject, so
+     * notifications can be sent to a user by username.
+     */
+    static class SpmsUserHandshakeHandler extends DefaultHandshakeHandler {
+
+        @Override
+        protected Principal determineUser(ServerHttpRequest request,
+                                          WebSocketHandler wsHandler,
+                                          Map<String, Object> attributes) {
+            Principal principal = request.getPrincipal();
+            if (principal instanceof Authentication authentication
+                    && authentication.getPrincipal() instanceof SpmsOidcUser user
+                    && user.getAuthenticatedUser() != null) {
+                return new UsernamePasswordAuthenticationToken(user.getAuthenticatedUser().getUsername(),
+                        null, authentication.getAuthorities());
+            }
+            return principal;
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.spms.backend.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * Settings for the STOMP broker that pushes notifications to browsers.
+ * <p>
+ * Messages to a session are buffered up to {@code send-buffer-size-limit}; a session whose buffer
+ * overflows, or whose current send takes longer than {@code send-time-limit}, is closed so one slow
+ * client cannot hold messages for everybody else. Outbound messages are written by
+ * {@code outbound-threads} threads with at most {@code outbound-queue-capacity} messages waiting;
+ * when they are all busy the publisher writes itself. Notifications of one type for one user that
+ * arrive within {@code coalesce-window} are sent as one message.
+ */
+@Component
+@ConfigurationProperties(prefix = "spms.websocket")
+public class WebSocketProperties {
+    private Duration sendTimeLimit = Duration.ofSeconds(10);
+    private DataSize sendBufferSizeLimit = DataSize.ofKilobytes(512);
+    private DataSize messageSizeLimit = DataSize.ofKilobytes(64);
+    private int outboundThreads = Math.max(2, Runtime.getRuntime().availableProcessors() * 2);
+    private int outboundQueueCapacity = 10000;
+    private Duration coalesceWindow = Duration.ofMillis(250);
+
+    public Duration getSendTimeLimit() {
+        return sendTimeLimit;
+    }
+
+    public void setSendTimeLimit(Duration sendTimeLimit) {
+        this.sendTimeLimit = sendTimeLimit;
+    }
+
+    public DataSize getSendBufferSizeLimit() {
+        return sendBufferSizeLimit;
+    }
+
+    public void setSendBufferSizeLimit(DataSize sendBufferSizeLimit) {
+        this.sendBufferSizeLimit = sendBufferSizeLimit;
+    }
+
+    public DataSize getMessageSizeLimit() {
+        return messageSizeLimit;
+    }
+
+    public void setMessageSizeLimit(DataSize messageSizeLimit) {
+        this.messageSizeLimit = messageSizeLimit;
+    }
+
+    public int getOutboundThreads() {
+        return outboundThreads;
+    }
+
+    public void setOutboundThreads(int outboundThreads) {
+        this.outboundThreads = outboundThreads;
+    }
+
+    public int getOutboundQueueCapacity() {
+        return outboundQueueCapacity;
+    }
+
+    public void setOutboundQueueCapacity(int outboundQueueCapacity) {
+        this.outboundQueueCapacity = outboundQueueCapacity;
+    }
+
+    public Duration getCoalesceWindow() {
+        return coalesceWindow;
+    }
+
+    public void setCoalesceWindow(Duration coalesceWindow) {
+        this.coalesceWindow = coalesceWindow;
+    }
+}
@@ -0,0 +1,37 @@
+package com.spms.backend.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.DayOfWeek;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Settings for the working-day calendar.
+ * <p>
+ * {@code country} is the holiday calendar used when callers do not name one.
+ * {@code weekend} lists the days of week that are never working days.
+ */
+@Component
+@ConfigurationProperties(prefix = "spms.working-calendar")
+public class WorkingCalendarProperties {
+    private String country = "CN";
+    private Set<DayOfWeek> weekend = EnumSet.of(DayOfWeek.SATURDAY, DayOfWeek.SUNDAY);
+
+    public String getCountry() {
+        return country;
+    }
+
+    public void setCountry(String country) {
+        this.country = country;
+    }
+
+    public Set<DayOfWeek> getWeekend() {
+        return weekend;
+    }
+
+    public void setWeekend(Set<DayOfWeek> weekend) {
+        this.weekend = weekend;
+    }
+}
@@ -0,0 +1,18 @@
+package com.spms.backend.controller.dto.process;
+
+import lombok.Data;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+public class BulkTaskCompletionRequest {
+    private List<Item> items;
+
+    @Data
+    public static class Item {
+        private String instanceId;
+        private String taskId;
+        private Map<String, Object> values;
+    }
+}
@@ -0,0 +1,11 @@
+package com.spms.backend.controller.dto.process;
+
+import lombok.Data;
+
+@Data
+public class TaskCompletionResultDTO {
+    private String instanceId;
+    private String taskId;
+    private String status;
+    private String message;
+}
@@ -14,4 +14,10 @@ public class StatisticResponseDTO {
     private Date asOfDate;
     private Long value;
 
+    private String resolution;
+    private Long min;
+    private Long max;
+    private Double avg;
+    private Long sampleCount;
+
 }
@@ -0,0 +1,27 @@
+package com.spms.backend.controller.dto.timecard;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 项目任务分页结果 DTO
+ * 使用 keyset 分页：将 nextCursor 作为下一次请求的 after 参数
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProjectTaskPageDTO {
+    
+    /**
+     * 当前页的项目任务
+     */
+    private List<ProjectTaskDTO> items;
+    
+    /**
+     * 下一页游标，没有更多数据时为 null
+     */
+    private String nextCursor;
+}
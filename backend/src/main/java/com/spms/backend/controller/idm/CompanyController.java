@@ -2,7 +2,6 @@ package com.spms.backend.controller.idm;
 
 import com.spms.backend.controller.dto.idm.CompanyDTO;
 import com.spms.backend.controller.dto.idm.CreateCompanyRequestDTO;
-import com.spms.backend.controller.dto.idm.OrganizationChartDTO;
 import com.spms.backend.controller.dto.idm.ChartMode;
 import com.spms.backend.repository.entities.idm.CompanyType;
 import com.spms.backend.controller.dto.idm.JoinToChildrenRequestDTO;
@@ -14,6 +13,7 @@ import jakarta.transaction.Transactional;
 import jakarta.websocket.server.PathParam;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -118,9 +118,11 @@ public class CompanyController {
     }
 
     @GetMapping("/{id}/organization-chart")
-    public ResponseEntity<OrganizationChartDTO> getOrganizationChart(
+    public ResponseEntity<byte[]> getOrganizationChart(
             @PathVariable Long id,
             @RequestParam ChartMode mode) {
-        return ResponseEntity.ok(organizationService.getOrganizationChart(id, mode));
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(organizationService.getOrganizationChartJson(id, mode));
     }
 }
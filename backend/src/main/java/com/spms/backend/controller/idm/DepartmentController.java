@@ -194,4 +194,22 @@ public class DepartmentController {
             return ResponseEntity.badRequest().build();
         }
     }
+
+    /**
+     * Deletes a department without child departments
+     *
+     * @param id ID of the department to delete
+     * @return 204 when deleted, 404 when not found, 400 when it has child departments
+     */
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> deleteDepartment(@PathVariable Long id) {
+        try {
+            departmentService.deleteDepartment(id);
+            return ResponseEntity.noContent().build();
+        } catch (EntityNotFoundException e) {
+            return ResponseEntity.notFound().build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
 }
@@ -4,6 +4,7 @@ import com.spms.backend.controller.BaseController;
 import com.spms.backend.controller.dto.process.ProcessHistoryDTO;
 import com.spms.backend.service.idm.UserService;
 import com.spms.backend.service.model.idm.UserModel;
+import com.spms.backend.service.model.process.CursorPage;
 import com.spms.backend.service.model.process.ProcessHistoryModel;
 import com.spms.backend.service.process.ProcessHistoryService;
 import org.springframework.data.domain.Page;
@@ -76,6 +77,24 @@ public class ProcessHistoryControllerV1 extends BaseController {
                 .map(this::convertToDTO);
     }
 
+    /**
+     * Retrieves the history of processes handled by the current user, paged by cursor.
+     *
+     * @param cursor       nextCursor of the previous page; omitted for the first page
+     * @param size         page size, at most 100
+     * @param includeTotal whether to count all processes, e.g. for the first page only
+     * @return Page of process history DTOs with the cursor of the next page
+     */
+    @GetMapping("/current-user/handle/cursor")
+    public CursorPage<ProcessHistoryDTO> getHistoryHandledByCurrentUserByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+        long userId = userService.getCurrentUserId();
+        return processHistoryService.getHistoryHandledByUser(userId, cursor, size, includeTotal)
+                .map(this::convertToDTO);
+    }
+
     @GetMapping("/current-user/started")
     public Page<ProcessHistoryDTO> getHistoryStartedByCurrentUser(
             Pageable pageable) {
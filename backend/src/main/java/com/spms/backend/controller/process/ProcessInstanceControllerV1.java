@@ -2,17 +2,22 @@ package com.spms.backend.controller.process;
 
 import com.spms.backend.controller.BaseController;
 import com.spms.backend.controller.ProcessConverter;
+import com.spms.backend.controller.dto.process.BulkTaskCompletionRequest;
 import com.spms.backend.controller.dto.process.ProcessActivityDTO;
 import com.spms.backend.controller.dto.process.ProcessInstanceDTO;
 import com.spms.backend.controller.dto.process.ProcessInstanceRequest;
+import com.spms.backend.controller.dto.process.TaskCompletionResultDTO;
 import com.spms.backend.controller.dto.process.TaskDTO;
 import com.spms.backend.converter.ProcessInstanceConvertor;
 import org.springframework.data.domain.Page;
 import com.spms.backend.service.exception.NotFoundException;
 import com.spms.backend.service.exception.SpmsRuntimeException;
+import com.spms.backend.service.exception.ValidationException;
 import com.spms.backend.service.idm.UserService;
 import com.spms.backend.service.model.process.ProcessActivityModel;
 import com.spms.backend.service.model.process.ProcessInstanceModel;
+import com.spms.backend.service.model.process.TaskCompletionModel;
+import com.spms.backend.service.model.process.TaskCompletionResultModel;
 import com.spms.backend.service.model.process.TaskModel;
 import com.spms.backend.service.process.ProcessInstanceService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -235,6 +240,37 @@ public class ProcessInstanceControllerV1 extends BaseController {
         }
     }
 
+    /**
+     * Completes several tasks of the current user at once
+     * Each item is reported separately; a failed item does not undo the completed ones
+     * @param request Tasks to complete with their completion values
+     * @return One result per item, in request order
+     */
+    @PostMapping("/tasks/bulk-complete")
+    public ResponseEntity<List<TaskCompletionResultDTO>> completeTasks(
+            @RequestBody BulkTaskCompletionRequest request
+            ) {
+        try {
+            Long currentUserId = userService.getCurrentUserId();
+            List<TaskCompletionModel> completions = request.getItems() == null ? List.of() : request.getItems().stream()
+                    .map(item -> new TaskCompletionModel(item.getInstanceId(), item.getTaskId(), item.getValues()))
+                    .toList();
+            List<TaskCompletionResultModel> results = processInstanceService.completeTasks(completions, currentUserId);
+            return ResponseEntity.ok(results.stream().map(result -> {
+                TaskCompletionResultDTO dto = new TaskCompletionResultDTO();
+                dto.setInstanceId(result.instanceId());
+                dto.setTaskId(result.taskId());
+                dto.setStatus(result.status().name());
+                dto.setMessage(result.message());
+                return dto;
+            }).toList());
+        } catch (NotFoundException e) {
+            return ResponseEntity.notFound().build();
+        } catch (ValidationException | SpmsRuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     /**
      * Saves draft data to a process instance without completing the task
      * @param instanceId ID of the process instance
@@ -304,14 +340,14 @@ public class ProcessInstanceControllerV1 extends BaseController {
      * Retrieves process instances related to the current user
      * 
      * @param pageable Pagination information
-     * @return List of ProcessInstanceDTOs
+     * @return List of ProcessInstanceDTOs; the total count is returned in the X-Total-Count header
      */
     @GetMapping("/user")
     public ResponseEntity<List<ProcessInstanceDTO>> getUserRelatedProcessInstances(Pageable pageable) {
         try {
             UserModel currentUser = userService.getCurrentUser();
-            List<ProcessInstanceModel> models = processInstanceService.getUserRelatedInstances(pageable, currentUser);
-            List<ProcessInstanceDTO> dtos = models.stream()
+            Page<ProcessInstanceModel> models = processInstanceService.getUserRelatedInstances(pageable, currentUser);
+            List<ProcessInstanceDTO> dtos = models.getContent().stream()
                 .map(model -> {
                     ProcessInstanceDTO dto = new ProcessInstanceDTO();
                     dto.setInstanceId(model.getInstanceId());
@@ -335,7 +371,9 @@ public class ProcessInstanceControllerV1 extends BaseController {
                     return dto;
                 })
                 .toList();
-            return ResponseEntity.ok(dtos);
+            return ResponseEntity.ok()
+                    .header("X-Total-Count", String.valueOf(models.getTotalElements()))
+                    .body(dtos);
         } catch (SpmsRuntimeException e) {
             return ResponseEntity.badRequest().build();
         }
@@ -4,7 +4,9 @@ import com.spms.backend.controller.dto.process.ProcessInstanceDTO;
 import com.spms.backend.controller.dto.process.TaskDTO;
 import com.spms.backend.converter.ProcessInstanceConvertor;
 import com.spms.backend.service.exception.SpmsRuntimeException;
+import com.spms.backend.service.exception.ValidationException;
 import com.spms.backend.service.idm.UserService;
+import com.spms.backend.service.model.process.CursorPage;
 import com.spms.backend.service.model.process.ProcessInstanceModel;
 import com.spms.backend.service.model.process.TaskModel;
 import com.spms.backend.service.process.UserInstanceProcessService;
@@ -14,6 +16,7 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 @RestController
@@ -98,4 +101,51 @@ public class UserProcessInstanceController {
             return ResponseEntity.badRequest().build();
         }
     }
+
+    /**
+     * Retrieves assigned running tasks for the current user, paged by cursor
+     *
+     * @param cursor       nextCursor of the previous page; omitted for the first page
+     * @param size         page size, at most 100
+     * @param includeTotal whether to count all tasks, e.g. for the first page only
+     * @return Page of TaskDTO objects with the cursor of the next page
+     */
+    @GetMapping("/tasks/cursor")
+    public ResponseEntity<CursorPage<TaskDTO>> getAssignedTasksByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+        try {
+            Long currentUserId = userService.getCurrentUserId();
+            CursorPage<TaskModel> models = userInstanceProcessService.getAssignedRunningUserTasks(
+                    currentUserId, cursor, size, includeTotal);
+            return ResponseEntity.ok(models.map(processInstanceConvertor::convertToTaskDTO));
+        } catch (SpmsRuntimeException | ValidationException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Retrieves historical process instances related to the current user, paged by cursor
+     *
+     * @param cursor       nextCursor of the previous page; omitted for the first page
+     * @param size         page size, at most 100
+     * @param includeTotal whether to count all instances, e.g. for the first page only
+     * @return Page of ProcessInstanceDTO objects with the cursor of the next page
+     */
+    @GetMapping("/history/cursor")
+    public ResponseEntity<CursorPage<ProcessInstanceDTO>> getHistoricalInstancesByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+        try {
+            Long currentUserId = userService.getCurrentUserId();
+            CursorPage<ProcessInstanceModel> models = userInstanceProcessService.getUserRelatedHistoryInstances(
+                    currentUserId, cursor, size, includeTotal);
+            return ResponseEntity.ok(models.map(
+                    model -> processInstanceConvertor.convertToProcessInstanceDTO(model, false)));
+        } catch (SpmsRuntimeException | ValidationException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
 }
@@ -10,6 +10,8 @@ import com.spms.backend.jobs.BaseJob;
 import com.spms.backend.jobs.DataProcessingJob;
 import com.spms.backend.jobs.ReportGenerationJob;
 import com.spms.backend.jobs.CleanupJob;
+import com.spms.backend.jobs.UserTaskLoadRebuildJob;
+import com.spms.backend.jobs.UserWorkItemRebuildJob;
 
 @RestController
 @RequestMapping("/api/v1/jobs")
@@ -38,6 +40,8 @@ public class JobControllerV1 {
                 case "data" -> DataProcessingJob.class;
                 case "report" -> ReportGenerationJob.class;
                 case "cleanup" -> CleanupJob.class;
+                case "work-items" -> UserWorkItemRebuildJob.class;
+                case "task-load" -> UserTaskLoadRebuildJob.class;
                 default -> throw new IllegalArgumentException("Invalid job type: " + request.getJobType());
             };
 
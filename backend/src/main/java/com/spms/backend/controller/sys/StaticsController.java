@@ -3,6 +3,7 @@ package com.spms.backend.controller.sys;
 import com.spms.backend.controller.dto.sys.AvailableStatisticsDataPointDto;
 import com.spms.backend.controller.dto.sys.StatisticResponseDTO;
 import com.spms.backend.model.SystemStatisticsModel;  // Added import
+import com.spms.backend.repository.entities.sys.StatisticResolution;
 import com.spms.backend.service.sys.SystemStatisticsService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
@@ -55,12 +56,19 @@ public class StaticsController {
         return ResponseEntity.ok(response);
     }
     
+    /**
+     * Statistics within a date range. Without an explicit resolution the finest resolution
+     * that covers the range in a bounded number of points is used, so long ranges return
+     * hourly or daily buckets instead of every sample.
+     */
     @GetMapping
     public ResponseEntity<List<StatisticResponseDTO>> getStatisticsByDateRange(
         @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) Date start,
-        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) Date end) {
+        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) Date end,
+        @RequestParam(required = false) String name,
+        @RequestParam(required = false) StatisticResolution resolution) {
         
-        List<SystemStatisticsModel> models = statisticsService.getStatisticsByDateRange(start, end);
+        List<SystemStatisticsModel> models = statisticsService.getStatisticsByDateRange(name, start, end, resolution);
         List<StatisticResponseDTO> response = models.stream()
             .map(model -> {
                 StatisticResponseDTO dto = new StatisticResponseDTO();
@@ -68,6 +76,11 @@ public class StaticsController {
                 dto.setDescription(model.getDescription());
                 dto.setAsOfDate(model.getAsOfDate());
                 dto.setValue(model.getValue());
+                dto.setResolution(model.getResolution() != null ? model.getResolution().name() : null);
+                dto.setMin(model.getMin());
+                dto.setMax(model.getMax());
+                dto.setAvg(model.getAvg());
+                dto.setSampleCount(model.getSampleCount());
                 return dto;
             })
             .collect(Collectors.toList());
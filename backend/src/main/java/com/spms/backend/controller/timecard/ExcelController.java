@@ -6,8 +6,8 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.*;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.io.ByteArrayOutputStream;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 
@@ -48,45 +48,38 @@ public class ExcelController {
     
     /**
      * 导出项目数据
+     * 工作簿在写出的同时流式发送给客户端，不在内存中缓冲整个文件
      * 
      * @param status 项目状态筛选（可选）
      * @return Excel 文件
      */
     @GetMapping("/projects/export")
-    public ResponseEntity<byte[]> exportProjects(
+    public ResponseEntity<StreamingResponseBody> exportProjects(
             @RequestParam(required = false) String status) {
         
-        ByteArrayOutputStream outputStream = excelService.exportProjects(status);
-        
-        String filename = "projects_export_" + 
-                LocalDate.now().format(DateTimeFormatter.ofPattern("yyyyMMdd")) + ".xlsx";
-        
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.parseMediaType(
-                "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"));
-        headers.setContentDisposition(ContentDisposition.builder("attachment")
-                .filename(filename).build());
-        
-        return new ResponseEntity<>(outputStream.toByteArray(), headers, HttpStatus.OK);
+        StreamingResponseBody body = outputStream -> excelService.exportProjects(status, outputStream);
+        return new ResponseEntity<>(body, excelHeaders("projects_export_"), HttpStatus.OK);
     }
     
     /**
      * 导入节假日数据
-     * Excel 格式：date
+     * Excel 格式：date | country | name | type（后三列可选）
      * 
      * @param file Excel 文件
+     * @param upsert 是否幂等导入（已存在的节假日跳过，不报错）
      * @return 导入结果
      */
     @PostMapping("/holidays/import")
     public ResponseEntity<ImportResultDTO> importHolidays(
-            @RequestParam("file") MultipartFile file) {
+            @RequestParam("file") MultipartFile file,
+            @RequestParam(defaultValue = "false") boolean upsert) {
         
         // 验证文件
         if (file.isEmpty()) {
             return ResponseEntity.badRequest().build();
         }
         
-        ImportResultDTO result = excelService.importHolidays(file);
+        ImportResultDTO result = excelService.importHolidays(file, upsert);
         return ResponseEntity.ok(result);
     }
     
@@ -97,12 +90,18 @@ public class ExcelController {
      * @return Excel 文件
      */
     @GetMapping("/holidays/export")
-    public ResponseEntity<byte[]> exportHolidays(
+    public ResponseEntity<StreamingResponseBody> exportHolidays(
             @RequestParam(required = false) Integer year) {
         
-        ByteArrayOutputStream outputStream = excelService.exportHolidays(year);
-        
-        String filename = "holidays_export_" + 
+        StreamingResponseBody body = outputStream -> excelService.exportHolidays(year, outputStream);
+        return new ResponseEntity<>(body, excelHeaders("holidays_export_"), HttpStatus.OK);
+    }
+    
+    /**
+     * 构造 Excel 下载的响应头
+     */
+    private HttpHeaders excelHeaders(String filenamePrefix) {
+        String filename = filenamePrefix +
                 LocalDate.now().format(DateTimeFormatter.ofPattern("yyyyMMdd")) + ".xlsx";
         
         HttpHeaders headers = new HttpHeaders();
@@ -110,8 +109,6 @@ public class ExcelController {
                 "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"));
         headers.setContentDisposition(ContentDisposition.builder("attachment")
                 .filename(filename).build());
-        
-        return new ResponseEntity<>(outputStream.toByteArray(), headers, HttpStatus.OK);
+        return headers;
     }
 }
-
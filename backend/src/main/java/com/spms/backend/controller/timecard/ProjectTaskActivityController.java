@@ -2,6 +2,7 @@ package com.spms.backend.controller.timecard;
 
 import com.spms.backend.controller.dto.ApiResponse;
 import com.spms.backend.controller.dto.timecard.ProjectTaskDTO;
+import com.spms.backend.controller.dto.timecard.ProjectTaskPageDTO;
 import com.spms.backend.controller.dto.timecard.ProjectTaskCreateDTO;
 import com.spms.backend.controller.dto.timecard.ProjectTaskUpdateDTO;
 import com.spms.backend.service.timecard.ProjectTaskActivityService;
@@ -11,6 +12,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -31,18 +33,45 @@ public class ProjectTaskActivityController {
     
     /**
      * 获取项目-任务-活动列表（支持搜索和状态筛选）
+     * 传入 limit 时按 keyset 分页，下一页游标通过 X-Next-Cursor 响应头返回
+     * 响应带项目目录版本的 ETag，If-None-Match 命中时返回 304
      * 
-     * @param search 搜索关键字（可选，搜索项目代码、项目名称、任务编号）
+     * @param search 搜索关键字（可选，按词前缀搜索项目代码、项目名称、任务编号）
      * @param status 状态筛选（可选：ACTIVE/COMPLETED/ALL）
+     * @param after 上一页返回的游标（可选）
+     * @param limit 每页行数（可选，不传时返回全部）
+     * @param request 用于条件请求判断
      * @return 项目-任务-活动列表
      */
     @GetMapping
     public ResponseEntity<ApiResponse<List<ProjectTaskDTO>>> getProjectTasks(
             @RequestParam(required = false) String search,
-            @RequestParam(required = false) String status) {
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit,
+            WebRequest request) {
+        String etag = projectTaskActivityService.getCatalogETag();
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        
         try {
-            List<ProjectTaskDTO> projectTasks = projectTaskActivityService.getProjectTasks(search, status);
-            return ResponseEntity.ok(new ApiResponse<>("SUCCESS", "获取成功", projectTasks));
+            if (limit == null) {
+                List<ProjectTaskDTO> projectTasks = projectTaskActivityService.getProjectTasks(search, status);
+                return ResponseEntity.ok().eTag(etag).cacheControl(TimecardController.CATALOG_CACHE_CONTROL)
+                        .body(new ApiResponse<>("SUCCESS", "获取成功", projectTasks));
+            }
+            
+            ProjectTaskPageDTO page = projectTaskActivityService.getProjectTasks(search, status, after, limit);
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok().eTag(etag)
+                    .cacheControl(TimecardController.CATALOG_CACHE_CONTROL);
+            if (page.getNextCursor() != null) {
+                response.header(TimecardController.NEXT_CURSOR_HEADER, page.getNextCursor());
+            }
+            return response.body(new ApiResponse<>("SUCCESS", "获取成功", page.getItems()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(new ApiResponse<>("ERROR", e.getMessage(), null));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(new ApiResponse<>("ERROR", "获取项目-任务列表失败: " + e.getMessage(), null));
@@ -3,8 +3,10 @@ package com.spms.backend.controller.timecard;
 import com.spms.backend.controller.dto.timecard.*;
 import com.spms.backend.service.timecard.TimecardService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -16,6 +18,13 @@ import java.util.List;
 @RequestMapping("/api/v1/timecard")
 public class TimecardController {
     
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    
+    /**
+     * 项目目录响应可缓存，但每次使用前必须用 ETag 重新验证
+     */
+    static final CacheControl CATALOG_CACHE_CONTROL = CacheControl.noCache().cachePrivate();
+    
     private final TimecardService timecardService;
     
     @Autowired
@@ -26,29 +35,59 @@ public class TimecardController {
     /**
      * 获取活跃项目列表
      * 用于 Timecard 表单中的项目选择
+     * 传入 limit 时按 keyset 分页，下一页游标通过 X-Next-Cursor 响应头返回
+     * 响应带项目目录版本的 ETag，If-None-Match 命中时返回 304
      * 
      * @param search 搜索关键词（可选）
+     * @param after 上一页返回的游标（可选）
+     * @param limit 每页行数（可选，不传时返回全部）
+     * @param request 用于条件请求判断
      * @return 项目任务列表
      */
     @GetMapping("/projects/active")
     public ResponseEntity<List<ProjectTaskDTO>> getActiveProjects(
-            @RequestParam(required = false) String search) {
-        List<ProjectTaskDTO> projects = timecardService.getActiveProjects(search);
-        return ResponseEntity.ok(projects);
+            @RequestParam(required = false) String search,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit,
+            WebRequest request) {
+        String etag = timecardService.getCatalogETag();
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        
+        if (limit == null) {
+            List<ProjectTaskDTO> projects = timecardService.getActiveProjects(search);
+            return ResponseEntity.ok().eTag(etag).cacheControl(CATALOG_CACHE_CONTROL).body(projects);
+        }
+        
+        ProjectTaskPageDTO page = timecardService.getActiveProjects(search, after, limit);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().eTag(etag).cacheControl(CATALOG_CACHE_CONTROL);
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getItems());
     }
     
     /**
      * 验证项目代码
      * 用于验证用户输入的项目代码是否有效
+     * 响应带项目目录版本的 ETag，If-None-Match 命中时返回 304
      * 
      * @param projectCode 项目代码
+     * @param request 用于条件请求判断
      * @return 项目验证结果 DTO
      */
     @GetMapping("/projects/validate/{projectCode}")
     public ResponseEntity<ProjectValidationDTO> validateProjectCode(
-            @PathVariable String projectCode) {
+            @PathVariable String projectCode,
+            WebRequest request) {
+        String etag = timecardService.getCatalogETag();
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        
         ProjectValidationDTO validation = timecardService.validateProjectCode(projectCode);
-        return ResponseEntity.ok(validation);
+        return ResponseEntity.ok().eTag(etag).cacheControl(CATALOG_CACHE_CONTROL).body(validation);
     }
 }
 
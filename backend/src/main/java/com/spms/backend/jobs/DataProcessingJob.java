@@ -1,7 +1,9 @@
 package com.spms.backend.jobs;
 
-import com.spms.backend.jobs.data.DataPointCollector;
+import com.spms.backend.jobs.data.DataPointCollectorRunner;
+import com.spms.backend.model.SystemStatisticsModel;
 import com.spms.backend.service.sys.SystemStatisticsService;
+import org.quartz.DisallowConcurrentExecution;
 import org.quartz.JobExecutionContext;
 import org.quartz.JobExecutionException;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -11,6 +13,8 @@ import java.util.List;
 
 
 
+// Samples of one statistic are folded into shared rollup buckets, so runs must not overlap
+@DisallowConcurrentExecution
 public class DataProcessingJob extends BaseJob {
 
     //Saved to this service
@@ -18,7 +22,7 @@ public class DataProcessingJob extends BaseJob {
     SystemStatisticsService systemStatisticsService;
 
     @Autowired
-    List<DataPointCollector> collectors;
+    DataPointCollectorRunner collectorRunner;
 
     @Override
     protected void executeJob(JobExecutionContext context) throws JobExecutionException {
@@ -29,11 +33,10 @@ public class DataProcessingJob extends BaseJob {
         logger.info("Executing data processing job: {}/{}", jobGroup, jobName);
         
         try {
-            // Collect statistics from various services
-            collectors.forEach(x->{
-                systemStatisticsService.recordStatistic(x.name(),x.description(),new Date(),x.getValueCurrentValue());
-            });
-            logger.info("Successfully saved system statistics");
+            // Collect statistics from all collectors concurrently, then save them in one batch
+            List<SystemStatisticsModel> samples = collectorRunner.collect(new Date());
+            systemStatisticsService.recordStatistics(samples);
+            logger.info("Successfully saved {} system statistics", samples.size());
         } catch (Exception e) {
             logger.error("Error processing system statistics", e);
             throw new JobExecutionException("Failed to process system statistics", e);
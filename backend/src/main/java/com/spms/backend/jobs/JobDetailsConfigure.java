@@ -1,6 +1,8 @@
 package com.spms.backend.jobs;
 
+import com.spms.backend.config.StatisticsProperties;
 import org.quartz.*;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -20,9 +22,9 @@ public class JobDetailsConfigure {
                 .build();
     }
     @Bean
-    public Trigger dataProcessJobTrigger() {
+    public Trigger dataProcessJobTrigger(StatisticsProperties statisticsProperties) {
         SimpleScheduleBuilder schedule = SimpleScheduleBuilder.simpleSchedule()
-                .withIntervalInSeconds(30)
+                .withIntervalInMilliseconds(statisticsProperties.getSampleInterval().toMillis())
                 .repeatForever();
 
         return TriggerBuilder.newTrigger()
@@ -33,4 +35,66 @@ public class JobDetailsConfigure {
                 .build();
     }
 
+    @Bean
+    public JobDetail statisticsRetentionJobDetail() {
+        return JobBuilder.newJob(StatisticsRetentionJob.class)
+                .withIdentity(StatisticsRetentionJob.class.getSimpleName())
+                .storeDurably()
+                .build();
+    }
+
+    @Bean
+    public Trigger statisticsRetentionJobTrigger() {
+        SimpleScheduleBuilder schedule = SimpleScheduleBuilder.simpleSchedule()
+                .withIntervalInHours(1)
+                .repeatForever();
+
+        return TriggerBuilder.newTrigger()
+                .forJob(statisticsRetentionJobDetail())
+                .startAt(new Date())
+                .withIdentity(StatisticsRetentionJob.class.getSimpleName())
+                .withSchedule(schedule)
+                .build();
+    }
+
+    @Bean
+    public JobDetail userWorkItemRebuildJobDetail() {
+        return JobBuilder.newJob(UserWorkItemRebuildJob.class)
+                .withIdentity(UserWorkItemRebuildJob.class.getSimpleName())
+                .storeDurably()
+                .build();
+    }
+
+    // Runs once at startup; the job does nothing once the read model holds rows
+    @Bean
+    @ConditionalOnProperty(name = "spms.process.work-items.backfill-on-startup", havingValue = "true", matchIfMissing = true)
+    public Trigger userWorkItemRebuildJobTrigger() {
+        return TriggerBuilder.newTrigger()
+                .forJob(userWorkItemRebuildJobDetail())
+                .startAt(new Date())
+                .withIdentity(UserWorkItemRebuildJob.class.getSimpleName())
+                .withSchedule(SimpleScheduleBuilder.simpleSchedule())
+                .build();
+    }
+
+    @Bean
+    public JobDetail userTaskLoadRebuildJobDetail() {
+        return JobBuilder.newJob(UserTaskLoadRebuildJob.class)
+                .withIdentity(UserTaskLoadRebuildJob.class.getSimpleName())
+                .storeDurably()
+                .build();
+    }
+
+    // Runs once at startup; the job does nothing once open tasks are counted
+    @Bean
+    @ConditionalOnProperty(name = "spms.assignment.task-load.backfill-on-startup", havingValue = "true", matchIfMissing = true)
+    public Trigger userTaskLoadRebuildJobTrigger() {
+        return TriggerBuilder.newTrigger()
+                .forJob(userTaskLoadRebuildJobDetail())
+                .startAt(new Date())
+                .withIdentity(UserTaskLoadRebuildJob.class.getSimpleName())
+                .withSchedule(SimpleScheduleBuilder.simpleSchedule())
+                .build();
+    }
+
 }
@@ -0,0 +1,25 @@
+package com.spms.backend.jobs;
+
+import com.spms.backend.service.sys.SystemStatisticsService;
+import org.quartz.DisallowConcurrentExecution;
+import org.quartz.JobExecutionContext;
+import org.quartz.JobExecutionException;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.Date;
+
+/**
+ * Removes raw statistic samples and rollup buckets that are older than the retention
+ * of their resolution.
+ */
+@DisallowConcurrentExecution
+public class StatisticsRetentionJob extends BaseJob {
+
+    @Autowired
+    SystemStatisticsService systemStatisticsService;
+
+    @Override
+    protected void executeJob(JobExecutionContext context) throws JobExecutionException {
+        systemStatisticsService.applyRetention(new Date());
+    }
+}
@@ -0,0 +1,31 @@
+package com.spms.backend.jobs;
+
+import com.spms.backend.service.process.UserTaskLoadService;
+import org.quartz.DisallowConcurrentExecution;
+import org.quartz.JobExecutionContext;
+import org.quartz.JobExecutionException;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * Recounts the open tasks per user used by least-loaded assignment.
+ * <p>
+ * By default the job only runs while no task is counted, e.g. right after the counters were
+ * introduced; set the job parameter {@code force=true} to recount every user.
+ */
+@DisallowConcurrentExecution
+public class UserTaskLoadRebuildJob extends BaseJob {
+
+    @Autowired
+    UserTaskLoadService userTaskLoadService;
+
+    @Override
+    protected void executeJob(JobExecutionContext context) throws JobExecutionException {
+        boolean force = Boolean.parseBoolean(String.valueOf(context.getMergedJobDataMap().get("force")));
+        if (!force && userTaskLoadService.hasCountedTasks()) {
+            logger.info("Open tasks already counted, skipping the recount");
+            return;
+        }
+        long tasks = userTaskLoadService.rebuild();
+        logger.info("Counted {} assigned tasks", tasks);
+    }
+}
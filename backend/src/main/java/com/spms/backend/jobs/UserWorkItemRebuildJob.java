@@ -0,0 +1,31 @@
+package com.spms.backend.jobs;
+
+import com.spms.backend.service.process.UserWorkItemService;
+import org.quartz.DisallowConcurrentExecution;
+import org.quartz.JobExecutionContext;
+import org.quartz.JobExecutionException;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * Backfills the "my work" read model from engine history.
+ * <p>
+ * By default the job only runs while the read model is empty, e.g. right after it was introduced;
+ * set the job parameter {@code force=true} to recompute the rows of every process instance.
+ */
+@DisallowConcurrentExecution
+public class UserWorkItemRebuildJob extends BaseJob {
+
+    @Autowired
+    UserWorkItemService userWorkItemService;
+
+    @Override
+    protected void executeJob(JobExecutionContext context) throws JobExecutionException {
+        boolean force = Boolean.parseBoolean(String.valueOf(context.getMergedJobDataMap().get("force")));
+        if (!force && userWorkItemService.hasWorkItems()) {
+            logger.info("User work items already present, skipping the rebuild");
+            return;
+        }
+        long instances = userWorkItemService.rebuild();
+        logger.info("Projected {} process instances into user work items", instances);
+    }
+}
@@ -0,0 +1,210 @@
+package com.spms.backend.jobs.data;
+
+import com.spms.backend.config.StatisticsProperties;
+import com.spms.backend.model.SystemStatisticsModel;
+import com.spms.backend.service.sys.SystemStatisticsService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Samples every {@link DataPointCollector} concurrently on a bounded pool.
+ * <p>
+ * Each collector gets {@code spms.statistics.collector-timeout}, counted from the start of the
+ * run. A collector that fails or times out is recorded with its last known value, so one slow
+ * count does not hold back or blank out the others. A collector whose previous call is still
+ * running is not called again until it returns. How long every collector took is recorded as
+ * its own statistic, see {@link #durationName(DataPointCollector)}.
+ */
+@Slf4j
+@Component
+public class DataPointCollectorRunner implements DisposableBean {
+
+    static final String DURATION_PREFIX = "statistics:collector.duration.";
+    static final String DURATION_DESCRIPTION = "statistics:collector.duration.description";
+
+    private final List<DataPointCollector> collectors;
+    private final SystemStatisticsService statisticsService;
+    private final StatisticsProperties properties;
+    private final ExecutorService executor;
+    private final Map<String, Long> lastKnown = new ConcurrentHashMap<>();
+    private final Set<String> busy = ConcurrentHashMap.newKeySet();
+
+    public DataPointCollectorRunner(List<DataPointCollector> collectors,
+                                    SystemStatisticsService statisticsService,
+                                    StatisticsProperties properties) {
+        this.collectors = collectors;
+        this.statisticsService = statisticsService;
+        this.properties = properties;
+        this.executor = Executors.newFixedThreadPool(Math.max(1, properties.getCollectorThreads()),
+                daemonThreads("statistics-collector-"));
+    }
+
+    /**
+     * Samples all collectors.
+     *
+     * @param asOfDate time recorded on every sample
+     * @return one value sample per collector that has a current or last known value, followed by
+     * one duration sample (milliseconds) per collector
+     */
+    public List<SystemStatisticsModel> collect(Date asOfDate) {
+        long start = System.nanoTime();
+        long deadline = start + properties.getCollectorTimeout().toNanos();
+
+        Map<DataPointCollector, Run> runs = new LinkedHashMap<>();
+        for (DataPointCollector collector : collectors) {
+            if (busy.contains(collector.name())) {
+                log.warn("Collector {} is still running from an earlier run, using its last known value",
+                        collector.name());
+                continue;
+            }
+            runs.put(collector, submit(collector));
+        }
+
+        List<SystemStatisticsModel> values = new ArrayList<>();
+        List<SystemStatisticsModel> timings = new ArrayList<>();
+        for (DataPointCollector collector : collectors) {
+            Run run = runs.get(collector);
+            Long value = run != null ? await(collector, run, deadline) : null;
+            if (value != null) {
+                lastKnown.put(collector.name(), value);
+            } else {
+                value = fallback(collector);
+            }
+            if (value != null) {
+                values.add(sample(collector.name(), collector.description(), asOfDate, value));
+            }
+
+            long duration = run != null ? run.duration().get() : -1;
+            if (duration < 0) {
+                // Timed out or skipped: it took at least as long as this run waited
+                duration = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            }
+            timings.add(sample(durationName(collector), DURATION_DESCRIPTION, asOfDate, duration));
+        }
+        values.addAll(timings);
+        return values;
+    }
+
+    /**
+     * Name of the statistic holding a collector's duration, e.g.
+     * {@code statistics:collector.duration.user.count} for {@code statistics:user.count.name}.
+     */
+    static String durationName(DataPointCollector collector) {
+        String key = collector.name();
+        if (key.startsWith("statistics:")) {
+            key = key.substring("statistics:".length());
+        }
+        if (key.endsWith(".name")) {
+            key = key.substring(0, key.length() - ".name".length());
+        }
+        return DURATION_PREFIX + key;
+    }
+
+    /**
+     * One call of a collector; duration stays -1 until the call returns.
+     */
+    private record Run(Future<Long> future, AtomicBoolean started, AtomicLong duration) {
+    }
+
+    /**
+     * Runs a collector on the pool. The collector stays busy until its call returns, which may be
+     * long after it was cancelled if it ignores interrupts (e.g. a blocked JDBC read).
+     */
+    private Run submit(DataPointCollector collector) {
+        AtomicBoolean started = new AtomicBoolean();
+        AtomicLong duration = new AtomicLong(-1);
+        busy.add(collector.name());
+        Future<Long> future = executor.submit(() -> {
+            started.set(true);
+            long begin = System.nanoTime();
+            try {
+                return collector.getValueCurrentValue();
+            } finally {
+                duration.set(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - begin));
+                busy.remove(collector.name());
+            }
+        });
+        return new Run(future, started, duration);
+    }
+
+    private Long await(DataPointCollector collector, Run run, long deadline) {
+        try {
+            return run.future().get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            cancel(collector, run);
+            log.warn("Collector {} did not finish within {}, using its last known value",
+                    collector.name(), properties.getCollectorTimeout());
+        } catch (ExecutionException e) {
+            log.warn("Collector {} failed, using its last known value", collector.name(), e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            cancel(collector, run);
+        }
+        return null;
+    }
+
+    private void cancel(DataPointCollector collector, Run run) {
+        run.future().cancel(true);
+        if (!run.started().get()) {
+            // Cancelled while still queued, so the task's own cleanup never runs
+            busy.remove(collector.name());
+        }
+    }
+
+    /**
+     * Last value this runner saw, or the latest stored sample after a restart.
+     */
+    private Long fallback(DataPointCollector collector) {
+        Long value = lastKnown.get(collector.name());
+        if (value == null) {
+            SystemStatisticsModel latest = statisticsService.getLatestStatisticByName(collector.name());
+            if (latest != null && latest.getValue() != null) {
+                value = latest.getValue();
+                lastKnown.put(collector.name(), value);
+            }
+        }
+        return value;
+    }
+
+    private static SystemStatisticsModel sample(String name, String description, Date asOfDate, Long value) {
+        SystemStatisticsModel model = new SystemStatisticsModel();
+        model.setName(name);
+        model.setDescription(description);
+        model.setAsOfDate(asOfDate);
+        model.setValue(value);
+        return model;
+    }
+
+    private static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+}
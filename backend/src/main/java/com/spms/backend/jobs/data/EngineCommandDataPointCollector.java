@@ -0,0 +1,31 @@
+package com.spms.backend.jobs.data;
+
+import com.spms.backend.service.process.engine.ProcessMetricsPublisher;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Flowable engine commands executed by all nodes since the previous sample, as published by
+ * {@link ProcessMetricsPublisher}.
+ */
+@Component
+public class EngineCommandDataPointCollector implements DataPointCollector {
+
+    @Autowired
+    private ProcessMetricsPublisher processMetricsPublisher;
+
+    @Override
+    public String name() {
+        return "statistics:process.engine.commands.name";
+    }
+
+    @Override
+    public String description() {
+        return "statistics:process.engine.commands.description";
+    }
+
+    @Override
+    public Long getValueCurrentValue() {
+        return processMetricsPublisher.takeCommands();
+    }
+}
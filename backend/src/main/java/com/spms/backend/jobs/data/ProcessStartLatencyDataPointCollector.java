@@ -0,0 +1,31 @@
+package com.spms.backend.jobs.data;
+
+import com.spms.backend.service.process.engine.ProcessMetricsPublisher;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * 95th percentile duration of {@code startInstance} in milliseconds over the last few minutes, 0 when idle.
+ * The highest of all nodes, as published by {@link ProcessMetricsPublisher}.
+ */
+@Component
+public class ProcessStartLatencyDataPointCollector implements DataPointCollector {
+
+    @Autowired
+    private ProcessMetricsPublisher processMetricsPublisher;
+
+    @Override
+    public String name() {
+        return "statistics:process.start.p95.name";
+    }
+
+    @Override
+    public String description() {
+        return "statistics:process.start.p95.description";
+    }
+
+    @Override
+    public Long getValueCurrentValue() {
+        return processMetricsPublisher.highestMillis(ProcessMetricsPublisher.START_P95);
+    }
+}
@@ -1,5 +1,6 @@
 package com.spms.backend.model;
 
+import com.spms.backend.repository.entities.sys.StatisticResolution;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -13,6 +14,12 @@ public class SystemStatisticsModel {
     private String description;
     private Date asOfDate;
     private Long value;
-}
-
 
+    // Rollup buckets: asOfDate is the bucket start and value the last sample in the bucket;
+    // raw samples have min = max = avg = value and a sample count of 1
+    private StatisticResolution resolution;
+    private Long min;
+    private Long max;
+    private Double avg;
+    private Long sampleCount;
+}
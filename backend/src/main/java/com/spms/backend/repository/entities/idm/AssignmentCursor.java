@@ -0,0 +1,38 @@
+package com.spms.backend.repository.entities.idm;
+
+import com.spms.backend.repository.entities.BaseEntity;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Round-robin position of one candidate pool, shared by all nodes.
+ * <p>
+ * The row is locked while a node takes the next position, so every pick in the cluster moves the
+ * same counter.
+ */
+@Entity
+@Table(name = "spms_assignment_cursor",
+        uniqueConstraints = @UniqueConstraint(name = "spms_uq_assignment_cursor_scope", columnNames = {"scope"}))
+@Getter
+@Setter
+public class AssignmentCursor extends BaseEntity {
+
+    /**
+     * The candidate pool, e.g. {@code department:12}.
+     */
+    @Column(nullable = false, length = 128)
+    private String scope;
+
+    /**
+     * Number of picks made from the pool so far; the next pick takes this position modulo the pool size.
+     */
+    @Column(nullable = false)
+    private long position;
+
+    /**
+     * Timestamp of the last pick (milliseconds since epoch).
+     */
+    @Column
+    private Long updatedAt;
+}
@@ -0,0 +1,30 @@
+package com.spms.backend.repository.entities.idm;
+
+import com.spms.backend.repository.entities.BaseEntity;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * One ancestor/descendant pair of the department tree, including each department as its own
+ * ancestor at depth 0. Only department-to-department links are kept; companies and divisions
+ * that level-1 departments hang off are not part of the tree.
+ */
+@Entity
+@Table(name = "spms_department_closure",
+        uniqueConstraints = @UniqueConstraint(name = "spms_uq_department_closure",
+                columnNames = {"ancestor_id", "descendant_id"}),
+        indexes = @Index(name = "spms_idx_department_closure_descendant", columnList = "descendant_id"))
+@Getter
+@Setter
+public class DepartmentClosure extends BaseEntity {
+
+    @Column(name = "ancestor_id", nullable = false)
+    private Long ancestorId;
+
+    @Column(name = "descendant_id", nullable = false)
+    private Long descendantId;
+
+    @Column(nullable = false)
+    private Integer depth;
+}
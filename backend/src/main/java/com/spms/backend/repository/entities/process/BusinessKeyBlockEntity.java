@@ -0,0 +1,47 @@
+package com.spms.backend.repository.entities.process;
+
+import com.spms.backend.repository.entities.BaseEntity;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * High-water mark of the business key sequence for one prefix.
+ * <p>
+ * Nodes reserve ranges of sequence values by locking this row and moving
+ * {@code nextSeq} forward by a whole block, then hand the values out from memory.
+ */
+@Setter
+@Getter
+@Entity
+@Table(name = "spms_business_key_block",
+        uniqueConstraints = {
+                @UniqueConstraint(name = "spms_uq_key_block_prefix", columnNames = {"prefix"})
+        })
+public class BusinessKeyBlockEntity extends BaseEntity {
+
+    /**
+     * The business key prefix this block counter belongs to.
+     */
+    @Column(nullable = false)
+    private String prefix;
+
+    /**
+     * First sequence value that has not been reserved by any node yet.
+     */
+    @Column(nullable = false)
+    private long nextSeq;
+
+    /**
+     * Total number of reserved values that were never used because a node shut down
+     * before consuming its block.
+     */
+    @Column(nullable = false)
+    private long wastedSeq;
+
+    /**
+     * Timestamp of the last reservation (milliseconds since epoch).
+     */
+    @Column
+    private Long updatedAt;
+}
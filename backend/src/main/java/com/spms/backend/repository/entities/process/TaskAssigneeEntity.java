@@ -0,0 +1,28 @@
+package com.spms.backend.repository.entities.process;
+
+import com.spms.backend.repository.entities.BaseEntity;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * The assignee an open task is counted against in {@link UserTaskLoadEntity}.
+ * <p>
+ * Engine events only carry the new assignee; this row tells which user to take the task away from
+ * when it is reassigned, completed or deleted.
+ */
+@Setter
+@Getter
+@Entity
+@Table(name = "spms_task_assignee",
+        uniqueConstraints = {
+                @UniqueConstraint(name = "spms_uq_task_assignee_task", columnNames = {"task_id"})
+        })
+public class TaskAssigneeEntity extends BaseEntity {
+
+    @Column(name = "task_id", nullable = false, length = 64)
+    private String taskId;
+
+    @Column(nullable = false)
+    private String username;
+}
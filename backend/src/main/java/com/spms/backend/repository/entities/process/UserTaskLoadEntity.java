@@ -0,0 +1,32 @@
+package com.spms.backend.repository.entities.process;
+
+import com.spms.backend.repository.entities.BaseEntity;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Number of open tasks assigned to one user, moved by engine events as tasks are assigned,
+ * reassigned, completed and deleted.
+ */
+@Setter
+@Getter
+@Entity
+@Table(name = "spms_user_task_load",
+        uniqueConstraints = {
+                @UniqueConstraint(name = "spms_uq_user_task_load_username", columnNames = {"username"})
+        })
+public class UserTaskLoadEntity extends BaseEntity {
+
+    @Column(nullable = false)
+    private String username;
+
+    @Column(nullable = false)
+    private long openTasks;
+
+    /**
+     * Timestamp of the last change (milliseconds since epoch).
+     */
+    @Column
+    private Long updatedAt;
+}
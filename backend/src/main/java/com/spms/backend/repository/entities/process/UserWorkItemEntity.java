@@ -0,0 +1,71 @@
+package com.spms.backend.repository.entities.process;
+
+import com.spms.backend.repository.entities.BaseEntity;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.Date;
+
+/**
+ * One process instance in the "my work" view of one user.
+ * <p>
+ * A row exists for every user with an identity link on the instance (initiator, assignees,
+ * candidates, participants), the same set {@code involvedUser} selects. Rows are written by the engine
+ * event listener in the transaction of the engine command, so instance pages read this table alone.
+ */
+@Setter
+@Getter
+@Entity
+@Table(name = "spms_user_work_item",
+        uniqueConstraints = {
+                @UniqueConstraint(name = "spms_uq_user_work_item", columnNames = {"username", "process_instance_id"})
+        },
+        indexes = {
+                @Index(name = "spms_idx_user_work_item_status", columnList = "username, status, start_time"),
+                @Index(name = "spms_idx_user_work_item_start", columnList = "username, start_time"),
+                @Index(name = "spms_idx_user_work_item_instance", columnList = "process_instance_id")
+        })
+public class UserWorkItemEntity extends BaseEntity {
+
+    /**
+     * Username of the involved user, as stored in the engine's identity links.
+     */
+    @Column(nullable = false)
+    private String username;
+
+    @Column(name = "process_instance_id", nullable = false, length = 64)
+    private String processInstanceId;
+
+    @Column(length = 64)
+    private String processDefinitionId;
+
+    private String definitionKey;
+
+    private String definitionName;
+
+    @Column(length = 64)
+    private String deploymentId;
+
+    private String businessKey;
+
+    /**
+     * Whether the user started the process instance.
+     */
+    @Column(nullable = false)
+    private boolean initiator;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private UserWorkItemStatus status;
+
+    @Column(name = "start_time")
+    private Date startTime;
+
+    private Date endTime;
+
+    /**
+     * Time of the last engine event applied to this row.
+     */
+    private Date lastUpdated;
+}
@@ -0,0 +1,21 @@
+package com.spms.backend.repository.entities.process;
+
+/**
+ * State of the process instance a {@link UserWorkItemEntity} belongs to.
+ */
+public enum UserWorkItemStatus {
+    /**
+     * The process instance is still running.
+     */
+    RUNNING,
+
+    /**
+     * The process instance reached an end event.
+     */
+    COMPLETED,
+
+    /**
+     * The process instance was deleted or cancelled before it completed.
+     */
+    CANCELLED
+}
@@ -0,0 +1,59 @@
+package com.spms.backend.repository.entities.process;
+
+import com.spms.backend.repository.entities.BaseEntity;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.Date;
+
+/**
+ * One open task in the "my work" view of its assignee.
+ * <p>
+ * Rows are keyed by task, so parallel tasks of one user in one instance each have their own row. A
+ * task without assignee has no row; completion or deletion removes it. Rows are written by the engine
+ * event listener in the transaction of the engine command, so the task inbox reads this table alone.
+ */
+@Setter
+@Getter
+@Entity
+@Table(name = "spms_user_work_task",
+        uniqueConstraints = {
+                @UniqueConstraint(name = "spms_uq_user_work_task", columnNames = {"task_id"})
+        },
+        indexes = {
+                @Index(name = "spms_idx_user_work_task_user", columnList = "username, suspended, create_time"),
+                @Index(name = "spms_idx_user_work_task_instance", columnList = "process_instance_id")
+        })
+public class UserWorkTaskEntity extends BaseEntity {
+
+    @Column(name = "task_id", nullable = false, length = 64)
+    private String taskId;
+
+    /**
+     * Username of the assignee, as stored in the engine.
+     */
+    @Column(nullable = false)
+    private String username;
+
+    @Column(name = "process_instance_id", nullable = false, length = 64)
+    private String processInstanceId;
+
+    private String taskName;
+
+    private String taskState;
+
+    /**
+     * Whether the task is suspended together with its process instance or definition.
+     */
+    @Column(nullable = false)
+    private boolean suspended;
+
+    @Column(name = "create_time")
+    private Date createTime;
+
+    /**
+     * Time of the last engine event applied to this row.
+     */
+    private Date lastUpdated;
+}
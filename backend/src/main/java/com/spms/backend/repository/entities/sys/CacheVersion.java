@@ -0,0 +1,38 @@
+package com.spms.backend.repository.entities.sys;
+
+import com.spms.backend.repository.entities.BaseEntity;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Version of one node-local cache, shared by all nodes.
+ * <p>
+ * Writers increment the version in the transaction that changes the cached data; a node whose last
+ * seen version differs reloads its copy.
+ */
+@Entity
+@Table(name = "spms_cache_version",
+        uniqueConstraints = @UniqueConstraint(name = "spms_uq_cache_version_name", columnNames = {"name"}))
+@Getter
+@Setter
+public class CacheVersion extends BaseEntity {
+
+    /**
+     * The cache, e.g. {@code project-catalog}.
+     */
+    @Column(nullable = false, length = 64)
+    private String name;
+
+    /**
+     * Number of committed changes to the cached data so far.
+     */
+    @Column(nullable = false)
+    private long version;
+
+    /**
+     * Timestamp of the last change (milliseconds since epoch).
+     */
+    @Column
+    private Long updatedAt;
+}
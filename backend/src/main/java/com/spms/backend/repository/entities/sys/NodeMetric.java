@@ -0,0 +1,41 @@
+package com.spms.backend.repository.entities.sys;
+
+import com.spms.backend.repository.entities.BaseEntity;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * One metric of one node, shared so statistics collectors on any node can combine all nodes.
+ * <p>
+ * Counters hold what the node counted since a collector last took them; gauges hold the node's
+ * latest value.
+ */
+@Entity
+@Table(name = "spms_node_metric",
+        uniqueConstraints = @UniqueConstraint(name = "spms_uq_node_metric", columnNames = {"node", "name"}))
+@Getter
+@Setter
+public class NodeMetric extends BaseEntity {
+
+    /**
+     * The node, see {@code spms.node-id}.
+     */
+    @Column(nullable = false, length = 128)
+    private String node;
+
+    /**
+     * The metric, e.g. {@code engine.commands}.
+     */
+    @Column(nullable = false, length = 64)
+    private String name;
+
+    @Column(nullable = false)
+    private long value;
+
+    /**
+     * Timestamp of the node's last publish (milliseconds since epoch).
+     */
+    @Column
+    private Long updatedAt;
+}
@@ -0,0 +1,50 @@
+package com.spms.backend.repository.entities.sys;
+
+import com.spms.backend.repository.entities.BaseEntity;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.Date;
+
+/**
+ * Notification that could not be delivered on one channel, kept for inspection and replay.
+ */
+@Setter
+@Getter
+@Entity
+@Table(name = "spms_notification_dead_letter",
+        indexes = {
+                @Index(name = "spms_idx_notification_dead_letter_failed", columnList = "failed_at")
+        })
+public class NotificationDeadLetter extends BaseEntity {
+
+    @Column(nullable = false, length = 32)
+    private String channel;
+
+    @Column(name = "event_type", nullable = false)
+    private String eventType;
+
+    private String recipient;
+
+    @Column(length = 32)
+    private String locale;
+
+    /**
+     * Notification data as JSON.
+     */
+    @Column(columnDefinition = "TEXT")
+    private String payload;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    /**
+     * Why the last attempt failed, e.g. {@code QUEUE_FULL} or the exception message.
+     */
+    @Column(name = "last_error", length = 2000)
+    private String lastError;
+
+    @Column(name = "failed_at", nullable = false)
+    private Date failedAt;
+}
@@ -0,0 +1,52 @@
+package com.spms.backend.repository.entities.sys;
+
+import java.time.Duration;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+
+/**
+ * Resolutions of stored statistics, finest first.
+ * <p>
+ * {@link #RAW} samples live in {@code spms_system_statistics}; the other resolutions are
+ * rollup buckets in {@code spms_system_statistic_rollup}, aligned to the wall clock of the
+ * given zone.
+ */
+public enum StatisticResolution {
+    RAW(null),
+    FIVE_MINUTES(Duration.ofMinutes(5)),
+    HOURLY(Duration.ofHours(1)),
+    DAILY(Duration.ofDays(1));
+
+    private final Duration bucket;
+
+    StatisticResolution(Duration bucket) {
+        this.bucket = bucket;
+    }
+
+    /**
+     * Length of one bucket, {@code null} for raw samples.
+     */
+    public Duration getBucket() {
+        return bucket;
+    }
+
+    /**
+     * Start of the bucket containing a sample.
+     *
+     * @param asOfDate time of the sample
+     * @param zone     zone whose wall clock the buckets follow
+     * @return bucket start; the sample time itself for {@link #RAW}
+     */
+    public Date bucketStart(Date asOfDate, ZoneId zone) {
+        ZonedDateTime time = asOfDate.toInstant().atZone(zone);
+        ZonedDateTime start = switch (this) {
+            case RAW -> time;
+            case FIVE_MINUTES -> time.truncatedTo(ChronoUnit.MINUTES).withMinute(time.getMinute() / 5 * 5);
+            case HOURLY -> time.truncatedTo(ChronoUnit.HOURS);
+            case DAILY -> time.truncatedTo(ChronoUnit.DAYS);
+        };
+        return Date.from(start.toInstant());
+    }
+}
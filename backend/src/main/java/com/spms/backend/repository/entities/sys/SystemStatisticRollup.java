@@ -0,0 +1,89 @@
+package com.spms.backend.repository.entities.sys;
+
+import com.spms.backend.repository.entities.BaseEntity;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.Date;
+
+/**
+ * Aggregate of the samples of one statistic within one time bucket.
+ * <p>
+ * Every recorded sample is folded into its 5-minute, hourly and daily bucket, so range
+ * queries over long periods read one row per bucket instead of every sample.
+ */
+@Setter
+@Getter
+@Entity
+@Table(name = "spms_system_statistic_rollup",
+        uniqueConstraints = {
+                @UniqueConstraint(name = "spms_uq_statistic_rollup", columnNames = {"name", "resolution", "bucket_start"})
+        },
+        indexes = {
+                @Index(name = "spms_idx_statistic_rollup_range", columnList = "resolution, bucket_start")
+        })
+public class SystemStatisticRollup extends BaseEntity {
+
+    @Column(nullable = false)
+    private String name;
+
+    private String description;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 32)
+    private StatisticResolution resolution;
+
+    /**
+     * Start of the bucket; the bucket ends where the next one of the same resolution starts.
+     */
+    @Column(name = "bucket_start", nullable = false)
+    private Date bucketStart;
+
+    @Column(nullable = false)
+    private long sampleCount;
+
+    @Column(nullable = false)
+    private long minValue;
+
+    @Column(nullable = false)
+    private long maxValue;
+
+    @Column(nullable = false)
+    private long sumValue;
+
+    /**
+     * Value of the latest sample in the bucket.
+     */
+    @Column(nullable = false)
+    private long lastValue;
+
+    @Column(nullable = false)
+    private Date lastAsOfDate;
+
+    /**
+     * Folds a sample into this bucket.
+     *
+     * @param asOfDate time of the sample
+     * @param value    sample value
+     */
+    public void add(Date asOfDate, long value) {
+        if (sampleCount == 0) {
+            minValue = value;
+            maxValue = value;
+        } else {
+            minValue = Math.min(minValue, value);
+            maxValue = Math.max(maxValue, value);
+        }
+        sampleCount++;
+        sumValue += value;
+        if (lastAsOfDate == null || !asOfDate.before(lastAsOfDate)) {
+            lastValue = value;
+            lastAsOfDate = asOfDate;
+        }
+    }
+
+    public double getAverage() {
+        return sampleCount == 0 ? 0 : (double) sumValue / sampleCount;
+    }
+}
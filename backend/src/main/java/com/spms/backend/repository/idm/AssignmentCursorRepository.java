@@ -0,0 +1,24 @@
+package com.spms.backend.repository.idm;
+
+import com.spms.backend.repository.BaseRepository;
+import com.spms.backend.repository.entities.idm.AssignmentCursor;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface AssignmentCursorRepository extends BaseRepository<AssignmentCursor, Long> {
+
+    /**
+     * Get the round-robin cursor of a candidate pool and lock the row until the transaction ends
+     * @param scope The candidate pool
+     * @return The locked cursor, or empty if nothing was picked from the pool yet
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM AssignmentCursor c WHERE c.scope = :scope")
+    Optional<AssignmentCursor> findByScopeForUpdate(@Param("scope") String scope);
+}
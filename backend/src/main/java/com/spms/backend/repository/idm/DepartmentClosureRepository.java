@@ -0,0 +1,97 @@
+package com.spms.backend.repository.idm;
+
+import com.spms.backend.repository.entities.idm.Department;
+import com.spms.backend.repository.entities.idm.DepartmentClosure;
+import com.spms.backend.repository.entities.idm.DepartmentType;
+import com.spms.backend.repository.BaseRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface DepartmentClosureRepository extends BaseRepository<DepartmentClosure, Long> {
+
+    /**
+     * Adds a department to the tree as its own ancestor at depth 0.
+     */
+    @Modifying
+    @Query("INSERT INTO DepartmentClosure (ancestorId, descendantId, depth) " +
+            "SELECT d.id, d.id, 0 FROM Department d WHERE d.id = :departmentId")
+    int insertSelf(@Param("departmentId") Long departmentId);
+
+    /**
+     * Links every department of the subtree under {@code departmentId} to {@code parentId} and its ancestors.
+     */
+    @Modifying
+    @Query("INSERT INTO DepartmentClosure (ancestorId, descendantId, depth) " +
+            "SELECT a.ancestorId, s.descendantId, a.depth + s.depth + 1 " +
+            "FROM DepartmentClosure a, DepartmentClosure s " +
+            "WHERE a.descendantId = :parentId AND s.ancestorId = :departmentId")
+    int attachSubtree(@Param("departmentId") Long departmentId, @Param("parentId") Long parentId);
+
+    /**
+     * Removes the links between the subtree under {@code departmentId} and the ancestors of that department;
+     * links inside the subtree stay.
+     */
+    @Modifying
+    @Query("DELETE FROM DepartmentClosure c " +
+            "WHERE c.descendantId IN (SELECT s.descendantId FROM DepartmentClosure s WHERE s.ancestorId = :departmentId) " +
+            "AND c.ancestorId NOT IN (SELECT s.descendantId FROM DepartmentClosure s WHERE s.ancestorId = :departmentId)")
+    int detachSubtree(@Param("departmentId") Long departmentId);
+
+    @Modifying
+    @Query("DELETE FROM DepartmentClosure c WHERE c.descendantId = :departmentId")
+    int deleteByDescendantId(@Param("departmentId") Long departmentId);
+
+    boolean existsByAncestorIdAndDescendantId(Long ancestorId, Long descendantId);
+
+    boolean existsByAncestorIdAndDepthGreaterThan(Long ancestorId, Integer depth);
+
+    /**
+     * Departments of one type below the given departments, at most {@code maxDepth} levels down,
+     * ordered by depth so parents come before their children.
+     */
+    @Query("SELECT d FROM DepartmentClosure c JOIN Department d ON d.id = c.descendantId " +
+            "LEFT JOIN FETCH d.departmentHead " +
+            "WHERE c.ancestorId IN :ancestorIds AND c.depth BETWEEN 1 AND :maxDepth AND d.type = :type " +
+            "ORDER BY c.depth, d.id")
+    List<Department> findDescendants(@Param("ancestorIds") Collection<Long> ancestorIds,
+                                     @Param("type") DepartmentType type,
+                                     @Param("maxDepth") int maxDepth);
+
+    /**
+     * Usernames of the members of a department and of its departments of the same type down to
+     * {@code maxDepth} levels, ordered by depth.
+     */
+    @Query("SELECT u.username FROM DepartmentClosure c JOIN Department d ON d.id = c.descendantId JOIN d.users u " +
+            "WHERE c.ancestorId = :ancestorId AND c.depth <= :maxDepth AND d.type = :type " +
+            "ORDER BY c.depth, d.id, u.id")
+    List<String> findMemberUsernames(@Param("ancestorId") Long ancestorId,
+                                     @Param("type") DepartmentType type,
+                                     @Param("maxDepth") int maxDepth);
+
+    /**
+     * Projection of a department above another one with the username of its head.
+     */
+    interface AncestorHeadView {
+        Long getDepartmentId();
+
+        Integer getDepth();
+
+        String getHeadUsername();
+    }
+
+    /**
+     * A department and its ancestors up to {@code maxDepth} levels up, ordered by depth, with the
+     * usernames of their heads (null where a department has no head).
+     */
+    @Query("SELECT c.ancestorId AS departmentId, c.depth AS depth, h.username AS headUsername " +
+            "FROM DepartmentClosure c JOIN Department d ON d.id = c.ancestorId LEFT JOIN d.departmentHead h " +
+            "WHERE c.descendantId = :departmentId AND c.depth <= :maxDepth ORDER BY c.depth")
+    List<AncestorHeadView> findAncestorHeads(@Param("departmentId") Long departmentId,
+                                             @Param("maxDepth") int maxDepth);
+}
@@ -6,6 +6,7 @@ import com.spms.backend.repository.entities.idm.User;
 import com.spms.backend.repository.BaseRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -34,4 +35,10 @@ public interface DepartmentRepository extends BaseRepository<Department, Long>,
      * @return 部门列表
      */
     List<Department> findByUsersContainingAndTypeAndActiveTrue(User user, DepartmentType type);
+
+    /**
+     * Ids of the departments of one type a user belongs to, lowest first
+     */
+    @Query("SELECT d.id FROM Department d JOIN d.users u WHERE u.username = :username AND d.type = :type ORDER BY d.id")
+    List<Long> findIdsByMemberAndType(@Param("username") String username, @Param("type") DepartmentType type);
 }
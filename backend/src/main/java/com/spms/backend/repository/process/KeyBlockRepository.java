@@ -0,0 +1,32 @@
+package com.spms.backend.repository.process;
+
+import com.spms.backend.repository.entities.process.BusinessKeyBlockEntity;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+
+public interface KeyBlockRepository extends JpaRepository<BusinessKeyBlockEntity, Long> {
+
+    /**
+     * Get the block counter of a prefix and lock the row until the transaction ends
+     * @param prefix The prefix to search for
+     * @return The locked block counter, or empty if the prefix was never used
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM BusinessKeyBlockEntity b WHERE b.prefix = :prefix")
+    Optional<BusinessKeyBlockEntity> findByPrefixForUpdate(@Param("prefix") String prefix);
+
+    /**
+     * Add unused sequence values to the wasted counter of a prefix
+     * @param prefix The prefix the values belong to
+     * @param count The number of values that will never be handed out
+     */
+    @Modifying
+    @Query("UPDATE BusinessKeyBlockEntity b SET b.wastedSeq = b.wastedSeq + :count WHERE b.prefix = :prefix")
+    void addWasted(@Param("prefix") String prefix, @Param("count") long count);
+}
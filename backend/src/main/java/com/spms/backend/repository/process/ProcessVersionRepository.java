@@ -1,6 +1,7 @@
 package com.spms.backend.repository.process;
 
 import com.spms.backend.repository.entities.process.ProcessVersionEntity;
+import com.spms.backend.repository.entities.process.ProcessVersionStatus;
 import org.springframework.data.repository.query.Param;
 import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -118,4 +119,31 @@ public interface ProcessVersionRepository extends JpaRepository<ProcessVersionEn
      */
     @Query("SELECT p FROM ProcessVersionEntity p WHERE p.processDefinition.id = :definitionId AND p.status = 'DEPLOYED' ORDER BY p.createdAt DESC")
     Page<ProcessVersionEntity> findLatestDeployedVersion(@Param("definitionId") Long definitionId, Pageable pageable);
+
+    /**
+     * Projection of a deployed version with only the columns needed to start an instance.
+     */
+    interface DeployedVersionView {
+        Long getVersionId();
+
+        String getKey();
+
+        Long getOwnerId();
+    }
+
+    /**
+     * Finds the deployed versions of a process definition, newest first, without loading the
+     * BPMN XML or the definition's version collection.
+     *
+     * @param definitionId The process definition ID
+     * @param status The status to match, normally DEPLOYED
+     * @param pageable The pagination information (should request first page with size=1)
+     * @return The matching versions as projections
+     */
+    @Query("SELECT v.id AS versionId, v.key AS key, d.ownerId AS ownerId " +
+           "FROM ProcessVersionEntity v JOIN v.processDefinition d " +
+           "WHERE d.id = :definitionId AND v.status = :status ORDER BY v.createdAt DESC")
+    List<DeployedVersionView> findDeployedVersionViews(@Param("definitionId") Long definitionId,
+                                                       @Param("status") ProcessVersionStatus status,
+                                                       Pageable pageable);
 }
@@ -0,0 +1,30 @@
+package com.spms.backend.repository.process;
+
+import com.spms.backend.repository.entities.process.TaskAssigneeEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+
+public interface TaskAssigneeRepository extends JpaRepository<TaskAssigneeEntity, Long> {
+
+    Optional<TaskAssigneeEntity> findTopByOrderByIdAsc();
+
+    /**
+     * Get the user a task is currently counted against
+     * @param taskId The task to search for
+     * @return The username, or empty if the task is not counted
+     */
+    @Query("SELECT a.username FROM TaskAssigneeEntity a WHERE a.taskId = :taskId")
+    Optional<String> findUsernameByTaskId(@Param("taskId") String taskId);
+
+    @Modifying
+    @Query("UPDATE TaskAssigneeEntity a SET a.username = :username WHERE a.taskId = :taskId")
+    int reassign(@Param("taskId") String taskId, @Param("username") String username);
+
+    @Modifying
+    @Query("DELETE FROM TaskAssigneeEntity a WHERE a.taskId = :taskId")
+    int deleteByTaskId(@Param("taskId") String taskId);
+}
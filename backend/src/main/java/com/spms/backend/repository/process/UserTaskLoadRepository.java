@@ -0,0 +1,35 @@
+package com.spms.backend.repository.process;
+
+import com.spms.backend.repository.entities.process.UserTaskLoadEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface UserTaskLoadRepository extends JpaRepository<UserTaskLoadEntity, Long> {
+
+    List<UserTaskLoadEntity> findByUsernameIn(Collection<String> usernames);
+
+    /**
+     * Move the open task count of a user
+     * @param username The user whose count changes
+     * @param delta The number of tasks gained, negative for tasks given up
+     * @param now Timestamp of the change (milliseconds since epoch)
+     * @return number of rows changed, 0 if the user has no counter yet
+     */
+    @Modifying
+    @Query("UPDATE UserTaskLoadEntity l SET l.openTasks = l.openTasks + :delta, l.updatedAt = :now " +
+            "WHERE l.username = :username")
+    int addOpenTasks(@Param("username") String username, @Param("delta") long delta, @Param("now") long now);
+
+    /**
+     * Recount all users from the task assignee rows
+     */
+    @Modifying
+    @Query("INSERT INTO UserTaskLoadEntity (username, openTasks, updatedAt) " +
+            "SELECT a.username, COUNT(a), :now FROM TaskAssigneeEntity a GROUP BY a.username")
+    int insertCountsFromAssignees(@Param("now") long now);
+}
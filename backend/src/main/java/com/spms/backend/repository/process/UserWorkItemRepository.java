@@ -0,0 +1,57 @@
+package com.spms.backend.repository.process;
+
+import com.spms.backend.repository.entities.process.UserWorkItemEntity;
+import com.spms.backend.repository.entities.process.UserWorkItemStatus;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Rows of the "my work" read model. Engine events change rows with bulk updates only, so entities
+ * loaded earlier in the same transaction are never written back over them.
+ */
+public interface UserWorkItemRepository extends JpaRepository<UserWorkItemEntity, Long> {
+
+    Optional<UserWorkItemEntity> findTopByOrderByIdAsc();
+
+    List<UserWorkItemEntity> findByProcessInstanceId(String processInstanceId);
+
+    boolean existsByUsernameAndProcessInstanceId(String username, String processInstanceId);
+
+    Page<UserWorkItemEntity> findByUsername(String username, Pageable pageable);
+
+    Page<UserWorkItemEntity> findByUsernameAndStatus(String username, UserWorkItemStatus status, Pageable pageable);
+
+    /**
+     * Mark the user as the initiator of a process instance
+     */
+    @Modifying
+    @Query("UPDATE UserWorkItemEntity w SET w.initiator = true, w.lastUpdated = :now " +
+            "WHERE w.username = :username AND w.processInstanceId = :processInstanceId")
+    int markInitiator(@Param("username") String username,
+                      @Param("processInstanceId") String processInstanceId,
+                      @Param("now") Date now);
+
+    /**
+     * Close all rows of a process instance
+     */
+    @Modifying
+    @Query("UPDATE UserWorkItemEntity w SET w.status = :status, w.endTime = :endTime, " +
+            "w.lastUpdated = :endTime " +
+            "WHERE w.processInstanceId = :processInstanceId")
+    int endInstance(@Param("processInstanceId") String processInstanceId,
+                    @Param("status") UserWorkItemStatus status,
+                    @Param("endTime") Date endTime);
+
+    @Modifying
+    @Query("DELETE FROM UserWorkItemEntity w WHERE w.processInstanceId IN :processInstanceIds")
+    int deleteByProcessInstanceIds(@Param("processInstanceIds") Collection<String> processInstanceIds);
+}
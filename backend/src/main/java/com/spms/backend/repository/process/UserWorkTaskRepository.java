@@ -0,0 +1,56 @@
+package com.spms.backend.repository.process;
+
+import com.spms.backend.repository.entities.process.UserWorkTaskEntity;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Open tasks of the "my work" read model. Like {@link UserWorkItemRepository}, engine events change
+ * existing rows with bulk updates only.
+ */
+public interface UserWorkTaskRepository extends JpaRepository<UserWorkTaskEntity, Long> {
+
+    List<UserWorkTaskEntity> findByProcessInstanceId(String processInstanceId);
+
+    Page<UserWorkTaskEntity> findByUsernameAndSuspendedFalse(String username, Pageable pageable);
+
+    /**
+     * Apply the current state of a task to its row
+     * @return number of rows changed, 0 if the task has no row yet
+     */
+    @Modifying
+    @Query("UPDATE UserWorkTaskEntity t SET t.username = :username, t.taskName = :taskName, " +
+            "t.taskState = :taskState, t.suspended = :suspended, t.lastUpdated = :now WHERE t.taskId = :taskId")
+    int updateTask(@Param("taskId") String taskId,
+                   @Param("username") String username,
+                   @Param("taskName") String taskName,
+                   @Param("taskState") String taskState,
+                   @Param("suspended") boolean suspended,
+                   @Param("now") Date now);
+
+    /**
+     * Suspend or activate the tasks of a process instance
+     */
+    @Modifying
+    @Query("UPDATE UserWorkTaskEntity t SET t.suspended = :suspended, t.lastUpdated = :now " +
+            "WHERE t.processInstanceId = :processInstanceId")
+    int suspendInstance(@Param("processInstanceId") String processInstanceId,
+                        @Param("suspended") boolean suspended,
+                        @Param("now") Date now);
+
+    @Modifying
+    @Query("DELETE FROM UserWorkTaskEntity t WHERE t.taskId = :taskId")
+    int deleteByTaskId(@Param("taskId") String taskId);
+
+    @Modifying
+    @Query("DELETE FROM UserWorkTaskEntity t WHERE t.processInstanceId IN :processInstanceIds")
+    int deleteByProcessInstanceIds(@Param("processInstanceIds") Collection<String> processInstanceIds);
+}
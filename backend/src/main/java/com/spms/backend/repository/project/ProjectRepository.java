@@ -2,14 +2,19 @@ package com.spms.backend.repository.project;
 
 import com.spms.backend.repository.entities.project.ProjectEntity;
 import com.spms.backend.model.ProjectStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * 项目数据访问接口
@@ -88,4 +93,101 @@ public interface ProjectRepository extends JpaRepository<ProjectEntity, Long>, J
     @Query("SELECT p FROM ProjectEntity p WHERE (p.projectCode LIKE %:search% OR p.projectName LIKE %:search%) " +
            "AND p.status = 'ACTIVE' AND p.isActive = true ORDER BY p.projectName")
     List<ProjectEntity> searchActiveProjects(@Param("search") String search);
+
+    /**
+     * 项目代码与ID的投影，用于批量导入时预加载
+     */
+    interface CodeIdView {
+        Long getId();
+
+        String getCode();
+    }
+
+    /**
+     * 查询所有项目的代码与ID（不加载实体）
+     * @return 项目代码与ID列表
+     */
+    @Query("SELECT p.id AS id, p.projectCode AS code FROM ProjectEntity p")
+    List<CodeIdView> findAllCodeIds();
+
+    /**
+     * 根据项目代码批量查询ID
+     * @param projectCodes 项目代码集合
+     * @return 项目代码与ID列表
+     */
+    @Query("SELECT p.id AS id, p.projectCode AS code FROM ProjectEntity p WHERE p.projectCode IN :projectCodes")
+    List<CodeIdView> findCodeIdsByProjectCodeIn(@Param("projectCodes") Collection<String> projectCodes);
+
+    /**
+     * 项目导出行：项目及其一个激活任务（无任务的项目任务列为空）
+     */
+    interface ProjectExportView {
+        String getProjectCode();
+
+        String getProjectName();
+
+        String getTaskNumber();
+
+        String getTaskName();
+
+        String getActivity();
+
+        ProjectStatus getStatus();
+    }
+
+    /**
+     * 以游标方式流式查询激活项目及其激活任务，一条 SQL 完成
+     * 必须在事务中消费并关闭返回的 Stream
+     * @param status 项目状态，为 null 时不过滤
+     * @return 导出行
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT p.projectCode AS projectCode, p.projectName AS projectName, t.taskNumber AS taskNumber, " +
+           "t.taskName AS taskName, t.activity AS activity, p.status AS status " +
+           "FROM ProjectEntity p LEFT JOIN TaskEntity t ON t.project = p AND t.isActive = true " +
+           "WHERE p.isActive = true AND (:status IS NULL OR p.status = :status) " +
+           "ORDER BY p.projectCode, t.taskNumber")
+    Stream<ProjectExportView> streamActiveProjectRows(@Param("status") ProjectStatus status);
+
+    /**
+     * 项目-任务扁平化行：项目及其一个激活任务（无任务的项目任务列为空）
+     */
+    interface ProjectTaskView {
+        Long getProjectId();
+
+        String getProjectCode();
+
+        String getProjectName();
+
+        ProjectStatus getStatus();
+
+        Long getTaskId();
+
+        String getTaskNumber();
+
+        String getTaskName();
+
+        String getActivity();
+    }
+
+    /**
+     * 一条 SQL 查询所有未删除项目及其激活任务，用于加载项目目录
+     * @return 扁平化行
+     */
+    @Query("SELECT p.id AS projectId, p.projectCode AS projectCode, p.projectName AS projectName, p.status AS status, " +
+           "t.id AS taskId, t.taskNumber AS taskNumber, t.taskName AS taskName, t.activity AS activity " +
+           "FROM ProjectEntity p LEFT JOIN TaskEntity t ON t.project = p AND t.isActive = true " +
+           "WHERE p.isActive = true")
+    List<ProjectTaskView> findProjectTaskRows();
+
+    /**
+     * 查询指定项目（未删除）及其激活任务，用于增量更新项目目录
+     * @param projectIds 项目ID集合
+     * @return 扁平化行；已删除或不存在的项目没有对应行
+     */
+    @Query("SELECT p.id AS projectId, p.projectCode AS projectCode, p.projectName AS projectName, p.status AS status, " +
+           "t.id AS taskId, t.taskNumber AS taskNumber, t.taskName AS taskName, t.activity AS activity " +
+           "FROM ProjectEntity p LEFT JOIN TaskEntity t ON t.project = p AND t.isActive = true " +
+           "WHERE p.isActive = true AND p.id IN :projectIds")
+    List<ProjectTaskView> findProjectTaskRowsByProjectIdIn(@Param("projectIds") Collection<Long> projectIds);
 }
@@ -8,6 +8,7 @@ import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -93,4 +94,28 @@ public interface TaskRepository extends JpaRepository<TaskEntity, Long>, JpaSpec
     @EntityGraph(attributePaths = {"project"})
     @Query("SELECT t FROM TaskEntity t WHERE t.project.id = :projectId AND t.isActive = true ORDER BY t.taskName")
     List<TaskEntity> findActiveTasksByProjectId(@Param("projectId") Long projectId);
+
+    /**
+     * 任务编号与ID的投影，用于批量导入时预加载
+     */
+    interface NumberIdView {
+        Long getId();
+
+        String getNumber();
+    }
+
+    /**
+     * 查询所有任务的编号与ID（不加载实体）
+     * @return 任务编号与ID列表
+     */
+    @Query("SELECT t.id AS id, t.taskNumber AS number FROM TaskEntity t")
+    List<NumberIdView> findAllNumberIds();
+
+    /**
+     * 根据任务编号批量查询ID
+     * @param taskNumbers 任务编号集合
+     * @return 任务编号与ID列表
+     */
+    @Query("SELECT t.id AS id, t.taskNumber AS number FROM TaskEntity t WHERE t.taskNumber IN :taskNumbers")
+    List<NumberIdView> findNumberIdsByTaskNumberIn(@Param("taskNumbers") Collection<String> taskNumbers);
 }
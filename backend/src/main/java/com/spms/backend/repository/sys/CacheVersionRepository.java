@@ -0,0 +1,32 @@
+package com.spms.backend.repository.sys;
+
+import com.spms.backend.repository.BaseRepository;
+import com.spms.backend.repository.entities.sys.CacheVersion;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface CacheVersionRepository extends BaseRepository<CacheVersion, Long> {
+
+    /**
+     * Get the committed version of a cache
+     * @param name The cache
+     * @return The version, or empty if the cache was never changed
+     */
+    @Query("SELECT v.version FROM CacheVersion v WHERE v.name = :name")
+    Optional<Long> findVersionByName(@Param("name") String name);
+
+    /**
+     * Increment the version of a cache; the row stays locked until the transaction ends
+     * @param name The cache
+     * @param now  Timestamp of the change (milliseconds since epoch)
+     * @return The number of updated rows, 0 if the cache has no version row yet
+     */
+    @Modifying
+    @Query("UPDATE CacheVersion v SET v.version = v.version + 1, v.updatedAt = :now WHERE v.name = :name")
+    int increment(@Param("name") String name, @Param("now") long now);
+}
@@ -0,0 +1,56 @@
+package com.spms.backend.repository.sys;
+
+import com.spms.backend.repository.BaseRepository;
+import com.spms.backend.repository.entities.sys.NodeMetric;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface NodeMetricRepository extends BaseRepository<NodeMetric, Long> {
+
+    List<NodeMetric> findByName(String name);
+
+    /**
+     * Add to the counter of a node
+     * @return The number of updated rows, 0 if the node has no row for the metric yet
+     */
+    @Modifying
+    @Query("UPDATE NodeMetric m SET m.value = m.value + :delta, m.updatedAt = :now " +
+            "WHERE m.node = :node AND m.name = :name")
+    int add(@Param("node") String node, @Param("name") String name,
+            @Param("delta") long delta, @Param("now") long now);
+
+    /**
+     * Replace the gauge of a node
+     * @return The number of updated rows, 0 if the node has no row for the metric yet
+     */
+    @Modifying
+    @Query("UPDATE NodeMetric m SET m.value = :value, m.updatedAt = :now WHERE m.node = :node AND m.name = :name")
+    int set(@Param("node") String node, @Param("name") String name,
+            @Param("value") long value, @Param("now") long now);
+
+    /**
+     * Remove what a collector took from a counter; whatever the node added since stays
+     */
+    @Modifying
+    @Query("UPDATE NodeMetric m SET m.value = m.value - :taken WHERE m.id = :id")
+    int subtract(@Param("id") Long id, @Param("taken") long taken);
+
+    /**
+     * Highest gauge among the nodes that published since a time
+     * @return The highest value, or null if no node published
+     */
+    @Query("SELECT MAX(m.value) FROM NodeMetric m WHERE m.name = :name AND m.updatedAt >= :since")
+    Long findHighest(@Param("name") String name, @Param("since") long since);
+
+    /**
+     * Remove the rows of nodes that stopped publishing
+     */
+    @Modifying
+    @Query("DELETE FROM NodeMetric m WHERE m.updatedAt < :before")
+    int deleteStale(@Param("before") long before);
+}
@@ -0,0 +1,9 @@
+package com.spms.backend.repository.sys;
+
+import com.spms.backend.repository.entities.sys.NotificationDeadLetter;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface NotificationDeadLetterRepository extends JpaRepository<NotificationDeadLetter, Long> {
+}
@@ -0,0 +1,37 @@
+package com.spms.backend.repository.sys;
+
+import com.spms.backend.repository.entities.sys.StatisticResolution;
+import com.spms.backend.repository.entities.sys.SystemStatisticRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+
+@Repository
+public interface SystemStatisticRollupRepository extends JpaRepository<SystemStatisticRollup, Long> {
+
+    List<SystemStatisticRollup> findByResolutionAndBucketStartInAndNameIn(StatisticResolution resolution,
+                                                                          Collection<Date> bucketStarts,
+                                                                          Collection<String> names);
+
+    List<SystemStatisticRollup> findByResolutionAndBucketStartBetweenOrderByNameAscBucketStartAsc(
+            StatisticResolution resolution, Date from, Date to);
+
+    List<SystemStatisticRollup> findByNameAndResolutionAndBucketStartBetweenOrderByBucketStartAsc(
+            String name, StatisticResolution resolution, Date from, Date to);
+
+    /**
+     * Removes buckets of one resolution that started before a cutoff.
+     *
+     * @return number of removed buckets
+     */
+    @Modifying
+    @Query("DELETE FROM SystemStatisticRollup r WHERE r.resolution = :resolution AND r.bucketStart < :before")
+    int deleteByResolutionAndBucketStartBefore(@Param("resolution") StatisticResolution resolution,
+                                               @Param("before") Date before);
+}
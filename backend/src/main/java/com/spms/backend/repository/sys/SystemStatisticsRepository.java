@@ -2,14 +2,29 @@ package com.spms.backend.repository.sys;
 
 import com.spms.backend.repository.entities.sys.SystemStatistics;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Date;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface SystemStatisticsRepository extends JpaRepository<SystemStatistics, String> {
-    List<SystemStatistics> findByAsOfDateBetween(Date startDate, Date endDate);
-    
-    List<SystemStatistics> findByNameOrderByAsOfDateDesc(String name);
+    List<SystemStatistics> findByAsOfDateBetweenOrderByNameAscAsOfDateAsc(Date startDate, Date endDate);
+
+    List<SystemStatistics> findByNameAndAsOfDateBetweenOrderByAsOfDateAsc(String name, Date startDate, Date endDate);
+
+    Optional<SystemStatistics> findFirstByNameOrderByAsOfDateDesc(String name);
+
+    /**
+     * Removes raw samples taken before a cutoff.
+     *
+     * @return number of removed samples
+     */
+    @Modifying
+    @Query("DELETE FROM SystemStatistics s WHERE s.asOfDate < :before")
+    int deleteByAsOfDateBefore(@Param("before") Date before);
 }
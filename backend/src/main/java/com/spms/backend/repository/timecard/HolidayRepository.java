@@ -122,5 +122,31 @@ public interface HolidayRepository extends JpaRepository<HolidayEntity, Long> {
      * @return 节假日实体（如果存在）
      */
     java.util.Optional<HolidayEntity> findByHolidayDateAndCountry(LocalDate date, String country);
+    
+    /**
+     * 日期与国家的投影，用于批量导入时判断是否已存在
+     */
+    interface DateCountryView {
+        LocalDate getHolidayDate();
+        
+        String getCountry();
+    }
+    
+    /**
+     * 查询日期范围内所有节假日的日期与国家（不检查isActive）
+     * 批量导入时以一次范围查询代替逐行的存在性检查
+     * @param from 开始日期（含）
+     * @param to 结束日期（含）
+     * @return 日期与国家列表
+     */
+    @Query("SELECT h.holidayDate AS holidayDate, h.country AS country FROM HolidayEntity h " +
+           "WHERE h.holidayDate BETWEEN :from AND :to")
+    List<DateCountryView> findDateCountriesBetween(@Param("from") LocalDate from, @Param("to") LocalDate to);
+    
+    /**
+     * 查询所有激活节假日的日期与国家，用于构建工作日历
+     * @return 日期与国家列表
+     */
+    @Query("SELECT h.holidayDate AS holidayDate, h.country AS country FROM HolidayEntity h WHERE h.isActive = true")
+    List<DateCountryView> findActiveDateCountries();
 }
-
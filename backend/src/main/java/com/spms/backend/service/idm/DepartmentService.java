@@ -1,11 +1,13 @@
 package com.spms.backend.service.idm;
 
 import com.spms.backend.repository.entities.idm.DepartmentType;
+import com.spms.backend.service.model.idm.DepartmentHeadModel;
 import com.spms.backend.service.model.idm.DepartmentModel;
 import com.spms.backend.service.model.idm.UserModel;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -119,4 +121,50 @@ public interface DepartmentService {
      * @return true if department exists, false otherwise
      */
     boolean isExist(Long id);
+
+    /**
+     * Deletes a department that has no child departments
+     *
+     * @param id Department ID to delete
+     * @throws EntityNotFoundException If department not found
+     * @throws IllegalArgumentException If the department has child departments
+     */
+    void deleteDepartment(Long id);
+
+    /**
+     * Finds departments of a type below the given departments
+     *
+     * @param ancestorIds IDs of the departments to start from
+     * @param type Department type of the descendants
+     * @param maxDepth Number of levels below the given departments to include
+     * @return Descendant department models, parents before their children
+     */
+    List<DepartmentModel> findDescendants(Collection<Long> ancestorIds, DepartmentType type, int maxDepth);
+
+    /**
+     * Finds usernames of the members of a department and of its departments of the same type
+     *
+     * @param department Department to start from
+     * @param maxDepth Number of levels below the department to include, 0 for its own members only
+     * @return Distinct usernames, members of higher departments first
+     */
+    List<String> findMemberUsernames(DepartmentModel department, int maxDepth);
+
+    /**
+     * Finds the department of one type a user belongs to
+     *
+     * @param username The user
+     * @param type The department type, e.g. FUNCTIONAL or LOCAL
+     * @return Id of the department, the lowest one if the user belongs to several
+     */
+    Optional<Long> findUserDepartmentId(String username, DepartmentType type);
+
+    /**
+     * Finds the heads of a department and of the departments above it
+     *
+     * @param departmentId Department to start from
+     * @param levels Number of levels above the department to include
+     * @return Heads ordered by depth, the department itself first; shorter when the top is reached
+     */
+    List<DepartmentHeadModel> findHeadChain(Long departmentId, int levels);
 }
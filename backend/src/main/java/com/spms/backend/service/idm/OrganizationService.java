@@ -23,6 +23,15 @@ public interface OrganizationService {
      */
     OrganizationChartDTO getOrganizationChart(Long companyId, ChartMode mode);
 
+    /**
+     * Retrieves the organization chart for a specified company serialized as JSON.
+     *
+     * @param companyId The ID of the company
+     * @param mode The display mode of the chart
+     * @return UTF-8 JSON of the OrganizationChartDTO
+     */
+    byte[] getOrganizationChartJson(Long companyId, ChartMode mode);
+
     /**
      * Assigns roles to a user.
      *
@@ -87,11 +96,22 @@ public interface OrganizationService {
      */
     String findUserDepartmentHead(String userName, String line);
 
+    /**
+     * Finds the head of a department above the user's department in a specific line,
+     * e.g. for escalation chains in Flowable engine UEL expressions.
+     *
+     * @param userName The username to look up
+     * @param line The functional line ("FUNCTIONAL" or "LOCAL")
+     * @param levels Levels above the user's department, 0 for the user's own department head
+     * @return Department head identifier, empty if there is no department that high or it has no head
+     */
+    String findUserDepartmentHead(String userName, String line, int levels);
+
     /**
      * Finds a department member using a specific selection method.
      *
      * @param departmentId The department ID
-     * @param method The selection method (e.g., "random", "first")
+     * @param method The selection method: "random", "sequence" (alias "round-robin"), "least-loaded" or "weighted"
      * @return Selected department member identifier
      */
     String findDepartmentMember(String departmentId, String method);
@@ -0,0 +1,24 @@
+package com.spms.backend.service.idm.assignment;
+
+import java.util.List;
+
+/**
+ * Picks the assignee of a task from a pool of candidates.
+ * <p>
+ * Strategies are Spring beans and are selected by name, e.g.
+ * {@code organizationService.findDepartmentMember('12', 'least-loaded')}.
+ */
+public interface AssignmentStrategy {
+
+    /**
+     * @return names this strategy is selected by, in lower case
+     */
+    List<String> names();
+
+    /**
+     * @param scope      the candidate pool, e.g. {@code department:12}; state kept between picks is keyed by it
+     * @param candidates candidate usernames in a stable order, never empty
+     * @return one of the candidates, or null if none may be picked
+     */
+    String choose(String scope, List<String> candidates);
+}
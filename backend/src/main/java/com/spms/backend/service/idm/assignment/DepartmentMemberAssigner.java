@@ -0,0 +1,60 @@
+package com.spms.backend.service.idm.assignment;
+
+import com.spms.backend.service.idm.DepartmentService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Picks one member of a department with the {@link AssignmentStrategy} named by the caller.
+ * Members come from {@link DepartmentMemberCache} in a stable order, so round-robin walks them in turn.
+ */
+@Slf4j
+@Component
+public class DepartmentMemberAssigner {
+
+    private final DepartmentService departmentService;
+    private final DepartmentMemberCache memberCache;
+    private final Map<String, AssignmentStrategy> strategies = new HashMap<>();
+
+    public DepartmentMemberAssigner(DepartmentService departmentService,
+                                    DepartmentMemberCache memberCache,
+                                    List<AssignmentStrategy> strategies) {
+        this.departmentService = departmentService;
+        this.memberCache = memberCache;
+        for (AssignmentStrategy strategy : strategies) {
+            for (String name : strategy.names()) {
+                AssignmentStrategy previous = this.strategies.put(name, strategy);
+                if (previous != null) {
+                    throw new IllegalStateException("Assignment method " + name + " is provided by both "
+                            + previous.getClass().getSimpleName() + " and " + strategy.getClass().getSimpleName());
+                }
+            }
+        }
+    }
+
+    /**
+     * @param departmentId department whose own members are the candidates
+     * @param method       strategy name, case-insensitive
+     * @return selected member username, or empty string if the department, its members or the method are missing
+     */
+    public String assign(Long departmentId, String method) {
+        AssignmentStrategy strategy = method == null ? null : strategies.get(method.toLowerCase(Locale.ROOT));
+        if (strategy == null) {
+            log.warn("Unknown assignment method {}, expected one of {}", method, strategies.keySet());
+            return "";
+        }
+        List<String> members = memberCache.get(departmentId, () -> departmentService.getDepartmentById(departmentId)
+                .map(department -> departmentService.findMemberUsernames(department, 0))
+                .orElse(List.of()));
+        if (members.isEmpty()) {
+            return "";
+        }
+        String chosen = strategy.choose("department:" + departmentId, members);
+        return chosen == null ? "" : chosen;
+    }
+}
@@ -0,0 +1,81 @@
+package com.spms.backend.service.idm.assignment;
+
+import com.spms.backend.service.idm.event.OrganizationChangedEvent;
+import com.spms.backend.service.idm.event.OrganizationVersion;
+import com.spms.backend.service.sys.cache.CacheVersions;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Member usernames per department, so picking an assignee does not load the department's users.
+ * <p>
+ * After a transaction that changed a department or its members commits, that department is dropped;
+ * other organization changes drop all departments. A list loaded while a change was committed is
+ * returned but not kept, because it may have read the old members. Changes committed on other nodes
+ * are found through {@link OrganizationVersion} before a lookup and drop all departments, at most
+ * {@code spms.cache.version-check-interval} late, so round-robin never walks a stale member list for longer.
+ */
+@Slf4j
+@Component
+public class DepartmentMemberCache {
+
+    private final Map<Long, List<String>> members = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+    private final CacheVersions.Tracker sharedVersion;
+
+    public DepartmentMemberCache(OrganizationVersion organizationVersion) {
+        this.sharedVersion = organizationVersion.tracker();
+    }
+
+    /**
+     * Returns the cached members, loading and caching them on a miss.
+     *
+     * @param departmentId department of the members
+     * @param loader       loads the member usernames from the database
+     * @return read-only member usernames
+     */
+    public List<String> get(Long departmentId, Supplier<List<String>> loader) {
+        if (sharedVersion.changed()) {
+            log.debug("Organization changed on another node, dropping members of {} departments", members.size());
+            invalidateAll();
+        }
+        List<String> cached = members.get(departmentId);
+        if (cached != null) {
+            return cached;
+        }
+        long seen = generation.get();
+        List<String> loaded = List.copyOf(loader.get());
+        members.put(departmentId, loaded);
+        // Invalidation bumps the generation before removing; drop what may have been loaded from old data
+        if (generation.get() != seen) {
+            members.remove(departmentId, loaded);
+        }
+        return loaded;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onOrganizationChanged(OrganizationChangedEvent event) {
+        boolean department = event.getChange() == OrganizationChangedEvent.Change.DEPARTMENT
+                || event.getChange() == OrganizationChangedEvent.Change.DEPARTMENT_MEMBERS;
+        if (department && event.getEntityId() != null) {
+            log.debug("Department {} changed, dropping its cached members", event.getEntityId());
+            generation.incrementAndGet();
+            members.remove(event.getEntityId());
+        } else {
+            invalidateAll();
+        }
+    }
+
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        members.clear();
+    }
+}
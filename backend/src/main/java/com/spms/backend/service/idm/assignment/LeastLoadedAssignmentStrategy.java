@@ -0,0 +1,46 @@
+package com.spms.backend.service.idm.assignment;
+
+import com.spms.backend.service.process.UserTaskLoadService;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Picks the candidate with the fewest open tasks, reading all counts with one query.
+ * Ties are broken at random so concurrent picks from the same pool spread out.
+ */
+@Component
+public class LeastLoadedAssignmentStrategy implements AssignmentStrategy {
+
+    private final UserTaskLoadService userTaskLoadService;
+
+    public LeastLoadedAssignmentStrategy(UserTaskLoadService userTaskLoadService) {
+        this.userTaskLoadService = userTaskLoadService;
+    }
+
+    @Override
+    public List<String> names() {
+        return List.of("least-loaded");
+    }
+
+    @Override
+    public String choose(String scope, List<String> candidates) {
+        Map<String, Long> counts = userTaskLoadService.getOpenTaskCounts(candidates);
+        String chosen = null;
+        long least = Long.MAX_VALUE;
+        int ties = 0;
+        for (String candidate : candidates) {
+            long open = counts.getOrDefault(candidate, 0L);
+            if (open < least) {
+                least = open;
+                chosen = candidate;
+                ties = 1;
+            } else if (open == least && ThreadLocalRandom.current().nextInt(++ties) == 0) {
+                chosen = candidate;
+            }
+        }
+        return chosen;
+    }
+}
@@ -0,0 +1,23 @@
+package com.spms.backend.service.idm.assignment;
+
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Picks any candidate with equal probability.
+ */
+@Component
+public class RandomAssignmentStrategy implements AssignmentStrategy {
+
+    @Override
+    public List<String> names() {
+        return List.of("random");
+    }
+
+    @Override
+    public String choose(String scope, List<String> candidates) {
+        return candidates.get(ThreadLocalRandom.current().nextInt(candidates.size()));
+    }
+}
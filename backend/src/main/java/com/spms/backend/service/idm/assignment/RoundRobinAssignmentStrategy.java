@@ -0,0 +1,80 @@
+package com.spms.backend.service.idm.assignment;
+
+import com.spms.backend.repository.entities.idm.AssignmentCursor;
+import com.spms.backend.repository.idm.AssignmentCursorRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Picks candidates in turn. The position of each pool lives in {@code spms_assignment_cursor} and is
+ * moved under a row lock, so all nodes share one rotation.
+ */
+@Component
+public class RoundRobinAssignmentStrategy implements AssignmentStrategy {
+
+    private static final Logger log = LoggerFactory.getLogger(RoundRobinAssignmentStrategy.class);
+
+    private final AssignmentCursorRepository cursorRepository;
+    private final TransactionTemplate requiresNew;
+
+    public RoundRobinAssignmentStrategy(AssignmentCursorRepository cursorRepository,
+                                        PlatformTransactionManager transactionManager) {
+        this.cursorRepository = cursorRepository;
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Override
+    public List<String> names() {
+        return List.of("sequence", "round-robin");
+    }
+
+    @Override
+    public String choose(String scope, List<String> candidates) {
+        return candidates.get((int) Math.floorMod(nextPosition(scope), (long) candidates.size()));
+    }
+
+    /**
+     * Takes the pool's position in its own transaction, so the row lock is held only for the move and
+     * not for the caller's engine command. A position taken by a command that later rolls back is skipped.
+     */
+    protected long nextPosition(String scope) {
+        try {
+            return doNextPosition(scope);
+        } catch (DataIntegrityViolationException ex) {
+            // Another node created the cursor of this pool at the same time; it exists now.
+            log.debug("Concurrent creation of assignment cursor {}, retrying", scope);
+            return doNextPosition(scope);
+        }
+    }
+
+    private long doNextPosition(String scope) {
+        Long position = requiresNew.execute(status -> {
+            AssignmentCursor cursor = cursorRepository.findByScopeForUpdate(scope)
+                    .orElseGet(() -> createCursor(scope));
+            long current = cursor.getPosition();
+            cursor.setPosition(current + 1);
+            cursor.setUpdatedAt(System.currentTimeMillis());
+            cursorRepository.save(cursor);
+            return current;
+        });
+        if (position == null) {
+            throw new IllegalStateException("Unable to move assignment cursor " + scope);
+        }
+        return position;
+    }
+
+    private AssignmentCursor createCursor(String scope) {
+        AssignmentCursor cursor = new AssignmentCursor();
+        cursor.setScope(scope);
+        cursor.setPosition(0L);
+        return cursorRepository.saveAndFlush(cursor);
+    }
+}
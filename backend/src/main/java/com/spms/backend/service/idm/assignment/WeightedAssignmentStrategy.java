@@ -0,0 +1,44 @@
+package com.spms.backend.service.idm.assignment;
+
+import com.spms.backend.config.AssignmentProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Picks candidates at random in proportion to their configured weight.
+ */
+@Component
+public class WeightedAssignmentStrategy implements AssignmentStrategy {
+
+    private final AssignmentProperties properties;
+
+    public WeightedAssignmentStrategy(AssignmentProperties properties) {
+        this.properties = properties;
+    }
+
+    @Override
+    public List<String> names() {
+        return List.of("weighted");
+    }
+
+    @Override
+    public String choose(String scope, List<String> candidates) {
+        long total = 0;
+        for (String candidate : candidates) {
+            total += properties.weightOf(candidate);
+        }
+        if (total == 0) {
+            return null;
+        }
+        long ticket = ThreadLocalRandom.current().nextLong(total);
+        for (String candidate : candidates) {
+            ticket -= properties.weightOf(candidate);
+            if (ticket < 0) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+}
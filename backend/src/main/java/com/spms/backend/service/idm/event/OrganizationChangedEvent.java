@@ -0,0 +1,37 @@
+package com.spms.backend.service.idm.event;
+
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * Published by the company, division and department services when the organization structure or
+ * department membership changed. Listeners that cache derived data should react after commit.
+ */
+public class OrganizationChangedEvent extends ApplicationEvent {
+
+    /**
+     * What changed
+     */
+    public enum Change {
+        COMPANY, DIVISION, DEPARTMENT, DEPARTMENT_MEMBERS
+    }
+
+    private final Change change;
+    private final Long entityId;
+
+    public OrganizationChangedEvent(Object source, Change change, Long entityId) {
+        super(source);
+        this.change = change;
+        this.entityId = entityId;
+    }
+
+    public Change getChange() {
+        return change;
+    }
+
+    /**
+     * ID of the changed company, division or department; null when several changed
+     */
+    public Long getEntityId() {
+        return entityId;
+    }
+}
@@ -0,0 +1,37 @@
+package com.spms.backend.service.idm.event;
+
+import com.spms.backend.service.sys.cache.CacheVersions;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Shares organization changes between nodes through the {@code organization} version of
+ * {@link CacheVersions}.
+ * <p>
+ * The version is incremented when an {@link OrganizationChangedEvent} is published, i.e. in the
+ * transaction that made the change. Caches of organization data hold a {@link #tracker()} and drop
+ * everything when another node committed a change, in addition to reacting to the events of their own node.
+ */
+@Component
+public class OrganizationVersion {
+
+    public static final String CACHE_NAME = "organization";
+
+    private final CacheVersions cacheVersions;
+
+    public OrganizationVersion(CacheVersions cacheVersions) {
+        this.cacheVersions = cacheVersions;
+    }
+
+    @EventListener
+    public void onOrganizationChanged(OrganizationChangedEvent event) {
+        cacheVersions.increment(CACHE_NAME);
+    }
+
+    /**
+     * @return a tracker of changes to the organization committed by any node
+     */
+    public CacheVersions.Tracker tracker() {
+        return cacheVersions.tracker(CACHE_NAME);
+    }
+}
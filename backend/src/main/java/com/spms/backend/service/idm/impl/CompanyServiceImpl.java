@@ -6,8 +6,10 @@ import com.spms.backend.repository.entities.idm.Company;
 import com.spms.backend.repository.idm.CompanyRepository;
 import com.spms.backend.service.BaseServiceImpl;
 import com.spms.backend.service.idm.CompanyService;
+import com.spms.backend.service.idm.event.OrganizationChangedEvent;
 import com.spms.backend.service.model.idm.CompanyModel;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -23,11 +25,15 @@ import java.util.stream.Stream;
 @Service
 public class CompanyServiceImpl extends BaseServiceImpl<Company, CompanyRepository>
     implements CompanyService {
+    private final ApplicationEventPublisher eventPublisher;
+
     @Autowired
     public CompanyServiceImpl(
-        CompanyRepository repository
+        CompanyRepository repository,
+        ApplicationEventPublisher eventPublisher
     ) {
         super(repository);
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
@@ -60,7 +66,9 @@ public class CompanyServiceImpl extends BaseServiceImpl<Company, CompanyReposito
             throw new NotFoundException("Department head not found");
         }
 
-        return CompanyModel.fromEntity(repository.save(companyModel.toEntityForCreate()));
+        Company saved = repository.save(companyModel.toEntityForCreate());
+        publishChanged(saved.getId());
+        return CompanyModel.fromEntity(saved);
     }
 
     @Override
@@ -81,7 +89,9 @@ public class CompanyServiceImpl extends BaseServiceImpl<Company, CompanyReposito
         Company updatedEntity = companyModel.toEntityForUpdate();
         updatedEntity.setId(existing.getId());
         
-        return CompanyModel.fromEntity(repository.save(updatedEntity));
+        Company saved = repository.save(updatedEntity);
+        publishChanged(id);
+        return CompanyModel.fromEntity(saved);
     }
 
     @Override
@@ -101,6 +111,7 @@ public class CompanyServiceImpl extends BaseServiceImpl<Company, CompanyReposito
             throw new NotFoundException("Company not found");
         }
         repository.deleteById(id);
+        publishChanged(id);
     }
 
     /**
@@ -201,6 +212,12 @@ public class CompanyServiceImpl extends BaseServiceImpl<Company, CompanyReposito
         
         // Save parent to ensure children collection is persisted
         repository.save(parentCompany);
+        publishChanged(companyId);
+    }
+
+    private void publishChanged(Long companyId) {
+        eventPublisher.publishEvent(new OrganizationChangedEvent(
+                this, OrganizationChangedEvent.Change.COMPANY, companyId));
     }
 
     @Override
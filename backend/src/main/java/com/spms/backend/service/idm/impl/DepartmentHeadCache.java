@@ -0,0 +1,171 @@
+package com.spms.backend.service.idm.impl;
+
+import com.spms.backend.repository.entities.idm.DepartmentType;
+import com.spms.backend.service.idm.DepartmentService;
+import com.spms.backend.service.idm.event.OrganizationChangedEvent;
+import com.spms.backend.service.idm.event.OrganizationVersion;
+import com.spms.backend.service.sys.cache.CacheVersions;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Department head per user, line and number of levels up, as used by approval routing.
+ * <p>
+ * Each entry remembers the departments it was resolved through. After a transaction that changed a
+ * department or its members commits, only the entries resolved through that department, the entries
+ * of its current members and the entries of users without a department are dropped; other
+ * organization changes drop everything. An entry resolved while a change was committed is returned
+ * but not kept. Changes committed on other nodes are found through {@link OrganizationVersion} before
+ * a lookup and drop everything, at most {@code spms.cache.version-check-interval} late. Metrics: {@code spms.organization.department.head.cache} (tag {@code result}
+ * hit/miss) and {@code spms.organization.department.head.cache.hit.ratio}.
+ */
+@Slf4j
+@Component
+public class DepartmentHeadCache {
+
+    /**
+     * A resolved head and the departments it was resolved through.
+     *
+     * @param head          head username, empty if there is none
+     * @param departmentIds the user's department and the departments above it that were read;
+     *                      empty if the user has no department in the line
+     */
+    public record Resolution(String head, List<Long> departmentIds) {
+    }
+
+    private record Key(String username, DepartmentType line, int levels) {
+    }
+
+    private final DepartmentService departmentService;
+    private final CacheVersions.Tracker sharedVersion;
+    private final Map<Key, String> heads = new ConcurrentHashMap<>();
+    private final Map<Long, Set<Key>> keysByDepartment = new ConcurrentHashMap<>();
+    private final Map<String, Set<Key>> keysByUser = new ConcurrentHashMap<>();
+    private final Set<Key> keysWithoutDepartment = ConcurrentHashMap.newKeySet();
+    private final AtomicLong generation = new AtomicLong();
+    private final Counter hits;
+    private final Counter misses;
+
+    public DepartmentHeadCache(DepartmentService departmentService, MeterRegistry meterRegistry,
+                               OrganizationVersion organizationVersion) {
+        this.departmentService = departmentService;
+        this.sharedVersion = organizationVersion.tracker();
+        this.hits = Counter.builder("spms.organization.department.head.cache")
+                .description("Department head lookups served from the cache")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.misses = Counter.builder("spms.organization.department.head.cache")
+                .description("Department head lookups served from the cache")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        Gauge.builder("spms.organization.department.head.cache.hit.ratio", this, DepartmentHeadCache::hitRatio)
+                .description("Share of department head lookups served from the cache")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the cached head, resolving and caching it on a miss.
+     *
+     * @param username user whose department head is looked up
+     * @param line     department type of the line
+     * @param levels   levels above the user's department, 0 for its own head
+     * @param resolver resolves the head from the database
+     * @return head username, empty if there is none
+     */
+    public String get(String username, DepartmentType line, int levels, Supplier<Resolution> resolver) {
+        if (sharedVersion.changed()) {
+            log.debug("Organization changed on another node, dropping {} cached heads", heads.size());
+            invalidateAll();
+        }
+        Key key = new Key(username, line, levels);
+        String head = heads.get(key);
+        if (head != null) {
+            hits.increment();
+            return head;
+        }
+        misses.increment();
+
+        long seen = generation.get();
+        Resolution resolution = resolver.get();
+        head = resolution.head() == null ? "" : resolution.head();
+        heads.put(key, head);
+        keysByUser.computeIfAbsent(username, k -> ConcurrentHashMap.newKeySet()).add(key);
+        if (resolution.departmentIds().isEmpty()) {
+            keysWithoutDepartment.add(key);
+        }
+        for (Long departmentId : resolution.departmentIds()) {
+            keysByDepartment.computeIfAbsent(departmentId, k -> ConcurrentHashMap.newKeySet()).add(key);
+        }
+        // Invalidation bumps the generation before removing; drop what may have been resolved from old data
+        if (generation.get() != seen) {
+            heads.remove(key, head);
+        }
+        return head;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onOrganizationChanged(OrganizationChangedEvent event) {
+        boolean department = event.getChange() == OrganizationChangedEvent.Change.DEPARTMENT
+                || event.getChange() == OrganizationChangedEvent.Change.DEPARTMENT_MEMBERS;
+        if (!department || event.getEntityId() == null) {
+            invalidateAll();
+            return;
+        }
+        // Users who joined the department may have been resolved through another one, or through none
+        List<String> members = departmentService.getDepartmentById(event.getEntityId())
+                .map(x -> departmentService.findMemberUsernames(x, 0))
+                .orElse(List.of());
+        log.debug("Department {} changed, dropping cached heads resolved through it and of its {} members",
+                event.getEntityId(), members.size());
+        invalidateDepartment(event.getEntityId(), members);
+    }
+
+    /**
+     * Drops the heads resolved through a department, the heads of the given users and the heads of
+     * users without a department.
+     */
+    public void invalidateDepartment(Long departmentId, Collection<String> usernames) {
+        generation.incrementAndGet();
+        remove(keysByDepartment.remove(departmentId));
+        for (String username : usernames) {
+            remove(keysByUser.remove(username));
+        }
+        remove(keysWithoutDepartment);
+    }
+
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        heads.clear();
+        keysByDepartment.clear();
+        keysByUser.clear();
+        keysWithoutDepartment.clear();
+    }
+
+    double hitRatio() {
+        double total = hits.count() + misses.count();
+        return total == 0 ? 0 : hits.count() / total;
+    }
+
+    private void remove(Set<Key> keys) {
+        if (keys == null) {
+            return;
+        }
+        for (Key key : keys) {
+            heads.remove(key);
+            keys.remove(key);
+        }
+    }
+}
@@ -4,15 +4,22 @@ import com.spms.backend.repository.entities.BaseEntity;
 import com.spms.backend.repository.entities.idm.CompanyType;
 import com.spms.backend.repository.entities.idm.DepartmentType;
 import com.spms.backend.repository.entities.idm.User;
+import com.spms.backend.repository.entities.idm.DepartmentClosure;
+import com.spms.backend.repository.idm.DepartmentClosureRepository;
 import com.spms.backend.repository.idm.DepartmentRepository;
 import com.spms.backend.repository.entities.idm.Department;
 import com.spms.backend.repository.idm.UserRepository;
 import com.spms.backend.service.idm.CompanyService;
 import com.spms.backend.service.idm.DepartmentService;
 import com.spms.backend.service.idm.DivisionService;
+import com.spms.backend.service.idm.event.OrganizationChangedEvent;
+import com.spms.backend.service.model.idm.DepartmentHeadModel;
 import com.spms.backend.service.model.idm.DepartmentModel;
 import com.spms.backend.service.model.idm.UserModel;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
@@ -20,8 +27,14 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import jakarta.persistence.EntityNotFoundException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -31,6 +44,10 @@ import java.util.stream.Collectors;
  * <p>
  * Handles CRUD operations, department-user associations, and validation
  * for department hierarchy and types.
+ * <p>
+ * The department tree is also kept as a closure table ({@link DepartmentClosure}): every
+ * ancestor/descendant pair with its depth, maintained on create, update and delete, so that
+ * subtree and member queries are a single indexed query instead of a walk per level.
  */
 @Slf4j
 @Service
@@ -44,6 +61,10 @@ public class DepartmentServiceImpl implements DepartmentService {
 
     private final CompanyService companyService;
 
+    private final DepartmentClosureRepository closureRepository;
+
+    private final ApplicationEventPublisher eventPublisher;
+
     /**
      * Constructs DepartmentService implementation with required dependencies
      * 
@@ -51,16 +72,22 @@ public class DepartmentServiceImpl implements DepartmentService {
      * @param divisionService Service for division operations
      * @param companyService Service for company operations
      * @param userRepository Repository for user data access
+     * @param closureRepository Repository for the department closure table
+     * @param eventPublisher Publisher of organization change events
      */
     public DepartmentServiceImpl(DepartmentRepository departmentRepository,
                                  DivisionService divisionService,
                                  CompanyService companyService,
-                                 UserRepository userRepository
+                                 UserRepository userRepository,
+                                 DepartmentClosureRepository closureRepository,
+                                 ApplicationEventPublisher eventPublisher
     ) {
         this.departmentRepository = departmentRepository;
         this.divisionService = divisionService;
         this.companyService = companyService;
         this.userRepository = userRepository;
+        this.closureRepository = closureRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
@@ -112,6 +139,7 @@ public class DepartmentServiceImpl implements DepartmentService {
      * @return Created department model
      * @throws IllegalArgumentException If required fields are missing
      */
+    @Transactional
     @Override
     public DepartmentModel createDepartment(DepartmentModel departmentModel) {
         if (departmentModel == null) {
@@ -125,7 +153,13 @@ public class DepartmentServiceImpl implements DepartmentService {
         }
 
         Department department = departmentModel.toEntityForCreate();
-        department = departmentRepository.save(department);
+        department = departmentRepository.saveAndFlush(department);
+        closureRepository.insertSelf(department.getId());
+        Long parentDepartment = parentDepartment(department);
+        if (parentDepartment != null) {
+            closureRepository.attachSubtree(department.getId(), parentDepartment);
+        }
+        publishChanged(OrganizationChangedEvent.Change.DEPARTMENT, department.getId());
         return new DepartmentModel(department);
     }
 
@@ -202,6 +236,7 @@ public class DepartmentServiceImpl implements DepartmentService {
             });
             log.info("Count of User :{}, department: {}", deptEntity.getUsers().size(), department.getName());
             this.departmentRepository.save(deptEntity);
+            publishChanged(OrganizationChangedEvent.Change.DEPARTMENT_MEMBERS, department.getId());
             return true;
         } catch (Exception ex) {
             return false;
@@ -232,6 +267,7 @@ public class DepartmentServiceImpl implements DepartmentService {
                 }
             });
             this.departmentRepository.save(deptEntity);
+            publishChanged(OrganizationChangedEvent.Change.DEPARTMENT_MEMBERS, department.getId());
             return true;
         } catch (Exception ex) {
             return false;
@@ -356,6 +392,7 @@ public class DepartmentServiceImpl implements DepartmentService {
                 throw new IllegalArgumentException("Invalid parent department");
             }
         }
+        Long oldParentDepartment = parentDepartment(existingDepartment);
         
         // Update fields
         existingDepartment.setName(departmentModel.getName());
@@ -375,8 +412,141 @@ public class DepartmentServiceImpl implements DepartmentService {
             existingDepartment.setDepartmentHead(null);
         }
         
+        // Move the subtree in the closure table when the parent department changed
+        Long newParentDepartment = parentDepartment(existingDepartment);
+        if (!Objects.equals(oldParentDepartment, newParentDepartment)) {
+            if (newParentDepartment != null && closureRepository.existsByAncestorIdAndDescendantId(id, newParentDepartment)) {
+                throw new IllegalArgumentException("Invalid parent department");
+            }
+            closureRepository.detachSubtree(id);
+            if (newParentDepartment != null) {
+                closureRepository.attachSubtree(id, newParentDepartment);
+            }
+        }
+
         // Save updated department
         Department updatedDepartment = departmentRepository.save(existingDepartment);
+        publishChanged(OrganizationChangedEvent.Change.DEPARTMENT, id);
         return new DepartmentModel(updatedDepartment);
     }
+
+    /**
+     * Deletes a department that has no child departments.
+     *
+     * @param id ID of department to delete
+     * @throws EntityNotFoundException If department not found
+     * @throws IllegalArgumentException If the department still has child departments
+     */
+    @Transactional
+    @Override
+    public void deleteDepartment(Long id) {
+        Department department = departmentRepository.findById(id)
+            .orElseThrow(() -> new EntityNotFoundException("Department not found with id: " + id));
+        if (closureRepository.existsByAncestorIdAndDepthGreaterThan(id, 0)) {
+            throw new IllegalArgumentException("Department has child departments");
+        }
+        closureRepository.deleteByDescendantId(id);
+        departmentRepository.delete(department);
+        publishChanged(OrganizationChangedEvent.Change.DEPARTMENT, id);
+    }
+
+    /**
+     * Finds departments of a type below the given departments in one query.
+     *
+     * @param ancestorIds IDs of the departments to start from
+     * @param type Department type of the descendants
+     * @param maxDepth Number of levels below the given departments to include
+     * @return Descendant department models, parents before their children
+     */
+    @Transactional(readOnly = true)
+    @Override
+    public List<DepartmentModel> findDescendants(Collection<Long> ancestorIds, DepartmentType type, int maxDepth) {
+        if (ancestorIds.isEmpty() || maxDepth < 1) {
+            return List.of();
+        }
+        return closureRepository.findDescendants(ancestorIds, type, maxDepth).stream()
+            .map(DepartmentModel::new)
+            .toList();
+    }
+
+    /**
+     * Finds the usernames of a department's members and of the members of its departments of the same type.
+     *
+     * @param department Department to start from
+     * @param maxDepth Number of levels below the department to include
+     * @return Distinct usernames, members of higher departments first
+     */
+    @Transactional(readOnly = true)
+    @Override
+    public List<String> findMemberUsernames(DepartmentModel department, int maxDepth) {
+        return List.copyOf(new LinkedHashSet<>(
+            closureRepository.findMemberUsernames(department.getId(), department.getType(), maxDepth)));
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public Optional<Long> findUserDepartmentId(String username, DepartmentType type) {
+        return departmentRepository.findIdsByMemberAndType(username, type).stream().findFirst();
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public List<DepartmentHeadModel> findHeadChain(Long departmentId, int levels) {
+        return closureRepository.findAncestorHeads(departmentId, levels).stream()
+            .map(x -> new DepartmentHeadModel(x.getDepartmentId(), x.getDepth(), x.getHeadUsername()))
+            .toList();
+    }
+
+    /**
+     * Rebuilds the closure table from the parents of all departments.
+     * <p>
+     * Runs at startup when the table is empty but departments exist, e.g. the first start after
+     * the table was introduced, and can be called after departments were changed outside this service.
+     */
+    @Transactional
+    public void rebuildHierarchy() {
+        Map<Long, Long> parents = new HashMap<>();
+        for (Department department : departmentRepository.findAll()) {
+            parents.put(department.getId(), parentDepartment(department));
+        }
+        List<DepartmentClosure> rows = new ArrayList<>();
+        for (Long id : parents.keySet()) {
+            Long ancestor = id;
+            int depth = 0;
+            Set<Long> seen = new HashSet<>();
+            // Stop at parents that are not departments and at corrupted cycles
+            while (ancestor != null && parents.containsKey(ancestor) && seen.add(ancestor)) {
+                DepartmentClosure row = new DepartmentClosure();
+                row.setAncestorId(ancestor);
+                row.setDescendantId(id);
+                row.setDepth(depth++);
+                rows.add(row);
+                ancestor = parents.get(ancestor);
+            }
+        }
+        closureRepository.deleteAllInBatch();
+        closureRepository.saveAll(rows);
+        log.info("Rebuilt department hierarchy: {} departments, {} closure rows", parents.size(), rows.size());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void initHierarchy() {
+        if (closureRepository.count() == 0 && departmentRepository.count() > 0) {
+            rebuildHierarchy();
+        }
+    }
+
+    /**
+     * The parent department of a department. Level-1 departments hang off a company or division,
+     * except teams, whose level-1 parent is a department.
+     */
+    private static Long parentDepartment(Department department) {
+        boolean team = department.getType() == DepartmentType.TEAM || department.getType() == DepartmentType.FUNCTIONAL_TEAM;
+        return team || (department.getLevel() != null && department.getLevel() > 1) ? department.getParent() : null;
+    }
+
+    private void publishChanged(OrganizationChangedEvent.Change change, Long departmentId) {
+        eventPublisher.publishEvent(new OrganizationChangedEvent(this, change, departmentId));
+    }
 }
@@ -4,10 +4,12 @@ import com.spms.backend.repository.entities.idm.Company;
 import com.spms.backend.repository.idm.CompanyRepository;
 import com.spms.backend.repository.idm.DivisionRepository;
 import com.spms.backend.service.idm.DivisionService;
+import com.spms.backend.service.idm.event.OrganizationChangedEvent;
 import com.spms.backend.service.model.idm.DivisionModel;
 import com.spms.backend.repository.entities.idm.Division;
 import com.spms.backend.service.exception.NotFoundException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -21,6 +23,7 @@ public class DivisionServiceImpl implements DivisionService {
 
     private final DivisionRepository divisionRepository;
     private final CompanyRepository companyRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Retrieves a paginated list of all divisions.
@@ -86,6 +89,7 @@ public class DivisionServiceImpl implements DivisionService {
                 .orElseThrow(() -> new NotFoundException("Business Unit not found with id: " + divisionModel.getCompanyId()));
         division.setCompany(company);
         Division savedDivision = divisionRepository.save(division);
+        publishChanged(savedDivision.getId());
         return DivisionModel.fromEntity(savedDivision);
     }
 
@@ -113,6 +117,7 @@ public class DivisionServiceImpl implements DivisionService {
         existingDivision.setActive(divisionModel.getActive());
         
         Division updatedDivision = divisionRepository.save(existingDivision);
+        publishChanged(id);
         return DivisionModel.fromEntity(updatedDivision);
     }
 
@@ -128,6 +133,7 @@ public class DivisionServiceImpl implements DivisionService {
         Division division = divisionRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException("Division not found with id: " + id));
         divisionRepository.delete(division);
+        publishChanged(id);
     }
 
     /**
@@ -144,6 +150,7 @@ public class DivisionServiceImpl implements DivisionService {
             throw new NotFoundException("Some divisions not found");
         }
         divisionRepository.deleteAll(divisions);
+        publishChanged(null);
     }
 
     /**
@@ -184,5 +191,8 @@ public class DivisionServiceImpl implements DivisionService {
                 .map(DivisionModel::fromEntity);
     }
 
-
+    private void publishChanged(Long divisionId) {
+        eventPublisher.publishEvent(new OrganizationChangedEvent(
+                this, OrganizationChangedEvent.Change.DIVISION, divisionId));
+    }
 }
@@ -0,0 +1,137 @@
+package com.spms.backend.service.idm.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.spms.backend.controller.dto.idm.ChartMode;
+import com.spms.backend.controller.dto.idm.OrganizationChartDTO;
+import com.spms.backend.service.idm.event.OrganizationChangedEvent;
+import com.spms.backend.service.idm.event.OrganizationVersion;
+import com.spms.backend.service.sys.cache.CacheVersions;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Organization charts per company and mode, kept as a read-only tree together with its JSON.
+ * <p>
+ * All charts are dropped after a transaction that published an {@link OrganizationChangedEvent}
+ * commits. A chart built while such a change was committed is returned but not kept, because it may
+ * have read the old structure. Changes committed on other nodes are found through {@link OrganizationVersion}
+ * before a lookup and drop all charts as well, at most {@code spms.cache.version-check-interval} late. Metrics: {@code spms.organization.chart.cache} (tag {@code result}
+ * hit/miss) and {@code spms.organization.chart.cache.hit.ratio}.
+ */
+@Slf4j
+@Component
+public class OrganizationChartCache {
+
+    /**
+     * A chart whose children lists cannot be modified, and its serialized form.
+     */
+    public record Snapshot(OrganizationChartDTO chart, byte[] json) {
+    }
+
+    private record Key(Long companyId, ChartMode mode) {
+    }
+
+    private final ObjectMapper objectMapper;
+    private final CacheVersions.Tracker sharedVersion;
+    private final Map<Key, Snapshot> snapshots = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+    private final Counter hits;
+    private final Counter misses;
+
+    public OrganizationChartCache(ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                                  OrganizationVersion organizationVersion) {
+        this.objectMapper = objectMapper;
+        this.sharedVersion = organizationVersion.tracker();
+        this.hits = Counter.builder("spms.organization.chart.cache")
+                .description("Organization chart requests served from the cache")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.misses = Counter.builder("spms.organization.chart.cache")
+                .description("Organization chart requests served from the cache")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        Gauge.builder("spms.organization.chart.cache.hit.ratio", this, OrganizationChartCache::hitRatio)
+                .description("Share of organization chart requests served from the cache")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the cached chart, building and caching it on a miss.
+     *
+     * @param companyId company of the chart
+     * @param mode      chart mode
+     * @param builder   builds the chart from the database
+     * @return chart snapshot
+     */
+    public Snapshot get(Long companyId, ChartMode mode, Supplier<OrganizationChartDTO> builder) {
+        if (sharedVersion.changed()) {
+            log.debug("Organization changed on another node, dropping {} cached charts", snapshots.size());
+            invalidateAll();
+        }
+        Key key = new Key(companyId, mode);
+        Snapshot snapshot = snapshots.get(key);
+        if (snapshot != null) {
+            hits.increment();
+            return snapshot;
+        }
+        misses.increment();
+
+        long seen = generation.get();
+        OrganizationChartDTO chart = readOnlyCopy(builder.get());
+        snapshot = new Snapshot(chart, serialize(chart));
+        snapshots.put(key, snapshot);
+        // Invalidation bumps the generation before clearing; drop what may have been built from old data
+        if (generation.get() != seen) {
+            snapshots.remove(key, snapshot);
+        }
+        return snapshot;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onOrganizationChanged(OrganizationChangedEvent event) {
+        log.debug("Organization {} {} changed, dropping {} cached charts",
+                event.getChange(), event.getEntityId(), snapshots.size());
+        invalidateAll();
+    }
+
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        snapshots.clear();
+    }
+
+    double hitRatio() {
+        double total = hits.count() + misses.count();
+        return total == 0 ? 0 : hits.count() / total;
+    }
+
+    private byte[] serialize(OrganizationChartDTO chart) {
+        try {
+            return objectMapper.writeValueAsBytes(chart);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Organization chart serialization failed", e);
+        }
+    }
+
+    private static OrganizationChartDTO readOnlyCopy(OrganizationChartDTO node) {
+        OrganizationChartDTO copy = new OrganizationChartDTO(node.getId(), node.getName(), node.getType());
+        List<OrganizationChartDTO> children = new ArrayList<>(node.getChildren().size());
+        for (OrganizationChartDTO child : node.getChildren()) {
+            children.add(readOnlyCopy(child));
+        }
+        copy.setChildren(List.copyOf(children));
+        return copy;
+    }
+}
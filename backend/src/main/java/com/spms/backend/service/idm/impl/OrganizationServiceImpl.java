@@ -6,15 +6,14 @@ import com.spms.backend.service.exception.NotFoundException;
 import com.spms.backend.repository.entities.idm.CompanyType;
 import com.spms.backend.repository.entities.idm.DepartmentType;
 import com.spms.backend.service.idm.*;
+import com.spms.backend.service.idm.assignment.DepartmentMemberAssigner;
 import com.spms.backend.service.model.idm.*;
 import org.springframework.stereotype.Service;
 
+import java.util.HashMap;
 import java.util.List;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicInteger;
-import java.util.Random;
+import java.util.Map;
 import java.util.Collections;
-import java.util.ArrayList;
 
 @Service("organizationService")
 public class OrganizationServiceImpl implements OrganizationService {
@@ -23,6 +22,14 @@ public class OrganizationServiceImpl implements OrganizationService {
     private final CompanyService companyService;
     private final DivisionService divisionService;
     private final DepartmentService departmentService;
+    private final OrganizationChartCache chartCache;
+    private final DepartmentHeadCache headCache;
+    private final DepartmentMemberAssigner memberAssigner;
+
+    /**
+     * Department levels shown in the organization chart
+     */
+    private static final int CHART_LEVELS = 4;
 
     /**
      * Constructs an OrganizationServiceImpl with required services
@@ -31,17 +38,26 @@ public class OrganizationServiceImpl implements OrganizationService {
      * @param departmentService service for department operations
      * @param companyService service for company operations
      * @param userService service for user operations
+     * @param chartCache cache of built organization charts
+     * @param headCache cache of resolved department heads
+     * @param memberAssigner picks a department member by assignment method
      */
     public OrganizationServiceImpl(
             DivisionService divisionService,
             DepartmentService departmentService,
             CompanyService companyService,
-            UserService userService
+            UserService userService,
+            OrganizationChartCache chartCache,
+            DepartmentHeadCache headCache,
+            DepartmentMemberAssigner memberAssigner
     ) {
         this.divisionService = divisionService;
         this.departmentService = departmentService;
         this.companyService = companyService;
         this.userService = userService;
+        this.chartCache = chartCache;
+        this.headCache = headCache;
+        this.memberAssigner = memberAssigner;
     }
 
 
@@ -50,10 +66,30 @@ public class OrganizationServiceImpl implements OrganizationService {
      * 
      * @param companyId ID of the company
      * @param mode chart display mode (REALISTIC or FUNCTIONAL)
-     * @return organization chart DTO
+     * @return organization chart DTO; its children lists are read-only
      */
     @Override
     public OrganizationChartDTO getOrganizationChart(Long companyId, ChartMode mode) {
+        return chartSnapshot(companyId, mode).chart();
+    }
+
+    /**
+     * Retrieves organization chart for a company already serialized as JSON
+     *
+     * @param companyId ID of the company
+     * @param mode chart display mode (REALISTIC or FUNCTIONAL)
+     * @return organization chart JSON
+     */
+    @Override
+    public byte[] getOrganizationChartJson(Long companyId, ChartMode mode) {
+        return chartSnapshot(companyId, mode).json();
+    }
+
+    private OrganizationChartCache.Snapshot chartSnapshot(Long companyId, ChartMode mode) {
+        return chartCache.get(companyId, mode, () -> buildChart(companyId, mode));
+    }
+
+    private OrganizationChartDTO buildChart(Long companyId, ChartMode mode) {
         CompanyModel groupCompany = companyService.getCompanyByCompanyId(companyId)
                 .orElseThrow(() -> new NotFoundException("Company not found"));
 
@@ -104,6 +140,7 @@ public class OrganizationServiceImpl implements OrganizationService {
         List<CompanyModel> businessEntities = companyService.findByParentIdAndCompanyType(
                 groupCompany.getId(), CompanyType.BUSINESS_ENTITY);
 
+        Map<Long, OrganizationChartDTO> departmentNodes = new HashMap<>();
         businessEntities.forEach(entity -> {
             OrganizationChartDTO entityNode = new OrganizationChartDTO();
             entityNode.setId(entity.getId().toString());
@@ -114,10 +151,11 @@ public class OrganizationServiceImpl implements OrganizationService {
             List<DepartmentModel> localDepartments = departmentService.findByParentAndType(
                     entity.getId().toString(), DepartmentType.LOCAL);
 
-            addDepartmentNodes(entityNode, localDepartments, 1);
+            addDepartmentNodes(entityNode, localDepartments, departmentNodes);
 
             chart.getChildren().add(entityNode);
         });
+        addDescendantNodes(departmentNodes, DepartmentType.LOCAL);
 
         List<CompanyModel> customer = companyService.findByParentIdAndCompanyType(
                 groupCompany.getId(), CompanyType.CUSTOMER);
@@ -158,6 +196,7 @@ public class OrganizationServiceImpl implements OrganizationService {
         // Get all divisions under this group
         List<DivisionModel> divisions = divisionService.findByCompanyId(groupCompany.getId());
 
+        Map<Long, OrganizationChartDTO> departmentNodes = new HashMap<>();
         divisions.forEach(division -> {
             OrganizationChartDTO divisionNode = new OrganizationChartDTO();
             divisionNode.setId(division.getId().toString());
@@ -168,39 +207,58 @@ public class OrganizationServiceImpl implements OrganizationService {
             List<DepartmentModel> functionalDepartments = departmentService.findByParentAndType(
                     division.getId().toString(), DepartmentType.FUNCTIONAL);
 
-            addDepartmentNodes(divisionNode, functionalDepartments, 1);
+            addDepartmentNodes(divisionNode, functionalDepartments, departmentNodes);
 
             chart.getChildren().add(divisionNode);
         });
+        addDescendantNodes(departmentNodes, DepartmentType.FUNCTIONAL);
         return chart;
     }
 
     /**
-     * Recursively adds department nodes to organization chart
+     * Adds top-level department nodes to organization chart
      * 
      * @param parentNode parent node in chart
      * @param departments list of department models
-     * @param currentLevel current recursion depth
+     * @param departmentNodes chart nodes by department ID, the added nodes are put here
      */
-    private void addDepartmentNodes(OrganizationChartDTO parentNode, List<DepartmentModel> departments, int currentLevel) {
-        if (currentLevel > 4) return; // Max hierarchy level
-
+    private void addDepartmentNodes(OrganizationChartDTO parentNode, List<DepartmentModel> departments,
+                                    Map<Long, OrganizationChartDTO> departmentNodes) {
         departments.forEach(dept -> {
-            OrganizationChartDTO deptNode = new OrganizationChartDTO();
-            deptNode.setId(dept.getId().toString());
-            deptNode.setName(dept.getName());
-            deptNode.setType("DEPARTMENT");
-
-            if (currentLevel < 4) {
-                // Get child departments
-                List<DepartmentModel> childDepartments = departmentService.findByParentAndType(
-                        dept.getId().toString(), dept.getType());
-                addDepartmentNodes(deptNode, childDepartments, currentLevel + 1);
-            }
+            OrganizationChartDTO deptNode = departmentNode(dept);
+            departmentNodes.put(dept.getId(), deptNode);
             parentNode.getChildren().add(deptNode);
         });
     }
 
+    /**
+     * Adds the departments below the given department nodes, down to the chart's last level,
+     * from one query. Descendants come parents first, so each parent node already exists.
+     * 
+     * @param departmentNodes chart nodes of the top-level departments by department ID
+     * @param type department type of the chart's departments
+     */
+    private void addDescendantNodes(Map<Long, OrganizationChartDTO> departmentNodes, DepartmentType type) {
+        List<DepartmentModel> descendants = departmentService.findDescendants(
+                List.copyOf(departmentNodes.keySet()), type, CHART_LEVELS - 1);
+        for (DepartmentModel dept : descendants) {
+            OrganizationChartDTO parentNode = departmentNodes.get(dept.getParent());
+            if (parentNode != null) {
+                OrganizationChartDTO deptNode = departmentNode(dept);
+                departmentNodes.put(dept.getId(), deptNode);
+                parentNode.getChildren().add(deptNode);
+            }
+        }
+    }
+
+    private static OrganizationChartDTO departmentNode(DepartmentModel dept) {
+        OrganizationChartDTO deptNode = new OrganizationChartDTO();
+        deptNode.setId(dept.getId().toString());
+        deptNode.setName(dept.getName());
+        deptNode.setType("DEPARTMENT");
+        return deptNode;
+    }
+
     /**
      * Removes user from a department
      * 
@@ -255,67 +313,68 @@ public class OrganizationServiceImpl implements OrganizationService {
      */
     @Override
     public String findUserDepartmentHead(String userName, String line) {
-        UserModel user = userService.getUserByUserName(userName);
-        if (user == null) {
+        return findUserDepartmentHead(userName, line, 0);
+    }
+
+    /**
+     * Finds a higher department head for escalation in Flowable UEL expressions
+     * ${organizationService.findUserDepartmentHead(initiator,"LOCAL",1)}
+     * @param userName username to lookup
+     * @param line department line type ("FUNCTIONAL" or "LOCAL")
+     * @param levels levels above the user's department, 0 for its own head
+     * @return department head username or empty string
+     */
+    @Override
+    public String findUserDepartmentHead(String userName, String line, int levels) {
+        DepartmentType type = lineType(line);
+        if (userName == null || type == null || levels < 0) {
             return "";
         }
-        
-        DepartmentModel department = null;
+        return headCache.get(userName, type, levels, () -> resolveDepartmentHead(userName, type, levels));
+    }
+
+    private static DepartmentType lineType(String line) {
         if ("FUNCTIONAL".equalsIgnoreCase(line)) {
-            department = user.getFunctionalDepartment();
+            return DepartmentType.FUNCTIONAL;
         } else if ("LOCAL".equalsIgnoreCase(line)) {
-            department = user.getLocalDepartment();
+            return DepartmentType.LOCAL;
         }
-        
-        if (department == null || department.getDepartmentHead() == null) {
-            return "";
-        }
-        return department.getDepartmentHead().getUsername();
+        return null;
     }
 
-
-
-    private static final ConcurrentHashMap<String, AtomicInteger> sequenceIndexMap = new ConcurrentHashMap<>();
+    private DepartmentHeadCache.Resolution resolveDepartmentHead(String userName, DepartmentType type, int levels) {
+        Long departmentId = departmentService.findUserDepartmentId(userName, type).orElse(null);
+        if (departmentId == null) {
+            return new DepartmentHeadCache.Resolution("", List.of());
+        }
+        List<DepartmentHeadModel> chain = departmentService.findHeadChain(departmentId, levels);
+        List<Long> departmentIds = chain.isEmpty()
+            ? List.of(departmentId)
+            : chain.stream().map(DepartmentHeadModel::departmentId).toList();
+        if (chain.size() <= levels || chain.get(levels).headUsername() == null) {
+            return new DepartmentHeadCache.Resolution("", departmentIds);
+        }
+        return new DepartmentHeadCache.Resolution(chain.get(levels).headUsername(), departmentIds);
+    }
 
     /**
-     * For flowable engine UEL Expression like:organizationService.findDepartmentMember('HR—Salary','random')
+     * For flowable engine UEL Expression like:organizationService.findDepartmentMember('12','least-loaded')
      * 
      * @param departmentId department ID to search
-     * @param method selection method ("random" or "sequence")
+     * @param method selection method ("random", "sequence"/"round-robin", "least-loaded" or "weighted")
      * @return selected member username or empty string
      */
     @Override
     public String findDepartmentMember(String departmentId, String method) {
-        DepartmentModel department = departmentService.getDepartmentById(Long.parseLong(departmentId))
-            .orElse(null);
-        if (department == null) {
-            return "";
-        }
-        
-        List<UserModel> members = userService.getUserFilterByDepartment(department);
-        if (members.isEmpty()) {
-            return "";
-        }
-        
-        if ("random".equalsIgnoreCase(method)) {
-            int randomIndex = new Random().nextInt(members.size());
-            return members.get(randomIndex).getUsername();
-        } else if ("sequence".equalsIgnoreCase(method)) {
-            AtomicInteger index = sequenceIndexMap.computeIfAbsent(
-                departmentId, k -> new AtomicInteger(0));
-            int currentIndex = index.getAndUpdate(i -> (i + 1) % members.size());
-            return members.get(currentIndex).getUsername();
-        }
-        
-        return "";
+        return memberAssigner.assign(Long.parseLong(departmentId), method);
     }
 
     /**
      * For flowable engine UEL Expression like:organizationService.findDepartmentMember('ITD', 10 )
      * 
      * @param departmentId department ID to search
-     * @param depth hierarchy depth to include
-     * @return list of member usernames
+     * @param depth hierarchy depth to include, 1 for the department's own members
+     * @return list of distinct member usernames, members of higher departments first
      */
     @Override
     public List<String> findDepartmentMembers(String departmentId, int depth) {
@@ -329,23 +388,8 @@ public class OrganizationServiceImpl implements OrganizationService {
             return Collections.emptyList();
         }
         
-        List<String> members = new ArrayList<>();
-        // Get immediate members
-        List<UserModel> immediateMembers = userService.getUserFilterByDepartment(department);
-        immediateMembers.stream()
-            .map(UserModel::getUsername)
-            .forEach(members::add);
-        
-        // Recursively get child department members if depth > 1
-        if (depth > 1) {
-            List<DepartmentModel> childDepartments = departmentService.findByParentAndType(
-                department.getId().toString(), department.getType());
-            for (DepartmentModel child : childDepartments) {
-                members.addAll(findDepartmentMembers(child.getId().toString(), depth - 1));
-            }
-        }
-        
-        return members;
+        // Members of the department and of its departments of the same type, in one query
+        return departmentService.findMemberUsernames(department, depth - 1);
     }
 
     /**
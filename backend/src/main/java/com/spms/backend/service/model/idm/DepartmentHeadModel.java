@@ -0,0 +1,11 @@
+package com.spms.backend.service.model.idm;
+
+/**
+ * Head of a department on the way up from another department.
+ *
+ * @param departmentId the department
+ * @param depth        levels above the starting department, 0 for the department itself
+ * @param headUsername username of the department head, or null if it has none
+ */
+public record DepartmentHeadModel(Long departmentId, int depth, String headUsername) {
+}
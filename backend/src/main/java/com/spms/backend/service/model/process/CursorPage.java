@@ -0,0 +1,18 @@
+package com.spms.backend.service.model.process;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * One page of a keyset-paginated listing.
+ *
+ * @param content    rows of the page
+ * @param nextCursor cursor for the next page, null on the last page
+ * @param total      number of rows across all pages, null unless requested
+ */
+public record CursorPage<T>(List<T> content, String nextCursor, Long total) {
+
+    public <R> CursorPage<R> map(Function<? super T, ? extends R> mapper) {
+        return new CursorPage<>(content.stream().<R>map(mapper).toList(), nextCursor, total);
+    }
+}
@@ -0,0 +1,40 @@
+package com.spms.backend.service.model.process;
+
+import com.spms.backend.service.exception.ValidationException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Date;
+
+/**
+ * Position of the last row of a page ordered by time and ID, both descending.
+ * Clients get it as an opaque URL-safe string and pass it back to fetch the next page.
+ *
+ * @param time start or create time of the last row
+ * @param id   ID of the last row
+ */
+public record SeekCursor(Date time, String id) {
+
+    public String encode() {
+        String raw = time.getTime() + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @param cursor value returned by {@link #encode()}; null or blank for the first page
+     * @return the cursor, or null for the first page
+     * @throws ValidationException if the cursor cannot be decoded
+     */
+    public static SeekCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int colon = raw.indexOf(':');
+            return new SeekCursor(new Date(Long.parseLong(raw.substring(0, colon))), raw.substring(colon + 1));
+        } catch (RuntimeException e) {
+            throw new ValidationException("Invalid cursor: " + cursor);
+        }
+    }
+}
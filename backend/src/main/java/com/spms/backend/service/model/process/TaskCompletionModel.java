@@ -0,0 +1,13 @@
+package com.spms.backend.service.model.process;
+
+import java.util.Map;
+
+/**
+ * One task to complete in a bulk completion
+ *
+ * @param instanceId ID of the process instance containing the task
+ * @param taskId     ID of the task to complete
+ * @param values     completion data
+ */
+public record TaskCompletionModel(String instanceId, String taskId, Map<String, Object> values) {
+}
@@ -0,0 +1,33 @@
+package com.spms.backend.service.model.process;
+
+/**
+ * Outcome of one task of a bulk completion
+ *
+ * @param instanceId ID of the process instance containing the task
+ * @param taskId     ID of the task
+ * @param status     outcome
+ * @param message    reason when the task was not completed
+ */
+public record TaskCompletionResultModel(String instanceId, String taskId, Status status, String message) {
+
+    public enum Status {
+        /** Task completed and committed */
+        COMPLETED,
+        /** Missing IDs or the task was listed twice */
+        INVALID,
+        /** No such task in the given process instance */
+        NOT_FOUND,
+        /** Task is not assigned to the user */
+        NOT_ASSIGNED,
+        /** The engine failed to complete the task; nothing was written for it */
+        FAILED
+    }
+
+    public static TaskCompletionResultModel completed(TaskCompletionModel item) {
+        return new TaskCompletionResultModel(item.instanceId(), item.taskId(), Status.COMPLETED, null);
+    }
+
+    public static TaskCompletionResultModel rejected(TaskCompletionModel item, Status status, String message) {
+        return new TaskCompletionResultModel(item.instanceId(), item.taskId(), status, message);
+    }
+}
@@ -1,21 +1,26 @@
 package com.spms.backend.service.process;
 
+import com.spms.backend.service.process.engine.ProcessMetrics;
 import com.spms.backend.service.process.impl.ProcessDataServiceImpl;
 import lombok.extern.slf4j.Slf4j;
 import org.flowable.common.engine.api.async.AsyncTaskInvoker;
 import org.flowable.engine.delegate.DelegateExecution;
 import org.flowable.engine.delegate.FutureJavaDelegate;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.util.ClassUtils;
 
 import java.util.concurrent.CompletableFuture;
 
 /**
  * 通用审批服务抽象基类
  *
- * 提供统一的审批处理框架，子类只需要实现业务特定的逻辑
+ * 提供统一的审批处理框架，子类只需要实现业务特定的逻辑。
+ * 流程变量只在引擎线程上读写：execute 读取参数后，{@link #processApproval} 通过引擎的
+ * {@link AsyncTaskInvoker} 在审批线程池中执行，afterExecution 再回到引擎线程写入结果变量。
+ * 每个子类的处理耗时记录在 {@code spms.approval.duration} 指标中。
  */
 @Slf4j
-public abstract class AbstractApprovalService implements FutureJavaDelegate<String> {
+public abstract class AbstractApprovalService implements FutureJavaDelegate<AbstractApprovalService.ApprovalOutcome> {
 
     @Autowired
     protected ProcessDataServiceImpl processDataService;
@@ -23,54 +28,66 @@ public abstract class AbstractApprovalService implements FutureJavaDelegate<Stri
     @Autowired
     protected FormDataProcessor formDataProcessor;
 
+    @Autowired
+    protected ProcessMetrics processMetrics;
+
     @Override
-    public CompletableFuture<String> execute(DelegateExecution execution, AsyncTaskInvoker taskInvoker) {
-        return CompletableFuture.supplyAsync(() -> {
-            try {
-                // 获取通用参数
-                String processInstanceId = execution.getProcessInstanceId();
-                String approvalDecision = (String) execution.getVariable("approvalDecision");
-                String approvalComment = (String) execution.getVariable("approvalComment");
+    public CompletableFuture<ApprovalOutcome> execute(DelegateExecution execution, AsyncTaskInvoker taskInvoker) {
+        // 获取通用参数（引擎线程）
+        String processInstanceId = execution.getProcessInstanceId();
+        String approvalDecision = (String) execution.getVariable("approvalDecision");
+        String approvalComment = (String) execution.getVariable("approvalComment");
+        String service = ClassUtils.getUserClass(this).getSimpleName();
 
-                log.info("Processing approval for process: {}, decision: {}",
-                        processInstanceId, approvalDecision);
+        log.info("Processing approval for process: {}, decision: {}",
+                processInstanceId, approvalDecision);
 
-                // 调用子类的业务逻辑处理
+        return taskInvoker.submit(() -> {
+            long start = System.nanoTime();
+            boolean succeeded = false;
+            try {
+                // 调用子类的业务逻辑处理，不访问 execution
                 ApprovalResult result = processApproval(processInstanceId, approvalDecision, approvalComment);
-
-                // 设置流程变量
-                execution.setVariable("statusUpdateCompleted", true);
-                execution.setVariable("finalStatus", result.getStatus());
-                execution.setVariable("approvalResult", result.getMessage());
-
-                String responseMessage = String.format("Approval processed: %s -> %s",
-                    processInstanceId, result.getStatus());
-                log.info(responseMessage);
-
-                return responseMessage;
-
+                succeeded = true;
+                return ApprovalOutcome.completed(result);
             } catch (Exception e) {
                 log.error("Failed to process approval", e);
-
-                // 设置错误状态
-                execution.setVariable("statusUpdateCompleted", false);
-                execution.setVariable("statusUpdateError", e.getMessage());
-
-                throw new RuntimeException("Approval processing failed: " + e.getMessage(), e);
+                return ApprovalOutcome.failed(e);
+            } finally {
+                if (processMetrics != null) {
+                    processMetrics.approval(service, System.nanoTime() - start, succeeded);
+                }
             }
         });
     }
 
     @Override
-    public void afterExecution(DelegateExecution execution, String executionData) {
+    public void afterExecution(DelegateExecution execution, ApprovalOutcome outcome) {
         String processInstanceId = execution.getProcessInstanceId();
-        String finalStatus = (String) execution.getVariable("finalStatus");
+
+        if (outcome.getError() != null) {
+            // 设置错误状态
+            execution.setVariable("statusUpdateCompleted", false);
+            execution.setVariable("statusUpdateError", outcome.getError().getMessage());
+
+            throw new RuntimeException("Approval processing failed: " + outcome.getError().getMessage(),
+                    outcome.getError());
+        }
+
+        // 设置流程变量
+        ApprovalResult result = outcome.getResult();
+        execution.setVariable("statusUpdateCompleted", true);
+        execution.setVariable("finalStatus", result.getStatus());
+        execution.setVariable("approvalResult", result.getMessage());
+
+        String executionData = String.format("Approval processed: %s -> %s",
+                processInstanceId, result.getStatus());
 
         log.info("Approval service completed: processInstanceId={}, finalStatus={}, result={}",
-                processInstanceId, finalStatus, executionData);
+                processInstanceId, result.getStatus(), executionData);
 
         // 调用子类的后处理逻辑
-        afterApproval(processInstanceId, finalStatus, executionData);
+        afterApproval(processInstanceId, result.getStatus(), executionData);
     }
 
     /**
@@ -89,6 +106,30 @@ public abstract class AbstractApprovalService implements FutureJavaDelegate<Stri
         public String getMessage() { return message; }
     }
 
+    /**
+     * 异步处理步骤的输出：审批结果或处理异常，由 afterExecution 在引擎线程上应用
+     */
+    public static class ApprovalOutcome {
+        private final ApprovalResult result;
+        private final Exception error;
+
+        private ApprovalOutcome(ApprovalResult result, Exception error) {
+            this.result = result;
+            this.error = error;
+        }
+
+        static ApprovalOutcome completed(ApprovalResult result) {
+            return new ApprovalOutcome(result, null);
+        }
+
+        static ApprovalOutcome failed(Exception error) {
+            return new ApprovalOutcome(null, error);
+        }
+
+        public ApprovalResult getResult() { return result; }
+        public Exception getError() { return error; }
+    }
+
     /**
      * 子类实现具体的审批业务逻辑
      *
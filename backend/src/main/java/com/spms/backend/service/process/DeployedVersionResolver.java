@@ -0,0 +1,125 @@
+package com.spms.backend.service.process;
+
+import com.spms.backend.repository.entities.process.ProcessVersionStatus;
+import com.spms.backend.repository.process.ProcessVersionRepository;
+import com.spms.backend.service.sys.cache.CacheVersions;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Resolves the currently deployed version of a process definition.
+ * <p>
+ * Instance start only needs the Flowable key and the owner of the deployed version, so those are
+ * kept in a bounded LRU cache keyed by definition ID instead of walking
+ * {@code ProcessDefinitionEntity.getVersions()} on every start. Deploying or retiring a version
+ * must call {@link #invalidate(Long)}. Deployments committed on other nodes are found through
+ * {@link CacheVersions} before a lookup and drop all entries, at most
+ * {@code spms.cache.version-check-interval} late.
+ */
+@Slf4j
+@Component
+public class DeployedVersionResolver {
+
+    /**
+     * Upper bound of cached definitions; the least recently used entry is evicted first.
+     */
+    static final int MAX_ENTRIES = 512;
+
+    static final String CACHE_NAME = "deployed-version";
+
+    /**
+     * The parts of a deployed process version needed to start an instance.
+     *
+     * @param definitionId ID of the process definition
+     * @param versionId    ID of the deployed process version
+     * @param key          Flowable process definition key
+     * @param ownerId      owner of the process definition
+     */
+    public record DeployedVersion(Long definitionId, Long versionId, String key, Long ownerId) {
+    }
+
+    private final ProcessVersionRepository processVersionRepository;
+    private final CacheVersions cacheVersions;
+    private final CacheVersions.Tracker sharedVersion;
+
+    private final Map<Long, DeployedVersion> cache = new LinkedHashMap<>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, DeployedVersion> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+
+    public DeployedVersionResolver(ProcessVersionRepository processVersionRepository, CacheVersions cacheVersions) {
+        this.processVersionRepository = processVersionRepository;
+        this.cacheVersions = cacheVersions;
+        this.sharedVersion = cacheVersions.tracker(CACHE_NAME);
+    }
+
+    /**
+     * Gets the deployed version of a process definition.
+     *
+     * @param definitionId ID of the process definition
+     * @return the deployed version, or empty if no version is deployed
+     */
+    public Optional<DeployedVersion> resolve(Long definitionId) {
+        if (sharedVersion.changed()) {
+            log.debug("Deployed versions changed on another node, dropping cached definitions");
+            synchronized (cache) {
+                cache.clear();
+            }
+        }
+        synchronized (cache) {
+            DeployedVersion cached = cache.get(definitionId);
+            if (cached != null) {
+                return Optional.of(cached);
+            }
+        }
+
+        Optional<DeployedVersion> loaded = processVersionRepository
+                .findDeployedVersionViews(definitionId, ProcessVersionStatus.DEPLOYED, PageRequest.of(0, 1))
+                .stream()
+                .findFirst()
+                .map(v -> new DeployedVersion(definitionId, v.getVersionId(), v.getKey(), v.getOwnerId()));
+
+        loaded.ifPresent(version -> {
+            synchronized (cache) {
+                cache.put(definitionId, version);
+            }
+        });
+        log.debug("Resolved deployed version for definition {} from repository: {}", definitionId, loaded.orElse(null));
+        return loaded;
+    }
+
+    /**
+     * Drops the cached version of a definition. When called inside a transaction the entry is
+     * dropped again after commit, so a concurrent start cannot re-cache the pre-commit state. The shared
+     * version is incremented in the same transaction, so other nodes drop their entries too.
+     *
+     * @param definitionId ID of the process definition whose deployment changed
+     */
+    public void invalidate(Long definitionId) {
+        cacheVersions.increment(CACHE_NAME);
+        evict(definitionId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(definitionId);
+                }
+            });
+        }
+    }
+
+    private void evict(Long definitionId) {
+        synchronized (cache) {
+            cache.remove(definitionId);
+        }
+    }
+}
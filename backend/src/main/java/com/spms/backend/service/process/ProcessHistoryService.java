@@ -1,5 +1,6 @@
 package com.spms.backend.service.process;
 
+import com.spms.backend.service.model.process.CursorPage;
 import com.spms.backend.service.model.process.ProcessHistoryModel;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -24,4 +25,15 @@ public interface ProcessHistoryService {
      */
     Page<ProcessHistoryModel> getHistoryHandledByUser(Long userId, Pageable pageable);
 
+    /**
+     * Retrieves the history of processes handled by a specific user, newest first, paged by cursor
+     *
+     * @param userId       ID of the user who handled the processes
+     * @param cursor       next cursor of the previous page; null for the first page
+     * @param size         page size, at most 100
+     * @param includeTotal whether to count all processes as well
+     * @return one page of process history models
+     */
+    CursorPage<ProcessHistoryModel> getHistoryHandledByUser(Long userId, String cursor, int size, boolean includeTotal);
+
 }
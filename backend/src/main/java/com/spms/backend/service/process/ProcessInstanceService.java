@@ -3,12 +3,15 @@ package com.spms.backend.service.process;
 import com.spms.backend.service.model.idm.UserModel;
 import com.spms.backend.service.model.process.ProcessActivityModel;
 import com.spms.backend.service.model.process.ProcessInstanceModel;
+import com.spms.backend.service.model.process.TaskCompletionModel;
+import com.spms.backend.service.model.process.TaskCompletionResultModel;
 import com.spms.backend.service.model.process.TaskModel;
 import com.spms.backend.service.exception.NotFoundException;
 import com.spms.backend.service.exception.ValidationException;
 import com.spms.backend.service.exception.SpmsRuntimeException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 
@@ -57,6 +60,14 @@ public interface ProcessInstanceService {
      */
     List<TaskModel> getInstanceTasks(String instanceId) throws NotFoundException;
 
+    /**
+     * Retrieves the active tasks of several process instances with a single engine query.
+     *
+     * @param instanceIds IDs of the process instances
+     * @return tasks grouped by process instance ID; instances without tasks are absent
+     */
+    Map<String, List<TaskModel>> getInstanceTasksIn(Collection<String> instanceIds);
+
     /**
      * Retrieves paginated activity history for a process instance.
      * 
@@ -84,6 +95,20 @@ public interface ProcessInstanceService {
     void completeTask(String instanceId, String taskId, Long userId, Map<String, Object> completedValues)
         throws NotFoundException, SpmsRuntimeException;
 
+    /**
+     * Completes several tasks assigned to a user.
+     * Tasks are completed in chunks, each in its own transaction; a task that fails is reported
+     * and does not undo the tasks completed before or after it.
+     *
+     * @param completions tasks to complete with their completion data
+     * @param userId ID of the user completing the tasks
+     * @return one result per requested task, in request order
+     * @throws ValidationException if userId is null or too many tasks are requested
+     * @throws NotFoundException if the user is not found
+     */
+    List<TaskCompletionResultModel> completeTasks(List<TaskCompletionModel> completions, Long userId)
+        throws NotFoundException, ValidationException;
+
     /**
      * Rejects a task in a process instance with specified rejection values.
      * 
@@ -124,14 +149,15 @@ public interface ProcessInstanceService {
     /**
      * Retrieves paginated list of process instances related to a user.
      * 
-     * <p>Includes instances started by the user and instances where the user has assigned tasks.</p>
+     * <p>Includes instances started by the user and instances where the user has assigned tasks,
+     * newest first.</p>
      *
      * @param pageable pagination configuration
      * @param user user model object
-     * @return list of ProcessInstanceModel objects related to the user
+     * @return page of ProcessInstanceModel objects related to the user, with the total count
      * @throws SpmsRuntimeException if an error occurs during retrieval
      */
-    List<ProcessInstanceModel> getUserRelatedInstances(Pageable pageable, UserModel user);
+    Page<ProcessInstanceModel> getUserRelatedInstances(Pageable pageable, UserModel user);
     
     /**
      * Counts active (incomplete) tasks across all process instances.
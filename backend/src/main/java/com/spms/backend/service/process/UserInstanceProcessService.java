@@ -1,6 +1,6 @@
 package com.spms.backend.service.process;
 
-import com.spms.backend.service.model.idm.UserModel;
+import com.spms.backend.service.model.process.CursorPage;
 import com.spms.backend.service.model.process.ProcessInstanceModel;
 import com.spms.backend.service.model.process.TaskModel;
 import org.springframework.data.domain.Page;
@@ -15,4 +15,27 @@ public interface UserInstanceProcessService {
 
     Page<ProcessInstanceModel> getUserRelatedHistoryInstanceService(Long userId, Pageable pageable);
 
+    /**
+     * Active tasks assigned to the user, newest first, paged by cursor instead of offset.
+     *
+     * @param userId       ID of the user
+     * @param cursor       next cursor of the previous page; null for the first page
+     * @param size         page size, at most 100
+     * @param includeTotal whether to count all tasks as well
+     * @return one page of tasks
+     */
+    CursorPage<TaskModel> getAssignedRunningUserTasks(Long userId, String cursor, int size, boolean includeTotal);
+
+    /**
+     * Historic instances the user was involved in, newest first, paged by cursor instead of offset.
+     *
+     * @param userId       ID of the user
+     * @param cursor       next cursor of the previous page; null for the first page
+     * @param size         page size, at most 100
+     * @param includeTotal whether to count all instances as well
+     * @return one page of instances
+     */
+    CursorPage<ProcessInstanceModel> getUserRelatedHistoryInstances(Long userId, String cursor, int size,
+                                                                    boolean includeTotal);
+
 }
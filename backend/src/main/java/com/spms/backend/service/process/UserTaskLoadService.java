@@ -0,0 +1,28 @@
+package com.spms.backend.service.process;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Open task counts per user, maintained from engine events ({@code spms_user_task_load}).
+ */
+public interface UserTaskLoadService {
+
+    /**
+     * @param usernames users to look up
+     * @return open task count per user; users without a counter have no open tasks and are left out
+     */
+    Map<String, Long> getOpenTaskCounts(Collection<String> usernames);
+
+    /**
+     * @return whether any open task is counted
+     */
+    boolean hasCountedTasks();
+
+    /**
+     * Recounts every user from the assigned runtime tasks in one transaction.
+     *
+     * @return number of assigned tasks counted
+     */
+    long rebuild();
+}
@@ -0,0 +1,24 @@
+package com.spms.backend.service.process;
+
+/**
+ * Maintenance of the "my work" read model ({@code spms_user_work_item} and {@code spms_user_work_task}).
+ * <p>
+ * The engine event listener keeps the table current; this service fills it for data that existed
+ * before the listener, or repairs it after rows were lost.
+ */
+public interface UserWorkItemService {
+
+    /**
+     * @return whether the read model holds any row
+     */
+    boolean hasWorkItems();
+
+    /**
+     * Recomputes the rows of every process instance in history, in batches that commit on their own.
+     * Rows of other instances are left alone, so the rebuild can run while the application serves
+     * requests; an instance that changes while its batch is written is corrected by its next event.
+     *
+     * @return number of process instances projected
+     */
+    long rebuild();
+}
@@ -0,0 +1,97 @@
+package com.spms.backend.service.process.engine;
+
+import com.spms.backend.config.ApprovalExecutorProperties;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.flowable.common.engine.api.async.AsyncTaskInvoker;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs the asynchronous part of Flowable future delegates on the {@code spms-approval} threads
+ * instead of the JVM-wide common pool. Registered with the engine by
+ * {@link com.spms.backend.config.FlowableEngineConfig}; sized by {@link ApprovalExecutorProperties}.
+ */
+@Slf4j
+@Component
+public class ApprovalTaskInvoker implements AsyncTaskInvoker {
+
+    static final String THREAD_PREFIX = "spms-approval-";
+
+    private final ExecutorService executor;
+    private final Semaphore permits;
+
+    public ApprovalTaskInvoker(ApprovalExecutorProperties properties) {
+        int threads = Math.max(1, properties.getThreads());
+        ExecutorService virtual = properties.isVirtualThreads() ? virtualThreadExecutor() : null;
+        if (virtual != null) {
+            this.executor = virtual;
+            this.permits = new Semaphore(threads);
+        } else {
+            AtomicInteger counter = new AtomicInteger();
+            ThreadFactory threadFactory = runnable -> {
+                Thread thread = new Thread(runnable, THREAD_PREFIX + counter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            };
+            this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                    new ArrayBlockingQueue<>(Math.max(1, properties.getQueueCapacity())), threadFactory,
+                    new ThreadPoolExecutor.CallerRunsPolicy());
+            this.permits = null;
+        }
+    }
+
+    @Override
+    public <T> CompletableFuture<T> submit(Callable<T> task) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        executor.execute(() -> {
+            try {
+                future.complete(call(task));
+            } catch (Throwable e) {
+                future.completeExceptionally(e instanceof CompletionException ? e : new CompletionException(e));
+            }
+        });
+        return future;
+    }
+
+    private <T> T call(Callable<T> task) throws Exception {
+        if (permits == null) {
+            return task.call();
+        }
+        permits.acquire();
+        try {
+            return task.call();
+        } finally {
+            permits.release();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * {@code Executors.newVirtualThreadPerTaskExecutor()} when the runtime has it (Java 21+).
+     */
+    private static ExecutorService virtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            log.warn("Virtual threads are not available on Java {}, using the approval thread pool",
+                    Runtime.version().feature());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.spms.backend.service.process.engine;
+
+/**
+ * Counts the Flowable engine commands (queries and writes) issued by the current thread.
+ * <p>
+ * Fed by {@link ProcessCommandMetricsInterceptor} through {@link ProcessMetrics}, which is the one place
+ * engine commands are counted; services do not record anything themselves. The web layer resets the
+ * counter when a request starts and logs the total when it ends.
+ */
+public final class EngineQueryCounter {
+
+    private static final ThreadLocal<int[]> COUNT = ThreadLocal.withInitial(() -> new int[1]);
+
+    private EngineQueryCounter() {
+    }
+
+    /**
+     * Records one top-level engine command issued by the current thread.
+     */
+    static void record() {
+        COUNT.get()[0]++;
+    }
+
+    /**
+     * @return the number of engine commands issued since the last reset
+     */
+    public static int get() {
+        return COUNT.get()[0];
+    }
+
+    /**
+     * Resets the counter of the current thread.
+     */
+    public static void reset() {
+        COUNT.remove();
+    }
+}
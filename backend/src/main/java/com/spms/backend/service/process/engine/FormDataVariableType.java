@@ -0,0 +1,190 @@
+package com.spms.backend.service.process.engine;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.flowable.common.engine.api.FlowableException;
+import org.flowable.variable.api.types.ValueFields;
+import org.flowable.variable.api.types.VariableType;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Flowable variable type for form payloads such as {@code formData}.
+ * <p>
+ * Maps made of JSON values are stored as Jackson Smile instead of a Java-serialized {@code HashMap},
+ * and deflated when larger than {@link #DEFAULT_COMPRESSION_THRESHOLD} bytes. The first byte of the
+ * stored array is a format marker so the encoding can evolve.
+ * <p>
+ * The type is registered ahead of the built-in types and so is offered every map variable, not only
+ * form data. It therefore only takes maps that read back with the same value types: {@code HashMap}
+ * and {@code LinkedHashMap}, {@code ArrayList}, strings, booleans, doubles, and integers in the type
+ * Jackson reads them as ({@code Integer}, {@code Long} beyond the int range, {@code BigInteger} beyond
+ * the long range). Any other map, e.g. one holding a {@code BigDecimal}, a {@code Set} or a
+ * {@code TreeMap}, is left to the built-in types.
+ * <p>
+ * Values written before this type was registered keep their {@code serializable} type name and are
+ * still read by Flowable's serializable type; they are converted the next time the variable is written.
+ */
+public class FormDataVariableType implements VariableType {
+
+    public static final String TYPE_NAME = "spmsFormData";
+
+    /**
+     * Payloads above this size are deflated.
+     */
+    public static final int DEFAULT_COMPRESSION_THRESHOLD = 1024;
+
+    static final byte FORMAT_SMILE = 1;
+    static final byte FORMAT_SMILE_DEFLATE = 2;
+
+    private static final int MAX_DEPTH = 16;
+    private static final TypeReference<LinkedHashMap<String, Object>> MAP_TYPE = new TypeReference<>() {
+    };
+    private static final BigInteger LONG_MIN = BigInteger.valueOf(Long.MIN_VALUE);
+    private static final BigInteger LONG_MAX = BigInteger.valueOf(Long.MAX_VALUE);
+
+    private final ObjectMapper smileMapper = new ObjectMapper(new SmileFactory());
+    private final int compressionThreshold;
+
+    public FormDataVariableType() {
+        this(DEFAULT_COMPRESSION_THRESHOLD);
+    }
+
+    public FormDataVariableType(int compressionThreshold) {
+        this.compressionThreshold = compressionThreshold;
+    }
+
+    @Override
+    public String getTypeName() {
+        return TYPE_NAME;
+    }
+
+    @Override
+    public boolean isCachable() {
+        return true;
+    }
+
+    @Override
+    public boolean isAbleToStore(Object value) {
+        return value instanceof Map<?, ?> map && isJsonMap(map, 0);
+    }
+
+    @Override
+    public void setValue(Object value, ValueFields valueFields) {
+        valueFields.setBytes(value == null ? null : encode(value));
+    }
+
+    @Override
+    public Object getValue(ValueFields valueFields) {
+        byte[] bytes = valueFields.getBytes();
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        return decode(bytes);
+    }
+
+    /**
+     * Encodes a form payload into the stored representation.
+     *
+     * @param value map of JSON values
+     * @return format marker followed by Smile, deflated when large
+     */
+    public byte[] encode(Object value) {
+        try {
+            byte[] smile = smileMapper.writeValueAsBytes(value);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(smile.length + 1);
+            if (smile.length > compressionThreshold) {
+                out.write(FORMAT_SMILE_DEFLATE);
+                try (DeflaterOutputStream deflater = new DeflaterOutputStream(out)) {
+                    deflater.write(smile);
+                }
+            } else {
+                out.write(FORMAT_SMILE);
+                out.write(smile);
+            }
+            return out.toByteArray();
+        } catch (IOException e) {
+            throw new FlowableException("Failed to encode form data variable", e);
+        }
+    }
+
+    /**
+     * Decodes a stored form payload.
+     *
+     * @param bytes stored representation
+     * @return the form payload as a mutable map
+     */
+    public Map<String, Object> decode(byte[] bytes) {
+        try {
+            byte format = bytes[0];
+            InputStream in = new ByteArrayInputStream(bytes, 1, bytes.length - 1);
+            if (format == FORMAT_SMILE_DEFLATE) {
+                in = new InflaterInputStream(in);
+            } else if (format != FORMAT_SMILE) {
+                throw new FlowableException("Unknown form data encoding: " + format);
+            }
+            try (InputStream source = in) {
+                return smileMapper.readValue(source, MAP_TYPE);
+            }
+        } catch (IOException e) {
+            throw new FlowableException("Failed to decode form data variable", e);
+        }
+    }
+
+    /**
+     * Only maps that read back equal and with the same value types are taken, anything else is left to
+     * the built-in types.
+     */
+    private static boolean isJsonMap(Map<?, ?> map, int depth) {
+        if (depth > MAX_DEPTH || (map.getClass() != HashMap.class && map.getClass() != LinkedHashMap.class)) {
+            return false;
+        }
+        for (Map.Entry<?, ?> entry : map.entrySet()) {
+            if (!(entry.getKey() instanceof String) || !isJsonValue(entry.getValue(), depth + 1)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isJsonValue(Object value, int depth) {
+        if (value == null || value instanceof String || value instanceof Boolean
+                || value instanceof Integer || value instanceof Double) {
+            return true;
+        }
+        if (value instanceof Long number) {
+            // Jackson reads numbers that fit into an int back as Integer
+            return number != number.intValue();
+        }
+        if (value instanceof BigInteger number) {
+            return number.compareTo(LONG_MIN) < 0 || number.compareTo(LONG_MAX) > 0;
+        }
+        if (value instanceof Map<?, ?> map) {
+            return isJsonMap(map, depth);
+        }
+        if (value instanceof List<?> list && list.getClass() == ArrayList.class) {
+            if (depth > MAX_DEPTH) {
+                return false;
+            }
+            for (Object item : list) {
+                if (!isJsonValue(item, depth + 1)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+}
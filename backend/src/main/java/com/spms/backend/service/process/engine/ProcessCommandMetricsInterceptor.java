@@ -0,0 +1,47 @@
+package com.spms.backend.service.process.engine;
+
+import org.flowable.common.engine.impl.context.Context;
+import org.flowable.common.engine.impl.interceptor.AbstractCommandInterceptor;
+import org.flowable.common.engine.impl.interceptor.Command;
+import org.flowable.common.engine.impl.interceptor.CommandConfig;
+import org.flowable.common.engine.impl.interceptor.CommandExecutor;
+
+/**
+ * Flowable command interceptor that times every command the engine runs.
+ * <p>
+ * Registered ahead of the command context interceptor, so commands run from inside another command
+ * are passed through untimed and each top-level command is counted once, including its transaction.
+ * The command is tagged with its class name; commands written as lambdas are tagged with the class
+ * that declares them.
+ */
+public class ProcessCommandMetricsInterceptor extends AbstractCommandInterceptor {
+
+    private final ProcessMetrics metrics;
+
+    public ProcessCommandMetricsInterceptor(ProcessMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public <T> T execute(CommandConfig config, Command<T> command, CommandExecutor commandExecutor) {
+        if (Context.getCommandContext() != null) {
+            return next.execute(config, command, commandExecutor);
+        }
+        long start = System.nanoTime();
+        boolean succeeded = false;
+        try {
+            T result = next.execute(config, command, commandExecutor);
+            succeeded = true;
+            return result;
+        } finally {
+            metrics.command(commandName(command), System.nanoTime() - start, succeeded);
+        }
+    }
+
+    static String commandName(Command<?> command) {
+        String name = command.getClass().getName();
+        name = name.substring(name.lastIndexOf('.') + 1);
+        int lambda = name.indexOf("$$");
+        return lambda < 0 ? name : name.substring(0, lambda);
+    }
+}
@@ -0,0 +1,243 @@
+package com.spms.backend.service.process.engine;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Timers and counters for the service operations that talk to the Flowable engine.
+ * <p>
+ * {@link #record(String, Supplier)} and {@link #run(String, Runnable)} time one service call as
+ * {@code spms.process.operation}, tagged with the operation, the process definition key and the outcome,
+ * with 50th/95th/99th percentiles. While the call runs it is the current operation of the thread:
+ * {@link ProcessCommandMetricsInterceptor} counts the engine commands it issues into
+ * {@code spms.process.engine.queries} (the same commands feed the per-request {@link EngineQueryCounter}),
+ * {@link ProcessMetricsEventListener} and the service itself tag it
+ * with the process definition key through {@link #process(String)}, and
+ * {@link #variableWrites(ProcessVariableWriter.VariableWriteReport)} counts the variable rows it writes.
+ * Nested calls (e.g. {@code startInstance} reading the new instance's tasks) are counted by the outermost one.
+ * <p>
+ * A call made inside a transaction is timed until the transaction completes, so the commit and the JPA flush
+ * count towards the operation, and a call whose transaction rolls back is recorded with outcome {@code error}.
+ */
+@Component
+public class ProcessMetrics {
+
+    public static final String OPERATION_TIMER = "spms.process.operation";
+    public static final String ENGINE_QUERIES = "spms.process.engine.queries";
+    public static final String VARIABLE_WRITES = "spms.process.variable.writes";
+    public static final String VARIABLE_SKIPPED = "spms.process.variable.skipped";
+    public static final String COMMAND_TIMER = "spms.flowable.command";
+    public static final String APPROVAL_TIMER = "spms.approval.duration";
+
+    static final String UNKNOWN = "unknown";
+
+    private static final double[] PERCENTILES = {0.5, 0.95, 0.99};
+
+    private static final ThreadLocal<Operation> CURRENT = new ThreadLocal<>();
+
+    /**
+     * Service call in progress on the current thread.
+     */
+    private static final class Operation {
+        private final String name;
+        private String process;
+        private int commands;
+
+        private Operation(String name) {
+            this.name = name;
+        }
+    }
+
+    private final MeterRegistry registry;
+
+    public ProcessMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * Times a service call.
+     *
+     * @param operation name of the service operation, e.g. {@code completeTask}
+     * @param body      the call
+     * @return the call's result
+     */
+    public <T> T record(String operation, Supplier<T> body) {
+        if (CURRENT.get() != null) {
+            return body.get();
+        }
+        Operation current = new Operation(operation);
+        CURRENT.set(current);
+        long start = System.nanoTime();
+        String outcome = "error";
+        try {
+            T result = body.get();
+            outcome = "success";
+            return result;
+        } finally {
+            CURRENT.remove();
+            String bodyOutcome = outcome;
+            if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCompletion(int status) {
+                        complete(current, start, status == STATUS_COMMITTED ? bodyOutcome : "error");
+                    }
+                });
+            } else {
+                complete(current, start, bodyOutcome);
+            }
+        }
+    }
+
+    private void complete(Operation operation, long start, String outcome) {
+        String process = operation.process != null ? operation.process : UNKNOWN;
+        Timer.builder(OPERATION_TIMER)
+                .description("Duration of process service operations")
+                .tags("operation", operation.name, "process", process, "outcome", outcome)
+                .publishPercentiles(PERCENTILES)
+                .register(registry)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        DistributionSummary.builder(ENGINE_QUERIES)
+                .description("Engine commands issued per process service operation")
+                .tags("operation", operation.name, "process", process)
+                .register(registry)
+                .record(operation.commands);
+    }
+
+    /**
+     * Times a service call without a result.
+     *
+     * @param operation name of the service operation
+     * @param body      the call
+     */
+    public void run(String operation, Runnable body) {
+        record(operation, () -> {
+            body.run();
+            return null;
+        });
+    }
+
+    /**
+     * Counts the variable rows written by the current operation once the transaction that wrote them
+     * commits; rows of a transaction that rolls back (e.g. a bulk completion chunk that is retried task by
+     * task) are not counted.
+     *
+     * @param report rows written by {@link ProcessVariableWriter}
+     */
+    public void variableWrites(ProcessVariableWriter.VariableWriteReport report) {
+        Operation current = CURRENT.get();
+        String operation = current != null ? current.name : UNKNOWN;
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    countWrites(operation, report);
+                }
+            });
+        } else {
+            countWrites(operation, report);
+        }
+    }
+
+    private void countWrites(String operation, ProcessVariableWriter.VariableWriteReport report) {
+        counter(VARIABLE_WRITES, operation, "scope", "runtime").increment(report.runtimeRows());
+        counter(VARIABLE_WRITES, operation, "scope", "history").increment(report.historyRows());
+        counter(VARIABLE_SKIPPED, operation, null, null).increment(report.skipped());
+    }
+
+    /**
+     * Records the latency of one engine command.
+     *
+     * @param command   command name, see {@link ProcessCommandMetricsInterceptor}
+     * @param nanos     duration in nanoseconds
+     * @param succeeded whether the command completed without an exception
+     */
+    void command(String command, long nanos, boolean succeeded) {
+        Operation current = CURRENT.get();
+        if (current != null) {
+            current.commands++;
+        }
+        EngineQueryCounter.record();
+        Timer.builder(COMMAND_TIMER)
+                .description("Duration of Flowable engine commands")
+                .tags("command", command, "outcome", succeeded ? "success" : "error")
+                .publishPercentiles(PERCENTILES)
+                .register(registry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Records the latency of one approval delegate's business step, see
+     * {@link com.spms.backend.service.process.AbstractApprovalService}.
+     *
+     * @param service   simple class name of the approval service
+     * @param nanos     duration in nanoseconds
+     * @param succeeded whether the step completed without an exception
+     */
+    public void approval(String service, long nanos, boolean succeeded) {
+        Timer.builder(APPROVAL_TIMER)
+                .description("Duration of approval service processing")
+                .tags("service", service, "outcome", succeeded ? "success" : "error")
+                .publishPercentiles(PERCENTILES)
+                .register(registry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Tags the current operation with a process definition; the first definition seen wins.
+     *
+     * @param processDefinitionIdOrKey definition ID ({@code key:version:id}) or key
+     */
+    public static void process(String processDefinitionIdOrKey) {
+        Operation current = CURRENT.get();
+        if (current != null && current.process == null && processDefinitionIdOrKey != null) {
+            int colon = processDefinitionIdOrKey.indexOf(':');
+            current.process = colon < 0 ? processDefinitionIdOrKey : processDefinitionIdOrKey.substring(0, colon);
+        }
+    }
+
+    /**
+     * Highest percentile of an operation's duration across process definitions and outcomes, over
+     * the recent window kept by the timers.
+     *
+     * @param operation  name of the service operation
+     * @param percentile one of 0.5, 0.95 or 0.99
+     * @return duration in milliseconds, or null when the operation has not run recently
+     */
+    public Long percentileMillis(String operation, double percentile) {
+        Double highest = null;
+        for (Timer timer : registry.find(OPERATION_TIMER).tag("operation", operation).timers()) {
+            for (ValueAtPercentile value : timer.takeSnapshot().percentileValues()) {
+                if (value.percentile() == percentile && timer.count() > 0) {
+                    double millis = value.value(TimeUnit.MILLISECONDS);
+                    highest = highest == null ? millis : Math.max(highest, millis);
+                }
+            }
+        }
+        return highest == null ? null : Math.round(highest);
+    }
+
+    /**
+     * Total number of engine commands executed since start-up.
+     */
+    public long commandCount() {
+        return registry.find(COMMAND_TIMER).timers().stream().mapToLong(Timer::count).sum();
+    }
+
+    private Counter counter(String name, String operation, String tag, String value) {
+        Counter.Builder builder = Counter.builder(name).tag("operation", operation);
+        if (tag != null) {
+            builder.tag(tag, value);
+        }
+        return builder.register(registry);
+    }
+}
@@ -0,0 +1,25 @@
+package com.spms.backend.service.process.engine;
+
+import org.flowable.common.engine.api.delegate.event.AbstractFlowableEventListener;
+import org.flowable.common.engine.api.delegate.event.FlowableEngineEvent;
+import org.flowable.common.engine.api.delegate.event.FlowableEvent;
+
+/**
+ * Tags the current {@link ProcessMetrics} operation with the process definition of the first engine
+ * event it raises, e.g. the task completed by {@code completeTask}, so callers that only know task or
+ * instance IDs need no extra query to tag their timings.
+ */
+public class ProcessMetricsEventListener extends AbstractFlowableEventListener {
+
+    @Override
+    public void onEvent(FlowableEvent event) {
+        if (event instanceof FlowableEngineEvent engineEvent) {
+            ProcessMetrics.process(engineEvent.getProcessDefinitionId());
+        }
+    }
+
+    @Override
+    public boolean isFailOnException() {
+        return false;
+    }
+}
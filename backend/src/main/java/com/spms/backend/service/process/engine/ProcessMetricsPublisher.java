@@ -0,0 +1,77 @@
+package com.spms.backend.service.process.engine;
+
+import com.spms.backend.service.sys.cluster.NodeMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Publishes the {@link ProcessMetrics} of this node through {@link NodeMetrics}, so the statistics
+ * collectors, which run on whichever node the clustered data processing job fires, report all nodes.
+ * <p>
+ * Every {@code spms.node-metrics.publish-interval} the node adds the engine commands it executed since
+ * its previous publish and replaces its 95th percentile of {@code startInstance} and {@code completeTask}.
+ * Collectors see commands at most one interval late; a latency counts while its node published within
+ * three intervals, and the highest one of all nodes is reported.
+ */
+@Component
+public class ProcessMetricsPublisher {
+
+    public static final String ENGINE_COMMANDS = "engine.commands";
+    public static final String START_P95 = "start.p95";
+    public static final String COMPLETE_P95 = "complete.p95";
+
+    private static final Logger log = LoggerFactory.getLogger(ProcessMetricsPublisher.class);
+
+    private final ProcessMetrics processMetrics;
+    private final NodeMetrics nodeMetrics;
+    private final Duration maxAge;
+    private long publishedCommands;
+
+    public ProcessMetricsPublisher(ProcessMetrics processMetrics, NodeMetrics nodeMetrics,
+                                   @Value("${spms.node-metrics.publish-interval:10s}") Duration publishInterval) {
+        this.processMetrics = processMetrics;
+        this.nodeMetrics = nodeMetrics;
+        this.maxAge = publishInterval.multipliedBy(3);
+    }
+
+    @Scheduled(fixedDelayString = "${spms.node-metrics.publish-interval:10s}")
+    public synchronized void publish() {
+        try {
+            long commands = processMetrics.commandCount();
+            nodeMetrics.add(ENGINE_COMMANDS, commands - publishedCommands);
+            publishedCommands = commands;
+            nodeMetrics.set(START_P95, millis("startInstance"));
+            nodeMetrics.set(COMPLETE_P95, millis("completeTask"));
+            nodeMetrics.removeStale();
+        } catch (DataAccessException e) {
+            log.warn("Unable to publish process metrics of node {}: {}", nodeMetrics.node(), e.getMessage());
+        }
+    }
+
+    /**
+     * @return engine commands executed by all nodes since the previous call
+     */
+    public long takeCommands() {
+        return nodeMetrics.take(ENGINE_COMMANDS);
+    }
+
+    /**
+     * @param metric {@link #START_P95} or {@link #COMPLETE_P95}
+     * @return the highest latency in milliseconds among the nodes publishing, 0 when idle
+     */
+    public long highestMillis(String metric) {
+        Long millis = nodeMetrics.highest(metric, maxAge);
+        return millis != null ? millis : 0L;
+    }
+
+    private long millis(String operation) {
+        Long millis = processMetrics.percentileMillis(operation, 0.95);
+        return millis != null ? millis : 0L;
+    }
+}
@@ -0,0 +1,135 @@
+package com.spms.backend.service.process.engine;
+
+import lombok.extern.slf4j.Slf4j;
+import org.flowable.common.engine.impl.history.HistoryLevel;
+import org.flowable.engine.ProcessEngine;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Writes process variables submitted by users, skipping values that did not change.
+ * <p>
+ * Only the submitted variable names are read back from the instance, each changed variable is
+ * written once to the process instance scope, and an empty {@code formData} never replaces the
+ * stored one. Every write returns a {@link VariableWriteReport} with the number of variable rows
+ * the engine wrote.
+ */
+@Slf4j
+public class ProcessVariableWriter {
+
+    public static final String FORM_DATA = "formData";
+
+    /**
+     * Rows written by one call.
+     *
+     * @param submitted      number of variables submitted by the caller
+     * @param runtimeRows    {@code ACT_RU_VARIABLE} rows inserted or updated
+     * @param historyRows    {@code ACT_HI_VARINST} rows inserted or updated
+     */
+    public record VariableWriteReport(int submitted, int runtimeRows, int historyRows) {
+
+        public int skipped() {
+            return submitted - runtimeRows;
+        }
+    }
+
+    private final ProcessEngine flowableEngine;
+
+    public ProcessVariableWriter(ProcessEngine flowableEngine) {
+        this.flowableEngine = flowableEngine;
+    }
+
+    /**
+     * Stores changed variables on the process instance without completing any task.
+     *
+     * @param instanceId ID of the process instance
+     * @param incoming   submitted variables
+     * @return rows written
+     */
+    public VariableWriteReport writeToInstance(String instanceId, Map<String, Object> incoming) {
+        Map<String, Object> changed = changedVariables(instanceId, incoming);
+        if (!changed.isEmpty()) {
+            flowableEngine.getRuntimeService().setVariables(instanceId, changed);
+        }
+        return report(incoming, changed);
+    }
+
+    /**
+     * Completes a task, passing only changed variables. Task completion variables are written to
+     * the scope that already holds them, which is the process instance for submitted form values.
+     *
+     * @param instanceId ID of the process instance containing the task
+     * @param taskId     ID of the task to complete
+     * @param incoming   submitted variables
+     * @return rows written
+     */
+    public VariableWriteReport completeTask(String instanceId, String taskId, Map<String, Object> incoming) {
+        Map<String, Object> changed = changedVariables(instanceId, incoming);
+        flowableEngine.getTaskService().complete(taskId, changed);
+        return report(incoming, changed);
+    }
+
+    /**
+     * Computes the variables that differ from the values stored on the instance.
+     *
+     * @param instanceId ID of the process instance
+     * @param incoming   submitted variables
+     * @return changed variables, in submission order
+     */
+    public Map<String, Object> changedVariables(String instanceId, Map<String, Object> incoming) {
+        if (incoming == null || incoming.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        // Reads only the submitted names instead of every variable of the instance
+        Map<String, Object> current = flowableEngine.getRuntimeService().getVariables(instanceId, incoming.keySet());
+        if (current == null) {
+            current = Collections.emptyMap();
+        }
+
+        Map<String, Object> changed = new LinkedHashMap<>();
+        for (Map.Entry<String, Object> entry : incoming.entrySet()) {
+            String name = entry.getKey();
+            Object value = entry.getValue();
+            if (FORM_DATA.equals(name) && isEmptyFormData(value)) {
+                // Avoid accidentally clearing formData if client submits empty {}
+                log.debug("Ignoring empty formData for instance {}", instanceId);
+                continue;
+            }
+            if (!current.containsKey(name) || !Objects.equals(current.get(name), value)) {
+                changed.put(name, value);
+            }
+        }
+        return changed;
+    }
+
+    private VariableWriteReport report(Map<String, Object> incoming, Map<String, Object> changed) {
+        int submitted = incoming == null ? 0 : incoming.size();
+        int runtimeRows = changed.size();
+        int historyRows = historyEnabled() ? runtimeRows : 0;
+        return new VariableWriteReport(submitted, runtimeRows, historyRows);
+    }
+
+    private boolean historyEnabled() {
+        HistoryLevel level = flowableEngine.getProcessEngineConfiguration() != null
+                ? flowableEngine.getProcessEngineConfiguration().getHistoryLevel()
+                : null;
+        return level != null && level.isAtLeast(HistoryLevel.ACTIVITY);
+    }
+
+    private static boolean isEmptyFormData(Object formData) {
+        if (formData == null) {
+            return true;
+        }
+        if (formData instanceof Map<?, ?> m) {
+            return m.isEmpty();
+        }
+        if (formData instanceof String s) {
+            return s.isBlank();
+        }
+        return false;
+    }
+}
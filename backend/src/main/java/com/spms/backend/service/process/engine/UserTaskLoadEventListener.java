@@ -0,0 +1,121 @@
+package com.spms.backend.service.process.engine;
+
+import com.spms.backend.repository.entities.process.TaskAssigneeEntity;
+import com.spms.backend.repository.entities.process.UserTaskLoadEntity;
+import com.spms.backend.repository.process.TaskAssigneeRepository;
+import com.spms.backend.repository.process.UserTaskLoadRepository;
+import org.flowable.common.engine.api.delegate.event.AbstractFlowableEventListener;
+import org.flowable.common.engine.api.delegate.event.FlowableEngineEventType;
+import org.flowable.common.engine.api.delegate.event.FlowableEntityEvent;
+import org.flowable.common.engine.api.delegate.event.FlowableEvent;
+import org.flowable.task.api.Task;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Objects;
+
+/**
+ * Keeps the open task count per user ({@code spms_user_task_load}) in step with task assignment, so
+ * least-loaded assignment reads one row per candidate instead of counting tasks.
+ * <p>
+ * Each counted task is recorded with its assignee in {@code spms_task_assignee}; assignment events
+ * compare against that row, which makes repeated events for the same assignee harmless and tells
+ * which user loses the task on reassignment, completion or deletion. Counts change in the transaction
+ * of the engine command; only the first counter row of a user is created in its own transaction, so
+ * concurrent first assignments do not collide.
+ */
+@Component
+public class UserTaskLoadEventListener extends AbstractFlowableEventListener {
+
+    private final TaskAssigneeRepository assigneeRepository;
+    private final UserTaskLoadRepository loadRepository;
+    private final TransactionTemplate requiresNew;
+
+    public UserTaskLoadEventListener(TaskAssigneeRepository assigneeRepository,
+                                     UserTaskLoadRepository loadRepository,
+                                     PlatformTransactionManager transactionManager) {
+        this.assigneeRepository = assigneeRepository;
+        this.loadRepository = loadRepository;
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Override
+    public void onEvent(FlowableEvent event) {
+        if (!(event.getType() instanceof FlowableEngineEventType type)) {
+            return;
+        }
+        switch (type) {
+            case TASK_CREATED, TASK_ASSIGNED -> assigned((Task) ((FlowableEntityEvent) event).getEntity());
+            case TASK_COMPLETED -> released(((Task) ((FlowableEntityEvent) event).getEntity()).getId());
+            case ENTITY_DELETED -> {
+                if (((FlowableEntityEvent) event).getEntity() instanceof Task task) {
+                    released(task.getId());
+                }
+            }
+            default -> {
+            }
+        }
+    }
+
+    private void assigned(Task task) {
+        String previous = assigneeRepository.findUsernameByTaskId(task.getId()).orElse(null);
+        String current = task.getAssignee();
+        if (Objects.equals(previous, current)) {
+            return;
+        }
+        if (previous != null) {
+            addOpenTasks(previous, -1);
+        }
+        if (current == null) {
+            assigneeRepository.deleteByTaskId(task.getId());
+            return;
+        }
+        if (previous == null) {
+            TaskAssigneeEntity assignee = new TaskAssigneeEntity();
+            assignee.setTaskId(task.getId());
+            assignee.setUsername(current);
+            assigneeRepository.save(assignee);
+        } else {
+            assigneeRepository.reassign(task.getId(), current);
+        }
+        addOpenTasks(current, 1);
+    }
+
+    private void released(String taskId) {
+        assigneeRepository.findUsernameByTaskId(taskId).ifPresent(username -> {
+            addOpenTasks(username, -1);
+            assigneeRepository.deleteByTaskId(taskId);
+        });
+    }
+
+    private void addOpenTasks(String username, long delta) {
+        long now = System.currentTimeMillis();
+        if (loadRepository.addOpenTasks(username, delta, now) == 0) {
+            createCounter(username);
+            loadRepository.addOpenTasks(username, delta, now);
+        }
+    }
+
+    private void createCounter(String username) {
+        try {
+            requiresNew.executeWithoutResult(status -> {
+                UserTaskLoadEntity load = new UserTaskLoadEntity();
+                load.setUsername(username);
+                load.setOpenTasks(0);
+                load.setUpdatedAt(System.currentTimeMillis());
+                loadRepository.saveAndFlush(load);
+            });
+        } catch (DataIntegrityViolationException ex) {
+            // Another transaction created the counter of this user at the same time; it exists now
+        }
+    }
+
+    @Override
+    public boolean isFailOnException() {
+        return true;
+    }
+}
@@ -0,0 +1,174 @@
+package com.spms.backend.service.process.engine;
+
+import com.spms.backend.repository.entities.process.UserWorkItemEntity;
+import com.spms.backend.repository.entities.process.UserWorkItemStatus;
+import com.spms.backend.repository.entities.process.UserWorkTaskEntity;
+import com.spms.backend.repository.process.UserWorkItemRepository;
+import com.spms.backend.repository.process.UserWorkTaskRepository;
+import org.flowable.common.engine.api.delegate.event.AbstractFlowableEventListener;
+import org.flowable.common.engine.api.delegate.event.FlowableEngineEvent;
+import org.flowable.common.engine.api.delegate.event.FlowableEngineEventType;
+import org.flowable.common.engine.api.delegate.event.FlowableEntityEvent;
+import org.flowable.common.engine.api.delegate.event.FlowableEvent;
+import org.flowable.engine.impl.persistence.entity.ExecutionEntity;
+import org.flowable.engine.impl.util.CommandContextUtil;
+import org.flowable.engine.impl.util.ProcessDefinitionUtil;
+import org.flowable.engine.repository.ProcessDefinition;
+import org.flowable.identitylink.api.IdentityLink;
+import org.flowable.identitylink.api.IdentityLinkType;
+import org.flowable.task.api.Task;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Keeps the {@code spms_user_work_item} read model in step with the engine.
+ * <p>
+ * The initiator and every user with an identity link on a process instance get a row, so the table
+ * holds the users of {@code involvedUser} plus the starters of instances opened by
+ * {@code startInstance}, which names its initiator in a variable. Task assignees are involved as well;
+ * the end of the instance closes all of its rows. Every open assigned task has its own row in
+ * {@code spms_user_work_task}, so parallel tasks of one user are kept apart; creation, assignment,
+ * updates and suspension change it, and completion, deletion or the end of the instance remove it.
+ * Rows are written in the transaction of the engine command and a failure fails the command, so the
+ * tables never disagree with committed engine state.
+ */
+@Component
+public class UserWorkItemEventListener extends AbstractFlowableEventListener {
+
+    public static final String INITIATOR_VARIABLE = "initiator";
+
+    private final UserWorkItemRepository repository;
+    private final UserWorkTaskRepository taskRepository;
+
+    public UserWorkItemEventListener(UserWorkItemRepository repository, UserWorkTaskRepository taskRepository) {
+        this.repository = repository;
+        this.taskRepository = taskRepository;
+    }
+
+    @Override
+    public void onEvent(FlowableEvent event) {
+        if (!(event.getType() instanceof FlowableEngineEventType type)) {
+            return;
+        }
+        switch (type) {
+            case PROCESS_STARTED -> {
+                ExecutionEntity instance = (ExecutionEntity) ((FlowableEntityEvent) event).getEntity();
+                String initiator = initiator(instance);
+                if (initiator != null) {
+                    involve(initiator, instance.getId(), true);
+                }
+            }
+            case ENTITY_CREATED -> {
+                if (((FlowableEntityEvent) event).getEntity() instanceof IdentityLink link
+                        && link.getUserId() != null && link.getProcessInstanceId() != null) {
+                    involve(link.getUserId(), link.getProcessInstanceId(), IdentityLinkType.STARTER.equals(link.getType()));
+                }
+            }
+            case TASK_CREATED, TASK_ASSIGNED -> task((Task) ((FlowableEntityEvent) event).getEntity());
+            case ENTITY_UPDATED -> {
+                if (((FlowableEntityEvent) event).getEntity() instanceof Task task) {
+                    task(task);
+                }
+            }
+            case ENTITY_SUSPENDED, ENTITY_ACTIVATED -> {
+                Object entity = ((FlowableEntityEvent) event).getEntity();
+                if (entity instanceof Task task) {
+                    task(task);
+                } else if (entity instanceof ExecutionEntity execution && execution.isProcessInstanceType()) {
+                    taskRepository.suspendInstance(execution.getId(), type == FlowableEngineEventType.ENTITY_SUSPENDED, now());
+                }
+            }
+            case TASK_COMPLETED -> taskRepository.deleteByTaskId(((Task) ((FlowableEntityEvent) event).getEntity()).getId());
+            case ENTITY_DELETED -> {
+                if (((FlowableEntityEvent) event).getEntity() instanceof Task task) {
+                    taskRepository.deleteByTaskId(task.getId());
+                }
+            }
+            case PROCESS_COMPLETED, PROCESS_COMPLETED_WITH_TERMINATE_END_EVENT ->
+                    end((FlowableEngineEvent) event, UserWorkItemStatus.COMPLETED);
+            case PROCESS_CANCELLED -> end((FlowableEngineEvent) event, UserWorkItemStatus.CANCELLED);
+            default -> {
+            }
+        }
+    }
+
+    private void task(Task task) {
+        if (task.getProcessInstanceId() == null) {
+            return;
+        }
+        if (task.getAssignee() == null) {
+            taskRepository.deleteByTaskId(task.getId());
+            return;
+        }
+        involve(task.getAssignee(), task.getProcessInstanceId(), false);
+        if (taskRepository.updateTask(task.getId(), task.getAssignee(), task.getName(), task.getState(),
+                task.isSuspended(), now()) > 0) {
+            return;
+        }
+        UserWorkTaskEntity row = new UserWorkTaskEntity();
+        row.setTaskId(task.getId());
+        row.setUsername(task.getAssignee());
+        row.setProcessInstanceId(task.getProcessInstanceId());
+        row.setTaskName(task.getName());
+        row.setTaskState(task.getState());
+        row.setSuspended(task.isSuspended());
+        row.setCreateTime(task.getCreateTime());
+        row.setLastUpdated(now());
+        taskRepository.save(row);
+    }
+
+    private void end(FlowableEngineEvent event, UserWorkItemStatus status) {
+        repository.endInstance(event.getProcessInstanceId(), status, now());
+        taskRepository.deleteByProcessInstanceIds(List.of(event.getProcessInstanceId()));
+    }
+
+    /**
+     * The authenticated starter, or the {@code initiator} variable set by {@code startInstance}
+     */
+    private static String initiator(ExecutionEntity instance) {
+        if (instance.getStartUserId() != null) {
+            return instance.getStartUserId();
+        }
+        return instance.getVariableLocal(INITIATOR_VARIABLE) instanceof String username ? username : null;
+    }
+
+    private void involve(String username, String processInstanceId, boolean initiator) {
+        if (repository.existsByUsernameAndProcessInstanceId(username, processInstanceId)) {
+            if (initiator) {
+                repository.markInitiator(username, processInstanceId, now());
+            }
+            return;
+        }
+        ExecutionEntity instance = CommandContextUtil.getExecutionEntityManager().findById(processInstanceId);
+        if (instance == null) {
+            return;
+        }
+        UserWorkItemEntity item = new UserWorkItemEntity();
+        item.setUsername(username);
+        item.setProcessInstanceId(processInstanceId);
+        item.setProcessDefinitionId(instance.getProcessDefinitionId());
+        item.setBusinessKey(instance.getBusinessKey());
+        item.setInitiator(initiator || username.equals(initiator(instance)));
+        item.setStatus(UserWorkItemStatus.RUNNING);
+        item.setStartTime(instance.getStartTime());
+        item.setLastUpdated(now());
+        ProcessDefinition definition = ProcessDefinitionUtil.getProcessDefinition(instance.getProcessDefinitionId());
+        if (definition != null) {
+            item.setDefinitionKey(definition.getKey());
+            item.setDefinitionName(definition.getName());
+            item.setDeploymentId(definition.getDeploymentId());
+        }
+        repository.save(item);
+    }
+
+    private static Date now() {
+        return CommandContextUtil.getProcessEngineConfiguration().getClock().getCurrentTime();
+    }
+
+    @Override
+    public boolean isFailOnException() {
+        return true;
+    }
+}
@@ -0,0 +1,181 @@
+package com.spms.backend.service.process.identifier;
+
+import com.spms.backend.config.BusinessKeyProperties;
+import com.spms.backend.repository.entities.process.BusinessKeyBlockEntity;
+import com.spms.backend.repository.process.KeyBlockRepository;
+import com.spms.backend.repository.process.KeyGeneratorRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hi/lo allocator for business key sequences.
+ *
+ * <p>Each node reserves a block of sequence values per prefix with one row-locked update
+ * on {@code spms_business_key_block} and then hands the values out from memory. Only the
+ * thread that finds the current block exhausted touches the database, so concurrent
+ * instance starts no longer race on {@code MAX(seq) + 1}.</p>
+ *
+ * <p>Values left in a block when the node shuts down are never handed out; their number is
+ * added to the prefix's {@code wastedSeq} counter so gaps in the key sequence can be explained.</p>
+ */
+@Component
+public class BusinessKeyBlockAllocator {
+
+    private static final Logger log = LoggerFactory.getLogger(BusinessKeyBlockAllocator.class);
+
+    private final KeyBlockRepository keyBlockRepository;
+    private final KeyGeneratorRepository keyGeneratorRepository;
+    private final TransactionTemplate requiresNew;
+    private final BusinessKeyProperties properties;
+
+    private final Map<String, SequenceBlock> blocks = new ConcurrentHashMap<>();
+    private final Map<String, Object> prefixLocks = new ConcurrentHashMap<>();
+
+    public BusinessKeyBlockAllocator(KeyBlockRepository keyBlockRepository,
+                                     KeyGeneratorRepository keyGeneratorRepository,
+                                     PlatformTransactionManager transactionManager,
+                                     BusinessKeyProperties properties) {
+        this.keyBlockRepository = keyBlockRepository;
+        this.keyGeneratorRepository = keyGeneratorRepository;
+        this.properties = properties;
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Hands out the next sequence value for a prefix, reserving a new block when the
+     * current one is used up.
+     *
+     * @param prefix the business key prefix
+     * @return a sequence value that no other caller on any node receives
+     */
+    public long nextSequence(String prefix) {
+        while (true) {
+            SequenceBlock block = blocks.get(prefix);
+            if (block != null) {
+                long seq = block.next();
+                if (seq > 0) {
+                    return seq;
+                }
+            }
+            synchronized (prefixLocks.computeIfAbsent(prefix, k -> new Object())) {
+                SequenceBlock current = blocks.get(prefix);
+                if (current == null || current.isExhausted()) {
+                    int size = Math.max(1, properties.getBlockSize());
+                    long first = reserveBlock(prefix, size);
+                    blocks.put(prefix, new SequenceBlock(first, first + size - 1));
+                    log.debug("Reserved business key block for prefix {}: [{}, {}]", prefix, first, first + size - 1);
+                }
+            }
+        }
+    }
+
+    /**
+     * Moves the prefix's high-water mark forward by {@code size} in its own transaction,
+     * so the row lock is held only for the reservation and not for the caller's transaction.
+     *
+     * @param prefix the business key prefix
+     * @param size   number of values to reserve
+     * @return the first value of the reserved block
+     */
+    protected long reserveBlock(String prefix, int size) {
+        try {
+            return doReserveBlock(prefix, size);
+        } catch (DataIntegrityViolationException ex) {
+            // Another node created the counter row for this prefix at the same time; it exists now.
+            log.debug("Concurrent creation of key block for prefix {}, retrying", prefix);
+            return doReserveBlock(prefix, size);
+        }
+    }
+
+    private long doReserveBlock(String prefix, int size) {
+        Long first = requiresNew.execute(status -> {
+            BusinessKeyBlockEntity block = keyBlockRepository.findByPrefixForUpdate(prefix)
+                    .orElseGet(() -> createBlock(prefix));
+            long start = block.getNextSeq();
+            block.setNextSeq(start + size);
+            block.setUpdatedAt(System.currentTimeMillis());
+            keyBlockRepository.save(block);
+            return start;
+        });
+        if (first == null) {
+            throw new IllegalStateException("Unable to reserve business key block for prefix " + prefix);
+        }
+        return first;
+    }
+
+    private BusinessKeyBlockEntity createBlock(String prefix) {
+        // Continue after keys issued before block allocation was introduced
+        long start = keyGeneratorRepository.findMaxSeqByPrefix(prefix).orElse(0L) + 1L;
+        BusinessKeyBlockEntity block = new BusinessKeyBlockEntity();
+        block.setPrefix(prefix);
+        block.setNextSeq(start);
+        block.setWastedSeq(0L);
+        return keyBlockRepository.saveAndFlush(block);
+    }
+
+    /**
+     * Records the values left in the in-memory blocks as wasted before the node goes down.
+     */
+    @PreDestroy
+    public void releaseBlocks() {
+        blocks.forEach((prefix, block) -> {
+            long remaining = block.drain();
+            if (remaining <= 0) {
+                return;
+            }
+            try {
+                requiresNew.executeWithoutResult(status -> keyBlockRepository.addWasted(prefix, remaining));
+                log.info("Released business key block for prefix {}, {} sequence values wasted", prefix, remaining);
+            } catch (Exception ex) {
+                log.warn("Failed to record {} wasted sequence values for prefix {}: {}", remaining, prefix, ex.getMessage());
+            }
+        });
+        blocks.clear();
+    }
+
+    /**
+     * A reserved range of sequence values handed out lock-free.
+     */
+    static final class SequenceBlock {
+        private final AtomicLong next;
+        private final long last;
+
+        SequenceBlock(long first, long last) {
+            this.next = new AtomicLong(first);
+            this.last = last;
+        }
+
+        /**
+         * @return the next value of the block, or -1 when the block is used up
+         */
+        long next() {
+            long value = next.getAndIncrement();
+            return value <= last ? value : -1L;
+        }
+
+        boolean isExhausted() {
+            return next.get() > last;
+        }
+
+        /**
+         * Marks the block as used up.
+         *
+         * @return the number of values that were still available
+         */
+        long drain() {
+            long value = next.getAndSet(last + 1);
+            return Math.max(0L, last - value + 1);
+        }
+    }
+}
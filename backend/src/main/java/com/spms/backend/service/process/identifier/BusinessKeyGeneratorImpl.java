@@ -9,29 +9,26 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Date;
-import java.util.Optional;
 
 @Service
 public class BusinessKeyGeneratorImpl implements BusinessKeyGenerator {
 
 
     private final KeyGeneratorRepository keyGeneratorRepository;
+    private final BusinessKeyBlockAllocator blockAllocator;
 
-    public BusinessKeyGeneratorImpl(KeyGeneratorRepository keyGeneratorRepository) {
+    public BusinessKeyGeneratorImpl(KeyGeneratorRepository keyGeneratorRepository,
+                                    BusinessKeyBlockAllocator blockAllocator) {
         this.keyGeneratorRepository = keyGeneratorRepository;
+        this.blockAllocator = blockAllocator;
     }
 
     @Transactional
     @Override
     public BusinessKeyModel generateBusinessKey(String keyPrefix, String split) {
-        Optional<Long> maxSeq =
-                this.keyGeneratorRepository.findMaxSeqByPrefix(keyPrefix);
+        // Sequence comes from the node's reserved block, no MAX(seq) lookup per key
         BusinessKeyEntities keyEntities = new BusinessKeyEntities();
-        if (maxSeq.isPresent()) {
-            keyEntities.setSeq(maxSeq.get() + 1L);
-        } else {
-            keyEntities.setSeq(1);
-        }
+        keyEntities.setSeq(this.blockAllocator.nextSequence(keyPrefix));
         keyEntities.setPrefix(keyPrefix);
         this.keyGeneratorRepository.save(keyEntities);
 
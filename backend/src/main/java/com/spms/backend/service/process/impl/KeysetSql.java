@@ -0,0 +1,77 @@
+package com.spms.backend.service.process.impl;
+
+import com.spms.backend.service.model.process.CursorPage;
+import com.spms.backend.service.model.process.SeekCursor;
+import org.flowable.common.engine.api.query.NativeQuery;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Building blocks for native engine queries paged by (time, ID) instead of by offset.
+ * The listed table is aliased {@code RES}; rows are ordered newest first with the ID as tie-breaker,
+ * so the next page starts strictly after the last row of the previous one whatever its depth.
+ */
+final class KeysetSql {
+
+    static final int MAX_PAGE_SIZE = 100;
+
+    /**
+     * Historic instances the user has an identity link in, like {@code involvedUser(username)}.
+     * Backed by the indexes of V20261017_1600__Add_keyset_pagination_indexes.sql.
+     */
+    static final String INVOLVED_HISTORY_FROM =
+            " FROM ACT_HI_PROCINST RES" +
+            " WHERE RES.ID_ IN (SELECT LINK.PROC_INST_ID_ FROM ACT_HI_IDENTITYLINK LINK" +
+            "       WHERE LINK.USER_ID_ = #{username})";
+
+    /**
+     * Active tasks assigned to the user, like {@code taskAssignee(username).active()}.
+     */
+    static final String ASSIGNED_TASKS_FROM =
+            " FROM ACT_RU_TASK RES" +
+            " WHERE RES.ASSIGNEE_ = #{username} AND RES.SUSPENSION_STATE_ = 1";
+
+    private KeysetSql() {
+    }
+
+    /**
+     * @return condition selecting rows after the cursor, or an empty string for the first page
+     */
+    static String after(String timeColumn, SeekCursor cursor) {
+        if (cursor == null) {
+            return "";
+        }
+        return " AND (RES." + timeColumn + " < #{seekTime}" +
+                " OR (RES." + timeColumn + " = #{seekTime} AND RES.ID_ < #{seekId}))";
+    }
+
+    static String order(String timeColumn) {
+        return " ORDER BY RES." + timeColumn + " DESC, RES.ID_ DESC";
+    }
+
+    static <Q extends NativeQuery<Q, ?>> Q bind(Q query, SeekCursor cursor) {
+        if (cursor != null) {
+            query.parameter("seekTime", cursor.time()).parameter("seekId", cursor.id());
+        }
+        return query;
+    }
+
+    static int pageSize(int size) {
+        return Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+    }
+
+    /**
+     * @param rows  up to {@code size + 1} rows; the extra row only tells that another page exists
+     * @param size  page size
+     * @param key   time and ID of a row
+     * @param total total row count, or null
+     */
+    static <T, R> CursorPage<R> page(List<T> rows, int size, Function<T, SeekCursor> key,
+                                     Function<T, R> mapper, Long total) {
+        boolean more = rows.size() > size;
+        List<T> content = more ? rows.subList(0, size) : rows;
+        String next = more ? key.apply(content.get(content.size() - 1)).encode() : null;
+        return new CursorPage<>(content.stream().map(mapper).toList(), next, total);
+    }
+}
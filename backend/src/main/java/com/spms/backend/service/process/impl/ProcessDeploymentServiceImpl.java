@@ -7,6 +7,7 @@ import com.spms.backend.repository.process.ProcessVersionRepository;
 import com.spms.backend.service.exception.NotFoundException;
 import com.spms.backend.service.exception.SpmsRuntimeException;
 import com.spms.backend.service.exception.ValidationException;
+import com.spms.backend.service.process.DeployedVersionResolver;
 import com.spms.backend.service.process.ProcessDeploymentService;
 import org.flowable.engine.ProcessEngine;
 import org.flowable.engine.RepositoryService;
@@ -28,17 +29,20 @@ public class ProcessDeploymentServiceImpl implements ProcessDeploymentService {
     private final ProcessDefinitionRepository processDefinitionRepository;
     private final ProcessVersionRepository processVersionRepository;
     private final ProcessEngine flowableEngine;
+    private final DeployedVersionResolver deployedVersionResolver;
     
     private static final Logger log = LoggerFactory.getLogger(ProcessDeploymentServiceImpl.class);
 
     public ProcessDeploymentServiceImpl(
             ProcessDefinitionRepository processDefinitionRepository,
             ProcessVersionRepository processVersionRepository,
-            ProcessEngine flowableEngine
+            ProcessEngine flowableEngine,
+            DeployedVersionResolver deployedVersionResolver
     ) {
         this.processDefinitionRepository = processDefinitionRepository;
         this.processVersionRepository = processVersionRepository;
         this.flowableEngine = flowableEngine;
+        this.deployedVersionResolver = deployedVersionResolver;
     }
 
     /**
@@ -122,6 +126,7 @@ public class ProcessDeploymentServiceImpl implements ProcessDeploymentService {
                 entity.setDeployedToFlowable(true);
                 entity.setUpdatedById(ownerId);
                 processVersionRepository.save(entity);
+                deployedVersionResolver.invalidate(definitionId);
 
                 log.info("Successfully deployed process. Definition: {} (ID: {}), Version: {}, Deployment ID: {}", 
                          definition.getName(), definitionId, version, deployment.getId());
@@ -179,6 +184,7 @@ public class ProcessDeploymentServiceImpl implements ProcessDeploymentService {
             entity.setFlowableDeploymentId(null);
             entity.setStatus(ProcessVersionStatus.DEPRECATED);
             processVersionRepository.save(entity);
+            deployedVersionResolver.invalidate(definitionId);
             
             log.info("Marked version {} as DEPRECATED for definition {} (ID: {})", 
                      version, entity.getProcessDefinition().getName(), definitionId);
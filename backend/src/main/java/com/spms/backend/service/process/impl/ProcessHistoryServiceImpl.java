@@ -3,7 +3,10 @@ package com.spms.backend.service.process.impl;
 import com.spms.backend.service.idm.UserService;
 import com.spms.backend.service.model.idm.UserModel;
 import com.spms.backend.service.process.ProcessHistoryService;
+import com.spms.backend.service.process.engine.ProcessMetrics;
+import com.spms.backend.service.model.process.CursorPage;
 import com.spms.backend.service.model.process.ProcessHistoryModel;
+import com.spms.backend.service.model.process.SeekCursor;
 import org.flowable.engine.HistoryService;
 import org.flowable.engine.history.HistoricProcessInstance;
 import org.flowable.engine.history.HistoricProcessInstanceQuery;
@@ -26,11 +29,14 @@ public class ProcessHistoryServiceImpl implements ProcessHistoryService {
     private final HistoryService historyService;
 
     private final UserService userService;
+    private final ProcessMetrics processMetrics;
 
     @Autowired
-    public ProcessHistoryServiceImpl(HistoryService historyService,UserService userService) {
+    public ProcessHistoryServiceImpl(HistoryService historyService,UserService userService,
+                                     ProcessMetrics processMetrics) {
         this.historyService = historyService;
         this.userService= userService;
+        this.processMetrics = processMetrics;
     }
 
     /**
@@ -42,6 +48,10 @@ public class ProcessHistoryServiceImpl implements ProcessHistoryService {
      */
     @Override
     public Page<ProcessHistoryModel> getHistoryStartedByUser(Long userId, Pageable pageable) {
+        return processMetrics.record("getHistoryStartedByUser", () -> doGetHistoryStartedByUser(userId, pageable));
+    }
+
+    private Page<ProcessHistoryModel> doGetHistoryStartedByUser(Long userId, Pageable pageable) {
         logger.debug("Fetching process history started by user: {}, page: {}", userId, pageable);
 
         UserModel userModel = userService.getUserById(userId);
@@ -74,6 +84,10 @@ public class ProcessHistoryServiceImpl implements ProcessHistoryService {
      */
     @Override
     public Page<ProcessHistoryModel> getHistoryHandledByUser(Long userId, Pageable pageable) {
+        return processMetrics.record("getHistoryHandledByUser", () -> doGetHistoryHandledByUser(userId, pageable));
+    }
+
+    private Page<ProcessHistoryModel> doGetHistoryHandledByUser(Long userId, Pageable pageable) {
         logger.debug("Fetching process history handled by user: {}, page: {}", userId, pageable);
         UserModel userModel = userService.getUserById(userId);
 
@@ -96,6 +110,47 @@ public class ProcessHistoryServiceImpl implements ProcessHistoryService {
         return new PageImpl<>(models, pageable, total);
     }
 
+    /**
+     * Retrieves the history of processes handled by a specific user, newest first, starting after the
+     * given cursor. Unlike the offset variant the page query does not slow down on deep pages, and the
+     * count only runs when requested.
+     *
+     * @param userId       ID of the user who handled the processes
+     * @param cursor       next cursor of the previous page; null for the first page
+     * @param size         page size, at most 100
+     * @param includeTotal whether to count all processes as well
+     * @return one page of process history models
+     */
+    @Override
+    public CursorPage<ProcessHistoryModel> getHistoryHandledByUser(Long userId, String cursor, int size,
+                                                                   boolean includeTotal) {
+        return processMetrics.record("getHistoryHandledByUserByCursor",
+                () -> doGetHistoryHandledByUser(userId, SeekCursor.decode(cursor), KeysetSql.pageSize(size), includeTotal));
+    }
+
+    private CursorPage<ProcessHistoryModel> doGetHistoryHandledByUser(Long userId, SeekCursor cursor, int size,
+                                                                      boolean includeTotal) {
+        logger.debug("Fetching process history handled by user: {}, after: {}", userId, cursor);
+        UserModel userModel = userService.getUserById(userId);
+
+        Long total = null;
+        if (includeTotal) {
+            total = historyService.createNativeHistoricProcessInstanceQuery()
+                    .sql("SELECT COUNT(RES.ID_)" + KeysetSql.INVOLVED_HISTORY_FROM)
+                    .parameter("username", userModel.getUsername())
+                    .count();
+        }
+
+        List<HistoricProcessInstance> instances = KeysetSql.bind(historyService.createNativeHistoricProcessInstanceQuery()
+                        .sql("SELECT RES.*" + KeysetSql.INVOLVED_HISTORY_FROM
+                                + KeysetSql.after("START_TIME_", cursor) + KeysetSql.order("START_TIME_"))
+                        .parameter("username", userModel.getUsername()), cursor)
+                .listPage(0, size + 1);
+
+        return KeysetSql.page(instances, size, instance -> new SeekCursor(instance.getStartTime(), instance.getId()),
+                this::toModel, total);
+    }
+
     private ProcessHistoryModel toModel(HistoricProcessInstance instance) {
         ProcessHistoryModel model = new ProcessHistoryModel();
         model.setProcessInstanceId(instance.getId());
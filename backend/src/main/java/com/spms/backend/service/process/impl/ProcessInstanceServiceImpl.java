@@ -1,8 +1,5 @@
 package com.spms.backend.service.process.impl;
 
-import com.spms.backend.repository.entities.process.ProcessDefinitionEntity;
-import com.spms.backend.repository.entities.process.ProcessVersionEntity;
-import com.spms.backend.repository.entities.process.ProcessVersionStatus;
 import com.spms.backend.repository.process.ProcessDefinitionRepository;
 import com.spms.backend.repository.process.ProcessVersionRepository;
 import com.spms.backend.service.exception.NotFoundException;
@@ -11,9 +8,14 @@ import com.spms.backend.service.exception.ValidationException;
 import com.spms.backend.service.idm.UserService;
 import com.spms.backend.service.model.idm.UserModel;
 import com.spms.backend.service.model.process.ProcessInstanceModel;
+import com.spms.backend.service.model.process.TaskCompletionModel;
+import com.spms.backend.service.model.process.TaskCompletionResultModel;
 import com.spms.backend.service.model.process.TaskModel;
 import com.spms.backend.service.process.BusinessKeyGenerator;
+import com.spms.backend.service.process.DeployedVersionResolver;
 import com.spms.backend.service.process.ProcessInstanceService;
+import com.spms.backend.service.process.engine.ProcessMetrics;
+import com.spms.backend.service.process.engine.ProcessVariableWriter;
 import org.flowable.engine.ProcessEngine;
 import org.flowable.engine.RuntimeService;
 import org.flowable.engine.TaskService;
@@ -28,11 +30,15 @@ import org.slf4j.LoggerFactory;
 import com.spms.backend.service.mapper.ProcessActivityMapper;
 import com.spms.backend.service.mapper.ProcessInstanceMapper;
 import com.spms.backend.service.model.process.ProcessActivityModel;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.util.StringUtils;
 
 import java.util.*;
@@ -63,21 +69,62 @@ public class ProcessInstanceServiceImpl implements ProcessInstanceService {
     private final BusinessKeyGenerator businessKeyGenerator;
     private final ProcessVersionRepository processVersionRepository;
     private final ProcessDefinitionRepository processDefinitionRepository;
+    private final DeployedVersionResolver deployedVersionResolver;
+    private final ProcessVariableWriter variableWriter;
+    private final ProcessMetrics processMetrics;
+    private final TransactionTemplate requiresNew;
+
+    /**
+     * Tasks completed per transaction by {@link #completeTasks}
+     */
+    @Value("${spms.process.bulk-complete.chunk-size:50}")
+    private int bulkCompleteChunkSize = 50;
+
+    /**
+     * Most tasks accepted by one {@link #completeTasks} call
+     */
+    @Value("${spms.process.bulk-complete.max-items:1000}")
+    private int bulkCompleteMaxItems = 1000;
 
     private static final Logger log = LoggerFactory.getLogger(ProcessInstanceServiceImpl.class);
 
+    /**
+     * Running process instances the user started (process-scoped {@code initiator} variable)
+     * or holds a task in. Backed by the indexes of V20261017_1100__Add_user_related_instance_indexes.sql.
+     */
+    private static final String USER_RELATED_INSTANCES_FROM =
+            " FROM ACT_RU_EXECUTION RES" +
+            " WHERE RES.PARENT_ID_ IS NULL" +
+            " AND (EXISTS (SELECT 1 FROM ACT_RU_VARIABLE V" +
+            "       WHERE V.EXECUTION_ID_ = RES.ID_ AND V.NAME_ = 'initiator' AND V.TEXT_ = #{username})" +
+            "   OR EXISTS (SELECT 1 FROM ACT_RU_TASK T" +
+            "       WHERE T.PROC_INST_ID_ = RES.ID_ AND T.ASSIGNEE_ = #{username}))";
+
+    /**
+     * Stable ordering for paging: instances started in the same millisecond are ordered by ID.
+     */
+    private static final String USER_RELATED_INSTANCES_ORDER = " ORDER BY RES.START_TIME_ DESC, RES.ID_ DESC";
+
     public ProcessInstanceServiceImpl(
             UserService userService,
             ProcessEngine flowableEngine,
             BusinessKeyGenerator businessKeyGenerator,
             ProcessVersionRepository processVersionRepository,
-            ProcessDefinitionRepository processDefinitionRepository
+            ProcessDefinitionRepository processDefinitionRepository,
+            DeployedVersionResolver deployedVersionResolver,
+            ProcessMetrics processMetrics,
+            PlatformTransactionManager transactionManager
     ) {
         this.userService = userService;
         this.flowableEngine = flowableEngine;
         this.businessKeyGenerator = businessKeyGenerator;
         this.processVersionRepository = processVersionRepository;
         this.processDefinitionRepository = processDefinitionRepository;
+        this.deployedVersionResolver = deployedVersionResolver;
+        this.variableWriter = new ProcessVariableWriter(flowableEngine);
+        this.processMetrics = processMetrics;
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
     }
 
     /**
@@ -98,6 +145,10 @@ public class ProcessInstanceServiceImpl implements ProcessInstanceService {
     @Override
     @Transactional
     public ProcessInstanceModel startInstance(Long definitionId, Long formId, Map<String, String> formContext, Map<String, String> context) {
+        return processMetrics.record("startInstance", () -> doStartInstance(definitionId, formId, formContext, context));
+    }
+
+    private ProcessInstanceModel doStartInstance(Long definitionId, Long formId, Map<String, String> formContext, Map<String, String> context) {
         log.info("Starting process instance with definitionId: {}", definitionId);
         if (definitionId == null) {
             log.warn("Validation failed: Definition ID is null or empty");
@@ -114,23 +165,19 @@ public class ProcessInstanceServiceImpl implements ProcessInstanceService {
         RuntimeService runtimeService = flowableEngine.getRuntimeService();
         try {
 
-            ProcessDefinitionEntity procDef = processDefinitionRepository.getReferenceById(definitionId);
-            ProcessVersionEntity processVersion = procDef.getVersions().stream().filter(x->x.getStatus() == ProcessVersionStatus.DEPLOYED)
-                    .findFirst().orElseThrow(
+            // Cached per definition and invalidated on deploy/undeploy, no versions collection walk
+            DeployedVersionResolver.DeployedVersion processVersion = deployedVersionResolver.resolve(definitionId)
+                    .orElseThrow(
                             ()->{
                                 log.error("Process version not found for definitionId: {}", definitionId);
                                 return new SpmsRuntimeException("Process version not found for definition ID: " + definitionId, null);
                             }
                     );
-            // Find the process definition by process version
-            ProcessDefinitionEntity processDefinition = processVersion.getProcessDefinition();
-            if (processDefinition == null) {
-                log.error("Process definition not found for versionId: {}", processVersion.getId());
-                throw new SpmsRuntimeException("Process definition not found for version ID: " + processVersion.getId(), null);
-            }
+
+            ProcessMetrics.process(processVersion.key());
 
             // Generate the businessKey using the process version's key as prefix
-            String businessKey = businessKeyGenerator.generateBusinessKey(processVersion.getKey(), "")
+            String businessKey = businessKeyGenerator.generateBusinessKey(processVersion.key(), "")
                     .getSeqStr('0', 10);  // Use '0' placeholder and 10-digit sequence
 
             Map<String,Object> variables = new HashMap<>();
@@ -143,12 +190,12 @@ public class ProcessInstanceServiceImpl implements ProcessInstanceService {
             }
 
             ProcessInstance instance = runtimeService.createProcessInstanceBuilder()
-                    .processDefinitionKey(processVersion.getKey())
+                    .processDefinitionKey(processVersion.key())
                     .businessKey(businessKey)
-                    .owner(processDefinition.getOwnerId().toString())
+                    .owner(processVersion.ownerId() != null ? processVersion.ownerId().toString() : null)
                     //.tenantId(processDefinition.getBusinessOwnerId().toString())
                     .variables(variables)
-                    .transientVariables(Map.of("defId",processDefinition.getId()))
+                    .transientVariables(Map.of("defId",processVersion.definitionId()))
                     .start();
             log.info("Process instance started successfully: instanceId={}, definitionId={}",
                     instance.getId(), definitionId);
@@ -182,6 +229,10 @@ public class ProcessInstanceServiceImpl implements ProcessInstanceService {
      */
     @Override
     public void rejectTask(String instanceId, String taskId, Long userId, Map<String, Object> rejectValues) {
+        processMetrics.run("rejectTask", () -> doRejectTask(instanceId, taskId, userId, rejectValues));
+    }
+
+    private void doRejectTask(String instanceId, String taskId, Long userId, Map<String, Object> rejectValues) {
         log.info("Rejecting task: instanceId={}, taskId={}, userId={}", instanceId, taskId, userId);
         
         // Validate input parameters
@@ -200,7 +251,6 @@ public class ProcessInstanceServiceImpl implements ProcessInstanceService {
 
         try {
             TaskService taskService = flowableEngine.getTaskService();
-            RuntimeService runtimeService = flowableEngine.getRuntimeService();
 
             // Verify task exists and is assigned to user
             Task task = taskService.createTaskQuery()
@@ -210,16 +260,16 @@ public class ProcessInstanceServiceImpl implements ProcessInstanceService {
             if (task == null) {
                 throw new NotFoundException("Task not found or not assigned to user");
             }
+            ProcessMetrics.process(task.getProcessDefinitionId());
 
-            // Set rejection variables
-            Map<String,Object> safe = ensureFormDataNotOverwritten(instanceId, rejectValues);
-            taskService.setVariables(taskId, safe);
-            runtimeService.setVariables(instanceId, safe);
+            // Rejection variables are written once, together with the completion
             // Trigger BPMN event
             //runtimeService.signalEventReceived("taskRejected", task.getExecutionId(), rejectValues);
-            flowableEngine.getTaskService().complete(taskId,rejectValues);
+            ProcessVariableWriter.VariableWriteReport report = variableWriter.completeTask(instanceId, taskId, rejectValues);
+            processMetrics.variableWrites(report);
 
-            log.info("Task rejected successfully: taskId={}", taskId);
+            log.info("Task rejected successfully: taskId={}, variableRows={}, historyRows={}, skipped={}",
+                    taskId, report.runtimeRows(), report.historyRows(), report.skipped());
         } catch (FlowableObjectNotFoundException e) {
             throw new SpmsRuntimeException("Task or process instance not found", e);
         } catch (Exception e) {
@@ -242,6 +292,10 @@ public class ProcessInstanceServiceImpl implements ProcessInstanceService {
     @Override
     @Transactional
     public void completeTask(String instanceId, String taskId, Long userId, Map<String, Object> completedValues) {
+        processMetrics.run("completeTask", () -> doCompleteTask(instanceId, taskId, userId, completedValues));
+    }
+
+    private void doCompleteTask(String instanceId, String taskId, Long userId, Map<String, Object> completedValues) {
         log.info("Completing task: instanceId={}, taskId={}, userId={}", instanceId, taskId, userId);
         log.info("FormData keys in completed values: {}", 
             completedValues != null && completedValues.containsKey("formData") 
@@ -260,16 +314,122 @@ public class ProcessInstanceServiceImpl implements ProcessInstanceService {
         }
 
         try {
-            // Avoid accidentally clearing formData if client submits empty {}
-            Map<String,Object> safe = ensureFormDataNotOverwritten(instanceId, completedValues);
-            flowableEngine.getRuntimeService().setVariables(instanceId, safe);
-            flowableEngine.getTaskService().complete(taskId, safe);
-            log.info("Task completed successfully: taskId={}", taskId);
+            // Changed variables only, written once by the completion; empty formData is never written
+            ProcessVariableWriter.VariableWriteReport report = variableWriter.completeTask(instanceId, taskId, completedValues);
+            processMetrics.variableWrites(report);
+            log.info("Task completed successfully: taskId={}, variableRows={}, historyRows={}, skipped={}",
+                    taskId, report.runtimeRows(), report.historyRows(), report.skipped());
         } catch (Exception e) {
             throw new SpmsRuntimeException("Failed to complete task", e);
         }
     }
 
+    /**
+     * Completes several tasks assigned to a user.
+     *
+     * <p>Assignment of all tasks is checked with one task query. Valid tasks are completed in chunks of
+     * {@code spms.process.bulk-complete.chunk-size}, each chunk in a new transaction. When a chunk fails
+     * it is rolled back and its tasks are retried one transaction each, so only the failing tasks are
+     * reported as failed. Not transactional itself: the chunks must commit independently.</p>
+     *
+     * @param completions tasks to complete with their completion data
+     * @param userId ID of the user completing the tasks
+     * @return one result per requested task, in request order
+     * @throws ValidationException if userId is null or too many tasks are requested
+     * @throws NotFoundException if the user is not found
+     */
+    @Override
+    public List<TaskCompletionResultModel> completeTasks(List<TaskCompletionModel> completions, Long userId) {
+        return processMetrics.record("completeTasks", () -> doCompleteTasks(completions, userId));
+    }
+
+    private List<TaskCompletionResultModel> doCompleteTasks(List<TaskCompletionModel> completions, Long userId) {
+        if (userId == null) {
+            throw new ValidationException("User ID cannot be null");
+        }
+        if (completions == null || completions.isEmpty()) {
+            return List.of();
+        }
+        if (completions.size() > bulkCompleteMaxItems) {
+            throw new ValidationException("At most " + bulkCompleteMaxItems + " tasks can be completed at once");
+        }
+        String username = userService.getUserById(userId).getUsername();
+        log.info("Completing {} tasks for userId={}", completions.size(), userId);
+
+        TaskCompletionResultModel[] results = new TaskCompletionResultModel[completions.size()];
+        Map<String, Integer> positions = new HashMap<>();
+        for (int i = 0; i < completions.size(); i++) {
+            TaskCompletionModel item = completions.get(i);
+            if (item == null || !StringUtils.hasText(item.instanceId()) || !StringUtils.hasText(item.taskId())) {
+                results[i] = new TaskCompletionResultModel(item != null ? item.instanceId() : null,
+                        item != null ? item.taskId() : null,
+                        TaskCompletionResultModel.Status.INVALID, "Instance ID and task ID are required");
+            } else if (positions.putIfAbsent(item.taskId(), i) != null) {
+                results[i] = TaskCompletionResultModel.rejected(item,
+                        TaskCompletionResultModel.Status.INVALID, "Task listed more than once");
+            }
+        }
+
+        // One query checks existence, instance and assignee of every task
+        Map<String, Task> tasks = new HashMap<>();
+        if (!positions.isEmpty()) {
+            flowableEngine.getTaskService().createTaskQuery()
+                    .taskIds(positions.keySet())
+                    .list()
+                    .forEach(task -> tasks.put(task.getId(), task));
+        }
+
+        List<Integer> valid = new ArrayList<>();
+        for (int i : positions.values().stream().sorted().toList()) {
+            TaskCompletionModel item = completions.get(i);
+            Task task = tasks.get(item.taskId());
+            if (task == null || !item.instanceId().equals(task.getProcessInstanceId())) {
+                results[i] = TaskCompletionResultModel.rejected(item,
+                        TaskCompletionResultModel.Status.NOT_FOUND, "Task not found in process instance");
+            } else if (!username.equals(task.getAssignee())) {
+                results[i] = TaskCompletionResultModel.rejected(item,
+                        TaskCompletionResultModel.Status.NOT_ASSIGNED, "Task not assigned to user");
+            } else {
+                ProcessMetrics.process(task.getProcessDefinitionId());
+                valid.add(i);
+            }
+        }
+
+        int chunkSize = Math.max(1, bulkCompleteChunkSize);
+        for (int from = 0; from < valid.size(); from += chunkSize) {
+            List<Integer> chunk = valid.subList(from, Math.min(from + chunkSize, valid.size()));
+            try {
+                requiresNew.executeWithoutResult(status -> chunk.forEach(i -> completeOne(completions.get(i))));
+                chunk.forEach(i -> results[i] = TaskCompletionResultModel.completed(completions.get(i)));
+            } catch (RuntimeException chunkFailure) {
+                // The chunk was rolled back; find the failing tasks by completing one per transaction
+                log.warn("Chunk of {} tasks failed, retrying one by one: {}", chunk.size(), chunkFailure.getMessage());
+                for (int i : chunk) {
+                    TaskCompletionModel item = completions.get(i);
+                    try {
+                        requiresNew.executeWithoutResult(status -> completeOne(item));
+                        results[i] = TaskCompletionResultModel.completed(item);
+                    } catch (RuntimeException e) {
+                        log.warn("Failed to complete task {}: {}", item.taskId(), e.getMessage());
+                        results[i] = TaskCompletionResultModel.rejected(item,
+                                TaskCompletionResultModel.Status.FAILED, e.getMessage());
+                    }
+                }
+            }
+        }
+
+        log.info("Completed {} of {} tasks for userId={}", Arrays.stream(results)
+                .filter(r -> r.status() == TaskCompletionResultModel.Status.COMPLETED).count(),
+                completions.size(), userId);
+        return Arrays.asList(results);
+    }
+
+    private void completeOne(TaskCompletionModel item) {
+        ProcessVariableWriter.VariableWriteReport report =
+                variableWriter.completeTask(item.instanceId(), item.taskId(), item.values());
+        processMetrics.variableWrites(report);
+    }
+
     /**
      * Saves draft data to a process instance without completing the task.
      * Only updates process instance variables, does not advance the workflow.
@@ -277,6 +437,10 @@ public class ProcessInstanceServiceImpl implements ProcessInstanceService {
     @Override
     @Transactional
     public void saveDraft(String instanceId, String taskId, Long userId, Map<String, Object> draftValues) {
+        processMetrics.run("saveDraft", () -> doSaveDraft(instanceId, taskId, userId, draftValues));
+    }
+
+    private void doSaveDraft(String instanceId, String taskId, Long userId, Map<String, Object> draftValues) {
         log.info("Saving draft: instanceId={}, taskId={}, userId={}", instanceId, taskId, userId);
         
         if (instanceId == null || instanceId.isEmpty()) {
@@ -291,7 +455,6 @@ public class ProcessInstanceServiceImpl implements ProcessInstanceService {
 
         try {
             TaskService taskService = flowableEngine.getTaskService();
-            RuntimeService runtimeService = flowableEngine.getRuntimeService();
 
             // Verify task exists and is assigned to user
             Task task = taskService.createTaskQuery()
@@ -301,14 +464,14 @@ public class ProcessInstanceServiceImpl implements ProcessInstanceService {
             if (task == null) {
                 throw new NotFoundException("Task not found or not assigned to user");
             }
+            ProcessMetrics.process(task.getProcessDefinitionId());
 
-            // Avoid accidentally clearing formData if client submits empty {}
-            Map<String,Object> safe = ensureFormDataNotOverwritten(instanceId, draftValues);
-            // Only update variables, do NOT complete the task
-            taskService.setVariables(taskId, safe);
-            runtimeService.setVariables(instanceId, safe);
+            // Only update changed variables on the instance, do NOT complete the task
+            ProcessVariableWriter.VariableWriteReport report = variableWriter.writeToInstance(instanceId, draftValues);
+            processMetrics.variableWrites(report);
             
-            log.info("Draft saved successfully: taskId={}", taskId);
+            log.info("Draft saved successfully: taskId={}, variableRows={}, historyRows={}, skipped={}",
+                    taskId, report.runtimeRows(), report.historyRows(), report.skipped());
         } catch (FlowableObjectNotFoundException e) {
             throw new SpmsRuntimeException("Task or process instance not found", e);
         } catch (Exception e) {
@@ -316,51 +479,6 @@ public class ProcessInstanceServiceImpl implements ProcessInstanceService {
         }
     }
 
-    /**
-     * Ensure that incoming variables will not erase existing 'formData' when it is empty or null.
-     */
-    private Map<String, Object> ensureFormDataNotOverwritten(String instanceId, Map<String, Object> incoming) {
-        if (incoming == null) return null;
-        if (!incoming.containsKey("formData")) return incoming;
-        
-        Object newFormData = incoming.get("formData");
-        boolean empty = false;
-        if (newFormData == null) {
-            empty = true;
-            log.info("FormData is null");
-        } else if (newFormData instanceof Map<?,?> m) {
-            empty = m.isEmpty();
-            log.info("FormData is Map with {} keys", m.size());
-        } else if (newFormData instanceof String s) {
-            empty = s.isBlank();
-            log.info("FormData is String with length {}", s.length());
-        } else {
-            log.info("FormData is of type: {}", newFormData.getClass().getSimpleName());
-        }
-        
-        if (!empty) {
-            log.info("FormData is not empty, using incoming data");
-            return incoming;
-        }
-        
-        log.warn("No existing formData found, removing invalid formData");
-        try {
-            Map<String, Object> current = flowableEngine.getRuntimeService().getVariables(instanceId);
-            Object existing = current != null ? current.get("formData") : null;
-            if (existing != null) {
-                log.info("Found existing formData, preserving it");
-                incoming.put("formData", existing);
-            } else {
-                log.warn("No existing formData found in process instance");
-                incoming.remove("formData");
-            }
-        } catch (Exception e) {
-            log.error("Error retrieving existing formData: {}", e.getMessage());
-            incoming.remove("formData");
-        }
-        return incoming;
-    }
-
     /**
      * Retrieves a paginated list of all process instances.
      * 
@@ -382,9 +500,7 @@ public class ProcessInstanceServiceImpl implements ProcessInstanceService {
                     pageable.getPageSize()
             );
 
-            return instances.stream()
-                    .map(x-> toProcessInstanceModel(x,new HashMap<>()))
-                    .collect(Collectors.toList());
+            return toProcessInstanceModels(instances);
         } catch (Exception e) {
             log.error("Error fetching process instances", e);
             throw new SpmsRuntimeException("Failed to retrieve process instances", e);
@@ -394,55 +510,37 @@ public class ProcessInstanceServiceImpl implements ProcessInstanceService {
     /**
      * Retrieves paginated list of process instances related to a user.
      * 
-     * <p>Includes instances started by the user and instances where the user has assigned tasks.</p>
+     * <p>Includes instances started by the user and instances where the user has assigned tasks.
+     * Both conditions, the ordering and the paging are evaluated by the database, so only one page
+     * of instances is loaded regardless of how many instances the user is involved in.</p>
      *
      * @param pageable pagination configuration
      * @param user user model object
-     * @return list of ProcessInstanceModel objects related to the user
+     * @return page of ProcessInstanceModel objects related to the user, newest first
      * @throws SpmsRuntimeException if an error occurs during retrieval
      */
     @Override
-    public List<ProcessInstanceModel> getUserRelatedInstances(Pageable pageable, UserModel user) {
+    public Page<ProcessInstanceModel> getUserRelatedInstances(Pageable pageable, UserModel user) {
         log.debug("Fetching user-related process instances for user: {}", user.getId());
         try {
-            String userId = user.getId().toString();
+            // initiator and assignee both hold the username, see startInstance
+            String username = user.getUsername();
             RuntimeService runtimeService = flowableEngine.getRuntimeService();
-            TaskService taskService = flowableEngine.getTaskService();
-
-            // 查询用户启动的流程实例
-            List<ProcessInstance> startedProcesses = runtimeService
-                    .createProcessInstanceQuery()
-                    .variableValueEquals("initiator", userId)
-                    .list();
 
-            // 查询用户被分配任务的流程实例
-            List<Task> userTasks = taskService.createTaskQuery()
-                    .taskAssignee(userId)
-                    .list();
+            long total = runtimeService.createNativeProcessInstanceQuery()
+                    .sql("SELECT COUNT(RES.ID_)" + USER_RELATED_INSTANCES_FROM)
+                    .parameter("username", username)
+                    .count();
+            if (total == 0 || pageable.getOffset() >= total) {
+                return new PageImpl<>(Collections.emptyList(), pageable, total);
+            }
 
-            Set<String> processInstanceIds = userTasks.stream()
-                    .map(Task::getProcessInstanceId)
-                    .collect(Collectors.toSet());
+            List<ProcessInstance> page = runtimeService.createNativeProcessInstanceQuery()
+                    .sql("SELECT RES.*" + USER_RELATED_INSTANCES_FROM + USER_RELATED_INSTANCES_ORDER)
+                    .parameter("username", username)
+                    .listPage((int) pageable.getOffset(), pageable.getPageSize());
 
-            List<ProcessInstance> taskProcesses = runtimeService
-                    .createProcessInstanceQuery()
-                    .processInstanceIds(processInstanceIds)
-                    .list();
-
-            // 合并并去重
-            Set<ProcessInstance> combined = new LinkedHashSet<>();
-            combined.addAll(startedProcesses);
-            combined.addAll(taskProcesses);
-
-            // 应用分页
-            List<ProcessInstance> paginated = combined.stream()
-                    .skip(pageable.getOffset())
-                    .limit(pageable.getPageSize())
-                    .toList();
-
-            return paginated.stream()
-                    .map(x->toProcessInstanceModel(x,new HashMap<>()))
-                    .collect(Collectors.toList());
+            return new PageImpl<>(toProcessInstanceModels(page), pageable, total);
         } catch (Exception e) {
             log.error("Error fetching user-related process instances for user: {}", user.getId(), e);
             throw new SpmsRuntimeException("Failed to retrieve user-related process instances", e);
@@ -525,24 +623,42 @@ public class ProcessInstanceServiceImpl implements ProcessInstanceService {
         }
         var result = flowableEngine.getRuntimeService().getVariables(instanceId);
 
-        var model=  toProcessInstanceModel(processInstance,result);
+        var model=  toProcessInstanceModel(processInstance, result, getInstanceTasks(instanceId));
         return model;
     }
 
+    /**
+     * Converts a page of ProcessInstance objects, loading the active tasks of all
+     * instances with a single task query instead of one query per instance.
+     *
+     * @param instances ProcessInstances to convert
+     * @return converted ProcessInstanceModels in the same order
+     */
+    private List<ProcessInstanceModel> toProcessInstanceModels(List<ProcessInstance> instances) {
+        Map<String, List<TaskModel>> tasksByInstance = getInstanceTasksIn(
+                instances.stream().map(ProcessInstance::getId).toList());
+        return instances.stream()
+                .map(x -> toProcessInstanceModel(x, new HashMap<>(),
+                        tasksByInstance.getOrDefault(x.getId(), Collections.emptyList())))
+                .collect(Collectors.toList());
+    }
+
     /**
      * Converts a ProcessInstance object to a ProcessInstanceModel object.
      * 
      * @param instance ProcessInstance to convert
+     * @param activeTasks already loaded active tasks of the instance
      * @return converted ProcessInstanceModel
      */
     //TODO: migrate to a standalone class
-    private ProcessInstanceModel toProcessInstanceModel(ProcessInstance instance, Map<String,Object> context) {
+    private ProcessInstanceModel toProcessInstanceModel(ProcessInstance instance, Map<String,Object> context,
+                                                        List<TaskModel> activeTasks) {
         String instanceId = instance.getId();
         return ProcessInstanceModel.builder()
                 .instanceId(instanceId)
                 .definitionId(instance.getProcessDefinitionId())
                 .startTime(instance.getStartTime().getTime())
-                .activeTasks(getInstanceTasks(instanceId))
+                .activeTasks(activeTasks)
                 .setBusinessKey(instance.getBusinessKey())
                 .setDeploymentId(instance.getDeploymentId())
                 .status(instance.getBusinessStatus())
@@ -559,6 +675,10 @@ public class ProcessInstanceServiceImpl implements ProcessInstanceService {
      */
     @Override
     public List<TaskModel> getInstanceTasks(String instanceId) {
+        return processMetrics.record("getInstanceTasks", () -> doGetInstanceTasks(instanceId));
+    }
+
+    private List<TaskModel> doGetInstanceTasks(String instanceId) {
         log.debug("Getting tasks for instance: instanceId={}", instanceId);
         if (instanceId == null || instanceId.isEmpty()) {
             log.warn("Validation failed: Instance ID is null or empty");
@@ -569,19 +689,49 @@ public class ProcessInstanceServiceImpl implements ProcessInstanceService {
                 .createTaskQuery()
                 .processInstanceId(instanceId)
                 .list();
+        if (!tasks.isEmpty()) {
+            ProcessMetrics.process(tasks.get(0).getProcessDefinitionId());
+        }
 
         List<TaskModel> taskModels = tasks.stream()
-                .map(task -> TaskModel.builder()
-                        .taskId(task.getId())
-                        .name(task.getName())
-                        .assignee(task.getAssignee())
-                        .build())
+                .map(this::toTaskModel)
                 .collect(Collectors.toList());
 
         log.debug("Found {} tasks for instance: instanceId={}", taskModels.size(), instanceId);
         return taskModels;
     }
 
+    /**
+     * Retrieves the active tasks of several process instances with one task query.
+     *
+     * @param instanceIds IDs of the process instances
+     * @return tasks grouped by process instance ID; instances without tasks are absent
+     */
+    @Override
+    public Map<String, List<TaskModel>> getInstanceTasksIn(Collection<String> instanceIds) {
+        if (instanceIds == null || instanceIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        log.debug("Getting tasks for {} instances", instanceIds.size());
+
+        List<Task> tasks = flowableEngine.getTaskService()
+                .createTaskQuery()
+                .processInstanceIdIn(new ArrayList<>(new LinkedHashSet<>(instanceIds)))
+                .list();
+
+        return tasks.stream()
+                .collect(Collectors.groupingBy(Task::getProcessInstanceId,
+                        Collectors.mapping(this::toTaskModel, Collectors.toList())));
+    }
+
+    private TaskModel toTaskModel(Task task) {
+        return TaskModel.builder()
+                .taskId(task.getId())
+                .name(task.getName())
+                .assignee(task.getAssignee())
+                .build();
+    }
+
     /**
      * Retrieves paginated activity history for a process instance.
      * 
@@ -594,6 +744,10 @@ public class ProcessInstanceServiceImpl implements ProcessInstanceService {
     @Override
     public Page<ProcessActivityModel> getProcessActivities(String processInstanceId, Pageable pageable)
             throws NotFoundException, SpmsRuntimeException {
+        return processMetrics.record("getProcessActivities", () -> doGetProcessActivities(processInstanceId, pageable));
+    }
+
+    private Page<ProcessActivityModel> doGetProcessActivities(String processInstanceId, Pageable pageable) {
         log.debug("Getting activities for process instance: instanceId={}", processInstanceId);
         if (processInstanceId == null || processInstanceId.isEmpty()) {
             log.warn("Validation failed: Process instance ID is null or empty");
@@ -612,6 +766,9 @@ public class ProcessInstanceServiceImpl implements ProcessInstanceService {
                 (int) pageable.getOffset(), 
                 pageable.getPageSize()
             );
+            if (!activities.isEmpty()) {
+                ProcessMetrics.process(activities.get(0).getProcessDefinitionId());
+            }
 
             List<ProcessActivityModel> models = activities.stream()
                 .map(this::toProcessActivityModel)
@@ -1,39 +1,62 @@
 package com.spms.backend.service.process.impl;
 
+import com.spms.backend.repository.entities.process.UserWorkItemEntity;
+import com.spms.backend.repository.entities.process.UserWorkItemStatus;
+import com.spms.backend.repository.entities.process.UserWorkTaskEntity;
+import com.spms.backend.repository.process.UserWorkItemRepository;
+import com.spms.backend.repository.process.UserWorkTaskRepository;
 import com.spms.backend.service.idm.UserService;
 import com.spms.backend.service.model.idm.UserModel;
+import com.spms.backend.service.model.process.CursorPage;
 import com.spms.backend.service.model.process.ProcessInstanceConverter;
 import com.spms.backend.service.model.process.ProcessInstanceModel;
+import com.spms.backend.service.model.process.SeekCursor;
 import com.spms.backend.service.model.process.TaskModel;
 import com.spms.backend.service.process.UserInstanceProcessService;
+import com.spms.backend.service.process.engine.ProcessMetrics;
 import org.flowable.engine.HistoryService;
 import org.flowable.engine.ProcessEngine;
-import org.flowable.engine.RuntimeService;
 import org.flowable.engine.TaskService;
-import org.flowable.engine.history.HistoricProcessInstanceQuery;
-import org.flowable.engine.runtime.ProcessInstanceQuery;
-import org.flowable.task.api.TaskQuery;
+import org.flowable.engine.history.HistoricProcessInstance;
+import org.flowable.task.api.Task;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
-import java.util.stream.Collectors;
 
+/**
+ * Inbox queries for the current user. Offset pages read the {@code spms_user_work_item} and
+ * {@code spms_user_work_task} read model maintained by
+ * {@link com.spms.backend.service.process.engine.UserWorkItemEventListener}; cursor pages still seek
+ * through the engine tables.
+ */
 @Service
 public class UserInstanceProcessServiceImpl implements UserInstanceProcessService {
 
+    private static final Sort BY_START_TIME = Sort.by(Sort.Direction.DESC, "startTime", "id");
+    private static final Sort BY_CREATE_TIME = Sort.by(Sort.Direction.DESC, "createTime", "id");
+
     private final UserService userService;
-    private final RuntimeService runtimeService;
     private final TaskService taskService;
     private final HistoryService historyService;
+    private final ProcessMetrics processMetrics;
+    private final UserWorkItemRepository workItemRepository;
+    private final UserWorkTaskRepository workTaskRepository;
 
-    public UserInstanceProcessServiceImpl(UserService userService, ProcessEngine flowableEngine) {
+    public UserInstanceProcessServiceImpl(UserService userService, ProcessEngine flowableEngine,
+                                          ProcessMetrics processMetrics, UserWorkItemRepository workItemRepository,
+                                          UserWorkTaskRepository workTaskRepository) {
         this.userService = userService;
-        this.runtimeService = flowableEngine.getRuntimeService();
         this.taskService = flowableEngine.getTaskService();
         this.historyService = flowableEngine.getHistoryService();
+        this.processMetrics = processMetrics;
+        this.workItemRepository = workItemRepository;
+        this.workTaskRepository = workTaskRepository;
     }
 
     /**
@@ -45,23 +68,17 @@ public class UserInstanceProcessServiceImpl implements UserInstanceProcessServic
      */
     @Override
     public Page<ProcessInstanceModel> getUserRelatedInstanceService(Long userId, Pageable pageable) {
+        return processMetrics.record("getUserRelatedInstanceService", () -> doGetUserRelatedInstanceService(userId, pageable));
+    }
+
+    private Page<ProcessInstanceModel> doGetUserRelatedInstanceService(Long userId, Pageable pageable) {
 
         UserModel user = userService.getUserById(userId);
         String username = user.getUsername();
 
-        ProcessInstanceQuery query = runtimeService.createProcessInstanceQuery()
-                .involvedUser(username)
-                .orderByStartTime().desc();
-
-        long total = query.count();
-        int firstResult = (int) pageable.getOffset();
-        int maxResults = pageable.getPageSize();
-
-        List<ProcessInstanceModel> instances = query.listPage(firstResult, maxResults).stream()
-                .map(ProcessInstanceConverter::convert)
-                .collect(Collectors.toList());
-
-        return new PageImpl<>(instances, pageable, total);
+        return workItemRepository.findByUsernameAndStatus(username, UserWorkItemStatus.RUNNING,
+                        PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), BY_START_TIME))
+                .map(UserInstanceProcessServiceImpl::toInstanceModel);
     }
 
     /**
@@ -73,24 +90,17 @@ public class UserInstanceProcessServiceImpl implements UserInstanceProcessServic
      */
     @Override
     public Page<TaskModel> getAssignedRunningUserTasks(Long userId, Pageable pageable) {
+        return processMetrics.record("getAssignedRunningUserTasks", () -> doGetAssignedRunningUserTasks(userId, pageable));
+    }
+
+    private Page<TaskModel> doGetAssignedRunningUserTasks(Long userId, Pageable pageable) {
 
         UserModel user = userService.getUserById(userId);
         String username = user.getUsername();
 
-        TaskQuery query = taskService.createTaskQuery()
-                .taskAssignee(username)
-                .active()
-                .orderByTaskCreateTime().desc();
-
-        long total = query.count();
-        int firstResult = (int) pageable.getOffset();
-        int maxResults = pageable.getPageSize();
-
-        List<TaskModel> tasks = query.listPage(firstResult, maxResults).stream()
-                .map(ProcessInstanceConverter::convert)
-                .collect(Collectors.toList());
-
-        return new PageImpl<>(tasks, pageable, total);
+        return workTaskRepository.findByUsernameAndSuspendedFalse(username,
+                        PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), BY_CREATE_TIME))
+                .map(UserInstanceProcessServiceImpl::toTaskModel);
     }
 
     /**
@@ -102,21 +112,122 @@ public class UserInstanceProcessServiceImpl implements UserInstanceProcessServic
      */
     @Override
     public Page<ProcessInstanceModel> getUserRelatedHistoryInstanceService(Long userId, Pageable pageable) {
+        return processMetrics.record("getUserRelatedHistoryInstanceService", () -> doGetUserRelatedHistoryInstanceService(userId, pageable));
+    }
+
+    private Page<ProcessInstanceModel> doGetUserRelatedHistoryInstanceService(Long userId, Pageable pageable) {
         UserModel user = userService.getUserById(userId);
         String username = user.getUsername();
 
-        HistoricProcessInstanceQuery query = historyService.createHistoricProcessInstanceQuery()
-                .involvedUser(username)
-                .orderByProcessInstanceStartTime().desc();
+        return workItemRepository.findByUsername(username,
+                        PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), BY_START_TIME))
+                .map(UserInstanceProcessServiceImpl::toInstanceModel);
+    }
+
+    /**
+     * Fetches active tasks assigned to the user, newest first, starting after the given cursor.
+     * Each page costs one indexed range scan regardless of how deep it is; the count only runs
+     * when requested.
+     *
+     * @param userId       The ID of the user whose assigned tasks are to be retrieved.
+     * @param cursor       Next cursor of the previous page, or null for the first page.
+     * @param size         Page size, at most {@value KeysetSql#MAX_PAGE_SIZE}.
+     * @param includeTotal Whether to count all assigned tasks.
+     * @return A page of {@link TaskModel} with the cursor of the next page.
+     */
+    @Override
+    public CursorPage<TaskModel> getAssignedRunningUserTasks(Long userId, String cursor, int size, boolean includeTotal) {
+        return processMetrics.record("getAssignedRunningUserTasksByCursor",
+                () -> doGetAssignedRunningUserTasks(userId, SeekCursor.decode(cursor), KeysetSql.pageSize(size), includeTotal));
+    }
+
+    private CursorPage<TaskModel> doGetAssignedRunningUserTasks(Long userId, SeekCursor cursor, int size,
+                                                                boolean includeTotal) {
+        String username = userService.getUserById(userId).getUsername();
+
+        Long total = null;
+        if (includeTotal) {
+            total = taskService.createNativeTaskQuery()
+                    .sql("SELECT COUNT(RES.ID_)" + KeysetSql.ASSIGNED_TASKS_FROM)
+                    .parameter("username", username)
+                    .count();
+        }
+
+        List<Task> tasks = KeysetSql.bind(taskService.createNativeTaskQuery()
+                        .sql("SELECT RES.*" + KeysetSql.ASSIGNED_TASKS_FROM
+                                + KeysetSql.after("CREATE_TIME_", cursor) + KeysetSql.order("CREATE_TIME_"))
+                        .parameter("username", username), cursor)
+                .listPage(0, size + 1);
+
+        return KeysetSql.page(tasks, size, task -> new SeekCursor(task.getCreateTime(), task.getId()),
+                ProcessInstanceConverter::convert, total);
+    }
+
+    /**
+     * Retrieves historical process instances the user was involved in, newest first, starting after
+     * the given cursor. Each page costs one indexed range scan regardless of how deep it is; the count
+     * only runs when requested.
+     *
+     * @param userId       The ID of the user whose historical instances are to be fetched.
+     * @param cursor       Next cursor of the previous page, or null for the first page.
+     * @param size         Page size, at most {@value KeysetSql#MAX_PAGE_SIZE}.
+     * @param includeTotal Whether to count all related instances.
+     * @return A page of {@link ProcessInstanceModel} with the cursor of the next page.
+     */
+    @Override
+    public CursorPage<ProcessInstanceModel> getUserRelatedHistoryInstances(Long userId, String cursor, int size,
+                                                                           boolean includeTotal) {
+        return processMetrics.record("getUserRelatedHistoryInstancesByCursor",
+                () -> doGetUserRelatedHistoryInstances(userId, SeekCursor.decode(cursor), KeysetSql.pageSize(size), includeTotal));
+    }
 
-        long total = query.count();
-        int firstResult = (int) pageable.getOffset();
-        int maxResults = pageable.getPageSize();
+    private CursorPage<ProcessInstanceModel> doGetUserRelatedHistoryInstances(Long userId, SeekCursor cursor, int size,
+                                                                              boolean includeTotal) {
+        String username = userService.getUserById(userId).getUsername();
+
+        Long total = null;
+        if (includeTotal) {
+            total = historyService.createNativeHistoricProcessInstanceQuery()
+                    .sql("SELECT COUNT(RES.ID_)" + KeysetSql.INVOLVED_HISTORY_FROM)
+                    .parameter("username", username)
+                    .count();
+        }
+
+        List<HistoricProcessInstance> instances = KeysetSql.bind(historyService.createNativeHistoricProcessInstanceQuery()
+                        .sql("SELECT RES.*" + KeysetSql.INVOLVED_HISTORY_FROM
+                                + KeysetSql.after("START_TIME_", cursor) + KeysetSql.order("START_TIME_"))
+                        .parameter("username", username), cursor)
+                .listPage(0, size + 1);
+
+        return KeysetSql.page(instances, size, instance -> new SeekCursor(instance.getStartTime(), instance.getId()),
+                ProcessInstanceConverter::convert, total);
+    }
 
-        List<ProcessInstanceModel> instances = query.listPage(firstResult, maxResults).stream()
-                .map(ProcessInstanceConverter::convert)
-                .collect(Collectors.toList());
+    private static ProcessInstanceModel toInstanceModel(UserWorkItemEntity item) {
+        return ProcessInstanceModel.builder()
+                .instanceId(item.getProcessInstanceId())
+                .definitionId(item.getProcessDefinitionId())
+                .status(item.getStatus().name())
+                .startTime(item.getStartTime() != null ? item.getStartTime().getTime() : null)
+                .endTime(item.getEndTime() != null ? item.getEndTime().getTime() : null)
+                .setBusinessKey(item.getBusinessKey())
+                .setDeploymentId(item.getDeploymentId())
+                .setContextValue(new HashMap<>())
+                .activeTasks(Collections.emptyList())
+                .build();
+    }
 
-        return new PageImpl<>(instances, pageable, total);
+    /**
+     * Process variables are not part of the inbox, as with a task query that does not include them
+     */
+    private static TaskModel toTaskModel(UserWorkTaskEntity task) {
+        return TaskModel.builder()
+                .taskId(task.getTaskId())
+                .name(task.getTaskName())
+                .assignee(task.getUsername())
+                .processInstanceId(task.getProcessInstanceId())
+                .processContext(new HashMap<>())
+                .status(task.getTaskState())
+                .build();
     }
 }
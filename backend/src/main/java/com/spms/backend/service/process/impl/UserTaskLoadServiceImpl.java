@@ -0,0 +1,108 @@
+package com.spms.backend.service.process.impl;
+
+import com.spms.backend.repository.entities.process.TaskAssigneeEntity;
+import com.spms.backend.repository.entities.process.UserTaskLoadEntity;
+import com.spms.backend.repository.process.TaskAssigneeRepository;
+import com.spms.backend.repository.process.UserTaskLoadRepository;
+import com.spms.backend.service.process.UserTaskLoadService;
+import com.spms.backend.service.process.engine.ProcessMetrics;
+import org.flowable.engine.ProcessEngine;
+import org.flowable.engine.TaskService;
+import org.flowable.task.api.Task;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Service
+public class UserTaskLoadServiceImpl implements UserTaskLoadService {
+
+    private static final Logger log = LoggerFactory.getLogger(UserTaskLoadServiceImpl.class);
+
+    private static final int BATCH_SIZE = 1000;
+
+    private static final String ASSIGNED_TASK_BATCH =
+            "SELECT RES.* FROM ACT_RU_TASK RES WHERE RES.ASSIGNEE_ IS NOT NULL AND RES.ID_ > #{lastId} ORDER BY RES.ID_";
+
+    private final TaskService taskService;
+    private final TaskAssigneeRepository assigneeRepository;
+    private final UserTaskLoadRepository loadRepository;
+    private final ProcessMetrics processMetrics;
+    private final TransactionTemplate requiresNew;
+
+    public UserTaskLoadServiceImpl(ProcessEngine flowableEngine, TaskAssigneeRepository assigneeRepository,
+                                   UserTaskLoadRepository loadRepository, ProcessMetrics processMetrics,
+                                   PlatformTransactionManager transactionManager) {
+        this.taskService = flowableEngine.getTaskService();
+        this.assigneeRepository = assigneeRepository;
+        this.loadRepository = loadRepository;
+        this.processMetrics = processMetrics;
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Override
+    public Map<String, Long> getOpenTaskCounts(Collection<String> usernames) {
+        Map<String, Long> counts = new HashMap<>();
+        if (usernames.isEmpty()) {
+            return counts;
+        }
+        for (UserTaskLoadEntity load : loadRepository.findByUsernameIn(usernames)) {
+            counts.put(load.getUsername(), load.getOpenTasks());
+        }
+        return counts;
+    }
+
+    @Override
+    public boolean hasCountedTasks() {
+        return assigneeRepository.findTopByOrderByIdAsc().isPresent();
+    }
+
+    /**
+     * Replaces all task assignee rows and counters. Assignments made while the rebuild runs may be
+     * missed, so it belongs to startup or a quiet period.
+     */
+    @Override
+    public long rebuild() {
+        return processMetrics.record("rebuildUserTaskLoad", () -> requiresNew.execute(status -> doRebuild()));
+    }
+
+    private long doRebuild() {
+        assigneeRepository.deleteAllInBatch();
+        loadRepository.deleteAllInBatch();
+
+        String lastId = "";
+        long counted = 0;
+        while (true) {
+            List<Task> tasks = taskService.createNativeTaskQuery()
+                    .sql(ASSIGNED_TASK_BATCH)
+                    .parameter("lastId", lastId)
+                    .listPage(0, BATCH_SIZE);
+            if (tasks.isEmpty()) {
+                break;
+            }
+            List<TaskAssigneeEntity> assignees = new ArrayList<>(tasks.size());
+            for (Task task : tasks) {
+                TaskAssigneeEntity assignee = new TaskAssigneeEntity();
+                assignee.setTaskId(task.getId());
+                assignee.setUsername(task.getAssignee());
+                assignees.add(assignee);
+            }
+            assigneeRepository.saveAll(assignees);
+            counted += tasks.size();
+            lastId = tasks.get(tasks.size() - 1).getId();
+        }
+        assigneeRepository.flush();
+        loadRepository.insertCountsFromAssignees(System.currentTimeMillis());
+        log.info("Counted {} assigned tasks into spms_user_task_load", counted);
+        return counted;
+    }
+}
@@ -0,0 +1,254 @@
+package com.spms.backend.service.process.impl;
+
+import com.spms.backend.repository.entities.process.UserWorkItemEntity;
+import com.spms.backend.repository.entities.process.UserWorkItemStatus;
+import com.spms.backend.repository.entities.process.UserWorkTaskEntity;
+import com.spms.backend.repository.process.UserWorkItemRepository;
+import com.spms.backend.repository.process.UserWorkTaskRepository;
+import com.spms.backend.service.process.UserWorkItemService;
+import com.spms.backend.service.process.engine.ProcessMetrics;
+import com.spms.backend.service.process.engine.UserWorkItemEventListener;
+import org.flowable.engine.HistoryService;
+import org.flowable.engine.ProcessEngine;
+import org.flowable.engine.RepositoryService;
+import org.flowable.engine.TaskService;
+import org.flowable.engine.history.DeleteReason;
+import org.flowable.engine.history.HistoricProcessInstance;
+import org.flowable.engine.repository.ProcessDefinition;
+import org.flowable.task.api.Task;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+@Service
+public class UserWorkItemServiceImpl implements UserWorkItemService {
+
+    private static final Logger log = LoggerFactory.getLogger(UserWorkItemServiceImpl.class);
+
+    private static final String INSTANCE_BATCH =
+            "SELECT RES.* FROM ACT_HI_PROCINST RES WHERE RES.ID_ > #{lastId} ORDER BY RES.ID_";
+
+    private static final String INVOLVED_USERS =
+            "SELECT PROC_INST_ID_, USER_ID_, TYPE_ FROM ACT_HI_IDENTITYLINK" +
+            " WHERE PROC_INST_ID_ IN (:ids) AND USER_ID_ IS NOT NULL";
+
+    private static final String INITIATOR_VARIABLES =
+            "SELECT PROC_INST_ID_, TEXT_ FROM ACT_HI_VARINST" +
+            " WHERE PROC_INST_ID_ IN (:ids) AND EXECUTION_ID_ = PROC_INST_ID_ AND NAME_ = :name";
+
+    private final HistoryService historyService;
+    private final TaskService taskService;
+    private final RepositoryService repositoryService;
+    private final UserWorkItemRepository repository;
+    private final UserWorkTaskRepository taskRepository;
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final ProcessMetrics processMetrics;
+    private final TransactionTemplate requiresNew;
+
+    /**
+     * Process instances projected and written per transaction
+     */
+    @Value("${spms.process.work-items.rebuild-batch-size:500}")
+    private int batchSize = 500;
+
+    public UserWorkItemServiceImpl(ProcessEngine flowableEngine, UserWorkItemRepository repository,
+                                   UserWorkTaskRepository taskRepository, NamedParameterJdbcTemplate jdbcTemplate, ProcessMetrics processMetrics,
+                                   PlatformTransactionManager transactionManager) {
+        this.historyService = flowableEngine.getHistoryService();
+        this.taskService = flowableEngine.getTaskService();
+        this.repositoryService = flowableEngine.getRepositoryService();
+        this.repository = repository;
+        this.taskRepository = taskRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.processMetrics = processMetrics;
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Override
+    public boolean hasWorkItems() {
+        return repository.findTopByOrderByIdAsc().isPresent();
+    }
+
+    @Override
+    public long rebuild() {
+        return processMetrics.record("rebuildUserWorkItems", this::doRebuild);
+    }
+
+    private long doRebuild() {
+        Map<String, ProcessDefinition> definitions = new HashMap<>();
+        String lastId = "";
+        long projected = 0;
+        while (true) {
+            List<HistoricProcessInstance> instances = historyService.createNativeHistoricProcessInstanceQuery()
+                    .sql(INSTANCE_BATCH)
+                    .parameter("lastId", lastId)
+                    .listPage(0, Math.max(1, batchSize));
+            if (instances.isEmpty()) {
+                break;
+            }
+            write(instances, definitions);
+            projected += instances.size();
+            lastId = instances.get(instances.size() - 1).getId();
+            log.debug("Projected {} process instances into spms_user_work_item", projected);
+        }
+        log.info("Rebuilt spms_user_work_item from {} process instances", projected);
+        return projected;
+    }
+
+    /**
+     * Replaces the rows of one batch of instances. A live engine event may insert a row of the batch
+     * between the delete and the insert; the batch is then projected again from fresh history.
+     */
+    private void write(List<HistoricProcessInstance> instances, Map<String, ProcessDefinition> definitions) {
+        Set<String> ids = new HashSet<>();
+        instances.forEach(instance -> ids.add(instance.getId()));
+        try {
+            replace(ids, project(instances, definitions));
+        } catch (DataIntegrityViolationException e) {
+            log.warn("Work items of {} process instances changed during the rebuild, projecting them again",
+                    ids.size());
+            List<HistoricProcessInstance> fresh = historyService.createHistoricProcessInstanceQuery()
+                    .processInstanceIds(ids)
+                    .list();
+            replace(ids, project(fresh, definitions));
+        }
+    }
+
+    private void replace(Set<String> ids, Projection projection) {
+        requiresNew.executeWithoutResult(status -> {
+            repository.deleteByProcessInstanceIds(ids);
+            taskRepository.deleteByProcessInstanceIds(ids);
+            repository.saveAll(projection.items());
+            taskRepository.saveAll(projection.tasks());
+        });
+    }
+
+    /**
+     * Rows of one batch of instances: one per involved user and instance, one per open assigned task
+     */
+    private record Projection(List<UserWorkItemEntity> items, List<UserWorkTaskEntity> tasks) {
+    }
+
+    private Projection project(List<HistoricProcessInstance> instances,
+                                             Map<String, ProcessDefinition> definitions) {
+        Map<String, HistoricProcessInstance> byId = new LinkedHashMap<>();
+        instances.forEach(instance -> byId.put(instance.getId(), instance));
+        loadDefinitions(instances, definitions);
+        Map<String, Object> params = Map.of("ids", byId.keySet(), "name", UserWorkItemEventListener.INITIATOR_VARIABLE);
+
+        // One row per (user, instance), in the order the users became involved
+        Map<String, Map<String, UserWorkItemEntity>> items = new LinkedHashMap<>();
+        for (HistoricProcessInstance instance : instances) {
+            if (instance.getStartUserId() != null) {
+                item(items, instance.getStartUserId(), instance, definitions).setInitiator(true);
+            }
+        }
+        jdbcTemplate.query(INITIATOR_VARIABLES, params, rs -> {
+            String username = rs.getString("TEXT_");
+            if (username != null) {
+                item(items, username, byId.get(rs.getString("PROC_INST_ID_")), definitions).setInitiator(true);
+            }
+        });
+        jdbcTemplate.query(INVOLVED_USERS, params, rs -> {
+            item(items, rs.getString("USER_ID_"), byId.get(rs.getString("PROC_INST_ID_")), definitions);
+        });
+
+        List<UserWorkTaskEntity> openTasks = new ArrayList<>();
+        Set<String> running = new HashSet<>();
+        instances.stream().filter(instance -> instance.getEndTime() == null)
+                .forEach(instance -> running.add(instance.getId()));
+        if (!running.isEmpty()) {
+            List<Task> tasks = taskService.createTaskQuery()
+                    .processInstanceIdIn(running)
+                    .taskAssigned()
+                    .list();
+            Date now = new Date();
+            for (Task task : tasks) {
+                item(items, task.getAssignee(), byId.get(task.getProcessInstanceId()), definitions);
+                openTasks.add(newTask(task, now));
+            }
+        }
+
+        return new Projection(items.values().stream().flatMap(users -> users.values().stream()).toList(), openTasks);
+    }
+
+    private static UserWorkItemEntity item(Map<String, Map<String, UserWorkItemEntity>> items, String username,
+                                           HistoricProcessInstance instance, Map<String, ProcessDefinition> definitions) {
+        return items.computeIfAbsent(instance.getId(), id -> new LinkedHashMap<>())
+                .computeIfAbsent(username, name -> newItem(name, instance, definitions.get(instance.getProcessDefinitionId())));
+    }
+
+    private static UserWorkItemEntity newItem(String username, HistoricProcessInstance instance,
+                                              ProcessDefinition definition) {
+        UserWorkItemEntity item = new UserWorkItemEntity();
+        item.setUsername(username);
+        item.setProcessInstanceId(instance.getId());
+        item.setProcessDefinitionId(instance.getProcessDefinitionId());
+        item.setBusinessKey(instance.getBusinessKey());
+        item.setStatus(status(instance));
+        item.setStartTime(instance.getStartTime());
+        item.setEndTime(instance.getEndTime());
+        item.setLastUpdated(new Date());
+        if (definition != null) {
+            item.setDefinitionKey(definition.getKey());
+            item.setDefinitionName(definition.getName());
+            item.setDeploymentId(definition.getDeploymentId());
+        }
+        return item;
+    }
+
+    private static UserWorkTaskEntity newTask(Task task, Date now) {
+        UserWorkTaskEntity row = new UserWorkTaskEntity();
+        row.setTaskId(task.getId());
+        row.setUsername(task.getAssignee());
+        row.setProcessInstanceId(task.getProcessInstanceId());
+        row.setTaskName(task.getName());
+        row.setTaskState(task.getState());
+        row.setSuspended(task.isSuspended());
+        row.setCreateTime(task.getCreateTime());
+        row.setLastUpdated(now);
+        return row;
+    }
+
+    private static UserWorkItemStatus status(HistoricProcessInstance instance) {
+        if (instance.getEndTime() == null) {
+            return UserWorkItemStatus.RUNNING;
+        }
+        String reason = instance.getDeleteReason();
+        return reason == null || reason.startsWith(DeleteReason.TERMINATE_END_EVENT)
+                ? UserWorkItemStatus.COMPLETED
+                : UserWorkItemStatus.CANCELLED;
+    }
+
+    private void loadDefinitions(List<HistoricProcessInstance> instances, Map<String, ProcessDefinition> definitions) {
+        Set<String> missing = new HashSet<>();
+        for (HistoricProcessInstance instance : instances) {
+            if (instance.getProcessDefinitionId() != null && !definitions.containsKey(instance.getProcessDefinitionId())) {
+                missing.add(instance.getProcessDefinitionId());
+            }
+        }
+        if (missing.isEmpty()) {
+            return;
+        }
+        repositoryService.createProcessDefinitionQuery()
+                .processDefinitionIds(missing)
+                .list()
+                .forEach(definition -> definitions.put(definition.getId(), definition));
+    }
+}
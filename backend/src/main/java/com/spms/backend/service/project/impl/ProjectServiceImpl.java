@@ -11,6 +11,7 @@ import com.spms.backend.repository.project.ProjectRepository;
 import com.spms.backend.repository.project.TaskRepository;
 import com.spms.backend.repository.idm.UserRepository;
 import com.spms.backend.service.project.ProjectService;
+import com.spms.backend.service.timecard.ProjectCatalog;
 import com.spms.backend.service.exception.NotFoundException;
 import com.spms.backend.service.exception.ValidationException;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -40,6 +41,9 @@ public class ProjectServiceImpl implements ProjectService {
     @Autowired
     private TaskRepository taskRepository;
 
+    @Autowired
+    private ProjectCatalog projectCatalog;
+
     @Override
     public ProjectDTO createProject(ProjectCreateDTO createDTO) {
         // 检查项目代码是否已存在
@@ -70,6 +74,7 @@ public class ProjectServiceImpl implements ProjectService {
         entity.setUpdatedById(1L);
 
         ProjectEntity savedEntity = projectRepository.save(entity);
+        projectCatalog.invalidateAfterCommit(savedEntity.getId());
         return convertToDTO(savedEntity);
     }
 
@@ -120,6 +125,7 @@ public class ProjectServiceImpl implements ProjectService {
         entity.setUpdatedById(1L); // 临时硬编码，需要从安全上下文获取
 
         ProjectEntity savedEntity = projectRepository.save(entity);
+        projectCatalog.invalidateAfterCommit(savedEntity.getId());
         return convertToDTO(savedEntity);
     }
 
@@ -131,6 +137,7 @@ public class ProjectServiceImpl implements ProjectService {
         // TODO: 检查是否有关联的任务或工时记录
         
         projectRepository.delete(entity);
+        projectCatalog.invalidateAfterCommit(id);
     }
 
     @Override
@@ -8,6 +8,7 @@ import com.spms.backend.repository.entities.project.ProjectEntity;
 import com.spms.backend.repository.project.TaskRepository;
 import com.spms.backend.repository.project.ProjectRepository;
 import com.spms.backend.service.project.TaskService;
+import com.spms.backend.service.timecard.ProjectCatalog;
 import com.spms.backend.service.exception.NotFoundException;
 import com.spms.backend.service.exception.ValidationException;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -33,6 +34,9 @@ public class TaskServiceImpl implements TaskService {
     @Autowired
     private ProjectRepository projectRepository;
 
+    @Autowired
+    private ProjectCatalog projectCatalog;
+
     @Override
     public TaskDTO createTask(TaskCreateDTO createDTO) {
         // 检查任务编号是否已存在
@@ -60,6 +64,7 @@ public class TaskServiceImpl implements TaskService {
         entity.setUpdatedById(1L);
 
         TaskEntity savedEntity = taskRepository.save(entity);
+        projectCatalog.invalidateAfterCommit(project.getId());
         return convertToDTO(savedEntity);
     }
 
@@ -90,6 +95,9 @@ public class TaskServiceImpl implements TaskService {
             throw new ValidationException("任务编号已存在: " + taskDTO.taskNumber());
         }
 
+        // 任务移到其他项目时两个项目都需要刷新
+        projectCatalog.invalidateAfterCommit(entity.getProject().getId());
+
         // 检查项目是否存在
         if (!entity.getProject().getId().equals(taskDTO.projectId())) {
             ProjectEntity project = projectRepository.findById(taskDTO.projectId())
@@ -107,6 +115,7 @@ public class TaskServiceImpl implements TaskService {
         entity.setUpdatedById(1L); // 临时硬编码，需要从安全上下文获取
 
         TaskEntity savedEntity = taskRepository.save(entity);
+        projectCatalog.invalidateAfterCommit(savedEntity.getProject().getId());
         return convertToDTO(savedEntity);
     }
 
@@ -118,6 +127,7 @@ public class TaskServiceImpl implements TaskService {
         // TODO: 检查是否有关联的工时记录
         
         taskRepository.delete(entity);
+        projectCatalog.invalidateAfterCommit(entity.getProject().getId());
     }
 
     @Override
@@ -2,15 +2,32 @@ package com.spms.backend.service.sys;
 
 import com.spms.backend.model.AvailableStatisticsDataPointModel;
 import com.spms.backend.model.SystemStatisticsModel;
+import com.spms.backend.repository.entities.sys.StatisticResolution;
 
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
 
 public interface SystemStatisticsService {
 
 
+    /**
+     * Records a raw sample and folds it into the 5-minute, hourly and daily rollups
+     *
+     * @param name Name of the statistic
+     * @param description Description of the statistic
+     * @param asOfDate Time of the sample
+     * @param value Sampled value
+     */
     void recordStatistic(String name, String description, Date asOfDate, Long value);
 
+    /**
+     * Records several raw samples in one batch and folds them into the rollups
+     *
+     * @param samples Samples to record; name, description, asOfDate and value are used
+     */
+    void recordStatistics(List<SystemStatisticsModel> samples);
+
     /**
      * Retrieves the latest statistic entry by name
      * 
@@ -20,13 +37,34 @@ public interface SystemStatisticsService {
     SystemStatisticsModel getLatestStatisticByName(String name);
 
     /**
-     * Retrieves statistics within a specified date range
+     * Retrieves statistics within a specified date range, at the finest resolution that
+     * still covers the range in a bounded number of points
      * 
      * @param start Start date (inclusive)
      * @param end End date (inclusive)
-     * @return List of statistic models in the date range
+     * @return List of statistic models in the date range, ordered by name and date
      */
     List<SystemStatisticsModel> getStatisticsByDateRange(Date start, Date end);
 
+    /**
+     * Retrieves one statistic within a date range
+     *
+     * @param name Name of the statistic, or null for all statistics
+     * @param start Start date (inclusive)
+     * @param end End date (inclusive)
+     * @param resolution Resolution to read, or null to choose one from the range
+     * @return List of statistic models in the date range, ordered by name and date
+     */
+    List<SystemStatisticsModel> getStatisticsByDateRange(String name, Date start, Date end,
+                                                         StatisticResolution resolution);
+
+    /**
+     * Removes raw samples and rollup buckets older than the retention of their resolution
+     *
+     * @param now Reference time for the retention periods
+     * @return Number of removed rows per resolution
+     */
+    Map<StatisticResolution, Integer> applyRetention(Date now);
+
     List<AvailableStatisticsDataPointModel> getAvailableStatisticsDataPoints();
 }
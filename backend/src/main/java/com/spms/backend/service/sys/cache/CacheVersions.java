@@ -0,0 +1,166 @@
+package com.spms.backend.service.sys.cache;
+
+import com.spms.backend.repository.entities.sys.CacheVersion;
+import com.spms.backend.repository.sys.CacheVersionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Keeps node-local caches consistent across nodes through the versions in {@code spms_cache_version}.
+ * <p>
+ * Writers call {@link #increment(String)} in the transaction that changes the cached data. Each cache holds a
+ * {@link Tracker} and asks it before every read whether another node committed a change; the database is
+ * asked at most once per {@code spms.cache.version-check-interval}, which bounds how long a node serves data
+ * changed elsewhere. Changes committed by this node are taken over after commit and do not trigger a reload.
+ */
+@Component
+public class CacheVersions {
+
+    private static final Logger log = LoggerFactory.getLogger(CacheVersions.class);
+
+    private final CacheVersionRepository repository;
+    private final TransactionTemplate required;
+    private final TransactionTemplate requiresNew;
+    private final long checkIntervalMillis;
+    private final Map<String, List<Tracker>> trackers = new ConcurrentHashMap<>();
+
+    public CacheVersions(CacheVersionRepository repository,
+                         PlatformTransactionManager transactionManager,
+                         @Value("${spms.cache.version-check-interval:5s}") Duration checkInterval) {
+        this.repository = repository;
+        this.required = new TransactionTemplate(transactionManager);
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.checkIntervalMillis = checkInterval.toMillis();
+    }
+
+    /**
+     * Create a tracker for a cache of this node
+     * @param name The cache
+     * @return A tracker that starts at the currently committed version
+     */
+    public Tracker tracker(String name) {
+        Tracker tracker = new Tracker(name);
+        trackers.computeIfAbsent(name, n -> new CopyOnWriteArrayList<>()).add(tracker);
+        return tracker;
+    }
+
+    /**
+     * Increment the version of a cache in the current transaction, or in a new one when none is active.
+     * The version row stays locked until the transaction ends, so changes of one cache commit one after another.
+     * @param name The cache
+     */
+    public void increment(String name) {
+        long version = doIncrement(name);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    acknowledge(name, version);
+                }
+            });
+        } else {
+            acknowledge(name, version);
+        }
+    }
+
+    private long doIncrement(String name) {
+        Long version = required.execute(status -> {
+            long now = System.currentTimeMillis();
+            if (repository.increment(name, now) == 0) {
+                try {
+                    requiresNew.executeWithoutResult(created -> createVersion(name));
+                } catch (DataIntegrityViolationException ex) {
+                    // Another node created the version row of this cache at the same time; it exists now.
+                    log.debug("Concurrent creation of cache version {}", name);
+                }
+                repository.increment(name, now);
+            }
+            return repository.findVersionByName(name).orElse(null);
+        });
+        if (version == null) {
+            throw new IllegalStateException("Unable to increment cache version " + name);
+        }
+        return version;
+    }
+
+    private void createVersion(String name) {
+        CacheVersion version = new CacheVersion();
+        version.setName(name);
+        version.setVersion(0L);
+        repository.saveAndFlush(version);
+    }
+
+    private void acknowledge(String name, long version) {
+        trackers.getOrDefault(name, List.of()).forEach(tracker -> tracker.acknowledge(version));
+    }
+
+    /**
+     * The version of one cache as last seen by this node.
+     */
+    public class Tracker {
+
+        private final String name;
+        private volatile boolean initialized;
+        private volatile long checkedAt;
+        private long seen;
+
+        private Tracker(String name) {
+            this.name = name;
+        }
+
+        /**
+         * Whether another node committed a change of the cache since the previous call. Call before every read
+         * of the cached data, so data loaded after the call is at least as new as the version seen.
+         * The first call only records the committed version.
+         * @return true if the cached data must be reloaded
+         */
+        public boolean changed() {
+            if (initialized && System.currentTimeMillis() - checkedAt < checkIntervalMillis) {
+                return false;
+            }
+            synchronized (this) {
+                long now = System.currentTimeMillis();
+                if (initialized && now - checkedAt < checkIntervalMillis) {
+                    return false;
+                }
+                checkedAt = now;
+                long current;
+                try {
+                    current = repository.findVersionByName(name).orElse(0L);
+                } catch (DataAccessException ex) {
+                    log.warn("Unable to check version of cache {}, keeping cached data: {}", name, ex.getMessage());
+                    return false;
+                }
+                boolean changed = initialized && current != seen;
+                seen = current;
+                initialized = true;
+                return changed;
+            }
+        }
+
+        /**
+         * Take over a version committed by this node, unless a change of another node came before it
+         */
+        private synchronized void acknowledge(long version) {
+            if (initialized && seen == version - 1) {
+                seen = version;
+            }
+        }
+    }
+}
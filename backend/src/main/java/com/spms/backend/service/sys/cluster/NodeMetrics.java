@@ -0,0 +1,143 @@
+package com.spms.backend.service.sys.cluster;
+
+import com.spms.backend.repository.entities.sys.NodeMetric;
+import com.spms.backend.repository.sys.NodeMetricRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Node-local metrics shared through {@code spms_node_metric}, so a statistics collector on any node
+ * reports the whole cluster.
+ * <p>
+ * Each node {@link #add(String, long) adds} to its counters and {@link #set(String, long) replaces}
+ * its gauges. Collectors {@link #take(String) take} a counter of all nodes, which leaves only what the
+ * nodes add afterwards, and read the {@link #highest(String, Duration) highest} gauge among the nodes
+ * that published recently. Rows of nodes that stopped publishing are removed after
+ * {@code spms.node-metrics.retention}.
+ */
+@Component
+public class NodeMetrics {
+
+    private static final Logger log = LoggerFactory.getLogger(NodeMetrics.class);
+
+    private final NodeMetricRepository repository;
+    private final TransactionTemplate required;
+    private final TransactionTemplate requiresNew;
+    private final String node;
+    private final long retentionMillis;
+
+    public NodeMetrics(NodeMetricRepository repository,
+                       PlatformTransactionManager transactionManager,
+                       @Value("${spms.node-id:}") String node,
+                       @Value("${spms.node-metrics.retention:1d}") Duration retention) {
+        this.repository = repository;
+        this.required = new TransactionTemplate(transactionManager);
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.node = StringUtils.hasText(node) ? node : ManagementFactory.getRuntimeMXBean().getName();
+        this.retentionMillis = retention.toMillis();
+    }
+
+    /**
+     * @return the name this node publishes under
+     */
+    public String node() {
+        return node;
+    }
+
+    /**
+     * Add to a counter of this node
+     * @param name  The metric
+     * @param delta What this node counted since its previous call
+     */
+    public void add(String name, long delta) {
+        required.executeWithoutResult(status -> {
+            long now = System.currentTimeMillis();
+            if (repository.add(node, name, delta, now) == 0) {
+                create(name);
+                repository.add(node, name, delta, now);
+            }
+        });
+    }
+
+    /**
+     * Replace a gauge of this node
+     * @param name  The metric
+     * @param value The current value on this node
+     */
+    public void set(String name, long value) {
+        required.executeWithoutResult(status -> {
+            long now = System.currentTimeMillis();
+            if (repository.set(node, name, value, now) == 0) {
+                create(name);
+                repository.set(node, name, value, now);
+            }
+        });
+    }
+
+    /**
+     * Take a counter of all nodes
+     * @param name The metric
+     * @return What all nodes counted since the previous take
+     */
+    public long take(String name) {
+        Long taken = required.execute(status -> {
+            long total = 0;
+            for (NodeMetric metric : repository.findByName(name)) {
+                if (metric.getValue() != 0) {
+                    repository.subtract(metric.getId(), metric.getValue());
+                    total += metric.getValue();
+                }
+            }
+            return total;
+        });
+        return taken != null ? taken : 0L;
+    }
+
+    /**
+     * Highest gauge among the nodes that published recently
+     * @param name   The metric
+     * @param maxAge How recently a node must have published to count
+     * @return The highest value, or null if no node published within {@code maxAge}
+     */
+    public Long highest(String name, Duration maxAge) {
+        return repository.findHighest(name, System.currentTimeMillis() - maxAge.toMillis());
+    }
+
+    /**
+     * Remove the metrics of nodes that have not published within the retention period
+     */
+    public void removeStale() {
+        Integer removed = required.execute(status -> repository.deleteStale(System.currentTimeMillis() - retentionMillis));
+        if (removed != null && removed > 0) {
+            log.info("Removed {} metrics of nodes that stopped publishing", removed);
+        }
+    }
+
+    private void create(String name) {
+        try {
+            requiresNew.executeWithoutResult(created -> {
+                NodeMetric metric = new NodeMetric();
+                metric.setNode(node);
+                metric.setName(name);
+                metric.setValue(0L);
+                metric.setUpdatedAt(System.currentTimeMillis());
+                repository.saveAndFlush(metric);
+            });
+        } catch (DataIntegrityViolationException ex) {
+            // Created by an earlier publish of this node that raced with this one; it exists now
+            log.debug("Concurrent creation of node metric {}", name);
+        }
+    }
+}
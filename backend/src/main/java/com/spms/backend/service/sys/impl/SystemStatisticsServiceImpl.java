@@ -1,48 +1,125 @@
 package com.spms.backend.service.sys.impl;
 
+import com.spms.backend.config.StatisticsProperties;
 import com.spms.backend.controller.dto.sys.SystemStatisticsDTO;
 import com.spms.backend.jobs.data.DataPointCollector;
 import com.spms.backend.model.AvailableStatisticsDataPointModel;
 import com.spms.backend.model.SystemStatisticsModel;
+import com.spms.backend.repository.entities.sys.StatisticResolution;
+import com.spms.backend.repository.entities.sys.SystemStatisticRollup;
 import com.spms.backend.repository.entities.sys.SystemStatistics;
+import com.spms.backend.repository.sys.SystemStatisticRollupRepository;
 import com.spms.backend.repository.sys.SystemStatisticsRepository;
 import com.spms.backend.service.sys.SystemStatisticsService;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
+import java.time.ZoneId;
 import java.util.Date;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 
+@Slf4j
 @Service
 public class SystemStatisticsServiceImpl implements SystemStatisticsService {
 
+    /**
+     * Resolutions every sample is folded into.
+     */
+    private static final List<StatisticResolution> ROLLUPS = List.of(
+            StatisticResolution.FIVE_MINUTES, StatisticResolution.HOURLY, StatisticResolution.DAILY);
+
     private final SystemStatisticsRepository repository;
+    private final SystemStatisticRollupRepository rollupRepository;
     private final List<DataPointCollector> dataPointCollectors;
+    private final StatisticsProperties properties;
+    private final ZoneId zone = ZoneId.systemDefault();
 
 
     /**
      * Constructs a new SystemStatisticsServiceImpl with the repository dependency
      * 
      * @param repository System statistics repository
+     * @param rollupRepository Repository of the rollup buckets
+     * @param dataPointCollectors Registered data point collectors
+     * @param properties Sampling and retention settings
      */
     public SystemStatisticsServiceImpl(SystemStatisticsRepository repository,
-                                       List<DataPointCollector> dataPointCollectors) {
+                                       SystemStatisticRollupRepository rollupRepository,
+                                       List<DataPointCollector> dataPointCollectors,
+                                       StatisticsProperties properties) {
         this.repository = repository;
+        this.rollupRepository = rollupRepository;
         this.dataPointCollectors = dataPointCollectors;
+        this.properties = properties;
     }
 
 
 
     @Override
+    @Transactional
     public void recordStatistic(String name, String description, Date asOfDate, Long value) {
-        SystemStatistics entity = new SystemStatistics();
-        entity.setName(name);
-        entity.setDescription(description);
-        entity.setAsOfDate(asOfDate);
-        entity.setValue(value);
-        SystemStatistics saved = repository.save(entity);
-        convertEntityToModel(saved);
+        SystemStatisticsModel sample = new SystemStatisticsModel();
+        sample.setName(name);
+        sample.setDescription(description);
+        sample.setAsOfDate(asOfDate);
+        sample.setValue(value);
+        recordStatistics(List.of(sample));
+    }
+
+    @Override
+    @Transactional
+    public void recordStatistics(List<SystemStatisticsModel> samples) {
+        if (samples.isEmpty()) {
+            return;
+        }
+        // UUID keys are assigned in memory, so the raw rows go out as one JDBC batch
+        repository.saveAll(samples.stream().map(this::convertModelToEntity).toList());
+
+        List<SystemStatisticsModel> valued = samples.stream().filter(s -> s.getValue() != null).toList();
+        if (valued.isEmpty()) {
+            return;
+        }
+        Set<String> names = valued.stream().map(SystemStatisticsModel::getName).collect(Collectors.toSet());
+        for (StatisticResolution resolution : ROLLUPS) {
+            Set<Date> starts = new HashSet<>();
+            valued.forEach(s -> starts.add(resolution.bucketStart(s.getAsOfDate(), zone)));
+
+            // One read per resolution for the buckets this batch touches; keyed by epoch millis
+            // because loaded dates are java.sql.Timestamp, which never equals a java.util.Date
+            Map<RollupKey, SystemStatisticRollup> buckets = new LinkedHashMap<>();
+            rollupRepository.findByResolutionAndBucketStartInAndNameIn(resolution, starts, names)
+                    .forEach(r -> buckets.put(new RollupKey(r.getName(), r.getBucketStart().getTime()), r));
+
+            for (SystemStatisticsModel sample : valued) {
+                Date bucketStart = resolution.bucketStart(sample.getAsOfDate(), zone);
+                SystemStatisticRollup rollup = buckets.computeIfAbsent(
+                        new RollupKey(sample.getName(), bucketStart.getTime()),
+                        key -> newRollup(sample.getName(), resolution, bucketStart));
+                rollup.setDescription(sample.getDescription());
+                rollup.add(sample.getAsOfDate(), sample.getValue());
+            }
+            rollupRepository.saveAll(buckets.values());
+        }
+    }
+
+    private record RollupKey(String name, long bucketStart) {
+    }
+
+    private static SystemStatisticRollup newRollup(String name, StatisticResolution resolution, Date bucketStart) {
+        SystemStatisticRollup rollup = new SystemStatisticRollup();
+        rollup.setName(name);
+        rollup.setResolution(resolution);
+        rollup.setBucketStart(bucketStart);
+        return rollup;
     }
 
     /**
@@ -68,11 +145,9 @@ public class SystemStatisticsServiceImpl implements SystemStatisticsService {
      */
     @Override
     public SystemStatisticsModel getLatestStatisticByName(String name) {
-        List<SystemStatistics> stats = repository.findByNameOrderByAsOfDateDesc(name);
-        if (stats.isEmpty()) {
-            return null;
-        }
-        return convertEntityToModel(stats.get(0));
+        return repository.findFirstByNameOrderByAsOfDateDesc(name)
+                .map(this::convertEntityToModel)
+                .orElse(null);
     }
 
 
@@ -85,12 +160,65 @@ public class SystemStatisticsServiceImpl implements SystemStatisticsService {
      */
     @Override
     public List<SystemStatisticsModel> getStatisticsByDateRange(Date start, Date end) {
-        return repository.findByAsOfDateBetween(start, end)
-                .stream()
-                .map(this::convertEntityToModel)
+        return getStatisticsByDateRange(null, start, end, null);
+    }
+
+    @Override
+    public List<SystemStatisticsModel> getStatisticsByDateRange(String name, Date start, Date end,
+                                                                StatisticResolution resolution) {
+        StatisticResolution selected = resolution != null ? resolution : chooseResolution(start, end, new Date());
+        if (selected == StatisticResolution.RAW) {
+            List<SystemStatistics> samples = name == null
+                    ? repository.findByAsOfDateBetweenOrderByNameAscAsOfDateAsc(start, end)
+                    : repository.findByNameAndAsOfDateBetweenOrderByAsOfDateAsc(name, start, end);
+            return samples.stream()
+                    .map(this::convertEntityToModel)
+                    .collect(Collectors.toList());
+        }
+
+        // The bucket containing start overlaps the range, so it is included
+        Date from = selected.bucketStart(start, zone);
+        List<SystemStatisticRollup> buckets = name == null
+                ? rollupRepository.findByResolutionAndBucketStartBetweenOrderByNameAscBucketStartAsc(selected, from, end)
+                : rollupRepository.findByNameAndResolutionAndBucketStartBetweenOrderByBucketStartAsc(name, selected, from, end);
+        return buckets.stream()
+                .map(this::convertRollupToModel)
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Finest resolution whose rows still cover the start of the range and that returns at most
+     * {@code maxPoints} points per statistic; daily when none does.
+     */
+    StatisticResolution chooseResolution(Date start, Date end, Date now) {
+        Duration span = Duration.ofMillis(Math.max(0, end.getTime() - start.getTime()));
+        for (StatisticResolution resolution : StatisticResolution.values()) {
+            Duration step = resolution == StatisticResolution.RAW
+                    ? properties.getSampleInterval()
+                    : resolution.getBucket();
+            long oldestKept = now.getTime() - properties.retention(resolution).toMillis();
+            if (start.getTime() >= oldestKept && span.dividedBy(step) <= properties.getMaxPoints()) {
+                return resolution;
+            }
+        }
+        return StatisticResolution.DAILY;
+    }
+
+    @Override
+    @Transactional
+    public Map<StatisticResolution, Integer> applyRetention(Date now) {
+        Map<StatisticResolution, Integer> removed = new EnumMap<>(StatisticResolution.class);
+        for (StatisticResolution resolution : StatisticResolution.values()) {
+            Date before = new Date(now.getTime() - properties.retention(resolution).toMillis());
+            int count = resolution == StatisticResolution.RAW
+                    ? repository.deleteByAsOfDateBefore(before)
+                    : rollupRepository.deleteByResolutionAndBucketStartBefore(resolution, before);
+            removed.put(resolution, count);
+        }
+        log.info("Removed expired statistics: {}", removed);
+        return removed;
+    }
+
     @Override
     public List<AvailableStatisticsDataPointModel> getAvailableStatisticsDataPoints() {
         return dataPointCollectors.stream().map(x->{
@@ -101,6 +229,21 @@ public class SystemStatisticsServiceImpl implements SystemStatisticsService {
         }).toList();
     }
 
+    /**
+     * Converts a sample model to a raw statistic entity
+     *
+     * @param model Sample model
+     * @return Converted entity object
+     */
+    private SystemStatistics convertModelToEntity(SystemStatisticsModel model) {
+        SystemStatistics entity = new SystemStatistics();
+        entity.setName(model.getName());
+        entity.setDescription(model.getDescription());
+        entity.setAsOfDate(model.getAsOfDate());
+        entity.setValue(model.getValue());
+        return entity;
+    }
+
     /**
      * Converts entity to model object
      * 
@@ -113,6 +256,31 @@ public class SystemStatisticsServiceImpl implements SystemStatisticsService {
         model.setDescription(entity.getDescription());
         model.setAsOfDate(entity.getAsOfDate());
         model.setValue(entity.getValue());
+        model.setResolution(StatisticResolution.RAW);
+        model.setMin(entity.getValue());
+        model.setMax(entity.getValue());
+        model.setAvg(entity.getValue() != null ? entity.getValue().doubleValue() : null);
+        model.setSampleCount(1L);
+        return model;
+    }
+
+    /**
+     * Converts a rollup bucket to a model; the value is the last sample in the bucket
+     *
+     * @param rollup Rollup bucket
+     * @return Converted model object
+     */
+    private SystemStatisticsModel convertRollupToModel(SystemStatisticRollup rollup) {
+        SystemStatisticsModel model = new SystemStatisticsModel();
+        model.setName(rollup.getName());
+        model.setDescription(rollup.getDescription());
+        model.setAsOfDate(rollup.getBucketStart());
+        model.setValue(rollup.getLastValue());
+        model.setResolution(rollup.getResolution());
+        model.setMin(rollup.getMinValue());
+        model.setMax(rollup.getMaxValue());
+        model.setAvg(rollup.getAverage());
+        model.setSampleCount(rollup.getSampleCount());
         return model;
     }
 }
@@ -1,23 +1,21 @@
 package com.spms.backend.service.sys.notification;
 
+import com.spms.backend.service.sys.notification.dispatch.NotificationDispatcher;
 import com.spms.backend.service.sys.notification.event.NotificationEvent;
-import com.spms.backend.service.sys.notification.handler.NotificationHandler;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
-import java.util.List;
-
 @Service
 public class NotificationServiceImpl implements NotificationService {
     private final ApplicationEventPublisher eventPublisher;
-    private final List<NotificationHandler> notificationHandlers;
+    private final NotificationDispatcher notificationDispatcher;
 
     @Autowired
     public NotificationServiceImpl(ApplicationEventPublisher eventPublisher,
-                                   List<NotificationHandler> notificationHandlers) {
+                                   NotificationDispatcher notificationDispatcher) {
         this.eventPublisher = eventPublisher;
-        this.notificationHandlers = notificationHandlers;
+        this.notificationDispatcher = notificationDispatcher;
     }
 
     @Override
@@ -25,13 +23,11 @@ public class NotificationServiceImpl implements NotificationService {
         eventPublisher.publishEvent(event);
     }
 
+    /**
+     * Queues the notification on every enabled channel; delivery happens on the channel workers
+     */
     @Override
     public void handleNotification(NotificationEvent event) {
-        
-        for (NotificationHandler handler : notificationHandlers) {
-            if(handler.isEnabled()) {
-                handler.handle(event);
-            }
-        }
+        notificationDispatcher.dispatch(event);
     }
 }
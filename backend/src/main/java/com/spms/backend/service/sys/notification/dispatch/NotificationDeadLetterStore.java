@@ -0,0 +1,65 @@
+package com.spms.backend.service.sys.notification.dispatch;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.spms.backend.repository.entities.sys.NotificationDeadLetter;
+import com.spms.backend.repository.sys.NotificationDeadLetterRepository;
+import com.spms.backend.service.sys.notification.event.NotificationEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+
+/**
+ * Keeps notifications the dispatcher gave up on in {@code spms_notification_dead_letter}.
+ */
+@Slf4j
+@Component
+public class NotificationDeadLetterStore {
+
+    private static final int MAX_ERROR_LENGTH = 2000;
+
+    private final NotificationDeadLetterRepository repository;
+    private final ObjectMapper objectMapper;
+
+    public NotificationDeadLetterStore(NotificationDeadLetterRepository repository, ObjectMapper objectMapper) {
+        this.repository = repository;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Stores a notification that could not be delivered. Never throws: a failure is logged with the
+     * notification so it is not lost silently.
+     *
+     * @param channel  channel it was not delivered on
+     * @param event    the notification
+     * @param attempts delivery attempts made
+     * @param error    why the last attempt failed
+     */
+    public void store(String channel, NotificationEvent event, int attempts, String error) {
+        NotificationDeadLetter letter = new NotificationDeadLetter();
+        letter.setChannel(channel);
+        letter.setEventType(event.getEventType());
+        letter.setRecipient(event.getRecipient());
+        letter.setLocale(event.getLocale() != null ? event.getLocale().toLanguageTag() : null);
+        letter.setPayload(payload(event));
+        letter.setAttempts(attempts);
+        letter.setLastError(error != null && error.length() > MAX_ERROR_LENGTH
+                ? error.substring(0, MAX_ERROR_LENGTH) : error);
+        letter.setFailedAt(new Date());
+        try {
+            repository.save(letter);
+        } catch (RuntimeException e) {
+            log.error("Failed to store undeliverable {} notification {} for {}: {}",
+                    channel, event.getEventType(), event.getRecipient(), letter.getPayload(), e);
+        }
+    }
+
+    private String payload(NotificationEvent event) {
+        try {
+            return objectMapper.writeValueAsString(event.getData());
+        } catch (JsonProcessingException e) {
+            return String.valueOf(event.getData());
+        }
+    }
+}
@@ -0,0 +1,301 @@
+package com.spms.backend.service.sys.notification.dispatch;
+
+import com.spms.backend.config.NotificationProperties;
+import com.spms.backend.service.sys.notification.event.NotificationEvent;
+import com.spms.backend.service.sys.notification.handler.NotificationHandler;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Delivers notifications on every enabled channel from a bounded queue per channel.
+ * <p>
+ * {@link #dispatch(NotificationEvent)} only enqueues: when a channel's queue is full the publisher
+ * waits up to {@code spms.notification.offer-timeout}, then the notification is dead-lettered for
+ * that channel. Each channel has one worker thread that hands its handler batches of up to
+ * {@code batch-size} notifications, after the handler's {@link NotificationHandler#getBatchWindow()}.
+ * A failed notification is retried with exponential backoff on its own channel only; after
+ * {@code max-attempts} it goes to the {@link NotificationDeadLetterStore}. On shutdown, notifications
+ * still queued or waiting for a retry are dead-lettered as well.
+ * <p>
+ * Metrics per channel: {@code spms.notification.queue.depth}, {@code spms.notification.latency}
+ * (from dispatch to delivery or dead letter), {@code spms.notification.retries} and
+ * {@code spms.notification.dead.letters}.
+ */
+@Slf4j
+@Component
+public class NotificationDispatcher implements DisposableBean {
+
+    static final String QUEUE_FULL = "QUEUE_FULL";
+    static final String SHUTDOWN = "SHUTDOWN";
+
+    /**
+     * One notification on one channel.
+     *
+     * @param attempt    number of this delivery attempt, starting at 1
+     * @param dispatched {@link System#nanoTime()} when the notification was dispatched
+     */
+    private record Delivery(NotificationEvent event, int attempt, long dispatched) {
+
+        Delivery retry() {
+            return new Delivery(event, attempt + 1, dispatched);
+        }
+    }
+
+    private final NotificationProperties properties;
+    private final NotificationDeadLetterStore deadLetters;
+    private final Map<String, Channel> channels = new LinkedHashMap<>();
+    private final ScheduledExecutorService retries;
+    private final Set<Retry> pendingRetries = ConcurrentHashMap.newKeySet();
+    private volatile boolean running = true;
+
+    public NotificationDispatcher(List<NotificationHandler> handlers,
+                                  NotificationProperties properties,
+                                  NotificationDeadLetterStore deadLetters,
+                                  MeterRegistry registry) {
+        this.properties = properties;
+        this.deadLetters = deadLetters;
+        this.retries = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "notification-retry");
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (NotificationHandler handler : handlers) {
+            Channel channel = new Channel(handler, registry);
+            channels.put(handler.getChannelType(), channel);
+            channel.worker.start();
+        }
+    }
+
+    /**
+     * Queues a notification on every enabled channel.
+     *
+     * @param event the notification
+     */
+    public void dispatch(NotificationEvent event) {
+        long now = System.nanoTime();
+        for (Channel channel : channels.values()) {
+            if (channel.handler.isEnabled()) {
+                channel.offer(new Delivery(event, 1, now), properties.getOfferTimeout());
+            }
+        }
+    }
+
+    /**
+     * Notifications waiting on a channel.
+     *
+     * @param channelType channel type of the handler
+     * @return queue depth, 0 for an unknown channel
+     */
+    public int queueDepth(String channelType) {
+        Channel channel = channels.get(channelType);
+        return channel != null ? channel.queue.size() : 0;
+    }
+
+    @Override
+    public void destroy() {
+        running = false;
+        retries.shutdownNow();
+        try {
+            retries.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // Retries that were waiting for their backoff never reach a queue again
+        for (Retry retry : List.copyOf(pendingRetries)) {
+            if (pendingRetries.remove(retry)) {
+                retry.channel.deadLetter(retry.delivery, SHUTDOWN);
+            }
+        }
+        for (Channel channel : channels.values()) {
+            channel.worker.interrupt();
+        }
+        for (Channel channel : channels.values()) {
+            try {
+                channel.worker.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            // Keep what is still queued instead of dropping it with the JVM
+            List<Delivery> pending = new ArrayList<>();
+            channel.queue.drainTo(pending);
+            pending.forEach(delivery -> channel.deadLetter(delivery, SHUTDOWN));
+        }
+    }
+
+    /**
+     * A delivery waiting for its backoff. Whoever removes it from {@link #pendingRetries} owns it, so it
+     * is either offered again or dead-lettered on shutdown, never both.
+     */
+    private final class Retry implements Runnable {
+
+        private final Channel channel;
+        private final Delivery delivery;
+
+        private Retry(Channel channel, Delivery delivery) {
+            this.channel = channel;
+            this.delivery = delivery;
+        }
+
+        @Override
+        public void run() {
+            if (pendingRetries.remove(this)) {
+                channel.offer(delivery.retry(), Duration.ZERO);
+            }
+        }
+    }
+
+    private final class Channel implements Runnable {
+
+        private final NotificationHandler handler;
+        private final String name;
+        private final BlockingQueue<Delivery> queue;
+        private final Thread worker;
+        private final Timer delivered;
+        private final Timer failed;
+        private final Counter retried;
+        private final Counter deadLettered;
+
+        private Channel(NotificationHandler handler, MeterRegistry registry) {
+            this.handler = handler;
+            this.name = handler.getChannelType();
+            this.queue = new ArrayBlockingQueue<>(Math.max(1, properties.getQueueCapacity()));
+            this.worker = new Thread(this, "notification-" + name.toLowerCase());
+            this.worker.setDaemon(true);
+
+            Gauge.builder("spms.notification.queue.depth", queue, BlockingQueue::size)
+                    .description("Notifications waiting to be delivered")
+                    .tag("channel", name)
+                    .register(registry);
+            this.delivered = latency(registry, "delivered");
+            this.failed = latency(registry, "dead_letter");
+            this.retried = Counter.builder("spms.notification.retries").tag("channel", name).register(registry);
+            this.deadLettered = Counter.builder("spms.notification.dead.letters").tag("channel", name).register(registry);
+        }
+
+        private Timer latency(MeterRegistry registry, String outcome) {
+            return Timer.builder("spms.notification.latency")
+                    .description("Time from dispatch to delivery or dead letter")
+                    .tags("channel", name, "outcome", outcome)
+                    .publishPercentiles(0.5, 0.95, 0.99)
+                    .register(registry);
+        }
+
+        private void offer(Delivery delivery, Duration wait) {
+            boolean accepted;
+            try {
+                accepted = wait.isZero()
+                        ? queue.offer(delivery)
+                        : queue.offer(delivery, wait.toNanos(), TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                accepted = false;
+            }
+            if (!accepted) {
+                log.warn("{} notification queue is full, dead-lettering {} for {}",
+                        name, delivery.event().getEventType(), delivery.event().getRecipient());
+                deadLetter(delivery, QUEUE_FULL);
+            }
+        }
+
+        @Override
+        public void run() {
+            while (running) {
+                try {
+                    deliver(nextBatch());
+                } catch (InterruptedException e) {
+                    return;
+                } catch (RuntimeException e) {
+                    log.error("{} notification worker failed", name, e);
+                }
+            }
+        }
+
+        private List<Delivery> nextBatch() throws InterruptedException {
+            int size = Math.max(1, properties.getBatchSize());
+            List<Delivery> batch = new ArrayList<>(Math.min(size, 64));
+            batch.add(queue.take());
+            Duration window = handler.getBatchWindow();
+            if (window != null && !window.isZero()) {
+                long deadline = System.nanoTime() + window.toNanos();
+                while (batch.size() < size) {
+                    Delivery next = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            }
+            queue.drainTo(batch, size - batch.size());
+            return batch;
+        }
+
+        private void deliver(List<Delivery> batch) {
+            List<NotificationEvent> events = batch.stream().map(Delivery::event).toList();
+            Map<NotificationEvent, Exception> failures;
+            try {
+                failures = handler.handleBatch(events);
+            } catch (RuntimeException e) {
+                failures = new LinkedHashMap<>();
+                for (NotificationEvent event : events) {
+                    failures.put(event, e);
+                }
+            }
+            for (Delivery delivery : batch) {
+                Exception error = failures.get(delivery.event());
+                if (error == null) {
+                    delivered.record(System.nanoTime() - delivery.dispatched(), TimeUnit.NANOSECONDS);
+                } else {
+                    retryOrDeadLetter(delivery, error);
+                }
+            }
+        }
+
+        private void retryOrDeadLetter(Delivery delivery, Exception error) {
+            if (delivery.attempt() >= properties.getMaxAttempts() || !running) {
+                log.warn("Giving up {} notification {} for {} after {} attempts",
+                        name, delivery.event().getEventType(), delivery.event().getRecipient(), delivery.attempt(), error);
+                deadLetter(delivery, String.valueOf(error.getMessage()));
+                return;
+            }
+            Duration backoff = properties.backoff(delivery.attempt());
+            log.debug("Retrying {} notification {} in {}: {}",
+                    name, delivery.event().getEventType(), backoff, error.getMessage());
+            retried.increment();
+            Retry retry = new Retry(this, delivery);
+            pendingRetries.add(retry);
+            try {
+                retries.schedule(retry, backoff.toNanos(), TimeUnit.NANOSECONDS);
+            } catch (RejectedExecutionException e) {
+                // Shutting down between the running check and the schedule
+                if (pendingRetries.remove(retry)) {
+                    deadLetter(delivery, SHUTDOWN);
+                }
+            }
+        }
+
+        private void deadLetter(Delivery delivery, String error) {
+            deadLettered.increment();
+            failed.record(System.nanoTime() - delivery.dispatched(), TimeUnit.NANOSECONDS);
+            deadLetters.store(name, delivery.event(), delivery.attempt(), error);
+        }
+    }
+}
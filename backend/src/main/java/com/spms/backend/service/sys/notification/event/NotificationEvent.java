@@ -27,4 +27,15 @@ public abstract class NotificationEvent extends ApplicationEvent {
     public Locale getLocale() {
         return locale;
     }
+
+    /**
+     * Who the notification is for: the {@code email} entry of the data, else its {@code username} entry.
+     */
+    public String getRecipient() {
+        if (data == null) {
+            return null;
+        }
+        Object recipient = data.get("email") != null ? data.get("email") : data.get("username");
+        return recipient != null ? recipient.toString() : null;
+    }
 }
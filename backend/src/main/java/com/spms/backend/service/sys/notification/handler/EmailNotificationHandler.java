@@ -1,45 +1,184 @@
 package com.spms.backend.service.sys.notification.handler;
 
+import com.spms.backend.config.NotificationProperties;
 import com.spms.backend.service.sys.notification.template.NotificationTemplateManage;
 import jakarta.mail.MessagingException;
 import jakarta.mail.internet.MimeMessage;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Component;
 import com.spms.backend.service.sys.notification.event.NotificationEvent;
 import com.spms.backend.service.sys.notification.exception.NotificationProcessingException;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 
-//@Component
+/**
+ * Sends notifications by email.
+ * <p>
+ * A batch is sent over one SMTP connection. Notifications to the same recipient in the same batch,
+ * collected for {@code spms.notification.digest-window}, are sent as one digest rendered from
+ * {@code email/digest.ftl}; the other notifications of a batch that share a template and locale are
+ * rendered together through {@link NotificationTemplateManage#renderFanOut}. Enabled with {@code spms.notification.email.enabled=true}.
+ */
+@Component
+@ConditionalOnProperty(prefix = "spms.notification.email", name = "enabled", havingValue = "true")
 public class EmailNotificationHandler implements NotificationHandler {
+    static final String DIGEST_TEMPLATE = "email/digest.ftl";
+
     private final JavaMailSender mailSender;
     private final NotificationTemplateManage templateManager;
+    private final NotificationProperties properties;
 
-    public EmailNotificationHandler(JavaMailSender mailSender, 
-                                   NotificationTemplateManage templateManager) {
+    public EmailNotificationHandler(JavaMailSender mailSender,
+                                   NotificationTemplateManage templateManager,
+                                   NotificationProperties properties) {
         this.mailSender = mailSender;
         this.templateManager = templateManager;
+        this.properties = properties;
     }
 
     @Override
     public void handle(NotificationEvent event) {
         try {
-            String templatePath = "email/" + event.getEventType().toLowerCase() + ".ftl";
-            String content = templateManager.renderTemplate(templatePath, 
-                                                           event.getLocale(), 
-                                                           event.getData());
-            MimeMessage message = mailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(message, false);
-            helper.setTo((String) event.getData().get("email"));
-            helper.setSubject((String) event.getData().get("subject"));
-            helper.setText(content, true);
-            
-            mailSender.send(message);
+            mailSender.send(message(event));
         } catch (MessagingException e) {
             throw new NotificationProcessingException("Email sending failed", e);
         }
     }
 
+    @Override
+    public Map<NotificationEvent, Exception> handleBatch(List<NotificationEvent> events) {
+        Map<NotificationEvent, Exception> failures = new LinkedHashMap<>();
+
+        // One message per recipient and locale
+        Map<String, List<NotificationEvent>> byRecipient = new LinkedHashMap<>();
+        for (NotificationEvent event : events) {
+            String to = email(event);
+            if (to == null) {
+                failures.put(event, new NotificationProcessingException("Notification has no email recipient", null));
+                continue;
+            }
+            byRecipient.computeIfAbsent(to + "|" + event.getLocale(), key -> new ArrayList<>())
+                    .add(event);
+        }
+
+        Map<MimeMessage, List<NotificationEvent>> messages = new LinkedHashMap<>();
+        // Single notifications sharing a template and locale are rendered together
+        Map<String, List<NotificationEvent>> byTemplate = new LinkedHashMap<>();
+        for (List<NotificationEvent> group : byRecipient.values()) {
+            if (group.size() == 1) {
+                NotificationEvent event = group.get(0);
+                byTemplate.computeIfAbsent(templatePath(event) + "|" + event.getLocale(), key -> new ArrayList<>())
+                        .add(event);
+                continue;
+            }
+            try {
+                messages.put(digest(group), group);
+            } catch (MessagingException | RuntimeException e) {
+                group.forEach(event -> failures.put(event, e));
+            }
+        }
+        for (List<NotificationEvent> group : byTemplate.values()) {
+            NotificationEvent first = group.get(0);
+            List<String> contents;
+            try {
+                contents = templateManager.renderFanOut(templatePath(first), first.getLocale(),
+                        group.stream().map(NotificationEvent::getData).toList());
+            } catch (RuntimeException e) {
+                group.forEach(event -> failures.put(event, e));
+                continue;
+            }
+            for (int i = 0; i < group.size(); i++) {
+                NotificationEvent event = group.get(i);
+                try {
+                    messages.put(mimeMessage(email(event), subject(event), contents.get(i)), List.of(event));
+                } catch (MessagingException | RuntimeException e) {
+                    failures.put(event, e);
+                }
+            }
+        }
+        if (messages.isEmpty()) {
+            return failures;
+        }
+
+        try {
+            // JavaMailSender sends all messages of one call over a single connection
+            mailSender.send(messages.keySet().toArray(new MimeMessage[0]));
+        } catch (MailSendException e) {
+            Map<Object, Exception> failed = e.getFailedMessages();
+            if (failed.isEmpty()) {
+                messages.values().forEach(group -> group.forEach(event -> failures.put(event, e)));
+            }
+            failed.forEach((message, error) -> {
+                List<NotificationEvent> group = messages.get(message);
+                if (group != null) {
+                    group.forEach(event -> failures.put(event, error));
+                }
+            });
+        } catch (MailException e) {
+            messages.values().forEach(group -> group.forEach(event -> failures.put(event, e)));
+        }
+        return failures;
+    }
+
+    @Override
+    public Duration getBatchWindow() {
+        return properties.getDigestWindow();
+    }
+
+    private MimeMessage message(NotificationEvent event) throws MessagingException {
+        String content = templateManager.renderTemplate(templatePath(event),
+                                                       event.getLocale(),
+                                                       event.getData());
+        return mimeMessage(email(event), subject(event), content);
+    }
+
+    private MimeMessage digest(List<NotificationEvent> events) throws MessagingException {
+        NotificationEvent latest = events.get(events.size() - 1);
+        List<Map<String, Object>> notifications = new ArrayList<>();
+        for (NotificationEvent event : events) {
+            Map<String, Object> item = new HashMap<>(event.getData());
+            item.put("eventType", event.getEventType());
+            notifications.add(item);
+        }
+        Map<String, Object> data = new HashMap<>();
+        data.put("notifications", notifications);
+        data.put("count", events.size());
+        String content = templateManager.renderTemplate(DIGEST_TEMPLATE, latest.getLocale(), data);
+        String subject = Objects.toString(latest.getData().get("subject"), "") + " (+" + (events.size() - 1) + ")";
+        return mimeMessage(email(latest), subject, content);
+    }
+
+    private static String templatePath(NotificationEvent event) {
+        return "email/" + event.getEventType().toLowerCase() + ".ftl";
+    }
+
+    private static String subject(NotificationEvent event) {
+        return (String) event.getData().get("subject");
+    }
+
+    private static String email(NotificationEvent event) {
+        return event.getData() != null ? (String) event.getData().get("email") : null;
+    }
+
+    private MimeMessage mimeMessage(String to, String subject, String content) throws MessagingException {
+        MimeMessage message = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, false);
+        helper.setTo(to);
+        helper.setSubject(subject);
+        helper.setText(content, true);
+        return message;
+    }
+
     @Override
     public String getChannelType() {
         return "EMAIL";
@@ -2,8 +2,42 @@ package com.spms.backend.service.sys.notification.handler;
 
 import com.spms.backend.service.sys.notification.event.NotificationEvent;
 
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
 public interface NotificationHandler {
     void handle(NotificationEvent event);
     String getChannelType();
     boolean isEnabled();
+
+    /**
+     * Delivers a batch of notifications taken from this channel's queue.
+     * <p>
+     * The default delivers them one by one; handlers that can share work across a batch, such as one
+     * SMTP connection for several messages, override it.
+     *
+     * @param events notifications in queue order
+     * @return notifications that failed, with the reason; empty when all were delivered
+     */
+    default Map<NotificationEvent, Exception> handleBatch(List<NotificationEvent> events) {
+        Map<NotificationEvent, Exception> failures = new LinkedHashMap<>();
+        for (NotificationEvent event : events) {
+            try {
+                handle(event);
+            } catch (RuntimeException e) {
+                failures.put(event, e);
+            }
+        }
+        return failures;
+    }
+
+    /**
+     * How long the channel keeps collecting notifications after the first one arrives before it
+     * hands them over as one batch; zero hands over whatever is queued at once.
+     */
+    default Duration getBatchWindow() {
+        return Duration.ZERO;
+    }
 }
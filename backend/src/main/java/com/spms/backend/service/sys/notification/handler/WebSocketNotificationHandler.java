@@ -1,23 +1,93 @@
 package com.spms.backend.service.sys.notification.handler;
 
+import com.spms.backend.config.WebSocketConfig;
+import com.spms.backend.config.WebSocketProperties;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.messaging.MessagingException;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Component;
 import com.spms.backend.service.sys.notification.event.NotificationEvent;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Pushes notifications to the browser sessions of their user, the {@code username} entry of the data,
+ * on {@code /user/queue/notifications}.
+ * <p>
+ * Notifications of one type for one user that arrive within {@code spms.websocket.coalesce-window}
+ * are sent as one message: {@code {"eventType": ..., "count": n, "notifications": [data, ...]}}.
+ * Notifications without a username are not for this channel and are skipped. Enabled with
+ * {@code spms.notification.websocket.enabled=true}.
+ */
+@Slf4j
 @Component
+@ConditionalOnProperty(prefix = "spms.notification.websocket", name = "enabled", havingValue = "true")
 public class WebSocketNotificationHandler implements NotificationHandler {
     private final SimpMessagingTemplate messagingTemplate;
+    private final WebSocketProperties properties;
 
     @Autowired
-    public WebSocketNotificationHandler(SimpMessagingTemplate messagingTemplate) {
+    public WebSocketNotificationHandler(SimpMessagingTemplate messagingTemplate,
+                                        WebSocketProperties properties) {
         this.messagingTemplate = messagingTemplate;
+        this.properties = properties;
     }
 
     @Override
     public void handle(NotificationEvent event) {
-        String destination = "/topic/notifications/" + event.getEventType().toLowerCase();
-        messagingTemplate.convertAndSend(destination, event.getData());
+        if (username(event) != null) {
+            send(List.of(event));
+        }
+    }
+
+    @Override
+    public Map<NotificationEvent, Exception> handleBatch(List<NotificationEvent> events) {
+        // One message per user and event type
+        Map<String, List<NotificationEvent>> byUser = new LinkedHashMap<>();
+        for (NotificationEvent event : events) {
+            String username = username(event);
+            if (username == null) {
+                log.debug("Skipping {} notification without username", event.getEventType());
+                continue;
+            }
+            byUser.computeIfAbsent(username + "|" + event.getEventType(), key -> new ArrayList<>())
+                    .add(event);
+        }
+
+        Map<NotificationEvent, Exception> failures = new LinkedHashMap<>();
+        for (List<NotificationEvent> group : byUser.values()) {
+            try {
+                send(group);
+            } catch (MessagingException e) {
+                group.forEach(event -> failures.put(event, e));
+            }
+        }
+        return failures;
+    }
+
+    @Override
+    public Duration getBatchWindow() {
+        return properties.getCoalesceWindow();
+    }
+
+    private void send(List<NotificationEvent> events) {
+        NotificationEvent first = events.get(0);
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("eventType", first.getEventType());
+        payload.put("count", events.size());
+        payload.put("notifications", events.stream().map(NotificationEvent::getData).toList());
+        messagingTemplate.convertAndSendToUser(username(first), WebSocketConfig.NOTIFICATION_QUEUE, payload);
+    }
+
+    private static String username(NotificationEvent event) {
+        Object username = event.getData() != null ? event.getData().get("username") : null;
+        return username != null ? username.toString() : null;
     }
 
     @Override
@@ -27,6 +97,6 @@ public class WebSocketNotificationHandler implements NotificationHandler {
 
     @Override
     public boolean isEnabled() {
-        return false;
+        return true;
     }
 }
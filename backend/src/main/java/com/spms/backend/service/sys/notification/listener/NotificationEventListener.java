@@ -4,7 +4,6 @@ import com.spms.backend.service.sys.notification.NotificationService;
 import com.spms.backend.service.sys.notification.event.NotificationEvent;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.event.EventListener;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
 
 @Component
@@ -16,7 +15,10 @@ public class NotificationEventListener {
         this.notificationService = notificationService;
     }
 
-    @Async
+    /**
+     * Runs on the publishing thread: handing the event to the dispatcher only enqueues it, and a
+     * full queue pushes back on the publisher instead of piling up tasks on a shared executor.
+     */
     @EventListener
     public void handleNotificationEvent(NotificationEvent event) {
         notificationService.handleNotification(event);
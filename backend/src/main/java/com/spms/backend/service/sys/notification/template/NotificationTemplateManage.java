@@ -1,5 +1,7 @@
 package com.spms.backend.service.sys.notification.template;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 
@@ -7,4 +9,22 @@ public interface NotificationTemplateManage {
     String renderTemplate(String templatePath,
                           Locale locale,
                           Map<String, Object> data);
+
+    /**
+     * Renders one template for many recipients, e.g. every participant of a process step.
+     *
+     * @param templatePath template path below the locale directory
+     * @param locale       locale of all recipients
+     * @param models       data per recipient
+     * @return rendered content per recipient, in the order of {@code models}
+     */
+    default List<String> renderFanOut(String templatePath,
+                                      Locale locale,
+                                      List<Map<String, Object>> models) {
+        List<String> contents = new ArrayList<>(models.size());
+        for (Map<String, Object> model : models) {
+            contents.add(renderTemplate(templatePath, locale, model));
+        }
+        return contents;
+    }
 }
@@ -1,35 +1,416 @@
 package com.spms.backend.service.sys.notification.template;
 
+import com.spms.backend.config.NotificationProperties;
 import com.spms.backend.service.sys.notification.exception.NotificationProcessingException;
+import freemarker.core.MarkupOutputFormat;
+import freemarker.core.OutputFormat;
+import freemarker.core.TemplateElement;
 import freemarker.template.Configuration;
 import freemarker.template.Template;
+import freemarker.template.TemplateException;
+import freemarker.template.TemplateModelException;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
 import org.springframework.stereotype.Component;
-import java.io.StringWriter;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.UnaryOperator;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
+/**
+ * FreeMarker notification templates, stored as {@code <language tag>/<template path>}.
+ * <p>
+ * The compiled template for a path and locale is resolved falling back from the full tag
+ * ({@code zh-CN}) to the language ({@code zh}) and then to {@code spms.notification.default-locale}.
+ * The resolution is kept for FreeMarker's {@code template_update_delay}, after which FreeMarker is asked
+ * again, so changed templates are picked up like in FreeMarker's own cache; {@link #clearCache()} drops it at once.
+ * Email templates found on the classpath are compiled when the application is ready. Output is rendered
+ * into a per-thread buffer that is reused between renders.
+ * <p>
+ * {@link #renderFanOut} renders the template once with markers in place of the fields that differ
+ * between recipients, then builds each recipient's content by substituting the escaped values into the
+ * shared output. This is only done when the template's syntax tree consists of static text and plain
+ * {@code ${variable}} or {@code ${variable.property}} interpolations, with per-recipient fields printed
+ * as {@code ${field}}; any other element, including ones a later FreeMarker version adds, makes the
+ * template render for every recipient.
+ */
+@Slf4j
 @Component
 public class NotificationTemplateManagerFreeMakerImpl implements NotificationTemplateManage {
+
+    static final String PRELOAD_PATTERN = "classpath*:/templates/*/email/*.ftl";
+
+    private static final String TEMPLATE_ROOT = "/templates/";
+    private static final char MARK_START = '\uE000';
+    private static final char MARK_END = '\uE001';
+    private static final int MAX_POOLED_BUFFER = 64 * 1024;
+    private static final ThreadLocal<BufferWriter> BUFFERS = ThreadLocal.withInitial(BufferWriter::new);
+
+    /**
+     * Syntax tree elements of FreeMarker 2.3.34 a template rendered once for all recipients may consist of;
+     * the element classes are not public, so they are matched by name.
+     */
+    private static final String TEXT_ELEMENT = "freemarker.core.TextBlock";
+    private static final String INTERPOLATION_ELEMENT = "freemarker.core.DollarVariable";
+    private static final Set<String> CONTAINER_ELEMENTS = Set.of("freemarker.core.MixedContent");
+
+    /**
+     * Source of an interpolation printing a variable or a property of one: no built-ins, defaults,
+     * operators, special variables or computed names.
+     */
+    private static final Pattern PLAIN_INTERPOLATION =
+            Pattern.compile("(?:\\$\\{|\\[=)\\s*([A-Za-z_]\\w*)((?:\\.[A-Za-z_]\\w*)*)\\s*[}\\]]");
+
+    private record TemplateKey(String templatePath, Locale locale) {
+    }
+
+    /**
+     * A resolved template (null when not found) and, per set of per-recipient fields, whether the
+     * template only prints them.
+     */
+    private record Resolved(Template template, long resolvedAt, Map<Set<String>, Boolean> plainFields) {
+
+        private Resolved(Template template, long resolvedAt) {
+            this(template, resolvedAt, new ConcurrentHashMap<>());
+        }
+    }
+
     private final Configuration freemarkerConfig;
+    private final NotificationProperties properties;
+    private final Map<TemplateKey, Resolved> templates = new ConcurrentHashMap<>();
+
     @Autowired
-    public NotificationTemplateManagerFreeMakerImpl(Configuration freemarkerConfig) {
+    public NotificationTemplateManagerFreeMakerImpl(Configuration freemarkerConfig, NotificationProperties properties) {
         this.freemarkerConfig = freemarkerConfig;
+        this.properties = properties;
     }
 
     @Override
     public String renderTemplate(String templatePath,
                                  Locale locale,
                                  Map<String, Object> data) {
+        return render(template(templatePath, locale), data);
+    }
+
+    @Override
+    public List<String> renderFanOut(String templatePath,
+                                     Locale locale,
+                                     List<Map<String, Object>> models) {
+        if (models.isEmpty()) {
+            return List.of();
+        }
+        Resolved resolved = resolved(templatePath, locale);
+        Template template = resolved.template();
+        if (models.size() > 1) {
+            List<String> contents = substitute(resolved, models);
+            if (contents != null) {
+                return contents;
+            }
+        }
+        List<String> contents = new ArrayList<>(models.size());
+        for (Map<String, Object> model : models) {
+            contents.add(render(template, model));
+        }
+        return contents;
+    }
+
+    /**
+     * Compiles the email templates on the classpath so the first notifications do not pay for it.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void preload() {
+        int loaded = 0;
         try {
-            Template template = freemarkerConfig.getTemplate(
-                locale.toLanguageTag() + "/" + templatePath
-            );
-            StringWriter writer = new StringWriter();
-            template.process(data, writer);
-            return writer.toString();
-        } catch (Exception e) {
+            for (Resource resource : new PathMatchingResourcePatternResolver().getResources(PRELOAD_PATTERN)) {
+                String url = resource.getURL().toString();
+                int root = url.lastIndexOf(TEMPLATE_ROOT);
+                int slash = root < 0 ? -1 : url.indexOf('/', root + TEMPLATE_ROOT.length());
+                if (slash < 0) {
+                    continue;
+                }
+                Locale locale = Locale.forLanguageTag(url.substring(root + TEMPLATE_ROOT.length(), slash));
+                try {
+                    template(url.substring(slash + 1), locale);
+                    loaded++;
+                } catch (NotificationProcessingException e) {
+                    log.warn("Could not compile notification template {}", url, e);
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Could not list notification templates", e);
+        }
+        log.info("Compiled {} notification templates", loaded);
+    }
+
+    /**
+     * Drops the compiled templates, e.g. after templates were changed.
+     */
+    public void clearCache() {
+        templates.clear();
+    }
+
+    int cachedTemplateCount() {
+        return templates.size();
+    }
+
+    Template template(String templatePath, Locale locale) {
+        return resolved(templatePath, locale).template();
+    }
+
+    private Resolved resolved(String templatePath, Locale locale) {
+        Locale key = locale != null ? locale : properties.getDefaultLocale();
+        TemplateKey cacheKey = new TemplateKey(templatePath, key);
+        long now = System.currentTimeMillis();
+        long updateDelay = freemarkerConfig.getTemplateUpdateDelayMilliseconds();
+        Resolved resolved = templates.get(cacheKey);
+        if (resolved == null || now - resolved.resolvedAt() >= updateDelay) {
+            resolved = templates.compute(cacheKey, (k, previous) -> {
+                if (previous != null && now - previous.resolvedAt() < updateDelay) {
+                    return previous;
+                }
+                Template template = resolve(templatePath, key).orElse(null);
+                // FreeMarker returns the same instance while the source is unchanged; keep what is known about it
+                return previous != null && previous.template() == template
+                        ? new Resolved(template, now, previous.plainFields())
+                        : new Resolved(template, now);
+            });
+        }
+        if (resolved.template() == null) {
+            throw new NotificationProcessingException(
+                    "Template not found: " + templatePath + " for locale " + key, null);
+        }
+        return resolved;
+    }
+
+    private Optional<Template> resolve(String templatePath, Locale locale) {
+        Set<String> directories = new LinkedHashSet<>();
+        for (Locale candidate : new Locale[]{locale, properties.getDefaultLocale()}) {
+            directories.add(candidate.toLanguageTag());
+            directories.add(candidate.getLanguage());
+        }
+        directories.remove("");
+        for (String directory : directories) {
+            try {
+                Template template = freemarkerConfig.getTemplate(directory + "/" + templatePath,
+                        null, null, null, true, true);
+                if (template != null) {
+                    return Optional.of(template);
+                }
+            } catch (IOException e) {
+                throw new NotificationProcessingException("Template loading failed: " + directory + "/" + templatePath, e);
+            }
+        }
+        return Optional.empty();
+    }
+
+    private static String render(Template template, Object model) {
+        BufferWriter buffer = BUFFERS.get();
+        try {
+            template.process(model, buffer);
+            return buffer.toString();
+        } catch (TemplateException | IOException e) {
             throw new NotificationProcessingException("Template rendering failed", e);
+        } finally {
+            buffer.reset();
+        }
+    }
+
+    /**
+     * Renders the shared output once and substitutes the per-recipient fields.
+     *
+     * @return content per recipient, or null when the template cannot be rendered this way
+     */
+    private static List<String> substitute(Resolved resolved, List<Map<String, Object>> models) {
+        Template template = resolved.template();
+        // Fields equal for every recipient stay in the model; the others are printed as markers
+        Map<String, Object> first = models.get(0);
+        Set<String> keys = new LinkedHashSet<>();
+        models.forEach(model -> keys.addAll(model.keySet()));
+        List<String> fields = new ArrayList<>();
+        for (String key : keys) {
+            boolean shared = true;
+            for (Map<String, Object> model : models) {
+                Object value = model.get(key);
+                if (!(value instanceof CharSequence)) {
+                    if (!Objects.equals(value, first.get(key)) || !model.containsKey(key)) {
+                        return null;
+                    }
+                } else if (!Objects.equals(value, first.get(key))) {
+                    if (!(first.get(key) instanceof CharSequence)) {
+                        return null;
+                    }
+                    shared = false;
+                }
+            }
+            if (!shared) {
+                fields.add(key);
+            }
+        }
+        if (fields.isEmpty()) {
+            String content = render(template, first);
+            return new ArrayList<>(Collections.nCopies(models.size(), content));
+        }
+
+        Boolean plain = resolved.plainFields().computeIfAbsent(Set.copyOf(fields),
+                key -> printsOnly(template, key));
+        if (!plain) {
+            log.debug("Template {} does more than print per-recipient fields {}, rendering each recipient",
+                    template.getName(), fields);
+            return null;
+        }
+
+        Map<String, Object> markerModel = new HashMap<>(first);
+        for (int i = 0; i < fields.size(); i++) {
+            markerModel.put(fields.get(i), MARK_START + Integer.toString(i) + MARK_END);
+        }
+        List<Object> segments = segments(render(template, markerModel));
+        UnaryOperator<String> escape = template.getAutoEscaping()
+                ? escaper(template.getOutputFormat()) : UnaryOperator.identity();
+
+        List<String> contents = new ArrayList<>(models.size());
+        StringBuilder content = new StringBuilder();
+        for (Map<String, Object> model : models) {
+            content.setLength(0);
+            for (Object segment : segments) {
+                if (segment instanceof Integer field) {
+                    content.append(escape.apply(model.get(fields.get(field)).toString()));
+                } else {
+                    content.append((String) segment);
+                }
+            }
+            contents.add(content.toString());
+        }
+        return contents;
+    }
+
+    /**
+     * Whether the template only prints text and plain interpolations, the fields as {@code ${field}}.
+     */
+    @SuppressWarnings("deprecation")
+    static boolean printsOnly(Template template, Set<String> fields) {
+        return printsOnly(template, template.getRootTreeNode(), fields);
+    }
+
+    private static boolean printsOnly(Template template, TemplateElement element, Set<String> fields) {
+        String type = element.getClass().getName();
+        if (type.equals(TEXT_ELEMENT)) {
+            return true;
+        }
+        if (type.equals(INTERPOLATION_ELEMENT)) {
+            String source = template.getSource(element.getBeginColumn(), element.getBeginLine(),
+                    element.getEndColumn(), element.getEndLine());
+            if (source == null) {
+                return false;
+            }
+            Matcher plain = PLAIN_INTERPOLATION.matcher(source);
+            return plain.matches() && (plain.group(2).isEmpty() || !fields.contains(plain.group(1)));
+        }
+        if (!CONTAINER_ELEMENTS.contains(type)) {
+            return false;
+        }
+        for (int i = 0; i < element.getChildCount(); i++) {
+            if (!printsOnly(template, element.getChild(i), fields)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Splits rendered output into literal strings and field indexes.
+     */
+    private static List<Object> segments(String output) {
+        List<Object> segments = new ArrayList<>();
+        int from = 0;
+        int start;
+        while ((start = output.indexOf(MARK_START, from)) >= 0) {
+            int end = output.indexOf(MARK_END, start);
+            if (end < 0) {
+                break;
+            }
+            if (start > from) {
+                segments.add(output.substring(from, start));
+            }
+            segments.add(Integer.valueOf(output.substring(start + 1, end)));
+            from = end + 1;
+        }
+        if (from < output.length()) {
+            segments.add(output.substring(from));
+        }
+        return segments;
+    }
+
+    private static UnaryOperator<String> escaper(OutputFormat outputFormat) {
+        if (outputFormat instanceof MarkupOutputFormat<?> markup) {
+            return value -> {
+                try {
+                    return markup.escapePlainText(value);
+                } catch (TemplateModelException e) {
+                    throw new NotificationProcessingException("Template escaping failed", e);
+                }
+            };
+        }
+        return UnaryOperator.identity();
+    }
+
+    /**
+     * Unsynchronized writer over a reusable {@link StringBuilder}; large buffers are not kept.
+     */
+    private static final class BufferWriter extends Writer {
+
+        private StringBuilder buffer = new StringBuilder(4096);
+
+        @Override
+        public void write(char[] chars, int offset, int length) {
+            buffer.append(chars, offset, length);
+        }
+
+        @Override
+        public void write(String string, int offset, int length) {
+            buffer.append(string, offset, offset + length);
+        }
+
+        @Override
+        public void write(int c) {
+            buffer.append((char) c);
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+
+        void reset() {
+            if (buffer.capacity() > MAX_POOLED_BUFFER) {
+                buffer = new StringBuilder(4096);
+            } else {
+                buffer.setLength(0);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return buffer.toString();
         }
     }
 }
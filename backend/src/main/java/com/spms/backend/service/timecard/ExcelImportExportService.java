@@ -2,7 +2,7 @@ package com.spms.backend.service.timecard;
 
 import com.spms.backend.controller.dto.timecard.ImportResultDTO;
 import org.springframework.web.multipart.MultipartFile;
-import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
 
 /**
  * Excel 导入导出服务接口
@@ -20,28 +20,29 @@ public interface ExcelImportExportService {
     ImportResultDTO importProjects(MultipartFile file);
     
     /**
-     * 导出项目数据
+     * 导出项目数据，以流式方式直接写入输出流
      * 
      * @param status 项目状态筛选（可选）
-     * @return Excel 文件输出流
+     * @param outputStream Excel 文件输出流（不会被关闭）
      */
-    ByteArrayOutputStream exportProjects(String status);
+    void exportProjects(String status, OutputStream outputStream);
     
     /**
      * 导入节假日数据
-     * Excel 格式：date
+     * Excel 格式：date | country | name | type（后三列可选，默认 CN / Holiday 日期 / PUBLIC_HOLIDAY）
      * 
      * @param file Excel 文件
+     * @param upsert 为 true 时幂等导入：已存在的节假日直接跳过，不计为失败
      * @return 导入结果 DTO
      */
-    ImportResultDTO importHolidays(MultipartFile file);
+    ImportResultDTO importHolidays(MultipartFile file, boolean upsert);
     
     /**
-     * 导出节假日数据
+     * 导出节假日数据，以流式方式直接写入输出流
      * 
      * @param year 年份筛选（可选）
-     * @return Excel 文件输出流
+     * @param outputStream Excel 文件输出流（不会被关闭）
      */
-    ByteArrayOutputStream exportHolidays(Integer year);
+    void exportHolidays(Integer year, OutputStream outputStream);
 }
 
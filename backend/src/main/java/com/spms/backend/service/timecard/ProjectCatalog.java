@@ -0,0 +1,374 @@
+package com.spms.backend.service.timecard;
+
+import com.spms.backend.model.ProjectStatus;
+import com.spms.backend.repository.project.ProjectRepository;
+import com.spms.backend.repository.project.ProjectRepository.ProjectTaskView;
+import com.spms.backend.service.sys.cache.CacheVersions;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 项目目录
+ * 在内存中保存未删除项目及其激活任务的不可变快照：按项目代码索引，行按 (项目名称, 项目代码, 任务编号) 排序，
+ * 并用前缀索引（有序 Map，相当于压平的 trie）回答搜索。Timecard 的项目验证和项目-任务列表都从这里读取，不访问数据库。
+ * <p>
+ * 写入项目或任务后调用 {@link #invalidateAfterCommit(Long)}：事务提交后记下项目 ID，下次读取时只重新查询这些项目，
+ * 再整体替换快照（copy-on-write）。批量导入等大范围变更调用 {@link #invalidateAll()}。
+ * 每次失效都会递增版本号，{@link #etag()} 可直接用作 HTTP ETag。
+ * <p>
+ * 快照只存在于本节点：失效同时在写入事务中递增共享版本（{@link CacheVersions}），其他节点读取前比较该版本，
+ * 发现其他节点提交的变更后全量重新加载，因此其他节点最多在 {@code spms.cache.version-check-interval} 内读到旧数据。
+ * <p>
+ * 搜索按词前缀匹配项目代码、项目名称和任务编号：词从字符串开头、非字母数字字符之后、字母与数字的交界处
+ * 以及每个汉字处开始，例如 {@code PRJ-2024A} 可以由 {@code prj}、{@code 2024}、{@code a} 开头的关键字命中。
+ */
+@Slf4j
+@Component
+public class ProjectCatalog {
+
+    /**
+     * 激活任务
+     */
+    public record CatalogTask(Long id, String taskNumber, String taskName, String activity) {
+    }
+
+    /**
+     * 未删除的项目及其激活任务（按任务编号排序）
+     */
+    public record CatalogProject(Long id, String projectCode, String projectName, ProjectStatus status,
+                                 List<CatalogTask> tasks) {
+    }
+
+    /**
+     * 列表中的一行：项目及其一个任务，无任务的项目 task 为 null
+     */
+    public record CatalogRow(CatalogProject project, CatalogTask task) {
+
+        /**
+         * 行的排序键（项目名称, 项目代码, 任务编号），与分页游标一致
+         */
+        public String[] key() {
+            return new String[]{
+                    nullToEmpty(project.projectName()),
+                    nullToEmpty(project.projectCode()),
+                    task != null ? nullToEmpty(task.taskNumber()) : ""};
+        }
+    }
+
+    private static final Comparator<String[]> KEY_ORDER = (a, b) -> {
+        for (int i = 0; i < a.length; i++) {
+            int result = a[i].compareTo(b[i]);
+            if (result != 0) {
+                return result;
+            }
+        }
+        return 0;
+    };
+
+    static final String CACHE_NAME = "project-catalog";
+
+    private final ProjectRepository projectRepository;
+    private final CacheVersions cacheVersions;
+    private final CacheVersions.Tracker sharedVersion;
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>();
+    private final Set<Long> pending = ConcurrentHashMap.newKeySet();
+    private final AtomicLong version = new AtomicLong();
+
+    /**
+     * 区分不同进程的版本号，避免重启后旧 ETag 与新数据碰撞
+     */
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+
+    public ProjectCatalog(ProjectRepository projectRepository, CacheVersions cacheVersions) {
+        this.projectRepository = projectRepository;
+        this.cacheVersions = cacheVersions;
+        this.sharedVersion = cacheVersions.tracker(CACHE_NAME);
+    }
+
+    /**
+     * 当前版本号；每次失效递增
+     */
+    public long version() {
+        return version.get();
+    }
+
+    /**
+     * 当前版本对应的 HTTP ETag（含引号）
+     * 先取 ETag 再读取数据时，读到的数据不会比 ETag 旧
+     */
+    public String etag() {
+        checkSharedVersion();
+        return "\"" + epoch + "-" + version.get() + "\"";
+    }
+
+    /**
+     * 按项目代码查找未删除项目
+     *
+     * @param projectCode 项目代码
+     * @return 项目及其激活任务
+     */
+    public Optional<CatalogProject> findByCode(String projectCode) {
+        return Optional.ofNullable(current().byCode.get(projectCode));
+    }
+
+    /**
+     * 按顺序查询行
+     *
+     * @param status 项目状态（可选）
+     * @param search 搜索关键字（可选，按词前缀匹配）
+     * @param after  从该排序键之后开始（可选，见 {@link CatalogRow#key()}）
+     * @param limit  最多返回的行数
+     * @return 匹配的行
+     */
+    public List<CatalogRow> find(ProjectStatus status, String search, String[] after, int limit) {
+        Snapshot catalog = current();
+        int from = after == null ? 0 : catalog.indexAfter(after);
+        BitSet matches = catalog.match(search);
+        List<CatalogRow> result = new ArrayList<>(Math.min(limit, 64));
+        for (int i = from; i < catalog.rows.size() && result.size() < limit; i++) {
+            if (matches != null) {
+                i = matches.nextSetBit(i);
+                if (i < 0) {
+                    break;
+                }
+            }
+            CatalogRow row = catalog.rows.get(i);
+            if (status == null || status == row.project().status()) {
+                result.add(row);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 在当前事务提交后标记项目需要重新加载；没有事务时立即标记
+     *
+     * @param projectId 新增、修改或删除的项目，或其任务被修改的项目
+     */
+    public void invalidateAfterCommit(Long projectId) {
+        if (projectId == null) {
+            return;
+        }
+        cacheVersions.increment(CACHE_NAME);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidate(projectId);
+                }
+            });
+        } else {
+            invalidate(projectId);
+        }
+    }
+
+    /**
+     * 丢弃整个快照，下次读取时全量加载；其他节点同样全量加载
+     */
+    public void invalidateAll() {
+        cacheVersions.increment(CACHE_NAME);
+        discard();
+    }
+
+    private synchronized void discard() {
+        snapshot.set(null);
+        version.incrementAndGet();
+    }
+
+    /**
+     * 其他节点提交过变更时丢弃快照
+     */
+    private void checkSharedVersion() {
+        if (sharedVersion.changed()) {
+            log.debug("Project catalog changed on another node, reloading");
+            discard();
+        }
+    }
+
+    private void invalidate(Long projectId) {
+        pending.add(projectId);
+        version.incrementAndGet();
+    }
+
+    private Snapshot current() {
+        checkSharedVersion();
+        Snapshot catalog = snapshot.get();
+        if (catalog != null && pending.isEmpty()) {
+            return catalog;
+        }
+        synchronized (this) {
+            catalog = snapshot.get();
+            if (catalog == null) {
+                // 全量加载会包含清空之前提交的所有变更
+                pending.clear();
+                catalog = new Snapshot(group(projectRepository.findProjectTaskRows(), new HashMap<>()));
+                log.info("Loaded project catalog with {} projects and {} rows",
+                        catalog.byCode.size(), catalog.rows.size());
+            } else if (!pending.isEmpty()) {
+                Set<Long> ids = new LinkedHashSet<>(pending);
+                pending.removeAll(ids);
+                Map<Long, CatalogProject> projects = new HashMap<>(catalog.byId);
+                ids.forEach(projects::remove);
+                catalog = new Snapshot(group(projectRepository.findProjectTaskRowsByProjectIdIn(ids), projects));
+                log.debug("Reloaded {} projects into project catalog", ids.size());
+            }
+            snapshot.set(catalog);
+            return catalog;
+        }
+    }
+
+    /**
+     * 将扁平化行按项目归组并放入 projects
+     */
+    private static Map<Long, CatalogProject> group(Collection<ProjectTaskView> rows, Map<Long, CatalogProject> projects) {
+        Map<Long, List<CatalogTask>> tasks = new HashMap<>();
+        Map<Long, ProjectTaskView> heads = new HashMap<>();
+        for (ProjectTaskView row : rows) {
+            heads.putIfAbsent(row.getProjectId(), row);
+            List<CatalogTask> projectTasks = tasks.computeIfAbsent(row.getProjectId(), id -> new ArrayList<>());
+            if (row.getTaskId() != null) {
+                projectTasks.add(new CatalogTask(row.getTaskId(), row.getTaskNumber(), row.getTaskName(),
+                        row.getActivity()));
+            }
+        }
+        heads.forEach((id, row) -> {
+            List<CatalogTask> projectTasks = tasks.get(id);
+            projectTasks.sort(Comparator.comparing(task -> nullToEmpty(task.taskNumber())));
+            projects.put(id, new CatalogProject(id, row.getProjectCode(), row.getProjectName(), row.getStatus(),
+                    List.copyOf(projectTasks)));
+        });
+        return projects;
+    }
+
+    private static String nullToEmpty(String value) {
+        return value != null ? value : "";
+    }
+
+    /**
+     * 搜索词：字符串中每个词起点开始的后缀（小写）
+     */
+    static void addTerms(String value, Set<String> terms) {
+        if (value == null || value.isEmpty()) {
+            return;
+        }
+        String text = value.toLowerCase(Locale.ROOT);
+        for (int i = 0; i < text.length(); i++) {
+            if (isTermStart(text, i)) {
+                terms.add(text.substring(i));
+            }
+        }
+    }
+
+    private static boolean isTermStart(String text, int i) {
+        char c = text.charAt(i);
+        if (!Character.isLetterOrDigit(c)) {
+            return false;
+        }
+        if (i == 0 || Character.isIdeographic(c)) {
+            return true;
+        }
+        char previous = text.charAt(i - 1);
+        return !Character.isLetterOrDigit(previous) || Character.isDigit(previous) != Character.isDigit(c);
+    }
+
+    /**
+     * 不可变的目录快照
+     */
+    private static final class Snapshot {
+
+        private final Map<Long, CatalogProject> byId;
+        private final Map<String, CatalogProject> byCode;
+        private final List<CatalogRow> rows;
+        private final NavigableMap<String, int[]> terms;
+
+        private Snapshot(Map<Long, CatalogProject> projects) {
+            this.byId = Map.copyOf(projects);
+
+            Map<String, CatalogProject> codes = new HashMap<>();
+            List<CatalogRow> allRows = new ArrayList<>();
+            for (CatalogProject project : projects.values()) {
+                codes.put(project.projectCode(), project);
+                if (project.tasks().isEmpty()) {
+                    allRows.add(new CatalogRow(project, null));
+                }
+                for (CatalogTask task : project.tasks()) {
+                    allRows.add(new CatalogRow(project, task));
+                }
+            }
+            allRows.sort(Comparator.comparing(CatalogRow::key, KEY_ORDER));
+            this.byCode = codes;
+            this.rows = List.copyOf(allRows);
+
+            // 行号按升序加入，合并结果可直接按位图顺序输出
+            Map<String, List<Integer>> postings = new HashMap<>();
+            Set<String> rowTerms = new LinkedHashSet<>();
+            for (int i = 0; i < rows.size(); i++) {
+                CatalogRow row = rows.get(i);
+                rowTerms.clear();
+                addTerms(row.project().projectCode(), rowTerms);
+                addTerms(row.project().projectName(), rowTerms);
+                if (row.task() != null) {
+                    addTerms(row.task().taskNumber(), rowTerms);
+                }
+                for (String term : rowTerms) {
+                    postings.computeIfAbsent(term, t -> new ArrayList<>()).add(i);
+                }
+            }
+            this.terms = new TreeMap<>();
+            postings.forEach((term, list) -> terms.put(term, list.stream().mapToInt(Integer::intValue).toArray()));
+        }
+
+        /**
+         * 匹配搜索关键字的行号位图；没有关键字时返回 null 表示全部匹配
+         */
+        private BitSet match(String search) {
+            if (search == null || search.isBlank()) {
+                return null;
+            }
+            String prefix = search.trim().toLowerCase(Locale.ROOT);
+            BitSet matches = new BitSet(rows.size());
+            for (int[] posting : terms.subMap(prefix, true, prefix + Character.MAX_VALUE, false).values()) {
+                for (int row : posting) {
+                    matches.set(row);
+                }
+            }
+            return matches;
+        }
+
+        /**
+         * 第一个排序键大于 after 的行号
+         */
+        private int indexAfter(String[] after) {
+            int low = 0;
+            int high = rows.size();
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (KEY_ORDER.compare(rows.get(mid).key(), after) <= 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+}
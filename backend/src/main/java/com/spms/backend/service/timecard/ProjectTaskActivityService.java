@@ -1,6 +1,7 @@
 package com.spms.backend.service.timecard;
 
 import com.spms.backend.controller.dto.timecard.ProjectTaskDTO;
+import com.spms.backend.controller.dto.timecard.ProjectTaskPageDTO;
 import com.spms.backend.controller.dto.timecard.ProjectTaskCreateDTO;
 import com.spms.backend.controller.dto.timecard.ProjectTaskUpdateDTO;
 
@@ -21,6 +22,17 @@ public interface ProjectTaskActivityService {
      */
     List<ProjectTaskDTO> getProjectTasks(String search, String status);
     
+    /**
+     * 分页获取项目-任务-活动列表（keyset 分页）
+     * 
+     * @param search 搜索关键字（可选，搜索项目代码、项目名称、任务编号）
+     * @param status 状态筛选（可选：ACTIVE/COMPLETED/ALL）
+     * @param after 上一页返回的游标（可选，为空时从第一页开始）
+     * @param limit 每页行数（最多 500）
+     * @return 当前页及下一页游标
+     */
+    ProjectTaskPageDTO getProjectTasks(String search, String status, String after, int limit);
+    
     /**
      * 创建项目-任务-活动组合
      * 
@@ -47,5 +59,11 @@ public interface ProjectTaskActivityService {
      * @throws jakarta.persistence.EntityNotFoundException 如果项目或任务不存在
      */
     void deleteProjectTask(String id);
+    
+    /**
+     * 获取项目目录当前版本对应的 ETag
+     * 
+     * @return ETag（含引号）
+     */
+    String getCatalogETag();
 }
-
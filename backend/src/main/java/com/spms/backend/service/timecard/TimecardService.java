@@ -13,11 +13,21 @@ public interface TimecardService {
      * 获取活跃项目列表（用于 Timecard 填报）
      * 返回所有状态为 ACTIVE 且未删除的项目及其任务
      * 
-     * @param search 搜索关键词（可选，匹配项目代码或名称）
+     * @param search 搜索关键词（可选，按词前缀匹配项目代码、名称或任务编号）
      * @return 项目任务列表
      */
     List<ProjectTaskDTO> getActiveProjects(String search);
     
+    /**
+     * 分页获取活跃项目列表（keyset 分页）
+     * 
+     * @param search 搜索关键词（可选，按词前缀匹配项目代码、名称或任务编号）
+     * @param after 上一页返回的游标（可选，为空时从第一页开始）
+     * @param limit 每页行数（最多 500）
+     * @return 当前页及下一页游标
+     */
+    ProjectTaskPageDTO getActiveProjects(String search, String after, int limit);
+    
     /**
      * 验证项目代码并获取项目信息
      * 用于验证用户输入的项目代码是否有效
@@ -26,5 +36,12 @@ public interface TimecardService {
      * @return 项目验证结果 DTO
      */
     ProjectValidationDTO validateProjectCode(String projectCode);
+    
+    /**
+     * 获取项目目录当前版本对应的 ETag
+     * 项目或任务变更后 ETag 随之改变，可用于条件请求（If-None-Match）
+     * 
+     * @return ETag（含引号）
+     */
+    String getCatalogETag();
 }
-
@@ -0,0 +1,284 @@
+package com.spms.backend.service.timecard;
+
+import com.spms.backend.config.WorkingCalendarProperties;
+import com.spms.backend.repository.timecard.HolidayRepository;
+import com.spms.backend.service.sys.cache.CacheVersions;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.BitSet;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 工作日历
+ * 将激活的节假日按国家和年份保存为位图（每年一个 BitSet，第 n 位表示该年第 n+1 天），
+ * 结合周末规则回答"是否工作日"、"若干工作日之后"和"区间内工作日数"，不访问数据库。
+ * <p>
+ * 节假日变更后调用 {@link #refreshAfterCommit()}：事务提交后重新加载并整体替换快照（copy-on-write），
+ * 读取方始终看到一个完整的日历。同一事务中递增 {@link CacheVersions} 中的版本，其他节点在回答前检查该版本，
+ * 发现变更时重新加载，最多延迟 {@code spms.cache.version-check-interval}。
+ * <p>
+ * 在 Flowable 表达式中以 {@code workingCalendar} 使用，例如定时器
+ * {@code <timeDate>${workingCalendar.dueInWorkingDays(3)}</timeDate>}。
+ */
+@Slf4j
+@Component("workingCalendar")
+public class WorkingCalendar {
+
+    static final String CACHE_NAME = "working-calendar";
+
+    private final HolidayRepository holidayRepository;
+    private final WorkingCalendarProperties properties;
+    private final CacheVersions cacheVersions;
+    private final CacheVersions.Tracker sharedVersion;
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>();
+
+    public WorkingCalendar(HolidayRepository holidayRepository, WorkingCalendarProperties properties,
+                           CacheVersions cacheVersions) {
+        this.holidayRepository = holidayRepository;
+        this.properties = properties;
+        this.cacheVersions = cacheVersions;
+        this.sharedVersion = cacheVersions.tracker(CACHE_NAME);
+    }
+
+    /**
+     * 默认国家的某天是否为工作日
+     */
+    public boolean isWorkingDay(LocalDate date) {
+        return isWorkingDay(date, properties.getCountry());
+    }
+
+    /**
+     * 指定国家的某天是否为工作日
+     *
+     * @param date    日期
+     * @param country 国家代码
+     * @return 不是周末且不是节假日时为 true
+     */
+    public boolean isWorkingDay(LocalDate date, String country) {
+        return current().working(country, date.getYear()).get(date.getDayOfYear() - 1);
+    }
+
+    /**
+     * 默认国家中，从某天起第 days 个工作日
+     */
+    public LocalDate addWorkingDays(LocalDate date, int days) {
+        return addWorkingDays(date, days, properties.getCountry());
+    }
+
+    /**
+     * 从某天起第 days 个工作日（不含起始日）；days 为负数时向前推算，为 0 时返回原日期
+     *
+     * @param date    起始日期
+     * @param days    工作日数
+     * @param country 国家代码
+     * @return 目标日期
+     */
+    public LocalDate addWorkingDays(LocalDate date, int days, String country) {
+        Snapshot calendar = current();
+        if (days > 0) {
+            return forward(calendar, country, date.plusDays(1), days);
+        }
+        if (days < 0) {
+            return backward(calendar, country, date.minusDays(1), -days);
+        }
+        return date;
+    }
+
+    /**
+     * 默认国家中，从某时刻起第 days 个工作日的同一时刻
+     * 供 Flowable 表达式使用（与 LocalDate 版本区分命名，避免表达式重载歧义）
+     */
+    public Date workingDaysAfter(Date from, int days) {
+        ZoneId zone = ZoneId.systemDefault();
+        LocalDateTime start = LocalDateTime.ofInstant(from.toInstant(), zone);
+        LocalDate target = addWorkingDays(start.toLocalDate(), days);
+        return Date.from(target.atTime(start.toLocalTime()).atZone(zone).toInstant());
+    }
+
+    /**
+     * 默认国家中，从当前时刻起第 days 个工作日的同一时刻
+     * 供 BPMN 定时器使用
+     */
+    public Date dueInWorkingDays(int days) {
+        return workingDaysAfter(new Date(), days);
+    }
+
+    /**
+     * 默认国家中 [from, to) 区间内的工作日数
+     */
+    public int countWorkingDays(LocalDate from, LocalDate to) {
+        return countWorkingDays(from, to, properties.getCountry());
+    }
+
+    /**
+     * [from, to) 区间内的工作日数；to 早于 from 时返回负数
+     *
+     * @param from    开始日期（含）
+     * @param to      结束日期（不含）
+     * @param country 国家代码
+     * @return 工作日数
+     */
+    public int countWorkingDays(LocalDate from, LocalDate to, String country) {
+        if (to.isBefore(from)) {
+            return -countWorkingDays(to, from, country);
+        }
+        Snapshot calendar = current();
+        int count = 0;
+        LocalDate cursor = from;
+        while (cursor.isBefore(to)) {
+            int year = cursor.getYear();
+            int start = cursor.getDayOfYear() - 1;
+            int end = to.getYear() == year ? to.getDayOfYear() - 1 : cursor.lengthOfYear();
+            count += calendar.working(country, year).get(start, end).cardinality();
+            cursor = LocalDate.of(year + 1, 1, 1);
+        }
+        return count;
+    }
+
+    /**
+     * 重新加载节假日并替换快照
+     */
+    public synchronized void refresh() {
+        snapshot.set(load());
+    }
+
+    /**
+     * 在当前事务提交后刷新；没有事务时立即刷新。其他节点通过共享版本得知变更
+     */
+    public void refreshAfterCommit() {
+        cacheVersions.increment(CACHE_NAME);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    refresh();
+                }
+            });
+        } else {
+            refresh();
+        }
+    }
+
+    private Snapshot current() {
+        if (sharedVersion.changed()) {
+            log.debug("Holidays changed on another node, reloading working calendar");
+            refresh();
+        }
+        Snapshot calendar = snapshot.get();
+        if (calendar == null) {
+            synchronized (this) {
+                calendar = snapshot.get();
+                if (calendar == null) {
+                    calendar = load();
+                    snapshot.set(calendar);
+                }
+            }
+        }
+        return calendar;
+    }
+
+    private Snapshot load() {
+        Map<String, Map<Integer, BitSet>> holidays = new HashMap<>();
+        int[] count = {0};
+        holidayRepository.findActiveDateCountries().forEach(h -> {
+            LocalDate date = h.getHolidayDate();
+            holidays.computeIfAbsent(h.getCountry(), c -> new HashMap<>())
+                    .computeIfAbsent(date.getYear(), y -> new BitSet(366))
+                    .set(date.getDayOfYear() - 1);
+            count[0]++;
+        });
+        log.info("Loaded working calendar with {} holidays in {} countries", count[0], holidays.size());
+        return new Snapshot(holidays, properties.getWeekend());
+    }
+
+    private static LocalDate forward(Snapshot calendar, String country, LocalDate cursor, int remaining) {
+        while (true) {
+            int year = cursor.getYear();
+            BitSet working = calendar.working(country, year);
+            int index = cursor.getDayOfYear() - 1;
+            int available = working.get(index, cursor.lengthOfYear()).cardinality();
+            if (available >= remaining) {
+                int bit = index - 1;
+                for (int i = 0; i < remaining; i++) {
+                    bit = working.nextSetBit(bit + 1);
+                }
+                return LocalDate.ofYearDay(year, bit + 1);
+            }
+            remaining -= available;
+            cursor = LocalDate.of(year + 1, 1, 1);
+        }
+    }
+
+    private static LocalDate backward(Snapshot calendar, String country, LocalDate cursor, int remaining) {
+        while (true) {
+            int year = cursor.getYear();
+            BitSet working = calendar.working(country, year);
+            int index = cursor.getDayOfYear() - 1;
+            int available = working.get(0, index + 1).cardinality();
+            if (available >= remaining) {
+                int bit = index + 1;
+                for (int i = 0; i < remaining; i++) {
+                    bit = working.previousSetBit(bit - 1);
+                }
+                return LocalDate.ofYearDay(year, bit + 1);
+            }
+            remaining -= available;
+            cursor = LocalDate.of(year - 1, 12, 31);
+        }
+    }
+
+    /**
+     * 不可变的节假日快照；工作日位图按需计算并缓存
+     */
+    private static final class Snapshot {
+
+        private record YearKey(String country, int year) {
+        }
+
+        private final Map<String, Map<Integer, BitSet>> holidays;
+        private final boolean[] weekend = new boolean[8];
+        private final Map<YearKey, BitSet> working = new ConcurrentHashMap<>();
+
+        private Snapshot(Map<String, Map<Integer, BitSet>> holidays, Set<DayOfWeek> weekendDays) {
+            if (weekendDays.size() >= 7) {
+                throw new IllegalStateException("Working calendar needs at least one working day per week");
+            }
+            this.holidays = holidays;
+            weekendDays.forEach(day -> weekend[day.getValue()] = true);
+        }
+
+        /**
+         * 某国家某年的工作日位图，调用方不得修改
+         */
+        private BitSet working(String country, int year) {
+            return working.computeIfAbsent(new YearKey(country, year), key -> {
+                int length = LocalDate.of(year, 1, 1).lengthOfYear();
+                BitSet bits = new BitSet(length);
+                int dayOfWeek = LocalDate.of(year, 1, 1).getDayOfWeek().getValue();
+                for (int i = 0; i < length; i++) {
+                    if (!weekend[dayOfWeek]) {
+                        bits.set(i);
+                    }
+                    dayOfWeek = dayOfWeek == 7 ? 1 : dayOfWeek + 1;
+                }
+                BitSet yearHolidays = holidays.getOrDefault(country, Map.of()).get(year);
+                if (yearHolidays != null) {
+                    bits.andNot(yearHolidays);
+                }
+                return bits;
+            });
+        }
+    }
+}
@@ -1,15 +1,17 @@
 package com.spms.backend.service.timecard.impl;
 
+import com.spms.backend.config.ExcelImportProperties;
 import com.spms.backend.controller.dto.timecard.ImportResultDTO;
 import com.spms.backend.model.ProjectStatus;
-import com.spms.backend.repository.entities.project.ProjectEntity;
-import com.spms.backend.repository.entities.project.TaskEntity;
 import com.spms.backend.repository.entities.timecard.HolidayEntity;
 import com.spms.backend.repository.project.ProjectRepository;
-import com.spms.backend.repository.project.TaskRepository;
 import com.spms.backend.repository.timecard.HolidayRepository;
 import com.spms.backend.service.idm.UserService;
 import com.spms.backend.service.timecard.ExcelImportExportService;
+import com.spms.backend.service.timecard.ProjectCatalog;
+import com.spms.backend.service.timecard.WorkingCalendar;
+import com.spms.backend.service.timecard.impl.ProjectSheetReader.ProjectImportRow;
+import lombok.extern.slf4j.Slf4j;
 import org.apache.poi.ss.usermodel.*;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -17,218 +19,202 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.time.LocalDate;
 import java.time.ZoneId;
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
 
 /**
  * Excel 导入导出服务实现类
  * 使用 Apache POI 处理 Excel 文件
  */
+@Slf4j
 @Service
 public class ExcelImportExportServiceImpl implements ExcelImportExportService {
     
+    private static final String DEFAULT_HOLIDAY_COUNTRY = "CN";
+    private static final String DEFAULT_HOLIDAY_TYPE = "PUBLIC_HOLIDAY";
+    private static final DataFormatter HOLIDAY_CELL_FORMATTER = new DataFormatter();
+    
+    /**
+     * 节假日唯一键：同一日期、同一国家只能有一条记录
+     */
+    private record HolidayKey(LocalDate date, String country) {
+        @Override
+        public String toString() {
+            return date + " " + country;
+        }
+    }
+    
     private final ProjectRepository projectRepository;
-    private final TaskRepository taskRepository;
     private final HolidayRepository holidayRepository;
     private final UserService userService;
+    private final ProjectImportWriter projectImportWriter;
+    private final HolidayImportWriter holidayImportWriter;
+    private final ExcelImportProperties excelImportProperties;
+    private final WorkingCalendar workingCalendar;
+    private final ProjectCatalog projectCatalog;
     
     @Autowired
     public ExcelImportExportServiceImpl(
             ProjectRepository projectRepository,
-            TaskRepository taskRepository,
             HolidayRepository holidayRepository,
-            UserService userService) {
+            UserService userService,
+            ProjectImportWriter projectImportWriter,
+            HolidayImportWriter holidayImportWriter,
+            ExcelImportProperties excelImportProperties,
+            WorkingCalendar workingCalendar,
+            ProjectCatalog projectCatalog) {
         this.projectRepository = projectRepository;
-        this.taskRepository = taskRepository;
         this.holidayRepository = holidayRepository;
         this.userService = userService;
+        this.projectImportWriter = projectImportWriter;
+        this.holidayImportWriter = holidayImportWriter;
+        this.excelImportProperties = excelImportProperties;
+        this.workingCalendar = workingCalendar;
+        this.projectCatalog = projectCatalog;
     }
     
     /**
      * 导入项目数据
      * Excel 格式：projectCode | projectName | taskNumber | taskName | activity | status
+     * 以流式方式读取表格，每 chunkSize 行提交一次；某个分块失败时逐行重试，只有出错的行被记录并跳过
      */
     @Override
-    @Transactional
     public ImportResultDTO importProjects(MultipartFile file) {
         ImportResultDTO result = new ImportResultDTO();
         result.setSuccess(true);
-        int imported = 0;
-        int failed = 0;
-        
-        try (Workbook workbook = new XSSFWorkbook(file.getInputStream())) {
-            Sheet sheet = workbook.getSheetAt(0);
-            
-            // 跳过标题行，从第二行开始
-            for (int i = 1; i <= sheet.getLastRowNum(); i++) {
-                Row row = sheet.getRow(i);
-                if (row == null) continue;
-                
-                try {
-                    // 读取单元格数据
-                    String projectCode = getCellValueAsString(row.getCell(0));
-                    String projectName = getCellValueAsString(row.getCell(1));
-                    String taskNumber = getCellValueAsString(row.getCell(2));
-                    String taskName = getCellValueAsString(row.getCell(3));
-                    String activity = getCellValueAsString(row.getCell(4));
-                    String status = getCellValueAsString(row.getCell(5));
-                    
-                    // 验证必填字段
-                    if (projectCode == null || projectCode.trim().isEmpty()) {
-                        addError(result, i + 1, projectCode, "项目代码不能为空");
-                        failed++;
-                        continue;
-                    }
-                    
-                    // 查找或创建项目
-                    ProjectEntity project = projectRepository.findByProjectCode(projectCode)
-                            .orElseGet(() -> {
-                                ProjectEntity newProject = new ProjectEntity();
-                                newProject.setProjectCode(projectCode);
-                                newProject.setProjectName(projectName != null ? projectName : projectCode);
-                                newProject.setStatus(parseProjectStatus(status));
-                                newProject.setIsActive(true);
-                                return projectRepository.save(newProject);
-                            });
-                    
-                    // 如果有任务信息，创建或更新任务
-                    if (taskNumber != null && !taskNumber.trim().isEmpty()) {
-                        TaskEntity task = taskRepository.findByTaskNumber(taskNumber)
-                                .orElseGet(() -> {
-                                    TaskEntity newTask = new TaskEntity();
-                                    newTask.setTaskNumber(taskNumber);
-                                    newTask.setTaskName(taskName != null ? taskName : taskNumber);
-                                    newTask.setActivity(activity);
-                                    newTask.setProject(project);
-                                    newTask.setIsActive(true);
-                                    return taskRepository.save(newTask);
-                                });
-                        
-                        // 更新任务信息（如果已存在）
-                        if (task.getId() != null) {
-                            if (taskName != null) task.setTaskName(taskName);
-                            if (activity != null) task.setActivity(activity);
-                            taskRepository.save(task);
-                        }
-                    }
-                    
-                    imported++;
-                } catch (Exception e) {
-                    addError(result, i + 1, "N/A", "处理错误: " + e.getMessage());
-                    failed++;
-                }
+
+        Path tempFile = null;
+        try {
+            // 事件模型需要随机访问 zip 条目，先落盘避免整个文件驻留内存
+            tempFile = Files.createTempFile("spms-project-import", ".xlsx");
+            try (InputStream in = file.getInputStream()) {
+                Files.copy(in, tempFile, StandardCopyOption.REPLACE_EXISTING);
             }
-            
-            result.setImported(imported);
-            result.setFailed(failed);
-            
+
+            ProjectImportWriter.ImportState state = projectImportWriter.start(userService.getCurrentUserId());
+            int chunkSize = Math.max(1, excelImportProperties.getChunkSize());
+            List<ProjectImportRow> chunk = new ArrayList<>(chunkSize);
+
+            ProjectSheetReader.read(tempFile, row -> {
+                // 验证必填字段
+                if (row.projectCode() == null || row.projectCode().trim().isEmpty()) {
+                    addError(result, row.rowNumber(), row.projectCode(), "项目代码不能为空");
+                    result.setFailed(result.getFailed() + 1);
+                    return;
+                }
+                chunk.add(row);
+                if (chunk.size() >= chunkSize) {
+                    writeProjectChunk(state, chunk, result);
+                    chunk.clear();
+                }
+            });
+            writeProjectChunk(state, chunk, result);
+
         } catch (IOException e) {
             result.setSuccess(false);
             addError(result, 0, "N/A", "读取 Excel 文件失败: " + e.getMessage());
+        } finally {
+            deleteQuietly(tempFile);
+            // 分块各自提交，导入结束后整体重新加载项目目录
+            if (result.getImported() > 0) {
+                projectCatalog.invalidateAll();
+            }
         }
-        
+
         return result;
     }
-    
+
+    /**
+     * 写入一个分块；失败时逐行重试以定位出错的行
+     */
+    private void writeProjectChunk(ProjectImportWriter.ImportState state, List<ProjectImportRow> chunk,
+                                   ImportResultDTO result) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        try {
+            state.merge(projectImportWriter.write(state, chunk));
+            result.setImported(result.getImported() + chunk.size());
+            return;
+        } catch (RuntimeException e) {
+            log.warn("Project import chunk ending at row {} failed, retrying row by row: {}",
+                    chunk.get(chunk.size() - 1).rowNumber(), e.getMessage());
+        }
+
+        for (ProjectImportRow row : chunk) {
+            try {
+                state.merge(projectImportWriter.write(state, List.of(row)));
+                result.setImported(result.getImported() + 1);
+            } catch (RuntimeException e) {
+                addError(result, row.rowNumber(), row.projectCode(), "处理错误: " + rootMessage(e));
+                result.setFailed(result.getFailed() + 1);
+            }
+        }
+    }
+
     /**
      * 导出项目数据
+     * 一条游标查询取出激活项目及其激活任务，逐行写入流式工作簿
      */
     @Override
     @Transactional(readOnly = true)
-    public ByteArrayOutputStream exportProjects(String status) {
-        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    public void exportProjects(String status, OutputStream outputStream) {
+        ProjectStatus projectStatus = null;
+        if (status != null && !status.trim().isEmpty() && !status.equals("ALL")) {
+            projectStatus = parseProjectStatus(status);
+        }
         
-        try (Workbook workbook = new XSSFWorkbook()) {
-            Sheet sheet = workbook.createSheet("Projects");
-            
-            // 创建标题行
-            Row headerRow = sheet.createRow(0);
-            String[] headers = {"Project Code", "Project Name", "Task Number", "Task Name", "Activity", "Status"};
-            for (int i = 0; i < headers.length; i++) {
-                Cell cell = headerRow.createCell(i);
-                cell.setCellValue(headers[i]);
-                
-                // 设置标题样式
-                CellStyle headerStyle = workbook.createCellStyle();
-                Font font = workbook.createFont();
-                font.setBold(true);
-                headerStyle.setFont(font);
-                cell.setCellStyle(headerStyle);
-            }
-            
-            // 查询项目数据（只查询激活的项目）
-            List<ProjectEntity> projects;
-            if (status != null && !status.trim().isEmpty() && !status.equals("ALL")) {
-                ProjectStatus projectStatus = parseProjectStatus(status);
-                projects = projectRepository.findByStatus(projectStatus).stream()
-                        .filter(ProjectEntity::getIsActive)
-                        .collect(java.util.stream.Collectors.toList());
-            } else {
-                projects = projectRepository.findAll().stream()
-                        .filter(ProjectEntity::getIsActive)
-                        .collect(java.util.stream.Collectors.toList());
-            }
-            
-            // 填充数据行
-            int rowNum = 1;
-            for (ProjectEntity project : projects) {
-                // 只查询激活的任务
-                List<TaskEntity> tasks = taskRepository.findByProjectIdAndIsActiveTrue(project.getId());
-                
-                if (tasks.isEmpty()) {
-                    // 如果项目没有任务，只输出项目信息
-                    Row row = sheet.createRow(rowNum++);
-                    row.createCell(0).setCellValue(project.getProjectCode());
-                    row.createCell(1).setCellValue(project.getProjectName());
-                    row.createCell(2).setCellValue("");
-                    row.createCell(3).setCellValue("");
-                    row.createCell(4).setCellValue("");
-                    row.createCell(5).setCellValue(project.getStatus().name());
-                } else {
-                    // 为每个任务创建一行
-                    for (TaskEntity task : tasks) {
-                        Row row = sheet.createRow(rowNum++);
-                        row.createCell(0).setCellValue(project.getProjectCode());
-                        row.createCell(1).setCellValue(project.getProjectName());
-                        row.createCell(2).setCellValue(task.getTaskNumber());
-                        row.createCell(3).setCellValue(task.getTaskName());
-                        row.createCell(4).setCellValue(task.getActivity() != null ? task.getActivity() : "");
-                        row.createCell(5).setCellValue(project.getStatus().name());
-                    }
-                }
-            }
+        try (StreamingSheetWriter writer = new StreamingSheetWriter("Projects",
+                "Project Code", "Project Name", "Task Number", "Task Name", "Activity", "Status");
+             Stream<ProjectRepository.ProjectExportView> rows = projectRepository.streamActiveProjectRows(projectStatus)) {
             
-            // 自动调整列宽
-            for (int i = 0; i < headers.length; i++) {
-                sheet.autoSizeColumn(i);
-            }
+            // 没有任务的项目只输出项目信息
+            rows.forEach(row -> writer.writeRow(
+                    row.getProjectCode(),
+                    row.getProjectName(),
+                    row.getTaskNumber(),
+                    row.getTaskName(),
+                    row.getActivity(),
+                    row.getStatus().name()));
             
-            workbook.write(outputStream);
+            writer.writeTo(outputStream);
+            log.info("Exported {} project rows", writer.getRowCount());
             
         } catch (IOException e) {
             throw new RuntimeException("导出 Excel 失败: " + e.getMessage(), e);
         }
-        
-        return outputStream;
     }
     
     /**
      * 导入节假日数据
-     * Excel 格式：date
+     * Excel 格式：date | country | name | type（后三列可选）
+     * 先解析全部行，再以一次范围查询找出已存在的日期，剩余记录按 JDBC 批量插入
      */
     @Override
     @Transactional
-    public ImportResultDTO importHolidays(MultipartFile file) {
+    public ImportResultDTO importHolidays(MultipartFile file, boolean upsert) {
         ImportResultDTO result = new ImportResultDTO();
         result.setSuccess(true);
-        int imported = 0;
         int failed = 0;
         
+        // 按 (日期, 国家) 去重后待写入的记录，值为 Excel 行号
+        Map<HolidayKey, Integer> rowNumbers = new LinkedHashMap<>();
+        List<HolidayEntity> holidays = new ArrayList<>();
+        
         try (Workbook workbook = new XSSFWorkbook(file.getInputStream())) {
             Sheet sheet = workbook.getSheetAt(0);
             Long currentUserId = userService.getCurrentUserId();
@@ -241,32 +227,35 @@ public class ExcelImportExportServiceImpl implements ExcelImportExportService {
                 
                 try {
                     // 读取日期
-                    Cell dateCell = row.getCell(0);
-                    LocalDate date = getCellValueAsDate(dateCell);
-                    
+                    LocalDate date = getCellValueAsDate(row.getCell(0));
                     if (date == null) {
                         addError(result, i + 1, "N/A", "日期格式不正确");
                         failed++;
                         continue;
                     }
                     
-                    // 检查是否已存在
-                    if (holidayRepository.existsByHolidayDate(date)) {
-                        addError(result, i + 1, date.toString(), "节假日已存在");
-                        failed++;
+                    String country = defaultIfBlank(getCellText(row.getCell(1)), DEFAULT_HOLIDAY_COUNTRY);
+                    HolidayKey key = new HolidayKey(date, country);
+                    if (rowNumbers.containsKey(key)) {
+                        if (!upsert) {
+                            addError(result, i + 1, key.toString(), "节假日在文件中重复");
+                            failed++;
+                        }
                         continue;
                     }
+                    rowNumbers.put(key, i + 1);
                     
                     // 创建节假日记录
                     HolidayEntity holiday = new HolidayEntity();
                     holiday.setHolidayDate(date);
+                    holiday.setCountry(country);
+                    holiday.setName(defaultIfBlank(getCellText(row.getCell(2)), "Holiday " + date));
+                    holiday.setType(defaultIfBlank(getCellText(row.getCell(3)), DEFAULT_HOLIDAY_TYPE));
                     holiday.setCreatedAt(timestamp);
                     holiday.setUpdatedAt(timestamp);
                     holiday.setCreatedBy(currentUserId);
                     holiday.setUpdatedBy(currentUserId);
-                    
-                    holidayRepository.save(holiday);
-                    imported++;
+                    holidays.add(holiday);
                     
                 } catch (Exception e) {
                     addError(result, i + 1, "N/A", "处理错误: " + e.getMessage());
@@ -274,14 +263,40 @@ public class ExcelImportExportServiceImpl implements ExcelImportExportService {
                 }
             }
             
-            result.setImported(imported);
-            result.setFailed(failed);
-            
         } catch (IOException e) {
             result.setSuccess(false);
             addError(result, 0, "N/A", "读取 Excel 文件失败: " + e.getMessage());
+            return result;
+        }
+        
+        // 一次范围查询找出已存在的 (日期, 国家)；spms_holiday 不一定有唯一索引，两种模式都不能只依赖数据库去重
+        Set<HolidayKey> existing = new HashSet<>();
+        if (!holidays.isEmpty()) {
+            LocalDate from = holidays.stream().map(HolidayEntity::getHolidayDate).min(LocalDate::compareTo).get();
+            LocalDate to = holidays.stream().map(HolidayEntity::getHolidayDate).max(LocalDate::compareTo).get();
+            holidayRepository.findDateCountriesBetween(from, to)
+                    .forEach(h -> existing.add(new HolidayKey(h.getHolidayDate(), h.getCountry())));
+        }
+        
+        List<HolidayEntity> toInsert = new ArrayList<>(holidays.size());
+        for (HolidayEntity holiday : holidays) {
+            HolidayKey key = new HolidayKey(holiday.getHolidayDate(), holiday.getCountry());
+            if (!existing.contains(key)) {
+                toInsert.add(holiday);
+            } else if (!upsert) {
+                addError(result, rowNumbers.get(key), key.toString(), "节假日已存在");
+                failed++;
+            }
         }
+        // 幂等导入：唯一索引存在时，并发导入写入的记录也由数据库跳过
+        int imported = holidayImportWriter.insert(toInsert, upsert && holidayImportWriter.supportsUpsert());
         
+        if (imported > 0) {
+            workingCalendar.refreshAfterCommit();
+        }
+        
+        result.setImported(imported);
+        result.setFailed(failed);
         return result;
     }
     
@@ -290,76 +305,39 @@ public class ExcelImportExportServiceImpl implements ExcelImportExportService {
      */
     @Override
     @Transactional(readOnly = true)
-    public ByteArrayOutputStream exportHolidays(Integer year) {
-        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    public void exportHolidays(Integer year, OutputStream outputStream) {
+        // 查询节假日数据
+        List<HolidayEntity> holidays;
+        if (year != null) {
+            holidays = holidayRepository.findByYear(year);
+        } else {
+            holidays = holidayRepository.findAllByOrderByHolidayDateAsc();
+        }
         
-        try (Workbook workbook = new XSSFWorkbook()) {
-            Sheet sheet = workbook.createSheet("Holidays");
-            
-            // 创建标题行
-            Row headerRow = sheet.createRow(0);
-            String[] headers = {"Date"};
-            for (int i = 0; i < headers.length; i++) {
-                Cell cell = headerRow.createCell(i);
-                cell.setCellValue(headers[i]);
-                
-                // 设置标题样式
-                CellStyle headerStyle = workbook.createCellStyle();
-                Font font = workbook.createFont();
-                font.setBold(true);
-                headerStyle.setFont(font);
-                cell.setCellStyle(headerStyle);
-            }
-            
-            // 查询节假日数据
-            List<HolidayEntity> holidays;
-            if (year != null) {
-                holidays = holidayRepository.findByYear(year);
-            } else {
-                holidays = holidayRepository.findAllByOrderByHolidayDateAsc();
-            }
-            
-            // 创建日期样式
-            CellStyle dateStyle = workbook.createCellStyle();
-            CreationHelper createHelper = workbook.getCreationHelper();
-            dateStyle.setDataFormat(createHelper.createDataFormat().getFormat("yyyy-mm-dd"));
-            
-            // 填充数据行
-            int rowNum = 1;
+        try (StreamingSheetWriter writer = new StreamingSheetWriter("Holidays", "Date", "Country", "Name", "Type")) {
             for (HolidayEntity holiday : holidays) {
-                Row row = sheet.createRow(rowNum++);
-                Cell dateCell = row.createCell(0);
-                dateCell.setCellValue(Date.from(holiday.getHolidayDate().atStartOfDay(ZoneId.systemDefault()).toInstant()));
-                dateCell.setCellStyle(dateStyle);
+                writer.writeRow(holiday.getHolidayDate(), holiday.getCountry(), holiday.getName(), holiday.getType());
             }
-            
-            // 自动调整列宽
-            sheet.autoSizeColumn(0);
-            
-            workbook.write(outputStream);
+            writer.writeTo(outputStream);
             
         } catch (IOException e) {
             throw new RuntimeException("导出 Excel 失败: " + e.getMessage(), e);
         }
-        
-        return outputStream;
     }
     
     // ==================== 私有辅助方法 ====================
     
     /**
-     * 获取单元格值为字符串
+     * 获取单元格的文本值，空单元格返回 null
      */
-    private String getCellValueAsString(Cell cell) {
+    private String getCellText(Cell cell) {
         if (cell == null) return null;
-        
-        return switch (cell.getCellType()) {
-            case STRING -> cell.getStringCellValue();
-            case NUMERIC -> String.valueOf((long) cell.getNumericCellValue());
-            case BOOLEAN -> String.valueOf(cell.getBooleanCellValue());
-            case FORMULA -> cell.getCellFormula();
-            default -> null;
-        };
+        String text = HOLIDAY_CELL_FORMATTER.formatCellValue(cell).trim();
+        return text.isEmpty() ? null : text;
+    }
+    
+    private String defaultIfBlank(String value, String defaultValue) {
+        return value != null ? value : defaultValue;
     }
     
     /**
@@ -386,14 +364,29 @@ public class ExcelImportExportServiceImpl implements ExcelImportExportService {
      * 解析项目状态
      */
     private ProjectStatus parseProjectStatus(String status) {
-        if (status == null || status.trim().isEmpty()) {
-            return ProjectStatus.ACTIVE;
+        return ProjectImportWriter.parseProjectStatus(status);
+    }
+    
+    /**
+     * 取异常链最内层的消息（JDBC 批量异常的外层消息通常只有 SQL 语句）
+     */
+    private String rootMessage(Throwable e) {
+        Throwable cause = e;
+        while (cause.getCause() != null && cause.getCause() != cause) {
+            cause = cause.getCause();
         }
-        
+        return cause.getMessage();
+    }
+    
+    /**
+     * 删除临时文件
+     */
+    private void deleteQuietly(Path path) {
+        if (path == null) return;
         try {
-            return ProjectStatus.valueOf(status.toUpperCase());
-        } catch (IllegalArgumentException e) {
-            return ProjectStatus.ACTIVE;
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Failed to delete temp file {}", path, e);
         }
     }
     
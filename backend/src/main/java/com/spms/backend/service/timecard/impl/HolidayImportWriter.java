@@ -0,0 +1,88 @@
+package com.spms.backend.service.timecard.impl;
+
+import com.spms.backend.config.ExcelImportProperties;
+import com.spms.backend.repository.entities.timecard.HolidayEntity;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Date;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.List;
+
+/**
+ * 节假日导入的批量写入器
+ * spms_holiday 使用自增主键，Hibernate 无法对其批量插入，因此直接使用 JDBC 批量语句。
+ * PostgreSQL 上可附加 ON CONFLICT DO NOTHING：只有唯一索引存在时才会跳过冲突的记录，
+ * 因此调用方仍需先排除已存在的记录。
+ */
+@Slf4j
+@Component
+public class HolidayImportWriter {
+
+    private static final String INSERT_HOLIDAY =
+            "INSERT INTO spms_holiday (holiday_date, country, name, type, is_active, " +
+            "created_at, updated_at, created_by, updated_by) VALUES (?, ?, ?, ?, TRUE, ?, ?, ?, ?)";
+
+    private static final String ON_CONFLICT_DO_NOTHING = " ON CONFLICT DO NOTHING";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ExcelImportProperties properties;
+    private volatile Boolean postgres;
+
+    public HolidayImportWriter(JdbcTemplate jdbcTemplate, ExcelImportProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.properties = properties;
+    }
+
+    /**
+     * 当前数据库是否支持 ON CONFLICT DO NOTHING
+     */
+    public boolean supportsUpsert() {
+        if (postgres == null) {
+            String product = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                    connection.getMetaData().getDatabaseProductName());
+            postgres = "PostgreSQL".equalsIgnoreCase(product);
+        }
+        return postgres;
+    }
+
+    /**
+     * 批量插入节假日
+     *
+     * @param holidays     待插入的节假日
+     * @param ignoreExists 为 true 时使用 ON CONFLICT DO NOTHING，与唯一索引冲突的记录被跳过
+     * @return 实际插入的行数
+     */
+    public int insert(List<HolidayEntity> holidays, boolean ignoreExists) {
+        if (holidays.isEmpty()) {
+            return 0;
+        }
+        String sql = ignoreExists ? INSERT_HOLIDAY + ON_CONFLICT_DO_NOTHING : INSERT_HOLIDAY;
+        int[][] counts = jdbcTemplate.batchUpdate(sql, holidays, properties.getBatchSize(), (ps, holiday) -> {
+            ps.setDate(1, Date.valueOf(holiday.getHolidayDate()));
+            ps.setString(2, holiday.getCountry());
+            ps.setString(3, holiday.getName());
+            ps.setString(4, holiday.getType());
+            ps.setLong(5, holiday.getCreatedAt());
+            ps.setLong(6, holiday.getUpdatedAt());
+            // 没有当前用户时为 null
+            ps.setObject(7, holiday.getCreatedBy(), Types.BIGINT);
+            ps.setObject(8, holiday.getUpdatedBy(), Types.BIGINT);
+        });
+
+        int inserted = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                // 驱动未返回行数时按插入成功计
+                if (count > 0 || count == Statement.SUCCESS_NO_INFO) {
+                    inserted++;
+                }
+            }
+        }
+        log.debug("Inserted {} of {} holidays in {} batches", inserted, holidays.size(), counts.length);
+        return inserted;
+    }
+}
@@ -5,6 +5,7 @@ import com.spms.backend.repository.entities.timecard.HolidayEntity;
 import com.spms.backend.repository.timecard.HolidayRepository;
 import com.spms.backend.service.idm.UserService;
 import com.spms.backend.service.timecard.HolidayService;
+import com.spms.backend.service.timecard.WorkingCalendar;
 import jakarta.persistence.EntityNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -23,11 +24,14 @@ public class HolidayServiceImpl implements HolidayService {
     
     private final HolidayRepository holidayRepository;
     private final UserService userService;
+    private final WorkingCalendar workingCalendar;
     
     @Autowired
-    public HolidayServiceImpl(HolidayRepository holidayRepository, UserService userService) {
+    public HolidayServiceImpl(HolidayRepository holidayRepository, UserService userService,
+                              WorkingCalendar workingCalendar) {
         this.holidayRepository = holidayRepository;
         this.userService = userService;
+        this.workingCalendar = workingCalendar;
     }
     
     /**
@@ -110,6 +114,7 @@ public class HolidayServiceImpl implements HolidayService {
         
         // 保存
         HolidayEntity saved = holidayRepository.save(entity);
+        workingCalendar.refreshAfterCommit();
         
         // 转换为DTO并返回
         return convertToDTO(saved);
@@ -167,6 +172,7 @@ public class HolidayServiceImpl implements HolidayService {
         
         // 保存
         HolidayEntity saved = holidayRepository.save(entity);
+        workingCalendar.refreshAfterCommit();
         
         // 转换为DTO并返回
         return convertToDTO(saved);
@@ -187,6 +193,7 @@ public class HolidayServiceImpl implements HolidayService {
         
         // 硬删除：直接删除记录
         holidayRepository.delete(entity);
+        workingCalendar.refreshAfterCommit();
     }
     
     /**
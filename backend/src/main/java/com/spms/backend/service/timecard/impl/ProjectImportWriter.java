@@ -0,0 +1,240 @@
+package com.spms.backend.service.timecard.impl;
+
+import com.spms.backend.config.ExcelImportProperties;
+import com.spms.backend.model.ProjectStatus;
+import com.spms.backend.repository.project.ProjectRepository;
+import com.spms.backend.repository.project.TaskRepository;
+import com.spms.backend.service.timecard.impl.ProjectSheetReader.ProjectImportRow;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 项目导入的批量写入器
+ * 已有项目代码和任务编号在导入开始时一次性加载到内存，之后每个分块只需要一次事务：
+ * 新项目、新任务和任务更新分别以 JDBC 批量语句写入。
+ */
+@Component
+public class ProjectImportWriter {
+
+    private static final String INSERT_PROJECT =
+            "INSERT INTO spms_project (project_code, project_name, status, is_active, " +
+            "created_at, updated_at, created_by, updated_by) VALUES (?, ?, ?, TRUE, ?, ?, ?, ?)";
+
+    private static final String INSERT_TASK =
+            "INSERT INTO spms_task (task_number, task_name, activity, project_id, is_active, " +
+            "created_at, updated_at, created_by, updated_by) VALUES (?, ?, ?, ?, TRUE, ?, ?, ?, ?)";
+
+    private static final String UPDATE_TASK =
+            "UPDATE spms_task SET task_name = COALESCE(?, task_name), activity = COALESCE(?, activity), " +
+            "updated_at = ?, updated_by = ? WHERE id = ?";
+
+    /**
+     * 一次导入过程中已知的项目代码和任务编号
+     * 只在分块提交成功后合并新写入的键，回滚的分块不会留下脏数据
+     */
+    public static final class ImportState {
+        private final Map<String, Long> projectIds;
+        private final Map<String, Long> taskIds;
+        private final Long userId;
+        private final long timestamp;
+
+        ImportState(Map<String, Long> projectIds, Map<String, Long> taskIds, Long userId, long timestamp) {
+            this.projectIds = projectIds;
+            this.taskIds = taskIds;
+            this.userId = userId;
+            this.timestamp = timestamp;
+        }
+
+        public void merge(WrittenKeys written) {
+            projectIds.putAll(written.projectIds());
+            taskIds.putAll(written.taskIds());
+        }
+
+        public boolean hasProject(String projectCode) {
+            return projectIds.containsKey(projectCode);
+        }
+
+        public boolean hasTask(String taskNumber) {
+            return taskIds.containsKey(taskNumber);
+        }
+    }
+
+    /**
+     * 一个分块中新插入的项目和任务
+     *
+     * @param projectIds 新项目代码到ID
+     * @param taskIds    新任务编号到ID
+     */
+    public record WrittenKeys(Map<String, Long> projectIds, Map<String, Long> taskIds) {
+    }
+
+    /**
+     * 待插入的任务，同一分块中重复出现的任务编号合并为一次插入
+     */
+    private static final class PendingTask {
+        private final String taskNumber;
+        private final String projectCode;
+        private String taskName;
+        private String activity;
+
+        private PendingTask(ProjectImportRow row) {
+            this.taskNumber = row.taskNumber();
+            this.projectCode = row.projectCode();
+            this.taskName = row.taskName() != null ? row.taskName() : row.taskNumber();
+            this.activity = row.activity();
+        }
+
+        private void apply(ProjectImportRow row) {
+            if (row.taskName() != null) taskName = row.taskName();
+            if (row.activity() != null) activity = row.activity();
+        }
+    }
+
+    private final ProjectRepository projectRepository;
+    private final TaskRepository taskRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ExcelImportProperties properties;
+
+    public ProjectImportWriter(ProjectRepository projectRepository,
+                               TaskRepository taskRepository,
+                               JdbcTemplate jdbcTemplate,
+                               PlatformTransactionManager transactionManager,
+                               ExcelImportProperties properties) {
+        this.projectRepository = projectRepository;
+        this.taskRepository = taskRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = properties;
+    }
+
+    /**
+     * 加载已有项目代码和任务编号
+     *
+     * @param userId 导入人ID，写入审计字段
+     * @return 导入状态
+     */
+    public ImportState start(Long userId) {
+        Map<String, Long> projectIds = new HashMap<>();
+        projectRepository.findAllCodeIds().forEach(p -> projectIds.put(p.getCode(), p.getId()));
+        Map<String, Long> taskIds = new HashMap<>();
+        taskRepository.findAllNumberIds().forEach(t -> taskIds.put(t.getNumber(), t.getId()));
+        return new ImportState(projectIds, taskIds, userId, System.currentTimeMillis());
+    }
+
+    /**
+     * 在一个事务中写入一个分块；任何一行失败都会回滚整个分块
+     *
+     * @param state 导入状态
+     * @param rows  已校验的行
+     * @return 新插入的项目和任务
+     */
+    public WrittenKeys write(ImportState state, List<ProjectImportRow> rows) {
+        return transactionTemplate.execute(status -> {
+            Map<String, Long> newProjects = insertProjects(state, rows);
+            Map<String, Long> newTasks = writeTasks(state, rows, newProjects);
+            return new WrittenKeys(newProjects, newTasks);
+        });
+    }
+
+    private Map<String, Long> insertProjects(ImportState state, List<ProjectImportRow> rows) {
+        // 同一项目代码以第一次出现的行为准
+        Map<String, ProjectImportRow> inserts = new LinkedHashMap<>();
+        for (ProjectImportRow row : rows) {
+            if (!state.hasProject(row.projectCode())) {
+                inserts.putIfAbsent(row.projectCode(), row);
+            }
+        }
+        if (inserts.isEmpty()) {
+            return Map.of();
+        }
+
+        jdbcTemplate.batchUpdate(INSERT_PROJECT, new ArrayList<>(inserts.values()), properties.getBatchSize(),
+                (ps, row) -> {
+                    ps.setString(1, row.projectCode());
+                    ps.setString(2, row.projectName() != null ? row.projectName() : row.projectCode());
+                    ps.setString(3, parseProjectStatus(row.status()).name());
+                    ps.setLong(4, state.timestamp);
+                    ps.setLong(5, state.timestamp);
+                    ps.setLong(6, state.userId);
+                    ps.setLong(7, state.userId);
+                });
+
+        Map<String, Long> ids = new HashMap<>();
+        projectRepository.findCodeIdsByProjectCodeIn(inserts.keySet()).forEach(p -> ids.put(p.getCode(), p.getId()));
+        return ids;
+    }
+
+    private Map<String, Long> writeTasks(ImportState state, List<ProjectImportRow> rows, Map<String, Long> newProjects) {
+        Map<String, PendingTask> inserts = new LinkedHashMap<>();
+        List<ProjectImportRow> updates = new ArrayList<>();
+        for (ProjectImportRow row : rows) {
+            if (!row.hasTask()) {
+                continue;
+            }
+            if (state.hasTask(row.taskNumber())) {
+                updates.add(row);
+            } else if (inserts.containsKey(row.taskNumber())) {
+                inserts.get(row.taskNumber()).apply(row);
+            } else {
+                inserts.put(row.taskNumber(), new PendingTask(row));
+            }
+        }
+
+        if (!inserts.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_TASK, new ArrayList<>(inserts.values()), properties.getBatchSize(),
+                    (ps, task) -> {
+                        Long projectId = state.projectIds.getOrDefault(task.projectCode, newProjects.get(task.projectCode));
+                        ps.setString(1, task.taskNumber);
+                        ps.setString(2, task.taskName);
+                        ps.setString(3, task.activity);
+                        ps.setLong(4, projectId);
+                        ps.setLong(5, state.timestamp);
+                        ps.setLong(6, state.timestamp);
+                        ps.setLong(7, state.userId);
+                        ps.setLong(8, state.userId);
+                    });
+        }
+
+        if (!updates.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPDATE_TASK, updates, properties.getBatchSize(),
+                    (ps, row) -> {
+                        ps.setString(1, row.taskName());
+                        ps.setString(2, row.activity());
+                        ps.setLong(3, state.timestamp);
+                        ps.setLong(4, state.userId);
+                        ps.setLong(5, state.taskIds.get(row.taskNumber()));
+                    });
+        }
+
+        if (inserts.isEmpty()) {
+            return Map.of();
+        }
+        Map<String, Long> ids = new HashMap<>();
+        taskRepository.findNumberIdsByTaskNumberIn(inserts.keySet()).forEach(t -> ids.put(t.getNumber(), t.getId()));
+        return ids;
+    }
+
+    /**
+     * 解析项目状态
+     */
+    static ProjectStatus parseProjectStatus(String status) {
+        if (status == null || status.trim().isEmpty()) {
+            return ProjectStatus.ACTIVE;
+        }
+
+        try {
+            return ProjectStatus.valueOf(status.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return ProjectStatus.ACTIVE;
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.spms.backend.service.timecard.impl;
+
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.usermodel.XSSFComment;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.function.Consumer;
+
+/**
+ * 项目导入表格的流式读取器
+ * 基于 POI 事件模型（SAX）逐行读取第一个工作表，内存占用与文件行数无关
+ * Excel 格式：projectCode | projectName | taskNumber | taskName | activity | status
+ */
+public final class ProjectSheetReader {
+
+    private static final int COLUMNS = 6;
+
+    /**
+     * 项目导入表格中的一行
+     *
+     * @param rowNumber   行号（从 1 开始，与 Excel 显示一致）
+     * @param projectCode 项目代码
+     * @param projectName 项目名称
+     * @param taskNumber  任务编号
+     * @param taskName    任务名称
+     * @param activity    任务活动
+     * @param status      项目状态
+     */
+    public record ProjectImportRow(int rowNumber, String projectCode, String projectName, String taskNumber,
+                                   String taskName, String activity, String status) {
+
+        public boolean hasTask() {
+            return taskNumber != null && !taskNumber.trim().isEmpty();
+        }
+    }
+
+    private ProjectSheetReader() {
+    }
+
+    /**
+     * 读取第一个工作表，跳过标题行，每读完一行回调一次
+     *
+     * @param file     xlsx 文件
+     * @param consumer 行回调
+     * @throws IOException 文件无法读取或格式不正确
+     */
+    public static void read(Path file, Consumer<ProjectImportRow> consumer) throws IOException {
+        try (OPCPackage pkg = OPCPackage.open(file.toFile(), PackageAccess.READ)) {
+            XSSFReader reader = new XSSFReader(pkg);
+            ReadOnlySharedStringsTable strings = new ReadOnlySharedStringsTable(pkg);
+            Iterator<InputStream> sheets = reader.getSheetsData();
+            if (!sheets.hasNext()) {
+                return;
+            }
+            try (InputStream sheet = sheets.next()) {
+                XMLReader parser = XMLHelper.newXMLReader();
+                parser.setContentHandler(new XSSFSheetXMLHandler(
+                        reader.getStylesTable(), strings, new RowHandler(consumer), new DataFormatter(), false));
+                parser.parse(new InputSource(sheet));
+            }
+        } catch (OpenXML4JException | SAXException | ParserConfigurationException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 收集一行的单元格值，行结束时回调
+     */
+    private static final class RowHandler implements XSSFSheetXMLHandler.SheetContentsHandler {
+
+        private final Consumer<ProjectImportRow> consumer;
+        private final String[] values = new String[COLUMNS];
+        private int nextColumn;
+
+        private RowHandler(Consumer<ProjectImportRow> consumer) {
+            this.consumer = consumer;
+        }
+
+        @Override
+        public void startRow(int rowNum) {
+            Arrays.fill(values, null);
+            nextColumn = 0;
+        }
+
+        @Override
+        public void endRow(int rowNum) {
+            // 跳过标题行
+            if (rowNum == 0) {
+                return;
+            }
+            consumer.accept(new ProjectImportRow(rowNum + 1,
+                    values[0], values[1], values[2], values[3], values[4], values[5]));
+        }
+
+        @Override
+        public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+            int column = cellReference != null ? new CellReference(cellReference).getCol() : nextColumn;
+            nextColumn = column + 1;
+            if (column < COLUMNS) {
+                values[column] = formattedValue;
+            }
+        }
+    }
+}
@@ -5,6 +5,7 @@ import com.spms.backend.controller.dto.project.ProjectDTO;
 import com.spms.backend.controller.dto.project.TaskCreateDTO;
 import com.spms.backend.controller.dto.project.TaskDTO;
 import com.spms.backend.controller.dto.timecard.ProjectTaskDTO;
+import com.spms.backend.controller.dto.timecard.ProjectTaskPageDTO;
 import com.spms.backend.controller.dto.timecard.ProjectTaskCreateDTO;
 import com.spms.backend.controller.dto.timecard.ProjectTaskUpdateDTO;
 import com.spms.backend.model.ProjectStatus;
@@ -14,6 +15,7 @@ import com.spms.backend.repository.project.ProjectRepository;
 import com.spms.backend.repository.project.TaskRepository;
 import com.spms.backend.service.project.ProjectService;
 import com.spms.backend.service.project.TaskService;
+import com.spms.backend.service.timecard.ProjectCatalog;
 import com.spms.backend.service.timecard.ProjectTaskActivityService;
 import jakarta.persistence.EntityNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -22,7 +24,6 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 /**
  * 项目-任务-活动服务实现类
@@ -35,17 +36,23 @@ public class ProjectTaskActivityServiceImpl implements ProjectTaskActivityServic
     private final TaskService taskService;
     private final ProjectRepository projectRepository;
     private final TaskRepository taskRepository;
+    private final ProjectTaskListing projectTaskListing;
+    private final ProjectCatalog projectCatalog;
     
     @Autowired
     public ProjectTaskActivityServiceImpl(
             ProjectService projectService,
             TaskService taskService,
             ProjectRepository projectRepository,
-            TaskRepository taskRepository) {
+            TaskRepository taskRepository,
+            ProjectTaskListing projectTaskListing,
+            ProjectCatalog projectCatalog) {
         this.projectService = projectService;
         this.taskService = taskService;
         this.projectRepository = projectRepository;
         this.taskRepository = taskRepository;
+        this.projectTaskListing = projectTaskListing;
+        this.projectCatalog = projectCatalog;
     }
     
     /**
@@ -54,55 +61,16 @@ public class ProjectTaskActivityServiceImpl implements ProjectTaskActivityServic
     @Override
     @Transactional(readOnly = true)
     public List<ProjectTaskDTO> getProjectTasks(String search, String status) {
-        // 获取所有激活的项目
-        List<ProjectEntity> projects = projectRepository.findAll();
-        
-        // 应用状态筛选
-        if (status != null && !status.equals("ALL")) {
-            ProjectStatus projectStatus = ProjectStatus.valueOf(status);
-            projects = projects.stream()
-                    .filter(p -> p.getStatus() == projectStatus && p.getIsActive())
-                    .collect(Collectors.toList());
-        } else {
-            projects = projects.stream()
-                    .filter(ProjectEntity::getIsActive)
-                    .collect(Collectors.toList());
-        }
-        
-        // 应用搜索筛选
-        if (search != null && !search.trim().isEmpty()) {
-            String searchLower = search.trim().toLowerCase();
-            projects = projects.stream()
-                    .filter(p -> 
-                        p.getProjectCode().toLowerCase().contains(searchLower) ||
-                        p.getProjectName().toLowerCase().contains(searchLower))
-                    .collect(Collectors.toList());
-        }
-        
-        // 转换为扁平化的ProjectTaskDTO列表
-        return projects.stream()
-                .flatMap(project -> {
-                    // 获取项目的所有激活任务
-                    List<TaskEntity> tasks = taskRepository.findByProjectIdAndIsActiveTrue(project.getId());
-                    
-                    if (tasks.isEmpty()) {
-                        // 如果没有任务，返回只有项目的DTO
-                        return java.util.stream.Stream.of(createProjectTaskDTO(project, null));
-                    } else {
-                        // 如果有任务，为每个任务创建一个DTO
-                        // 如果搜索关键字包含任务编号，进行过滤
-                        if (search != null && !search.trim().isEmpty()) {
-                            String searchLower = search.trim().toLowerCase();
-                            tasks = tasks.stream()
-                                    .filter(t -> t.getTaskNumber().toLowerCase().contains(searchLower))
-                                    .collect(Collectors.toList());
-                        }
-                        
-                        return tasks.stream()
-                                .map(task -> createProjectTaskDTO(project, task));
-                    }
-                })
-                .collect(Collectors.toList());
+        return projectTaskListing.list(parseStatusFilter(status), search);
+    }
+    
+    /**
+     * 分页获取项目-任务-活动列表（keyset 分页）
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public ProjectTaskPageDTO getProjectTasks(String search, String status, String after, int limit) {
+        return projectTaskListing.page(parseStatusFilter(status), search, after, limit);
     }
     
     /**
@@ -176,6 +144,8 @@ public class ProjectTaskActivityServiceImpl implements ProjectTaskActivityServic
             taskRepository.save(task);
         }
         
+        projectCatalog.invalidateAfterCommit(project.getId());
+        
         // 3. 返回DTO
         return createProjectTaskDTO(project, task);
     }
@@ -230,6 +200,7 @@ public class ProjectTaskActivityServiceImpl implements ProjectTaskActivityServic
             task.setActivity(updateDTO.getActivity().trim());
         }
         taskRepository.save(task);
+        projectCatalog.invalidateAfterCommit(projectId);
         
         // 返回更新后的DTO
         return createProjectTaskDTO(project, task);
@@ -264,6 +235,25 @@ public class ProjectTaskActivityServiceImpl implements ProjectTaskActivityServic
         
         task.setIsActive(false);
         taskRepository.save(task);
+        projectCatalog.invalidateAfterCommit(projectId);
+    }
+    
+    /**
+     * 项目目录当前版本对应的 ETag
+     */
+    @Override
+    public String getCatalogETag() {
+        return projectCatalog.etag();
+    }
+    
+    /**
+     * 解析状态筛选，ALL 或空表示不过滤
+     */
+    private ProjectStatus parseStatusFilter(String status) {
+        if (status == null || status.trim().isEmpty() || status.equals("ALL")) {
+            return null;
+        }
+        return ProjectStatus.valueOf(status);
     }
     
     /**
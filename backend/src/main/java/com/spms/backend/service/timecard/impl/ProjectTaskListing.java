@@ -0,0 +1,122 @@
+package com.spms.backend.service.timecard.impl;
+
+import com.spms.backend.controller.dto.timecard.ProjectTaskDTO;
+import com.spms.backend.controller.dto.timecard.ProjectTaskPageDTO;
+import com.spms.backend.model.ProjectStatus;
+import com.spms.backend.service.timecard.ProjectCatalog;
+import com.spms.backend.service.timecard.ProjectCatalog.CatalogRow;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * 项目-任务扁平化列表查询
+ * Timecard 填报和项目-任务维护页面共用：从 {@link ProjectCatalog} 快照读取行，
+ * 分页使用 keyset 游标而不是 OFFSET。
+ */
+@Component
+public class ProjectTaskListing {
+
+    /**
+     * 单页行数上限
+     */
+    static final int MAX_LIMIT = 500;
+
+    /**
+     * 不分页时一次读取的行数
+     */
+    private static final int UNBOUNDED = Integer.MAX_VALUE - 1;
+
+    private static final char SEPARATOR = '\u001F';
+
+    private final ProjectCatalog projectCatalog;
+
+    public ProjectTaskListing(ProjectCatalog projectCatalog) {
+        this.projectCatalog = projectCatalog;
+    }
+
+    /**
+     * 查询全部匹配行
+     *
+     * @param status 项目状态（可选）
+     * @param search 搜索关键字（可选，按词前缀匹配项目代码、项目名称、任务编号）
+     * @return 项目任务列表
+     */
+    public List<ProjectTaskDTO> list(ProjectStatus status, String search) {
+        return query(status, search, null, UNBOUNDED).items();
+    }
+
+    /**
+     * 查询一页
+     *
+     * @param status 项目状态（可选）
+     * @param search 搜索关键字（可选）
+     * @param after  上一页返回的游标（可选）
+     * @param limit  每页行数
+     * @return 当前页及下一页游标
+     */
+    public ProjectTaskPageDTO page(ProjectStatus status, String search, String after, int limit) {
+        return query(status, search, after, Math.max(1, Math.min(limit, MAX_LIMIT)));
+    }
+
+    private ProjectTaskPageDTO query(ProjectStatus status, String search, String after, int limit) {
+        String[] cursor = decodeCursor(after);
+        // 多取一行用于判断是否还有下一页
+        List<CatalogRow> rows = projectCatalog.find(status, search, cursor, limit + 1);
+
+        boolean hasNext = rows.size() > limit;
+        List<CatalogRow> pageRows = hasNext ? rows.subList(0, limit) : rows;
+        List<ProjectTaskDTO> items = new ArrayList<>(pageRows.size());
+        for (CatalogRow row : pageRows) {
+            items.add(toDTO(row));
+        }
+        String nextCursor = hasNext ? encodeCursor(pageRows.get(pageRows.size() - 1)) : null;
+        return new ProjectTaskPageDTO(items, nextCursor);
+    }
+
+    static String encodeCursor(CatalogRow row) {
+        String key = String.join(String.valueOf(SEPARATOR), row.key());
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(key.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static String[] decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        String[] parts;
+        try {
+            String key = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            parts = key.split(String.valueOf(SEPARATOR), -1);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("无效的分页游标: " + cursor, e);
+        }
+        if (parts.length != 3) {
+            throw new IllegalArgumentException("无效的分页游标: " + cursor);
+        }
+        return parts;
+    }
+
+    /**
+     * 创建 ProjectTaskDTO（ID 格式：projectId-taskId，无任务时为 projectId）
+     */
+    private static ProjectTaskDTO toDTO(CatalogRow row) {
+        ProjectCatalog.CatalogProject project = row.project();
+        ProjectTaskDTO dto = new ProjectTaskDTO();
+        if (row.task() != null) {
+            dto.setId(project.id() + "-" + row.task().id());
+            dto.setTaskNumber(row.task().taskNumber());
+            dto.setActivity(row.task().activity() != null ? row.task().activity() : "");
+        } else {
+            dto.setId(String.valueOf(project.id()));
+            dto.setTaskNumber("");
+            dto.setActivity("");
+        }
+        dto.setProjectCode(project.projectCode());
+        dto.setProjectName(project.projectName());
+        dto.setStatus(project.status().name());
+        return dto;
+    }
+}
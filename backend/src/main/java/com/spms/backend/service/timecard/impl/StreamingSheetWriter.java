@@ -0,0 +1,132 @@
+package com.spms.backend.service.timecard.impl;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Font;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+
+/**
+ * 单工作表的流式 Excel 写入器
+ * 基于 SXSSFWorkbook，内存中只保留最近 {@link #ROW_WINDOW} 行，其余行写入压缩的临时文件；
+ * 列宽根据前 {@link #SAMPLE_ROWS} 行估算，不使用需要遍历整列的 autoSizeColumn。
+ */
+public class StreamingSheetWriter implements AutoCloseable {
+
+    /**
+     * 内存中保留的行数
+     */
+    static final int ROW_WINDOW = 100;
+
+    /**
+     * 用于估算列宽的采样行数（含标题行）
+     */
+    static final int SAMPLE_ROWS = 500;
+
+    private static final int MIN_WIDTH_CHARS = 8;
+    private static final int MAX_WIDTH_CHARS = 60;
+
+    private final SXSSFWorkbook workbook;
+    private final SXSSFSheet sheet;
+    private final CellStyle dateStyle;
+    private final int[] sampledWidths;
+    private int rowNum;
+
+    public StreamingSheetWriter(String sheetName, String... headers) {
+        this.workbook = new SXSSFWorkbook(ROW_WINDOW);
+        this.workbook.setCompressTempFiles(true);
+        this.sheet = workbook.createSheet(sheetName);
+        this.sampledWidths = new int[headers.length];
+
+        // 标题样式和日期样式只创建一次
+        CellStyle headerStyle = workbook.createCellStyle();
+        Font font = workbook.createFont();
+        font.setBold(true);
+        headerStyle.setFont(font);
+
+        this.dateStyle = workbook.createCellStyle();
+        dateStyle.setDataFormat(workbook.getCreationHelper().createDataFormat().getFormat("yyyy-mm-dd"));
+
+        Row headerRow = sheet.createRow(rowNum++);
+        for (int i = 0; i < headers.length; i++) {
+            Cell cell = headerRow.createCell(i);
+            cell.setCellValue(headers[i]);
+            cell.setCellStyle(headerStyle);
+            sample(i, headers[i].length());
+        }
+    }
+
+    /**
+     * 追加一行，支持 String、LocalDate、Number 和 null
+     *
+     * @param values 各列的值
+     */
+    public void writeRow(Object... values) {
+        Row row = sheet.createRow(rowNum);
+        boolean sampling = rowNum < SAMPLE_ROWS;
+        for (int i = 0; i < values.length; i++) {
+            Cell cell = row.createCell(i);
+            Object value = values[i];
+            int width;
+            if (value == null) {
+                cell.setCellValue("");
+                width = 0;
+            } else if (value instanceof LocalDate date) {
+                cell.setCellValue(date);
+                cell.setCellStyle(dateStyle);
+                width = 10;
+            } else if (value instanceof Number number) {
+                cell.setCellValue(number.doubleValue());
+                width = value.toString().length();
+            } else {
+                String text = value.toString();
+                cell.setCellValue(text);
+                width = text.length();
+            }
+            if (sampling) {
+                sample(i, width);
+            }
+        }
+        rowNum++;
+    }
+
+    /**
+     * 设置列宽并将工作簿写入输出流
+     *
+     * @param outputStream 输出流（不会被关闭）
+     * @throws IOException 写入失败
+     */
+    public void writeTo(OutputStream outputStream) throws IOException {
+        for (int i = 0; i < sampledWidths.length; i++) {
+            int chars = Math.min(MAX_WIDTH_CHARS, Math.max(MIN_WIDTH_CHARS, sampledWidths[i] + 2));
+            sheet.setColumnWidth(i, chars * 256);
+        }
+        workbook.write(outputStream);
+        outputStream.flush();
+    }
+
+    /**
+     * 已写入的数据行数（不含标题行）
+     */
+    public int getRowCount() {
+        return rowNum - 1;
+    }
+
+    @Override
+    public void close() throws IOException {
+        // 删除 SXSSF 的临时文件
+        workbook.dispose();
+        workbook.close();
+    }
+
+    private void sample(int column, int width) {
+        if (column < sampledWidths.length && width > sampledWidths[column]) {
+            sampledWidths[column] = width;
+        }
+    }
+}
@@ -1,37 +1,36 @@
 package com.spms.backend.service.timecard.impl;
 
 import com.spms.backend.controller.dto.timecard.*;
-import com.spms.backend.repository.entities.project.ProjectEntity;
-import com.spms.backend.repository.entities.project.TaskEntity;
-import com.spms.backend.repository.project.ProjectRepository;
-import com.spms.backend.repository.project.TaskRepository;
+import com.spms.backend.model.ProjectStatus;
+import com.spms.backend.service.timecard.ProjectCatalog;
+import com.spms.backend.service.timecard.ProjectCatalog.CatalogProject;
 import com.spms.backend.service.timecard.TimecardService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 /**
  * Timecard 服务实现类
  * 提供员工信息、项目查询、项目验证等核心功能
+ * 项目和任务从内存中的 {@link ProjectCatalog} 读取
  */
 @Service
 @Transactional(readOnly = true)
 public class TimecardServiceImpl implements TimecardService {
     
-    private final ProjectRepository projectRepository;
-    private final TaskRepository taskRepository;
+    private final ProjectCatalog projectCatalog;
+    private final ProjectTaskListing projectTaskListing;
     
     @Autowired
     public TimecardServiceImpl(
-            ProjectRepository projectRepository,
-            TaskRepository taskRepository) {
-        this.projectRepository = projectRepository;
-        this.taskRepository = taskRepository;
+            ProjectCatalog projectCatalog,
+            ProjectTaskListing projectTaskListing) {
+        this.projectCatalog = projectCatalog;
+        this.projectTaskListing = projectTaskListing;
     }
     
     /**
@@ -42,36 +41,20 @@ public class TimecardServiceImpl implements TimecardService {
      */
     @Override
     public List<ProjectTaskDTO> getActiveProjects(String search) {
-        List<ProjectEntity> projects;
-        
-        // 根据搜索条件查询活跃项目
-        if (search != null && !search.trim().isEmpty()) {
-            projects = projectRepository.searchActiveProjects(search.trim());
-        } else {
-            projects = projectRepository.findAllActiveProjects();
-        }
-        
-        // 构建扁平化的项目-任务列表
-        List<ProjectTaskDTO> result = new ArrayList<>();
-        
-        for (ProjectEntity project : projects) {
-            // 查询该项目的所有活跃任务
-            List<TaskEntity> tasks = taskRepository.findActiveTasksByProjectId(project.getId());
-            
-            if (tasks.isEmpty()) {
-                // 如果项目没有任务，仍然返回项目信息（任务信息为空）
-                ProjectTaskDTO dto = createProjectTaskDTO(project, null);
-                result.add(dto);
-            } else {
-                // 为每个任务创建一条记录
-                for (TaskEntity task : tasks) {
-                    ProjectTaskDTO dto = createProjectTaskDTO(project, task);
-                    result.add(dto);
-                }
-            }
-        }
-        
-        return result;
+        return projectTaskListing.list(ProjectStatus.ACTIVE, search);
+    }
+    
+    /**
+     * 分页获取活跃项目列表（keyset 分页）
+     * 
+     * @param search 搜索关键词（可选）
+     * @param after 上一页返回的游标（可选）
+     * @param limit 每页行数
+     * @return 当前页及下一页游标
+     */
+    @Override
+    public ProjectTaskPageDTO getActiveProjects(String search, String after, int limit) {
+        return projectTaskListing.page(ProjectStatus.ACTIVE, search, after, limit);
     }
     
     /**
@@ -86,7 +69,8 @@ public class TimecardServiceImpl implements TimecardService {
         validation.setProjectCode(projectCode);
         
         // 查询活跃项目
-        Optional<ProjectEntity> projectOpt = projectRepository.findActiveProjectByCode(projectCode);
+        Optional<CatalogProject> projectOpt = projectCatalog.findByCode(projectCode)
+                .filter(project -> project.status() == ProjectStatus.ACTIVE);
         
         if (projectOpt.isEmpty()) {
             validation.setValid(false);
@@ -94,56 +78,35 @@ public class TimecardServiceImpl implements TimecardService {
             return validation;
         }
         
-        ProjectEntity project = projectOpt.get();
+        CatalogProject project = projectOpt.get();
         validation.setValid(true);
-        validation.setProjectName(project.getProjectName());
-        
-        // 查询该项目的所有活跃任务
-        List<TaskEntity> tasks = taskRepository.findActiveTasksByProjectId(project.getId());
+        validation.setProjectName(project.projectName());
         
-        List<ProjectValidationDTO.TaskInfoDTO> taskInfos = tasks.stream()
+        // 该项目的所有活跃任务，按任务名称排序
+        List<ProjectValidationDTO.TaskInfoDTO> taskInfos = project.tasks().stream()
+                .sorted(Comparator.comparing(ProjectCatalog.CatalogTask::taskName,
+                        Comparator.nullsFirst(Comparator.naturalOrder())))
                 .map(task -> {
                     ProjectValidationDTO.TaskInfoDTO taskInfo = new ProjectValidationDTO.TaskInfoDTO();
-                    taskInfo.setTaskNumber(task.getTaskNumber());
-                    taskInfo.setTaskName(task.getTaskName());
-                    taskInfo.setActivity(task.getActivity());
+                    taskInfo.setTaskNumber(task.taskNumber());
+                    taskInfo.setTaskName(task.taskName());
+                    taskInfo.setActivity(task.activity());
                     return taskInfo;
                 })
-                .collect(Collectors.toList());
+                .toList();
         
         validation.setTasks(taskInfos);
         
         return validation;
     }
     
-    // ==================== 私有辅助方法 ====================
-    
     /**
-     * 创建 ProjectTaskDTO
+     * 项目目录当前版本对应的 ETag
      * 
-     * @param project 项目实体
-     * @param task 任务实体（可以为 null）
-     * @return ProjectTaskDTO
+     * @return ETag（含引号）
      */
-    private ProjectTaskDTO createProjectTaskDTO(ProjectEntity project, TaskEntity task) {
-        ProjectTaskDTO dto = new ProjectTaskDTO();
-        
-        // 设置 ID（格式：projectId-taskId）
-        if (task != null) {
-            dto.setId(project.getId() + "-" + task.getId());
-            dto.setTaskNumber(task.getTaskNumber());
-            dto.setActivity(task.getActivity());
-        } else {
-            dto.setId(String.valueOf(project.getId()));
-            dto.setTaskNumber("");
-            dto.setActivity("");
-        }
-        
-        dto.setProjectCode(project.getProjectCode());
-        dto.setProjectName(project.getProjectName());
-        dto.setStatus(project.getStatus().name());
-        
-        return dto;
+    @Override
+    public String getCatalogETag() {
+        return projectCatalog.etag();
     }
 }
-
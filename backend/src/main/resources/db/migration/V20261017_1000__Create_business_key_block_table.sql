@@ -0,0 +1,11 @@
+-- V20261017_1000__Create_business_key_block_table.sql
+-- High-water mark per business key prefix used by the block (hi/lo) key allocator
+
+CREATE TABLE spms_business_key_block (
+    id BIGSERIAL PRIMARY KEY,
+    prefix VARCHAR(255) NOT NULL,
+    next_seq BIGINT NOT NULL,
+    wasted_seq BIGINT NOT NULL DEFAULT 0,
+    updated_at BIGINT,
+    CONSTRAINT spms_uq_key_block_prefix UNIQUE (prefix)
+);
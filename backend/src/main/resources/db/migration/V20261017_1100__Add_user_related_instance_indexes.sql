@@ -0,0 +1,7 @@
+-- V20261017_1100__Add_user_related_instance_indexes.sql
+-- Indexes backing the paginated "instances related to a user" query
+-- (initiator variable OR task assignee, newest first)
+
+CREATE INDEX IF NOT EXISTS spms_idx_ru_var_name_text ON ACT_RU_VARIABLE (NAME_, TEXT_, EXECUTION_ID_);
+CREATE INDEX IF NOT EXISTS spms_idx_ru_task_assignee ON ACT_RU_TASK (ASSIGNEE_, PROC_INST_ID_);
+CREATE INDEX IF NOT EXISTS spms_idx_ru_exec_start_time ON ACT_RU_EXECUTION (START_TIME_ DESC, ID_ DESC) WHERE PARENT_ID_ IS NULL;
@@ -0,0 +1,56 @@
+-- V20261017_1300__Create_system_statistic_rollup_table.sql
+-- 5-minute, hourly and daily rollups of system statistics; spms_system_statistics keeps only recent raw samples
+
+CREATE TABLE IF NOT EXISTS spms_system_statistic_rollup (
+    id BIGSERIAL PRIMARY KEY,
+    name VARCHAR(255) NOT NULL,
+    description VARCHAR(255),
+    resolution VARCHAR(32) NOT NULL,
+    bucket_start TIMESTAMP NOT NULL,
+    sample_count BIGINT NOT NULL,
+    min_value BIGINT NOT NULL,
+    max_value BIGINT NOT NULL,
+    sum_value BIGINT NOT NULL,
+    last_value BIGINT NOT NULL,
+    last_as_of_date TIMESTAMP NOT NULL,
+    CONSTRAINT spms_uq_statistic_rollup UNIQUE (name, resolution, bucket_start)
+);
+
+CREATE INDEX IF NOT EXISTS spms_idx_statistic_rollup_range
+    ON spms_system_statistic_rollup (resolution, bucket_start);
+
+-- Latest value and per-statistic range reads on the raw samples
+CREATE INDEX IF NOT EXISTS spms_idx_system_statistics_name_date
+    ON spms_system_statistics (name, as_of_date);
+
+-- Retention deletes by age
+CREATE INDEX IF NOT EXISTS spms_idx_system_statistics_date
+    ON spms_system_statistics (as_of_date);
+
+-- Backfill the rollups from the samples collected so far; the retention job trims the raw table afterwards
+INSERT INTO spms_system_statistic_rollup
+    (name, description, resolution, bucket_start, sample_count, min_value, max_value, sum_value, last_value, last_as_of_date)
+SELECT b.name,
+       MAX(b.description),
+       b.resolution,
+       b.bucket_start,
+       COUNT(*),
+       MIN(b.value),
+       MAX(b.value),
+       SUM(b.value),
+       (ARRAY_AGG(b.value ORDER BY b.as_of_date DESC))[1],
+       MAX(b.as_of_date)
+FROM (
+    SELECT s.name, s.description, s.value, s.as_of_date, r.resolution,
+           CASE r.resolution
+               WHEN 'FIVE_MINUTES' THEN date_trunc('hour', s.as_of_date)
+                   + FLOOR(EXTRACT(MINUTE FROM s.as_of_date) / 5) * INTERVAL '5 minutes'
+               WHEN 'HOURLY' THEN date_trunc('hour', s.as_of_date)
+               ELSE date_trunc('day', s.as_of_date)
+           END AS bucket_start
+    FROM spms_system_statistics s
+    CROSS JOIN (VALUES ('FIVE_MINUTES'), ('HOURLY'), ('DAILY')) AS r(resolution)
+    WHERE s.value IS NOT NULL
+) b
+GROUP BY b.name, b.resolution, b.bucket_start
+ON CONFLICT (name, resolution, bucket_start) DO NOTHING;
@@ -0,0 +1,17 @@
+-- V20261017_1400__Create_notification_dead_letter_table.sql
+-- Notifications that exhausted their retries or found their channel queue full
+
+CREATE TABLE IF NOT EXISTS spms_notification_dead_letter (
+    id BIGSERIAL PRIMARY KEY,
+    channel VARCHAR(32) NOT NULL,
+    event_type VARCHAR(255) NOT NULL,
+    recipient VARCHAR(255),
+    locale VARCHAR(32),
+    payload TEXT,
+    attempts INTEGER NOT NULL,
+    last_error VARCHAR(2000),
+    failed_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS spms_idx_notification_dead_letter_failed
+    ON spms_notification_dead_letter (failed_at);
@@ -0,0 +1,27 @@
+-- V20261017_1500__Create_department_closure_table.sql
+-- Ancestor/descendant pairs of the department tree (each department is its own ancestor at depth 0)
+
+CREATE TABLE IF NOT EXISTS spms_department_closure (
+    id BIGSERIAL PRIMARY KEY,
+    ancestor_id BIGINT NOT NULL,
+    descendant_id BIGINT NOT NULL,
+    depth INTEGER NOT NULL,
+    CONSTRAINT spms_uq_department_closure UNIQUE (ancestor_id, descendant_id)
+);
+
+CREATE INDEX IF NOT EXISTS spms_idx_department_closure_descendant
+    ON spms_department_closure (descendant_id);
+
+-- Existing departments; teams and departments below level 1 have a department as parent
+INSERT INTO spms_department_closure (ancestor_id, descendant_id, depth)
+WITH RECURSIVE tree (ancestor_id, descendant_id, depth) AS (
+    SELECT id, id, 0 FROM spms_department
+    UNION ALL
+    SELECT d.parent, t.descendant_id, t.depth + 1
+    FROM tree t
+    JOIN spms_department d ON d.id = t.ancestor_id
+    JOIN spms_department p ON p.id = d.parent
+    WHERE (d.level > 1 OR d.type IN ('TEAM', 'FUNCTIONAL_TEAM')) AND t.depth < 32
+)
+SELECT ancestor_id, descendant_id, depth FROM tree
+ON CONFLICT DO NOTHING;
@@ -0,0 +1,7 @@
+-- V20261017_1600__Add_keyset_pagination_indexes.sql
+-- Indexes backing the cursor-paginated task and history listings
+-- (newest first, ID as tie-breaker, next page starts after the last row seen)
+
+CREATE INDEX IF NOT EXISTS spms_idx_hi_procinst_start_time ON ACT_HI_PROCINST (START_TIME_ DESC, ID_ DESC);
+CREATE INDEX IF NOT EXISTS spms_idx_hi_identitylink_user ON ACT_HI_IDENTITYLINK (USER_ID_, PROC_INST_ID_);
+CREATE INDEX IF NOT EXISTS spms_idx_ru_task_assignee_created ON ACT_RU_TASK (ASSIGNEE_, CREATE_TIME_ DESC, ID_ DESC);
@@ -0,0 +1,53 @@
+-- V20261017_1700__Create_user_work_item_table.sql
+-- "My work" read model: one row per involved user and process instance, and one row per open assigned
+-- task, maintained from engine events.
+-- Existing instances are filled by UserWorkItemRebuildJob, which runs at startup while the table is empty.
+
+CREATE TABLE IF NOT EXISTS spms_user_work_item (
+    id BIGSERIAL PRIMARY KEY,
+    username VARCHAR(255) NOT NULL,
+    process_instance_id VARCHAR(64) NOT NULL,
+    process_definition_id VARCHAR(64),
+    definition_key VARCHAR(255),
+    definition_name VARCHAR(255),
+    deployment_id VARCHAR(64),
+    business_key VARCHAR(255),
+    initiator BOOLEAN NOT NULL DEFAULT FALSE,
+    status VARCHAR(16) NOT NULL,
+    start_time TIMESTAMP,
+    end_time TIMESTAMP,
+    last_updated TIMESTAMP,
+    CONSTRAINT spms_uq_user_work_item UNIQUE (username, process_instance_id)
+);
+
+-- Running instances of a user, newest first
+CREATE INDEX IF NOT EXISTS spms_idx_user_work_item_status
+    ON spms_user_work_item (username, status, start_time);
+
+-- All instances of a user, newest first
+CREATE INDEX IF NOT EXISTS spms_idx_user_work_item_start
+    ON spms_user_work_item (username, start_time);
+
+-- Engine events address rows by instance
+CREATE INDEX IF NOT EXISTS spms_idx_user_work_item_instance
+    ON spms_user_work_item (process_instance_id);
+
+CREATE TABLE IF NOT EXISTS spms_user_work_task (
+    id BIGSERIAL PRIMARY KEY,
+    task_id VARCHAR(64) NOT NULL,
+    username VARCHAR(255) NOT NULL,
+    process_instance_id VARCHAR(64) NOT NULL,
+    task_name VARCHAR(255),
+    task_state VARCHAR(255),
+    suspended BOOLEAN NOT NULL DEFAULT FALSE,
+    create_time TIMESTAMP,
+    last_updated TIMESTAMP,
+    CONSTRAINT spms_uq_user_work_task UNIQUE (task_id)
+);
+
+-- Open tasks of a user, newest first
+CREATE INDEX IF NOT EXISTS spms_idx_user_work_task_user
+    ON spms_user_work_task (username, suspended, create_time);
+
+CREATE INDEX IF NOT EXISTS spms_idx_user_work_task_instance
+    ON spms_user_work_task (process_instance_id);
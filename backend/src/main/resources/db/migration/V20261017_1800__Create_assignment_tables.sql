@@ -0,0 +1,27 @@
+-- V20261017_1800__Create_assignment_tables.sql
+-- State for picking department members in BPMN expressions: shared round-robin positions and
+-- open task counts per user, maintained from engine events.
+-- Existing open tasks are counted by UserTaskLoadRebuildJob, which runs at startup while no task is counted.
+
+CREATE TABLE IF NOT EXISTS spms_assignment_cursor (
+    id BIGSERIAL PRIMARY KEY,
+    scope VARCHAR(128) NOT NULL,
+    position BIGINT NOT NULL,
+    updated_at BIGINT,
+    CONSTRAINT spms_uq_assignment_cursor_scope UNIQUE (scope)
+);
+
+CREATE TABLE IF NOT EXISTS spms_task_assignee (
+    id BIGSERIAL PRIMARY KEY,
+    task_id VARCHAR(64) NOT NULL,
+    username VARCHAR(255) NOT NULL,
+    CONSTRAINT spms_uq_task_assignee_task UNIQUE (task_id)
+);
+
+CREATE TABLE IF NOT EXISTS spms_user_task_load (
+    id BIGSERIAL PRIMARY KEY,
+    username VARCHAR(255) NOT NULL,
+    open_tasks BIGINT NOT NULL,
+    updated_at BIGINT,
+    CONSTRAINT spms_uq_user_task_load_username UNIQUE (username)
+);
@@ -0,0 +1,11 @@
+-- V20261017_1900__Create_cache_version_table.sql
+-- Versions of node-local caches: writers increment a cache's version in the transaction that changes
+-- its data, other nodes compare it with the version they loaded and reload on a difference.
+
+CREATE TABLE IF NOT EXISTS spms_cache_version (
+    id BIGSERIAL PRIMARY KEY,
+    name VARCHAR(64) NOT NULL,
+    version BIGINT NOT NULL,
+    updated_at BIGINT,
+    CONSTRAINT spms_uq_cache_version_name UNIQUE (name)
+);
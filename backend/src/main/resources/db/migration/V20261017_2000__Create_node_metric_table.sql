@@ -0,0 +1,12 @@
+-- V20261017_2000__Create_node_metric_table.sql
+-- Metrics of every node, so statistics collectors running on any one node can report the whole cluster:
+-- counters are added to by their node and taken by collectors, gauges hold the node's latest value.
+
+CREATE TABLE IF NOT EXISTS spms_node_metric (
+    id BIGSERIAL PRIMARY KEY,
+    node VARCHAR(128) NOT NULL,
+    name VARCHAR(64) NOT NULL,
+    value BIGINT NOT NULL,
+    updated_at BIGINT,
+    CONSTRAINT spms_uq_node_metric UNIQUE (node, name)
+);
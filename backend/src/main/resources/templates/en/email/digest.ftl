@@ -0,0 +1,10 @@
+<html>
+<body>
+<p>You have ${count} new notifications:</p>
+<ul>
+<#list notifications as notification>
+    <li>${(notification.subject)!notification.eventType}</li>
+</#list>
+</ul>
+</body>
+</html>
@@ -0,0 +1,10 @@
+<html>
+<body>
+<p>您有 ${count} 条新通知：</p>
+<ul>
+<#list notifications as notification>
+    <li>${(notification.subject)!notification.eventType}</li>
+</#list>
+</ul>
+</body>
+</html>
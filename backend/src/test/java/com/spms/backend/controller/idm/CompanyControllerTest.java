@@ -1,5 +1,6 @@
 package com.spms.backend.controller.idm;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.spms.backend.controller.dto.idm.CompanyDTO;
 import com.spms.backend.controller.dto.idm.CreateCompanyRequestDTO;
 import com.spms.backend.controller.dto.idm.JoinToChildrenRequestDTO;
@@ -17,6 +18,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 
 import java.util.Collections;
@@ -283,36 +285,39 @@ class CompanyControllerTest {
 
 
     @Test
-    void getOrganizationChart_WithValidCompany_ReturnsChart() {
+    void getOrganizationChart_WithValidCompany_ReturnsChart() throws Exception {
         // Given
         OrganizationChartDTO chart = TestDataBuilder.validOrganizationChart();
-        
-        when(organizationService.getOrganizationChart(any(Long.class), any(ChartMode.class)))
-            .thenReturn(chart);
+        byte[] json = new ObjectMapper().writeValueAsBytes(chart);
+
+        when(organizationService.getOrganizationChartJson(any(Long.class), any(ChartMode.class)))
+            .thenReturn(json);
 
         // When
-        ResponseEntity<OrganizationChartDTO> response = 
+        ResponseEntity<byte[]> response =
             companyController.getOrganizationChart(1L, ChartMode.FUNCTIONAL);
 
         // Then
         assertEquals(200, response.getStatusCodeValue());
+        assertEquals(MediaType.APPLICATION_JSON, response.getHeaders().getContentType());
         assertNotNull(response.getBody());
-        assertEquals("Test Org Chart", response.getBody().getName());
-        verify(organizationService).getOrganizationChart(any(Long.class), any());
+        assertEquals("Test Org Chart",
+            new ObjectMapper().readValue(response.getBody(), OrganizationChartDTO.class).getName());
+        verify(organizationService).getOrganizationChartJson(any(Long.class), any());
     }
 
     @Test
     void getOrganizationChart_WithInvalidCompany_ReturnsNotFound() {
         // Given
-        when(organizationService.getOrganizationChart(any(Long.class), any(ChartMode.class)))
+        when(organizationService.getOrganizationChartJson(any(Long.class), any(ChartMode.class)))
             .thenReturn(null);
 
         // When
-        ResponseEntity<OrganizationChartDTO> response = 
+        ResponseEntity<byte[]> response =
             companyController.getOrganizationChart(1L, ChartMode.FUNCTIONAL);
 
         // Then
         assertEquals(200, response.getStatusCodeValue());
-        verify(organizationService).getOrganizationChart(any(Long.class), any());
+        verify(organizationService).getOrganizationChartJson(any(Long.class), any());
     }
 }
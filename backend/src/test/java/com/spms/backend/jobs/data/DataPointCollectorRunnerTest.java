@@ -0,0 +1,204 @@
+package com.spms.backend.jobs.data;
+
+import com.spms.backend.config.StatisticsProperties;
+import com.spms.backend.model.SystemStatisticsModel;
+import com.spms.backend.service.sys.SystemStatisticsService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class DataPointCollectorRunnerTest {
+
+    private final SystemStatisticsService statisticsService = mock(SystemStatisticsService.class);
+    private final List<DataPointCollectorRunner> runners = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        runners.forEach(DataPointCollectorRunner::destroy);
+    }
+
+    private DataPointCollectorRunner runner(Duration timeout, DataPointCollector... collectors) {
+        StatisticsProperties properties = new StatisticsProperties();
+        properties.setCollectorTimeout(timeout);
+        properties.setCollectorThreads(4);
+        DataPointCollectorRunner runner = new DataPointCollectorRunner(List.of(collectors), statisticsService, properties);
+        runners.add(runner);
+        return runner;
+    }
+
+    private static DataPointCollector collector(String key, Supplier<Long> value) {
+        return new DataPointCollector() {
+            @Override
+            public String name() {
+                return "statistics:" + key + ".name";
+            }
+
+            @Override
+            public String description() {
+                return "statistics:" + key + ".description";
+            }
+
+            @Override
+            public Long getValueCurrentValue() {
+                return value.get();
+            }
+        };
+    }
+
+    /**
+     * Returns the value once all collectors sharing the latch have started, so it only succeeds when
+     * they run at the same time.
+     */
+    private static Supplier<Long> together(CountDownLatch started, long value) {
+        return () -> {
+            started.countDown();
+            try {
+                if (!started.await(5, TimeUnit.SECONDS)) {
+                    throw new IllegalStateException("collectors did not run concurrently");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return value;
+        };
+    }
+
+    /**
+     * Blocks until released, ignoring interrupts like a blocked JDBC read.
+     */
+    private static Long blockUntil(CountDownLatch release, long value) {
+        boolean released = false;
+        while (!released) {
+            try {
+                released = release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException ignored) {
+                // keep blocking
+            }
+        }
+        return value;
+    }
+
+    private static Map<String, Long> values(List<SystemStatisticsModel> samples) {
+        return samples.stream().collect(Collectors.toMap(SystemStatisticsModel::getName, SystemStatisticsModel::getValue));
+    }
+
+    @Test
+    void collect_ShouldRunCollectorsConcurrently() {
+        CountDownLatch started = new CountDownLatch(3);
+        DataPointCollectorRunner runner = runner(Duration.ofSeconds(10),
+                collector("a.count", together(started, 1)),
+                collector("b.count", together(started, 2)),
+                collector("c.count", together(started, 3)));
+
+        List<SystemStatisticsModel> samples = runner.collect(new Date());
+
+        assertEquals(6, samples.size());
+        // Values first in collector order, then durations
+        assertEquals("statistics:a.count.name", samples.get(0).getName());
+        assertEquals("statistics:c.count.name", samples.get(2).getName());
+        assertEquals("statistics:collector.duration.a.count", samples.get(3).getName());
+        assertEquals(DataPointCollectorRunner.DURATION_DESCRIPTION, samples.get(3).getDescription());
+        assertTrue(samples.get(3).getValue() >= 0);
+        assertEquals(Map.of("statistics:a.count.name", 1L, "statistics:b.count.name", 2L,
+                        "statistics:c.count.name", 3L),
+                values(samples.subList(0, 3)));
+        verify(statisticsService, never()).getLatestStatisticByName(any());
+    }
+
+    @Test
+    void collect_ShouldUseLastKnownValueWhenCollectorTimesOut() {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger calls = new AtomicInteger();
+        DataPointCollectorRunner runner = runner(Duration.ofMillis(200),
+                collector("fast.count", () -> 5L),
+                collector("slow.count", () -> calls.incrementAndGet() == 1 ? 7L : blockUntil(release, 8)));
+        try {
+            runner.collect(new Date());
+            Map<String, Long> second = values(runner.collect(new Date()));
+            Map<String, Long> third = values(runner.collect(new Date()));
+
+            assertEquals(5L, second.get("statistics:fast.count.name"));
+            assertEquals(7L, second.get("statistics:slow.count.name"));
+            // The run waited for the whole timeout before giving up
+            assertTrue(second.get("statistics:collector.duration.slow.count") >= 200);
+            // Still busy from the second run, so not called again
+            assertEquals(2, calls.get());
+            assertEquals(7L, third.get("statistics:slow.count.name"));
+            assertEquals(5L, third.get("statistics:fast.count.name"));
+            verify(statisticsService, never()).getLatestStatisticByName(any());
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    void collect_ShouldFallBackToStoredValueWhenCollectorFails() {
+        SystemStatisticsModel stored = new SystemStatisticsModel();
+        stored.setName("statistics:broken.count.name");
+        stored.setValue(11L);
+        when(statisticsService.getLatestStatisticByName("statistics:broken.count.name")).thenReturn(stored);
+        DataPointCollectorRunner runner = runner(Duration.ofSeconds(1),
+                collector("broken.count", () -> {
+                    throw new IllegalStateException("database unavailable");
+                }));
+
+        Map<String, Long> samples = values(runner.collect(new Date()));
+
+        assertEquals(11L, samples.get("statistics:broken.count.name"));
+        assertTrue(samples.containsKey("statistics:collector.duration.broken.count"));
+    }
+
+    @Test
+    void collect_ShouldOmitValueWhenNothingIsKnown() {
+        DataPointCollectorRunner runner = runner(Duration.ofSeconds(1),
+                collector("broken.count", () -> {
+                    throw new IllegalStateException("database unavailable");
+                }));
+
+        List<SystemStatisticsModel> samples = runner.collect(new Date());
+
+        assertEquals(1, samples.size());
+        assertEquals("statistics:collector.duration.broken.count", samples.get(0).getName());
+    }
+
+    @Test
+    void collect_ShouldSkipCollectorStillRunningFromEarlierRun() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger calls = new AtomicInteger();
+        DataPointCollectorRunner runner = runner(Duration.ofMillis(100),
+                collector("stuck.count", () -> calls.incrementAndGet() == 1 ? 3L : blockUntil(release, 4)));
+
+        runner.collect(new Date());
+        runner.collect(new Date());
+        Map<String, Long> third = values(runner.collect(new Date()));
+
+        assertEquals(2, calls.get());
+        assertEquals(3L, third.get("statistics:stuck.count.name"));
+
+        release.countDown();
+        for (int i = 0; i < 50 && calls.get() < 3; i++) {
+            runner.collect(new Date());
+            Thread.sleep(20);
+        }
+        assertEquals(3, calls.get());
+    }
+
+    @Test
+    void durationName_ShouldStripStatisticPrefixAndSuffix() {
+        assertEquals("statistics:collector.duration.user.count",
+                DataPointCollectorRunner.durationName(collector("user.count", () -> 1L)));
+    }
+}
@@ -0,0 +1,116 @@
+package com.spms.backend.service.idm.assignment;
+
+import com.spms.backend.config.AssignmentProperties;
+import com.spms.backend.service.idm.DepartmentService;
+import com.spms.backend.service.idm.event.OrganizationVersion;
+import com.spms.backend.service.model.idm.DepartmentModel;
+import com.spms.backend.service.process.UserTaskLoadService;
+import com.spms.backend.service.sys.cache.CacheVersions;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class AssignmentStrategyTest {
+
+    private static final List<String> CANDIDATES = List.of("alice", "bob", "carol");
+    private static final int PICKS = 3000;
+
+    private static DepartmentMemberCache memberCache() {
+        OrganizationVersion organizationVersion = mock(OrganizationVersion.class);
+        when(organizationVersion.tracker()).thenReturn(mock(CacheVersions.Tracker.class));
+        return new DepartmentMemberCache(organizationVersion);
+    }
+
+    private static Map<String, Integer> tally(AssignmentStrategy strategy, List<String> candidates) {
+        Map<String, Integer> picks = new HashMap<>();
+        for (int i = 0; i < PICKS; i++) {
+            picks.merge(strategy.choose("department:1", candidates), 1, Integer::sum);
+        }
+        return picks;
+    }
+
+    @Test
+    void random_ShouldPickEveryCandidate() {
+        Map<String, Integer> picks = tally(new RandomAssignmentStrategy(), CANDIDATES);
+
+        assertEquals(CANDIDATES.size(), picks.size());
+        picks.values().forEach(count -> assertTrue(count > PICKS / 6, "picked " + picks));
+    }
+
+    @Test
+    void weighted_ShouldFollowWeightsAndSkipZero() {
+        AssignmentProperties properties = new AssignmentProperties();
+        properties.setWeights(Map.of("alice", 3, "carol", 0));
+
+        Map<String, Integer> picks = tally(new WeightedAssignmentStrategy(properties), CANDIDATES);
+
+        assertNull(picks.get("carol"));
+        // alice weighs 3, bob the default 1
+        double share = picks.get("alice") / (double) PICKS;
+        assertTrue(share > 0.65 && share < 0.85, "alice share " + share);
+    }
+
+    @Test
+    void weighted_ShouldPickNobodyWhenAllWeightsAreZero() {
+        AssignmentProperties properties = new AssignmentProperties();
+        properties.setDefaultWeight(0);
+
+        assertNull(new WeightedAssignmentStrategy(properties).choose("department:1", CANDIDATES));
+    }
+
+    @Test
+    void leastLoaded_ShouldPickFewestOpenTasksAndSpreadTies() {
+        UserTaskLoadService loadService = mock(UserTaskLoadService.class);
+        // carol has no counter, i.e. no open tasks, just like bob
+        when(loadService.getOpenTaskCounts(CANDIDATES)).thenReturn(Map.of("alice", 4L, "bob", 0L));
+
+        Map<String, Integer> picks = tally(new LeastLoadedAssignmentStrategy(loadService), CANDIDATES);
+
+        assertNull(picks.get("alice"));
+        assertEquals(2, picks.size());
+        assertTrue(picks.get("bob") > PICKS / 4 && picks.get("carol") > PICKS / 4, "picked " + picks);
+        verify(loadService, times(PICKS)).getOpenTaskCounts(CANDIDATES);
+    }
+
+    @Test
+    void assigner_ShouldResolveMethodsCaseInsensitivelyAndLoadMembersOnce() {
+        DepartmentService departmentService = mock(DepartmentService.class);
+        DepartmentModel department = new DepartmentModel();
+        department.setId(7L);
+        when(departmentService.getDepartmentById(7L)).thenReturn(Optional.of(department));
+        when(departmentService.findMemberUsernames(department, 0)).thenReturn(List.of("dave"));
+        AssignmentStrategy first = new AssignmentStrategy() {
+            @Override
+            public List<String> names() {
+                return List.of("first", "sequence");
+            }
+
+            @Override
+            public String choose(String scope, List<String> candidates) {
+                assertEquals("department:7", scope);
+                return candidates.get(0);
+            }
+        };
+        DepartmentMemberAssigner assigner = new DepartmentMemberAssigner(
+                departmentService, memberCache(), List.of(first));
+
+        assertEquals("dave", assigner.assign(7L, "FIRST"));
+        assertEquals("dave", assigner.assign(7L, "sequence"));
+        assertEquals("", assigner.assign(7L, "unknown"));
+        assertEquals("", assigner.assign(7L, null));
+        verify(departmentService, times(1)).findMemberUsernames(any(), anyInt());
+    }
+
+    @Test
+    void assigner_ShouldRejectDuplicateMethodNames() {
+        assertThrows(IllegalStateException.class, () -> new DepartmentMemberAssigner(
+                mock(DepartmentService.class), memberCache(),
+                List.of(new RandomAssignmentStrategy(), new RandomAssignmentStrategy())));
+    }
+}
@@ -0,0 +1,181 @@
+package com.spms.backend.service.idm.assignment;
+
+import com.spms.backend.repository.idm.AssignmentCursorRepository;
+import com.spms.backend.repository.process.UserTaskLoadRepository;
+import com.spms.backend.service.process.UserTaskLoadService;
+import org.flowable.engine.RepositoryService;
+import org.flowable.engine.RuntimeService;
+import org.flowable.engine.TaskService;
+import org.flowable.engine.repository.Deployment;
+import org.flowable.task.api.Task;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.oauth2.client.registration.ClientRegistrationRepository;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Round-robin positions and open task counts against H2. Not transactional, because both are
+ * written in their own transactions; the test removes its deployment and rows afterwards.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+public class DepartmentMemberAssignmentIntegrationTest {
+
+    private static final String ALICE = "load.alice";
+    private static final String BOB = "load.bob";
+    private static final List<String> CANDIDATES = List.of(ALICE, BOB, "load.carol");
+
+    private static final String PROCESS = """
+            <?xml version="1.0" encoding="UTF-8"?>
+            <definitions xmlns="http://www.omg.org/spec/BPMN/20100524/MODEL"
+                         xmlns:flowable="http://flowable.org/bpmn"
+                         targetNamespace="http://spms.com">
+              <process id="task-load-review" name="Task Load Review" isExecutable="true">
+                <startEvent id="start"/>
+                <sequenceFlow id="toReview" sourceRef="start" targetRef="review"/>
+                <userTask id="review" name="Review" flowable:assignee="${approver}"/>
+                <sequenceFlow id="toEnd" sourceRef="review" targetRef="end"/>
+                <endEvent id="end"/>
+              </process>
+            </definitions>
+            """;
+
+    @MockitoBean
+    private ClientRegistrationRepository clientRegistrationRepository;
+
+    @Autowired
+    private AssignmentCursorRepository cursorRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private UserTaskLoadService userTaskLoadService;
+
+    @Autowired
+    private UserTaskLoadRepository loadRepository;
+
+    @Autowired
+    private LeastLoadedAssignmentStrategy leastLoaded;
+
+    @Autowired
+    private RepositoryService repositoryService;
+
+    @Autowired
+    private RuntimeService runtimeService;
+
+    @Autowired
+    private TaskService taskService;
+
+    private Deployment deployment;
+    private String scope;
+
+    @BeforeEach
+    void setUp() {
+        deployment = repositoryService.createDeployment()
+                .addString("task-load-review.bpmn20.xml", PROCESS)
+                .deploy();
+        scope = "test:" + UUID.randomUUID();
+    }
+
+    @AfterEach
+    void tearDown() {
+        repositoryService.deleteDeployment(deployment.getId(), true);
+        loadRepository.deleteAll(loadRepository.findByUsernameIn(CANDIDATES));
+        cursorRepository.deleteAll(cursorRepository.findAll().stream()
+                .filter(cursor -> cursor.getScope().equals(scope)).toList());
+    }
+
+    private Task startFor(String approver) {
+        String instanceId = runtimeService.startProcessInstanceByKey("task-load-review", Map.of("approver", approver))
+                .getId();
+        return taskService.createTaskQuery().processInstanceId(instanceId).singleResult();
+    }
+
+    private long openTasks(String username) {
+        return userTaskLoadService.getOpenTaskCounts(List.of(username)).getOrDefault(username, 0L);
+    }
+
+    @Test
+    void roundRobin_ShouldShareOneRotationBetweenNodes() {
+        // Two strategy instances stand in for two nodes sharing the database
+        RoundRobinAssignmentStrategy node1 = new RoundRobinAssignmentStrategy(cursorRepository, transactionManager);
+        RoundRobinAssignmentStrategy node2 = new RoundRobinAssignmentStrategy(cursorRepository, transactionManager);
+
+        List<String> picks = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            picks.add((i % 2 == 0 ? node1 : node2).choose(scope, CANDIDATES));
+        }
+
+        assertEquals(List.of(ALICE, BOB, "load.carol", ALICE, BOB, "load.carol"), picks);
+    }
+
+    @Test
+    void roundRobin_ShouldHandOutEqualTurnsUnderConcurrency() throws Exception {
+        RoundRobinAssignmentStrategy strategy = new RoundRobinAssignmentStrategy(cursorRepository, transactionManager);
+        Map<String, AtomicInteger> picks = new ConcurrentHashMap<>();
+        ExecutorService executor = Executors.newFixedThreadPool(6);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 6; i++) {
+                futures.add(executor.submit(() -> {
+                    for (int n = 0; n < 20; n++) {
+                        picks.computeIfAbsent(strategy.choose(scope, CANDIDATES), k -> new AtomicInteger())
+                                .incrementAndGet();
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        for (String candidate : CANDIDATES) {
+            assertEquals(40, picks.get(candidate).get(), candidate);
+        }
+    }
+
+    @Test
+    void taskLoad_ShouldFollowAssignmentCompletionAndDeletion() {
+        Task first = startFor(ALICE);
+        startFor(ALICE);
+        Task third = startFor(ALICE);
+        assertEquals(3, openTasks(ALICE));
+
+        taskService.setAssignee(first.getId(), BOB);
+        // Assigning the same user again must not count the task twice
+        taskService.setAssignee(first.getId(), BOB);
+        assertEquals(2, openTasks(ALICE));
+        assertEquals(1, openTasks(BOB));
+
+        taskService.complete(first.getId());
+        runtimeService.deleteProcessInstance(third.getProcessInstanceId(), "test");
+        assertEquals(1, openTasks(ALICE));
+        assertEquals(0, openTasks(BOB));
+
+        assertEquals(BOB, leastLoaded.choose(scope, List.of(ALICE, BOB)));
+
+        userTaskLoadService.rebuild();
+        assertEquals(1, openTasks(ALICE));
+        assertEquals(0, openTasks(BOB));
+    }
+}
@@ -0,0 +1,98 @@
+package com.spms.backend.service.idm.assignment;
+
+import com.spms.backend.service.idm.event.OrganizationChangedEvent;
+import com.spms.backend.service.idm.event.OrganizationVersion;
+import com.spms.backend.service.sys.cache.CacheVersions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class DepartmentMemberCacheTest {
+
+    private DepartmentMemberCache cache;
+    private CacheVersions.Tracker sharedVersion;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        sharedVersion = mock(CacheVersions.Tracker.class);
+        OrganizationVersion organizationVersion = mock(OrganizationVersion.class);
+        when(organizationVersion.tracker()).thenReturn(sharedVersion);
+        cache = new DepartmentMemberCache(organizationVersion);
+        loads = new AtomicInteger();
+    }
+
+    private List<String> members() {
+        loads.incrementAndGet();
+        return new ArrayList<>(List.of("alice", "bob"));
+    }
+
+    private void changed(OrganizationChangedEvent.Change change, Long entityId) {
+        cache.onOrganizationChanged(new OrganizationChangedEvent(this, change, entityId));
+    }
+
+    @Test
+    void get_ShouldLoadOnceAndReturnReadOnlyList() {
+        List<String> first = cache.get(1L, this::members);
+        List<String> second = cache.get(1L, this::members);
+
+        assertSame(first, second);
+        assertEquals(1, loads.get());
+        assertThrows(UnsupportedOperationException.class, () -> first.add("carol"));
+    }
+
+    @Test
+    void onOrganizationChanged_ShouldDropOnlyChangedDepartment() {
+        cache.get(1L, this::members);
+        cache.get(2L, this::members);
+
+        changed(OrganizationChangedEvent.Change.DEPARTMENT_MEMBERS, 1L);
+        cache.get(1L, this::members);
+        cache.get(2L, this::members);
+
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    void onOrganizationChanged_ShouldDropAllOnOtherChanges() {
+        cache.get(1L, this::members);
+        cache.get(2L, this::members);
+
+        changed(OrganizationChangedEvent.Change.COMPANY, 5L);
+        cache.get(1L, this::members);
+        cache.get(2L, this::members);
+
+        assertEquals(4, loads.get());
+    }
+
+    @Test
+    void get_ShouldNotKeepMembersLoadedDuringInvalidation() {
+        List<String> stale = cache.get(1L, () -> {
+            List<String> members = members();
+            changed(OrganizationChangedEvent.Change.DEPARTMENT_MEMBERS, 1L);
+            return members;
+        });
+        List<String> fresh = cache.get(1L, this::members);
+
+        assertNotSame(stale, fresh);
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void get_ShouldDropAllAfterChangeOnAnotherNode() {
+        cache.get(1L, this::members);
+        cache.get(2L, this::members);
+
+        when(sharedVersion.changed()).thenReturn(true, false);
+        cache.get(1L, this::members);
+        cache.get(2L, this::members);
+
+        assertEquals(4, loads.get());
+    }
+}
@@ -0,0 +1,146 @@
+package com.spms.backend.service.idm.impl;
+
+import com.spms.backend.repository.entities.idm.DepartmentType;
+import com.spms.backend.service.idm.DepartmentService;
+import com.spms.backend.service.idm.event.OrganizationChangedEvent;
+import com.spms.backend.service.idm.event.OrganizationVersion;
+import com.spms.backend.service.model.idm.DepartmentModel;
+import com.spms.backend.service.sys.cache.CacheVersions;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class DepartmentHeadCacheTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private DepartmentService departmentService;
+    private CacheVersions.Tracker sharedVersion;
+    private DepartmentHeadCache cache;
+    private AtomicInteger resolves;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        departmentService = mock(DepartmentService.class);
+        sharedVersion = mock(CacheVersions.Tracker.class);
+        OrganizationVersion organizationVersion = mock(OrganizationVersion.class);
+        when(organizationVersion.tracker()).thenReturn(sharedVersion);
+        cache = new DepartmentHeadCache(departmentService, meterRegistry, organizationVersion);
+        resolves = new AtomicInteger();
+    }
+
+    /**
+     * alice is in department 3 below 2 below 1; the head 1 level up is "boss"
+     */
+    private DepartmentHeadCache.Resolution alice() {
+        resolves.incrementAndGet();
+        return new DepartmentHeadCache.Resolution("boss", List.of(3L, 2L));
+    }
+
+    private DepartmentHeadCache.Resolution nowhere() {
+        resolves.incrementAndGet();
+        return new DepartmentHeadCache.Resolution("", List.of());
+    }
+
+    private double count(String result) {
+        return meterRegistry.get("spms.organization.department.head.cache").tag("result", result).counter().count();
+    }
+
+    private void changed(OrganizationChangedEvent.Change change, Long entityId) {
+        cache.onOrganizationChanged(new OrganizationChangedEvent(this, change, entityId));
+    }
+
+    @Test
+    void get_ShouldResolveOnceAndServeHits() {
+        assertEquals("boss", cache.get("alice", DepartmentType.LOCAL, 1, this::alice));
+        assertEquals("boss", cache.get("alice", DepartmentType.LOCAL, 1, this::alice));
+
+        assertEquals(1, resolves.get());
+        assertEquals(1, count("hit"));
+        assertEquals(1, count("miss"));
+        assertEquals(0.5, meterRegistry.get("spms.organization.department.head.cache.hit.ratio").gauge().value());
+    }
+
+    @Test
+    void get_ShouldKeepLinesAndLevelsApart() {
+        cache.get("alice", DepartmentType.LOCAL, 1, this::alice);
+        cache.get("alice", DepartmentType.LOCAL, 0, this::alice);
+        cache.get("alice", DepartmentType.FUNCTIONAL, 1, this::alice);
+
+        assertEquals(3, resolves.get());
+    }
+
+    @Test
+    void onOrganizationChanged_ShouldDropOnlyHeadsResolvedThroughDepartment() {
+        cache.get("alice", DepartmentType.LOCAL, 1, this::alice);
+        cache.get("bob", DepartmentType.LOCAL, 0, () -> {
+            resolves.incrementAndGet();
+            return new DepartmentHeadCache.Resolution("carol", List.of(7L));
+        });
+
+        changed(OrganizationChangedEvent.Change.DEPARTMENT, 2L);
+        cache.get("alice", DepartmentType.LOCAL, 1, this::alice);
+        cache.get("bob", DepartmentType.LOCAL, 0, () -> fail("bob was not resolved through department 2"));
+
+        assertEquals(3, resolves.get());
+    }
+
+    @Test
+    void onOrganizationChanged_ShouldDropHeadsOfNewMembers() {
+        DepartmentModel department = new DepartmentModel();
+        department.setId(9L);
+        when(departmentService.getDepartmentById(9L)).thenReturn(Optional.of(department));
+        when(departmentService.findMemberUsernames(department, 0)).thenReturn(List.of("alice"));
+        cache.get("alice", DepartmentType.LOCAL, 1, this::alice);
+        cache.get("dave", DepartmentType.LOCAL, 0, this::nowhere);
+
+        // alice and dave joined department 9, which none of their heads was resolved through
+        changed(OrganizationChangedEvent.Change.DEPARTMENT_MEMBERS, 9L);
+        cache.get("alice", DepartmentType.LOCAL, 1, this::alice);
+        cache.get("dave", DepartmentType.LOCAL, 0, this::nowhere);
+
+        assertEquals(4, resolves.get());
+    }
+
+    @Test
+    void onOrganizationChanged_ShouldDropAllOnCompanyChange() {
+        cache.get("alice", DepartmentType.LOCAL, 1, this::alice);
+
+        changed(OrganizationChangedEvent.Change.COMPANY, 1L);
+        cache.get("alice", DepartmentType.LOCAL, 1, this::alice);
+
+        assertEquals(2, resolves.get());
+        verifyNoInteractions(departmentService);
+    }
+
+    @Test
+    void get_ShouldNotKeepHeadResolvedDuringInvalidation() {
+        cache.get("alice", DepartmentType.LOCAL, 1, () -> {
+            DepartmentHeadCache.Resolution resolution = alice();
+            cache.invalidateDepartment(5L, List.of());
+            return resolution;
+        });
+        cache.get("alice", DepartmentType.LOCAL, 1, this::alice);
+
+        assertEquals(2, resolves.get());
+    }
+
+    @Test
+    void get_ShouldDropAllAfterChangeOnAnotherNode() {
+        cache.get("alice", DepartmentType.LOCAL, 1, this::alice);
+        cache.get("bob", DepartmentType.LOCAL, 0, this::nowhere);
+
+        when(sharedVersion.changed()).thenReturn(true, false);
+        cache.get("alice", DepartmentType.LOCAL, 1, this::alice);
+        cache.get("bob", DepartmentType.LOCAL, 0, this::nowhere);
+
+        assertEquals(4, resolves.get());
+    }
+}
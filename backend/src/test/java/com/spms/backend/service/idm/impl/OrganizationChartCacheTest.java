@@ -0,0 +1,113 @@
+package com.spms.backend.service.idm.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.spms.backend.controller.dto.idm.ChartMode;
+import com.spms.backend.controller.dto.idm.OrganizationChartDTO;
+import com.spms.backend.service.idm.event.OrganizationChangedEvent;
+import com.spms.backend.service.idm.event.OrganizationVersion;
+import com.spms.backend.service.sys.cache.CacheVersions;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class OrganizationChartCacheTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private CacheVersions.Tracker sharedVersion;
+    private OrganizationChartCache cache;
+    private AtomicInteger builds;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        sharedVersion = mock(CacheVersions.Tracker.class);
+        OrganizationVersion organizationVersion = mock(OrganizationVersion.class);
+        when(organizationVersion.tracker()).thenReturn(sharedVersion);
+        cache = new OrganizationChartCache(new ObjectMapper(), meterRegistry, organizationVersion);
+        builds = new AtomicInteger();
+    }
+
+    private OrganizationChartDTO chart() {
+        builds.incrementAndGet();
+        OrganizationChartDTO root = new OrganizationChartDTO("1", "Group", "GROUP");
+        root.getChildren().add(new OrganizationChartDTO("2", "Entity", "BUSINESS_ENTITY"));
+        return root;
+    }
+
+    private double count(String result) {
+        return meterRegistry.get("spms.organization.chart.cache").tag("result", result).counter().count();
+    }
+
+    @Test
+    void get_ShouldBuildOnceAndServeHits() throws Exception {
+        OrganizationChartCache.Snapshot first = cache.get(1L, ChartMode.REALISTIC, this::chart);
+        OrganizationChartCache.Snapshot second = cache.get(1L, ChartMode.REALISTIC, this::chart);
+
+        assertSame(first, second);
+        assertEquals(1, builds.get());
+        assertEquals(1, count("hit"));
+        assertEquals(1, count("miss"));
+        assertEquals(0.5, meterRegistry.get("spms.organization.chart.cache.hit.ratio").gauge().value());
+        assertEquals("Entity", new ObjectMapper().readValue(first.json(), OrganizationChartDTO.class)
+                .getChildren().get(0).getName());
+    }
+
+    @Test
+    void get_ShouldKeepModesApart() {
+        cache.get(1L, ChartMode.REALISTIC, this::chart);
+        cache.get(1L, ChartMode.FUNCTIONAL, this::chart);
+        cache.get(2L, ChartMode.REALISTIC, this::chart);
+
+        assertEquals(3, builds.get());
+    }
+
+    @Test
+    void get_ShouldReturnReadOnlyTree() {
+        OrganizationChartDTO chart = cache.get(1L, ChartMode.REALISTIC, this::chart).chart();
+
+        assertThrows(UnsupportedOperationException.class,
+                () -> chart.getChildren().add(new OrganizationChartDTO()));
+        assertThrows(UnsupportedOperationException.class,
+                () -> chart.getChildren().get(0).getChildren().clear());
+    }
+
+    @Test
+    void onOrganizationChanged_ShouldDropCachedCharts() {
+        cache.get(1L, ChartMode.REALISTIC, this::chart);
+
+        cache.onOrganizationChanged(new OrganizationChangedEvent(
+                this, OrganizationChangedEvent.Change.DEPARTMENT, 10L));
+        cache.get(1L, ChartMode.REALISTIC, this::chart);
+
+        assertEquals(2, builds.get());
+    }
+
+    @Test
+    void get_ShouldDropCachedChartsAfterChangeOnAnotherNode() {
+        cache.get(1L, ChartMode.REALISTIC, this::chart);
+
+        when(sharedVersion.changed()).thenReturn(true, false);
+        cache.get(1L, ChartMode.REALISTIC, this::chart);
+        cache.get(1L, ChartMode.REALISTIC, this::chart);
+
+        assertEquals(2, builds.get());
+    }
+
+    @Test
+    void get_ShouldNotKeepChartBuiltDuringInvalidation() {
+        OrganizationChartCache.Snapshot stale = cache.get(1L, ChartMode.REALISTIC, () -> {
+            OrganizationChartDTO chart = chart();
+            cache.invalidateAll();
+            return chart;
+        });
+        OrganizationChartCache.Snapshot fresh = cache.get(1L, ChartMode.REALISTIC, this::chart);
+
+        assertNotSame(stale, fresh);
+        assertEquals(2, builds.get());
+    }
+}
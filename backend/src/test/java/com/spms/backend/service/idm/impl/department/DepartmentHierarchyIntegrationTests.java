@@ -0,0 +1,193 @@
+package com.spms.backend.service.idm.impl.department;
+
+import com.spms.backend.repository.entities.idm.*;
+import com.spms.backend.repository.idm.CompanyRepository;
+import com.spms.backend.repository.idm.DepartmentClosureRepository;
+import com.spms.backend.repository.idm.DepartmentRepository;
+import com.spms.backend.repository.idm.UserRepository;
+import com.spms.backend.service.idm.impl.DepartmentServiceImpl;
+import com.spms.backend.service.model.idm.DepartmentHeadModel;
+import com.spms.backend.service.model.idm.DepartmentModel;
+import com.spms.backend.service.model.idm.UserModel;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.oauth2.client.registration.ClientRegistrationRepository;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+public class DepartmentHierarchyIntegrationTests {
+
+    @MockitoBean
+    private ClientRegistrationRepository clientRegistrationRepository;
+
+    @Autowired
+    private DepartmentServiceImpl departmentService;
+
+    @Autowired
+    private DepartmentRepository departmentRepository;
+
+    @Autowired
+    private DepartmentClosureRepository closureRepository;
+
+    @Autowired
+    private CompanyRepository companyRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private Company company;
+    private DepartmentModel root;
+    private DepartmentModel child;
+    private DepartmentModel grandChild;
+    private DepartmentModel team;
+
+    @BeforeEach
+    void setUp() {
+        company = new Company();
+        company.setCompanyType(CompanyType.BUSINESS_ENTITY);
+        company.setName("Hierarchy Business");
+        company.setDescription("Hierarchy Company");
+        company = companyRepository.save(company);
+
+        root = create("Operations", DepartmentType.LOCAL, 1, company.getId());
+        child = create("Operations Support", DepartmentType.LOCAL, 2, root.getId());
+        grandChild = create("Operations Support Desk", DepartmentType.LOCAL, 3, child.getId());
+        team = create("Operations Team", DepartmentType.TEAM, 1, root.getId());
+    }
+
+    @AfterEach
+    void tearDown() {
+        closureRepository.deleteAll();
+        departmentRepository.deleteAll();
+        userRepository.deleteAll();
+        companyRepository.deleteAll();
+    }
+
+    private DepartmentModel create(String name, DepartmentType type, int level, Long parent) {
+        DepartmentModel model = new DepartmentModel();
+        model.setName(name);
+        model.setType(type);
+        model.setLevel(level);
+        model.setParent(parent);
+        model.setActive(true);
+        return departmentService.createDepartment(model);
+    }
+
+    private List<String> descendantNames(DepartmentModel ancestor, DepartmentType type, int maxDepth) {
+        return departmentService.findDescendants(List.of(ancestor.getId()), type, maxDepth).stream()
+                .map(DepartmentModel::getName)
+                .toList();
+    }
+
+    @Test
+    void findDescendants_ShouldFollowSameTypeDownToDepth() {
+        assertEquals(List.of("Operations Support", "Operations Support Desk"),
+                descendantNames(root, DepartmentType.LOCAL, 3));
+        assertEquals(List.of("Operations Support"), descendantNames(root, DepartmentType.LOCAL, 1));
+        assertEquals(List.of("Operations Team"), descendantNames(root, DepartmentType.TEAM, 3));
+        assertTrue(descendantNames(grandChild, DepartmentType.LOCAL, 3).isEmpty());
+    }
+
+    @Test
+    void findMemberUsernames_ShouldIncludeMembersOfSubDepartments() {
+        User alice = user("alice");
+        User bob = user("bob");
+        departmentService.addUserToDepartment(root, List.of(UserModel.fromEntity(alice)));
+        departmentService.addUserToDepartment(grandChild, List.of(UserModel.fromEntity(bob), UserModel.fromEntity(alice)));
+
+        assertEquals(List.of("alice"), departmentService.findMemberUsernames(root, 0));
+        assertEquals(List.of("alice"), departmentService.findMemberUsernames(root, 1));
+        assertEquals(List.of("alice", "bob"), departmentService.findMemberUsernames(root, 2));
+    }
+
+    @Test
+    void findHeadChain_ShouldListHeadsUpwardsFromUserDepartment() {
+        User head = user("operations.head");
+        User member = user("desk.member");
+        Department rootEntity = departmentRepository.findById(root.getId()).orElseThrow();
+        rootEntity.setDepartmentHead(head);
+        departmentRepository.save(rootEntity);
+        departmentService.addUserToDepartment(grandChild, List.of(UserModel.fromEntity(member)));
+
+        assertEquals(Optional.of(grandChild.getId()),
+                departmentService.findUserDepartmentId("desk.member", DepartmentType.LOCAL));
+        assertTrue(departmentService.findUserDepartmentId("desk.member", DepartmentType.FUNCTIONAL).isEmpty());
+        assertEquals(List.of(
+                        new DepartmentHeadModel(grandChild.getId(), 0, null),
+                        new DepartmentHeadModel(child.getId(), 1, null),
+                        new DepartmentHeadModel(root.getId(), 2, "operations.head")),
+                departmentService.findHeadChain(grandChild.getId(), 5));
+        assertEquals(2, departmentService.findHeadChain(grandChild.getId(), 1).size());
+    }
+
+    @Test
+    void updateDepartment_ShouldMoveSubtree() {
+        DepartmentModel other = create("Finance", DepartmentType.LOCAL, 1, company.getId());
+
+        child.setParent(other.getId());
+        departmentService.updateDepartment(child.getId(), child);
+
+        assertTrue(descendantNames(root, DepartmentType.LOCAL, 3).isEmpty());
+        assertEquals(List.of("Operations Support", "Operations Support Desk"),
+                descendantNames(other, DepartmentType.LOCAL, 3));
+    }
+
+    @Test
+    void updateDepartment_ShouldRejectMoveBelowOwnSubtree() {
+        root.setLevel(4);
+        root.setParent(grandChild.getId());
+
+        assertThrows(IllegalArgumentException.class, () -> departmentService.updateDepartment(root.getId(), root));
+    }
+
+    @Test
+    void deleteDepartment_ShouldOnlyDeleteLeaves() {
+        assertThrows(IllegalArgumentException.class, () -> departmentService.deleteDepartment(child.getId()));
+
+        departmentService.deleteDepartment(grandChild.getId());
+
+        assertFalse(departmentRepository.existsById(grandChild.getId()));
+        assertTrue(descendantNames(child, DepartmentType.LOCAL, 3).isEmpty());
+        assertFalse(closureRepository.existsByAncestorIdAndDescendantId(root.getId(), grandChild.getId()));
+    }
+
+    @Test
+    void rebuildHierarchy_ShouldMatchMaintainedClosure() {
+        Comparator<DepartmentClosure> order = Comparator.comparing(DepartmentClosure::getAncestorId)
+                .thenComparing(DepartmentClosure::getDescendantId);
+        List<String> maintained = closureRepository.findAll().stream().sorted(order)
+                .map(c -> c.getAncestorId() + ">" + c.getDescendantId() + "@" + c.getDepth())
+                .toList();
+
+        departmentService.rebuildHierarchy();
+
+        List<String> rebuilt = closureRepository.findAll().stream().sorted(order)
+                .map(c -> c.getAncestorId() + ">" + c.getDescendantId() + "@" + c.getDepth())
+                .toList();
+        assertEquals(maintained, rebuilt);
+        assertTrue(rebuilt.contains(root.getId() + ">" + grandChild.getId() + "@2"));
+    }
+
+    private User user(String username) {
+        User user = new User();
+        user.setUsername(username);
+        user.setEmail(username + "@email.com");
+        user.setType(User.UserType.STAFF);
+        user.setDescription("Description");
+        user.setProvider("keycloak");
+        return userRepository.save(user);
+    }
+}
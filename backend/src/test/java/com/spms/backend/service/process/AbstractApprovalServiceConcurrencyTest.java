@@ -0,0 +1,148 @@
+package com.spms.backend.service.process;
+
+import com.spms.backend.config.ApprovalExecutorProperties;
+import com.spms.backend.service.process.engine.ApprovalTaskInvoker;
+import com.spms.backend.service.process.engine.ProcessMetrics;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.flowable.engine.delegate.DelegateExecution;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class AbstractApprovalServiceConcurrencyTest {
+
+    private static final int APPROVALS = 500;
+    private static final int THREADS = 8;
+
+    /**
+     * Approval service that records where and how concurrently it runs.
+     */
+    static class RecordingApprovalService extends AbstractApprovalService {
+        final Set<String> threads = ConcurrentHashMap.newKeySet();
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger maxRunning = new AtomicInteger();
+        final List<String> completed = new ArrayList<>();
+
+        @Override
+        protected ApprovalResult processApproval(String processInstanceId, String approvalDecision,
+                                                 String approvalComment) {
+            threads.add(Thread.currentThread().getName());
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(1);
+                if ("fail".equals(approvalDecision)) {
+                    throw new IllegalStateException("rejected by test");
+                }
+                return new ApprovalResult("approve".equals(approvalDecision) ? "APPROVED" : "REJECTED",
+                        approvalComment);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            } finally {
+                running.decrementAndGet();
+            }
+        }
+
+        @Override
+        protected void afterApproval(String processInstanceId, String finalStatus, String executionData) {
+            completed.add(processInstanceId);
+        }
+    }
+
+    private ApprovalTaskInvoker invoker;
+    private SimpleMeterRegistry meterRegistry;
+    private RecordingApprovalService service;
+
+    @BeforeEach
+    void setUp() {
+        ApprovalExecutorProperties properties = new ApprovalExecutorProperties();
+        properties.setThreads(THREADS);
+        properties.setQueueCapacity(APPROVALS);
+        invoker = new ApprovalTaskInvoker(properties);
+        meterRegistry = new SimpleMeterRegistry();
+        service = new RecordingApprovalService();
+        service.processMetrics = new ProcessMetrics(meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        invoker.shutdown();
+    }
+
+    private DelegateExecution execution(String processInstanceId, String decision, Thread engineThread) {
+        DelegateExecution execution = mock(DelegateExecution.class);
+        when(execution.getProcessInstanceId()).thenReturn(processInstanceId);
+        when(execution.getVariable(anyString())).thenAnswer(invocation -> {
+            assertSame(engineThread, Thread.currentThread(), "variables read off the engine thread");
+            return switch ((String) invocation.getArgument(0)) {
+                case "approvalDecision" -> decision;
+                case "approvalComment" -> "comment " + processInstanceId;
+                default -> null;
+            };
+        });
+        doAnswer(invocation -> {
+            assertSame(engineThread, Thread.currentThread(), "variables written off the engine thread");
+            return null;
+        }).when(execution).setVariable(anyString(), any());
+        return execution;
+    }
+
+    @Test
+    void parallelApprovals_ShouldRunOnBoundedExecutorAndApplyVariablesOnEngineThread() throws Exception {
+        Thread engineThread = Thread.currentThread();
+        List<DelegateExecution> executions = new ArrayList<>();
+        List<CompletableFuture<AbstractApprovalService.ApprovalOutcome>> futures = new ArrayList<>();
+        for (int i = 0; i < APPROVALS; i++) {
+            DelegateExecution execution = execution("pi-" + i, i % 2 == 0 ? "approve" : "reject", engineThread);
+            executions.add(execution);
+            futures.add(service.execute(execution, invoker));
+        }
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).get(30, TimeUnit.SECONDS);
+
+        for (int i = 0; i < APPROVALS; i++) {
+            service.afterExecution(executions.get(i), futures.get(i).join());
+        }
+
+        assertEquals(APPROVALS, service.completed.size());
+        assertTrue(service.maxRunning.get() <= THREADS, "ran " + service.maxRunning.get() + " at once");
+        assertTrue(service.threads.stream().allMatch(name -> name.startsWith("spms-approval-")),
+                () -> "ran on " + service.threads);
+        verify(executions.get(0)).setVariable("finalStatus", "APPROVED");
+        verify(executions.get(1)).setVariable("finalStatus", "REJECTED");
+        verify(executions.get(1)).setVariable("approvalResult", "comment pi-1");
+
+        Timer timer = meterRegistry.get(ProcessMetrics.APPROVAL_TIMER)
+                .tags("service", "RecordingApprovalService", "outcome", "success").timer();
+        assertEquals(APPROVALS, timer.count());
+    }
+
+    @Test
+    void failedApproval_ShouldSetErrorVariablesOnEngineThreadAndFail() {
+        DelegateExecution execution = execution("pi-fail", "fail", Thread.currentThread());
+
+        AbstractApprovalService.ApprovalOutcome outcome = service.execute(execution, invoker).join();
+
+        RuntimeException error = assertThrows(RuntimeException.class,
+                () -> service.afterExecution(execution, outcome));
+        assertTrue(error.getMessage().contains("rejected by test"));
+        verify(execution).setVariable("statusUpdateCompleted", false);
+        verify(execution).setVariable("statusUpdateError", "rejected by test");
+        verify(execution, never()).setVariable(eq("finalStatus"), any());
+        assertTrue(service.completed.isEmpty());
+        assertEquals(1, meterRegistry.get(ProcessMetrics.APPROVAL_TIMER)
+                .tags("service", "RecordingApprovalService", "outcome", "error").timer().count());
+    }
+}
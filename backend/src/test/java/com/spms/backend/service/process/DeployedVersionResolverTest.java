@@ -0,0 +1,99 @@
+package com.spms.backend.service.process;
+
+import com.spms.backend.repository.entities.process.ProcessVersionStatus;
+import com.spms.backend.repository.process.ProcessVersionRepository;
+import com.spms.backend.service.sys.cache.CacheVersions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DeployedVersionResolverTest {
+
+    @Mock
+    private ProcessVersionRepository processVersionRepository;
+
+    @Mock
+    private CacheVersions cacheVersions;
+
+    @Mock
+    private CacheVersions.Tracker sharedVersion;
+
+    private DeployedVersionResolver resolver;
+
+    @BeforeEach
+    void setUp() {
+        when(cacheVersions.tracker(DeployedVersionResolver.CACHE_NAME)).thenReturn(sharedVersion);
+        resolver = new DeployedVersionResolver(processVersionRepository, cacheVersions);
+    }
+
+    private static ProcessVersionRepository.DeployedVersionView view(Long versionId, String key, Long ownerId) {
+        return new ProcessVersionRepository.DeployedVersionView() {
+            public Long getVersionId() { return versionId; }
+            public String getKey() { return key; }
+            public Long getOwnerId() { return ownerId; }
+        };
+    }
+
+    @Test
+    void resolve_WhenCalledTwice_ShouldQueryRepositoryOnce() {
+        when(processVersionRepository.findDeployedVersionViews(eq(1L), eq(ProcessVersionStatus.DEPLOYED), any()))
+                .thenReturn(List.of(view(10L, "leave", 5L)));
+
+        Optional<DeployedVersionResolver.DeployedVersion> first = resolver.resolve(1L);
+        Optional<DeployedVersionResolver.DeployedVersion> second = resolver.resolve(1L);
+
+        assertTrue(first.isPresent());
+        assertEquals("leave", second.get().key());
+        assertEquals(5L, second.get().ownerId());
+        verify(processVersionRepository, times(1)).findDeployedVersionViews(eq(1L), any(), any());
+    }
+
+    @Test
+    void resolve_WhenInvalidated_ShouldReloadDeployedVersion() {
+        when(processVersionRepository.findDeployedVersionViews(eq(1L), eq(ProcessVersionStatus.DEPLOYED), any()))
+                .thenReturn(List.of(view(10L, "leave", 5L)))
+                .thenReturn(List.of(view(11L, "leave", 6L)));
+
+        resolver.resolve(1L);
+        resolver.invalidate(1L);
+
+        assertEquals(11L, resolver.resolve(1L).get().versionId());
+        verify(cacheVersions).increment(DeployedVersionResolver.CACHE_NAME);
+    }
+
+    @Test
+    void resolve_WhenDeployedOnAnotherNode_ShouldReloadDeployedVersion() {
+        when(processVersionRepository.findDeployedVersionViews(eq(1L), eq(ProcessVersionStatus.DEPLOYED), any()))
+                .thenReturn(List.of(view(10L, "leave", 5L)))
+                .thenReturn(List.of(view(11L, "leave", 6L)));
+
+        resolver.resolve(1L);
+        when(sharedVersion.changed()).thenReturn(true, false);
+
+        assertEquals(11L, resolver.resolve(1L).get().versionId());
+        assertEquals(11L, resolver.resolve(1L).get().versionId());
+        verify(processVersionRepository, times(2)).findDeployedVersionViews(eq(1L), any(), any());
+    }
+
+    @Test
+    void resolve_WhenNothingDeployed_ShouldNotCacheMiss() {
+        when(processVersionRepository.findDeployedVersionViews(eq(2L), eq(ProcessVersionStatus.DEPLOYED), any()))
+                .thenReturn(Collections.emptyList())
+                .thenReturn(List.of(view(20L, "expense", 1L)));
+
+        assertTrue(resolver.resolve(2L).isEmpty());
+        assertEquals("expense", resolver.resolve(2L).get().key());
+    }
+}
@@ -0,0 +1,123 @@
+package com.spms.backend.service.process.engine;
+
+import com.spms.backend.service.process.FormDataProcessor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link FormDataVariableType} with the Java serialization Flowable used for
+ * {@code formData} before, on leave-form payloads built by {@link FormDataProcessor}.
+ * <p>
+ * Not run by the test suite. Run from the IDE or with
+ * {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.spms.backend.service.process.engine.FormDataSerializationBenchmark}.
+ * Stored sizes are printed once per payload at setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FormDataSerializationBenchmark {
+
+    private static final Logger log = LoggerFactory.getLogger(FormDataSerializationBenchmark.class);
+
+    /**
+     * {@code leave}: the plain leave form. {@code leaveWithComments}: the leave form after a few
+     * approval rounds, which is where the compression threshold kicks in.
+     */
+    @Param({"leave", "leaveWithComments"})
+    public String payload;
+
+    private final FormDataVariableType formDataType = new FormDataVariableType();
+
+    private HashMap<String, Object> form;
+    private byte[] javaBytes;
+    private byte[] compactBytes;
+
+    @Setup
+    public void setUp() throws IOException {
+        form = new HashMap<>(new FormDataProcessor()
+                .processLeaveData("Chan Tai Man", "ANNUAL", "2026-10-19", "2026-10-23",
+                        "Family trip to Osaka, handover of open tickets agreed with the team lead")
+                .getFormData());
+        form.put("days", 5);
+        form.put("department", "IT Infrastructure");
+        if ("leaveWithComments".equals(payload)) {
+            List<Map<String, Object>> comments = new ArrayList<>();
+            for (int i = 0; i < 30; i++) {
+                Map<String, Object> comment = new HashMap<>();
+                comment.put("author", "approver" + i);
+                comment.put("action", i % 3 == 0 ? "REJECT" : "APPROVE");
+                comment.put("comment", "Checked the roster for the requested period, coverage is fine");
+                comments.add(comment);
+            }
+            form.put("comments", comments);
+        }
+        javaBytes = javaSerialize(form);
+        compactBytes = formDataType.encode(form);
+        log.info("{}: java={} bytes, compact={} bytes", payload, javaBytes.length, compactBytes.length);
+    }
+
+    @Benchmark
+    public byte[] javaSerialization_write() throws IOException {
+        return javaSerialize(form);
+    }
+
+    @Benchmark
+    public Object javaSerialization_read() throws IOException, ClassNotFoundException {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(javaBytes))) {
+            return in.readObject();
+        }
+    }
+
+    @Benchmark
+    public byte[] compact_write() {
+        return formDataType.encode(form);
+    }
+
+    @Benchmark
+    public Object compact_read() {
+        return formDataType.decode(compactBytes);
+    }
+
+    private static byte[] javaSerialize(Object value) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(value);
+        }
+        return bytes.toByteArray();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(FormDataSerializationBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
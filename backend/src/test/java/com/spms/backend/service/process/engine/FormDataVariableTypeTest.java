@@ -0,0 +1,134 @@
+package com.spms.backend.service.process.engine;
+
+import com.spms.backend.service.process.FormDataProcessor;
+import org.flowable.common.engine.api.FlowableException;
+import org.flowable.variable.api.types.ValueFields;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectOutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class FormDataVariableTypeTest {
+
+    private final FormDataVariableType type = new FormDataVariableType();
+
+    private Map<String, Object> leaveForm() {
+        return new FormDataProcessor()
+                .processLeaveData("Chan Tai Man", "ANNUAL", "2026-10-19", "2026-10-23", "Family trip")
+                .getFormData();
+    }
+
+    private static Map<String, Object> with(String key, Object value) {
+        Map<String, Object> map = new HashMap<>();
+        map.put(key, value);
+        return map;
+    }
+
+    @Test
+    void isAbleToStore_ShouldAcceptJsonMapsOnly() {
+        Map<String, Object> attachment = new LinkedHashMap<>();
+        attachment.put("name", "ticket.pdf");
+        attachment.put("size", 1024);
+        Map<String, Object> nested = new HashMap<>(leaveForm());
+        nested.put("days", 5);
+        nested.put("attachments", new ArrayList<>(List.of(attachment)));
+
+        assertTrue(type.isAbleToStore(nested));
+        assertEquals(nested, type.decode(type.encode(nested)));
+        assertFalse(type.isAbleToStore("formData"));
+        assertFalse(type.isAbleToStore(null));
+        assertFalse(type.isAbleToStore(with("startDate", LocalDate.of(2026, 10, 19))));
+        assertFalse(type.isAbleToStore(new HashMap<>(Map.of(1, "value"))));
+    }
+
+    @Test
+    void isAbleToStore_ShouldRejectLongThatReadsBackAsInteger() {
+        assertFalse(type.isAbleToStore(with("amount", 1024L)));
+
+        Map<String, Object> large = with("amount", 5_000_000_000L);
+        assertTrue(type.isAbleToStore(large));
+        assertEquals(5_000_000_000L, type.decode(type.encode(large)).get("amount"));
+    }
+
+    @Test
+    void isAbleToStore_ShouldRejectBigDecimal() {
+        assertFalse(type.isAbleToStore(with("amount", new BigDecimal("1234.10"))));
+        assertFalse(type.isAbleToStore(with("amount", BigInteger.TEN)));
+    }
+
+    @Test
+    void isAbleToStore_ShouldRejectSetsAndOtherCollectionTypes() {
+        assertFalse(type.isAbleToStore(with("approvers", Set.of("alice", "bob"))));
+        assertFalse(type.isAbleToStore(with("approvers", List.of("alice", "bob"))));
+        assertFalse(type.isAbleToStore(new TreeMap<>(Map.of("days", 5))));
+        assertFalse(type.isAbleToStore(with("range", new TreeMap<>(Map.of("days", 5)))));
+    }
+
+    @Test
+    void setValue_ShouldRoundTripSmallPayloadWithoutCompression() {
+        Map<String, Object> form = leaveForm();
+        ValueFields fields = mock(ValueFields.class);
+
+        type.setValue(form, fields);
+
+        ArgumentCaptor<byte[]> stored = ArgumentCaptor.forClass(byte[].class);
+        verify(fields).setBytes(stored.capture());
+        assertEquals(FormDataVariableType.FORMAT_SMILE, stored.getValue()[0]);
+
+        when(fields.getBytes()).thenReturn(stored.getValue());
+        assertEquals(form, type.getValue(fields));
+    }
+
+    @Test
+    void setValue_ShouldCompressLargePayload() {
+        Map<String, Object> form = new HashMap<>(leaveForm());
+        List<String> history = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            history.add("Approved by manager " + i);
+        }
+        form.put("history", history);
+
+        byte[] stored = type.encode(form);
+
+        assertEquals(FormDataVariableType.FORMAT_SMILE_DEFLATE, stored[0]);
+        assertEquals(form, type.decode(stored));
+    }
+
+    @Test
+    void setValue_ShouldBeSmallerThanJavaSerialization() throws Exception {
+        HashMap<String, Object> form = new HashMap<>(leaveForm());
+        ByteArrayOutputStream serialized = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(serialized)) {
+            out.writeObject(form);
+        }
+
+        assertTrue(type.encode(form).length < serialized.size());
+    }
+
+    @Test
+    void getValue_ShouldReturnNullForMissingBytes() {
+        ValueFields fields = mock(ValueFields.class);
+        when(fields.getBytes()).thenReturn(null);
+
+        assertNull(type.getValue(fields));
+    }
+
+    @Test
+    void decode_ShouldRejectUnknownFormat() {
+        assertThrows(FlowableException.class, () -> type.decode(new byte[]{9, 0}));
+    }
+}
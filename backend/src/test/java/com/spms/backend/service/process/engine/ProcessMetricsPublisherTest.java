@@ -0,0 +1,60 @@
+package com.spms.backend.service.process.engine;
+
+import com.spms.backend.service.sys.cluster.NodeMetrics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ProcessMetricsPublisherTest {
+
+    private ProcessMetrics processMetrics;
+    private NodeMetrics nodeMetrics;
+    private ProcessMetricsPublisher publisher;
+
+    @BeforeEach
+    void setUp() {
+        processMetrics = mock(ProcessMetrics.class);
+        nodeMetrics = mock(NodeMetrics.class);
+        publisher = new ProcessMetricsPublisher(processMetrics, nodeMetrics, Duration.ofSeconds(10));
+    }
+
+    @Test
+    void publish_ShouldAddCommandsSincePreviousPublish() {
+        when(processMetrics.commandCount()).thenReturn(40L, 55L);
+        when(processMetrics.percentileMillis("startInstance", 0.95)).thenReturn(120L);
+
+        publisher.publish();
+        publisher.publish();
+
+        verify(nodeMetrics).add(ProcessMetricsPublisher.ENGINE_COMMANDS, 40);
+        verify(nodeMetrics).add(ProcessMetricsPublisher.ENGINE_COMMANDS, 15);
+        verify(nodeMetrics, times(2)).set(ProcessMetricsPublisher.START_P95, 120);
+        verify(nodeMetrics, times(2)).set(ProcessMetricsPublisher.COMPLETE_P95, 0);
+    }
+
+    @Test
+    void publish_ShouldKeepCommandsOfFailedPublishForTheNextOne() {
+        when(processMetrics.commandCount()).thenReturn(40L, 55L);
+        doThrow(new DataAccessResourceFailureException("down"))
+                .doNothing()
+                .when(nodeMetrics).add(ProcessMetricsPublisher.ENGINE_COMMANDS, 40);
+
+        publisher.publish();
+        publisher.publish();
+
+        verify(nodeMetrics).add(ProcessMetricsPublisher.ENGINE_COMMANDS, 55);
+    }
+
+    @Test
+    void highestMillis_ShouldReadNodesOfLastThreeIntervals() {
+        when(nodeMetrics.highest(ProcessMetricsPublisher.COMPLETE_P95, Duration.ofSeconds(30))).thenReturn(250L);
+
+        assertEquals(250, publisher.highestMillis(ProcessMetricsPublisher.COMPLETE_P95));
+        assertEquals(0, publisher.highestMillis(ProcessMetricsPublisher.START_P95));
+    }
+}
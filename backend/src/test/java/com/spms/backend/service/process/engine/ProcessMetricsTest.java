@@ -0,0 +1,204 @@
+package com.spms.backend.service.process.engine;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.flowable.common.engine.api.delegate.event.FlowableEngineEvent;
+import org.flowable.common.engine.impl.interceptor.Command;
+import org.flowable.common.engine.impl.interceptor.CommandConfig;
+import org.flowable.common.engine.impl.interceptor.CommandInterceptor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class ProcessMetricsTest {
+
+    private SimpleMeterRegistry registry;
+    private ProcessMetrics metrics;
+    private ProcessCommandMetricsInterceptor interceptor;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        metrics = new ProcessMetrics(registry);
+        interceptor = new ProcessCommandMetricsInterceptor(metrics);
+        CommandInterceptor next = mock(CommandInterceptor.class);
+        when(next.execute(any(), any(), any())).thenReturn("done");
+        interceptor.setNext(next);
+    }
+
+    private Object runCommand() {
+        Command<Object> command = commandContext -> null;
+        return interceptor.execute(new CommandConfig(), command, null);
+    }
+
+    @Test
+    void record_ShouldTimeOperationWithProcessAndCommandCount() {
+        String result = metrics.record("completeTask", () -> {
+            runCommand();
+            ProcessMetrics.process("leave:3:2501");
+            runCommand();
+            ProcessMetrics.process("expense:1:7");
+            return "ok";
+        });
+
+        assertEquals("ok", result);
+        Timer timer = registry.get(ProcessMetrics.OPERATION_TIMER)
+                .tags("operation", "completeTask", "process", "leave", "outcome", "success").timer();
+        assertEquals(1, timer.count());
+        DistributionSummary queries = registry.get(ProcessMetrics.ENGINE_QUERIES)
+                .tags("operation", "completeTask", "process", "leave").summary();
+        assertEquals(2.0, queries.totalAmount());
+        assertEquals(2, metrics.commandCount());
+    }
+
+    @Test
+    void record_ShouldTagFailuresAndUnknownProcess() {
+        assertThrows(IllegalStateException.class, () -> metrics.run("rejectTask", () -> {
+            throw new IllegalStateException("boom");
+        }));
+
+        assertEquals(1, registry.get(ProcessMetrics.OPERATION_TIMER)
+                .tags("operation", "rejectTask", "process", ProcessMetrics.UNKNOWN, "outcome", "error").timer().count());
+    }
+
+    @Test
+    void record_ShouldCountNestedCallsInOutermostOperation() {
+        metrics.run("startInstance", () -> {
+            runCommand();
+            metrics.record("getInstanceTasks", this::runCommand);
+        });
+
+        assertNull(registry.find(ProcessMetrics.OPERATION_TIMER).tag("operation", "getInstanceTasks").timer());
+        assertEquals(2.0, registry.get(ProcessMetrics.ENGINE_QUERIES)
+                .tag("operation", "startInstance").summary().totalAmount());
+    }
+
+    @Test
+    void process_ShouldBeIgnoredOutsideAnOperation() {
+        ProcessMetrics.process("leave:1:1");
+        metrics.run("saveDraft", () -> {
+        });
+
+        assertNotNull(registry.get(ProcessMetrics.OPERATION_TIMER)
+                .tags("operation", "saveDraft", "process", ProcessMetrics.UNKNOWN).timer());
+    }
+
+    @Test
+    void eventListener_ShouldTagOperationWithEventProcessDefinition() {
+        FlowableEngineEvent event = mock(FlowableEngineEvent.class);
+        when(event.getProcessDefinitionId()).thenReturn("leave:2:42");
+        ProcessMetricsEventListener listener = new ProcessMetricsEventListener();
+
+        metrics.run("completeTask", () -> listener.onEvent(event));
+
+        assertNotNull(registry.get(ProcessMetrics.OPERATION_TIMER)
+                .tags("operation", "completeTask", "process", "leave").timer());
+    }
+
+    @Test
+    void variableWrites_ShouldCountRowsPerScope() {
+        metrics.run("completeTask", () ->
+                metrics.variableWrites(new ProcessVariableWriter.VariableWriteReport(5, 3, 3)));
+
+        assertEquals(3.0, registry.get(ProcessMetrics.VARIABLE_WRITES)
+                .tags("operation", "completeTask", "scope", "runtime").counter().count());
+        assertEquals(3.0, registry.get(ProcessMetrics.VARIABLE_WRITES)
+                .tags("operation", "completeTask", "scope", "history").counter().count());
+        assertEquals(2.0, registry.get(ProcessMetrics.VARIABLE_SKIPPED)
+                .tag("operation", "completeTask").counter().count());
+    }
+
+    @Test
+    void variableWrites_ShouldCountOnlyCommittedRows() {
+        ProcessVariableWriter.VariableWriteReport report = new ProcessVariableWriter.VariableWriteReport(5, 3, 3);
+        metrics.run("completeTasks", () -> {
+            inTransaction(() -> metrics.variableWrites(report)).forEach(synchronization ->
+                    synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+            inTransaction(() -> metrics.variableWrites(report)).forEach(TransactionSynchronization::afterCommit);
+        });
+
+        assertEquals(3.0, registry.get(ProcessMetrics.VARIABLE_WRITES)
+                .tags("operation", "completeTasks", "scope", "runtime").counter().count());
+        assertEquals(2.0, registry.get(ProcessMetrics.VARIABLE_SKIPPED)
+                .tag("operation", "completeTasks").counter().count());
+    }
+
+    @Test
+    void percentileMillis_ShouldReturnNullWhenOperationHasNotRun() {
+        assertNull(metrics.percentileMillis("startInstance", 0.95));
+
+        metrics.run("startInstance", () -> {
+        });
+
+        assertNotNull(metrics.percentileMillis("startInstance", 0.95));
+    }
+
+    @Test
+    void commandName_ShouldUseDeclaringClassForLambdas() {
+        Command<Object> lambda = commandContext -> null;
+
+        assertEquals("ProcessMetricsTest", ProcessCommandMetricsInterceptor.commandName(lambda));
+        runCommand();
+        assertNotNull(registry.get(ProcessMetrics.COMMAND_TIMER)
+                .tags("command", "ProcessMetricsTest", "outcome", "success").timer());
+    }
+
+    @Test
+    void command_ShouldFeedEngineQueryCounter() {
+        EngineQueryCounter.reset();
+        try {
+            metrics.run("getInstances", () -> {
+                runCommand();
+                runCommand();
+            });
+            runCommand();
+
+            assertEquals(3, EngineQueryCounter.get());
+        } finally {
+            EngineQueryCounter.reset();
+        }
+    }
+
+    @Test
+    void record_ShouldTimeUntilTransactionCompletes() {
+        List<TransactionSynchronization> synchronizations = inTransaction(() -> metrics.run("completeTask", this::runCommand));
+
+        assertNull(registry.find(ProcessMetrics.OPERATION_TIMER).tag("operation", "completeTask").timer());
+        synchronizations.forEach(synchronization ->
+                synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+
+        assertEquals(1, registry.get(ProcessMetrics.OPERATION_TIMER)
+                .tags("operation", "completeTask", "outcome", "success").timer().count());
+        assertEquals(1.0, registry.get(ProcessMetrics.ENGINE_QUERIES)
+                .tag("operation", "completeTask").summary().totalAmount());
+    }
+
+    @Test
+    void record_ShouldTagRolledBackTransactionAsError() {
+        List<TransactionSynchronization> synchronizations = inTransaction(() -> metrics.run("saveDraft", this::runCommand));
+
+        synchronizations.forEach(synchronization ->
+                synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        assertEquals(1, registry.get(ProcessMetrics.OPERATION_TIMER)
+                .tags("operation", "saveDraft", "outcome", "error").timer().count());
+    }
+
+    private static List<TransactionSynchronization> inTransaction(Runnable body) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            body.run();
+            return TransactionSynchronizationManager.getSynchronizations();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.spms.backend.service.process.engine;
+
+import org.flowable.common.engine.impl.history.HistoryLevel;
+import org.flowable.engine.ProcessEngine;
+import org.flowable.engine.ProcessEngineConfiguration;
+import org.flowable.engine.RuntimeService;
+import org.flowable.engine.TaskService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class ProcessVariableWriterTest {
+
+    private static final String INSTANCE_ID = "instance1";
+    private static final String TASK_ID = "task1";
+
+    @Mock
+    private ProcessEngine flowableEngine;
+    @Mock
+    private RuntimeService runtimeService;
+    @Mock
+    private TaskService taskService;
+    @Mock
+    private ProcessEngineConfiguration configuration;
+
+    private ProcessVariableWriter writer;
+
+    @BeforeEach
+    void setUp() {
+        when(flowableEngine.getRuntimeService()).thenReturn(runtimeService);
+        when(flowableEngine.getTaskService()).thenReturn(taskService);
+        when(flowableEngine.getProcessEngineConfiguration()).thenReturn(configuration);
+        when(configuration.getHistoryLevel()).thenReturn(HistoryLevel.AUDIT);
+        writer = new ProcessVariableWriter(flowableEngine);
+    }
+
+    @Test
+    void completeTask_ShouldPassOnlyChangedVariablesOnce() {
+        Map<String, Object> formData = new HashMap<>(Map.of("days", "3", "type", "annual"));
+        when(runtimeService.getVariables(eq(INSTANCE_ID), anyCollection()))
+                .thenReturn(Map.of("formData", new HashMap<>(formData), "approve", "pending"));
+
+        Map<String, Object> incoming = new LinkedHashMap<>();
+        incoming.put("formData", new HashMap<>(formData));
+        incoming.put("approve", "approve");
+        incoming.put("comment", "ok");
+
+        ProcessVariableWriter.VariableWriteReport report = writer.completeTask(INSTANCE_ID, TASK_ID, incoming);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Map<String, Object>> captor = ArgumentCaptor.forClass(Map.class);
+        verify(taskService, times(1)).complete(eq(TASK_ID), captor.capture());
+        assertEquals(Map.of("approve", "approve", "comment", "ok"), captor.getValue());
+        verify(runtimeService, never()).setVariables(anyString(), anyMap());
+        verify(runtimeService, never()).getVariables(INSTANCE_ID);
+
+        assertEquals(3, report.submitted());
+        assertEquals(2, report.runtimeRows());
+        assertEquals(2, report.historyRows());
+        assertEquals(1, report.skipped());
+    }
+
+    @Test
+    void writeToInstance_WhenFormDataEmpty_ShouldKeepStoredFormData() {
+        when(runtimeService.getVariables(eq(INSTANCE_ID), anyCollection()))
+                .thenReturn(Map.of("formData", Map.of("days", "3")));
+
+        Map<String, Object> incoming = new HashMap<>();
+        incoming.put("formData", new HashMap<>());
+        incoming.put("note", "draft");
+
+        ProcessVariableWriter.VariableWriteReport report = writer.writeToInstance(INSTANCE_ID, incoming);
+
+        verify(runtimeService).setVariables(INSTANCE_ID, Map.of("note", "draft"));
+        assertEquals(1, report.runtimeRows());
+    }
+
+    @Test
+    void writeToInstance_WhenNothingChanged_ShouldNotWrite() {
+        when(runtimeService.getVariables(eq(INSTANCE_ID), anyCollection()))
+                .thenReturn(Map.of("note", "draft"));
+
+        ProcessVariableWriter.VariableWriteReport report =
+                writer.writeToInstance(INSTANCE_ID, Map.of("note", "draft"));
+
+        verify(runtimeService, never()).setVariables(anyString(), anyMap());
+        assertEquals(0, report.runtimeRows());
+        assertEquals(0, report.historyRows());
+    }
+
+    @Test
+    void report_WhenHistoryDisabled_ShouldCountNoHistoryRows() {
+        when(configuration.getHistoryLevel()).thenReturn(HistoryLevel.NONE);
+        when(runtimeService.getVariables(eq(INSTANCE_ID), anyCollection())).thenReturn(Map.of());
+
+        ProcessVariableWriter.VariableWriteReport report =
+                writer.writeToInstance(INSTANCE_ID, Map.of("note", "draft"));
+
+        assertEquals(1, report.runtimeRows());
+        assertEquals(0, report.historyRows());
+    }
+}
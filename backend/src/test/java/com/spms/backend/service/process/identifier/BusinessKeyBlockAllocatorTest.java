@@ -0,0 +1,171 @@
+package com.spms.backend.service.process.identifier;
+
+import com.spms.backend.config.BusinessKeyProperties;
+import com.spms.backend.repository.process.KeyBlockRepository;
+import com.spms.backend.repository.process.KeyGeneratorRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class BusinessKeyBlockAllocatorTest {
+
+    private static final Logger log = LoggerFactory.getLogger(BusinessKeyBlockAllocatorTest.class);
+
+    /**
+     * Stands in for the locked counter row shared by every node of a cluster.
+     */
+    private static class SharedCounter {
+        private final AtomicLong highWaterMark = new AtomicLong(1L);
+        private final AtomicInteger reservations = new AtomicInteger();
+
+        synchronized long reserve(int size) {
+            reservations.incrementAndGet();
+            return highWaterMark.getAndAdd(size);
+        }
+    }
+
+    private static BusinessKeyBlockAllocator allocator(SharedCounter counter, int blockSize) {
+        BusinessKeyProperties properties = new BusinessKeyProperties();
+        properties.setBlockSize(blockSize);
+        return new BusinessKeyBlockAllocator(
+                mock(KeyBlockRepository.class),
+                mock(KeyGeneratorRepository.class),
+                mock(PlatformTransactionManager.class),
+                properties) {
+            @Override
+            protected long reserveBlock(String prefix, int size) {
+                return counter.reserve(size);
+            }
+        };
+    }
+
+    @Test
+    void nextSequence_WhenBlockUsedUp_ShouldReserveNextBlock() {
+        SharedCounter counter = new SharedCounter();
+        BusinessKeyBlockAllocator allocator = allocator(counter, 3);
+
+        List<Long> values = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            values.add(allocator.nextSequence("REQ"));
+        }
+
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L, 6L, 7L), values);
+        assertEquals(3, counter.reservations.get());
+    }
+
+    @Test
+    void nextSequence_WhenPrefixesDiffer_ShouldKeepSeparateBlocks() {
+        SharedCounter reqCounter = new SharedCounter();
+        BusinessKeyBlockAllocator allocator = new BusinessKeyBlockAllocator(
+                mock(KeyBlockRepository.class),
+                mock(KeyGeneratorRepository.class),
+                mock(PlatformTransactionManager.class),
+                new BusinessKeyProperties()) {
+            private final SharedCounter otherCounter = new SharedCounter();
+
+            @Override
+            protected long reserveBlock(String prefix, int size) {
+                return "REQ".equals(prefix) ? reqCounter.reserve(size) : otherCounter.reserve(size);
+            }
+        };
+
+        assertEquals(1L, allocator.nextSequence("REQ"));
+        assertEquals(1L, allocator.nextSequence("LEAVE"));
+        assertEquals(2L, allocator.nextSequence("REQ"));
+    }
+
+    /**
+     * Issues keys from two nodes sharing one counter, {@code threads} threads per run.
+     *
+     * @return elapsed nanoseconds
+     */
+    private static long issueConcurrently(SharedCounter counter, int threads, int perThread,
+                                          Set<Long> issued, AtomicInteger duplicates) throws Exception {
+        BusinessKeyBlockAllocator nodeA = allocator(counter, 50);
+        BusinessKeyBlockAllocator nodeB = allocator(counter, 50);
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                BusinessKeyBlockAllocator node = t % 2 == 0 ? nodeA : nodeB;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < perThread; i++) {
+                        if (!issued.add(node.nextSequence("REQ"))) {
+                            duplicates.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+
+            long begin = System.nanoTime();
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+            return System.nanoTime() - begin;
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void nextSequence_WhenManyThreadsOnTwoNodes_ShouldNeverCollide() throws Exception {
+        SharedCounter counter = new SharedCounter();
+        int threads = 16;
+        int perThread = 5_000;
+        Set<Long> issued = ConcurrentHashMap.newKeySet();
+        AtomicInteger duplicates = new AtomicInteger();
+
+        issueConcurrently(counter, threads, perThread, issued, duplicates);
+
+        int total = threads * perThread;
+        assertEquals(0, duplicates.get());
+        assertEquals(total, issued.size());
+        // One locked reservation per block instead of one MAX(seq) query per key
+        assertTrue(counter.reservations.get() <= total / 50 + 2 * threads);
+    }
+
+    /**
+     * Throughput of block allocation; runs only with {@code -Dspms.benchmark=true}.
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "spms.benchmark", matches = "true")
+    void nextSequence_Throughput() throws Exception {
+        int threads = 16;
+        int perThread = 50_000;
+        long elapsedNanos = issueConcurrently(new SharedCounter(), threads, perThread,
+                ConcurrentHashMap.newKeySet(), new AtomicInteger());
+
+        int total = threads * perThread;
+        double perSecond = total / (elapsedNanos / 1_000_000_000.0);
+        log.info("Issued {} business keys in {} ms ({} keys/s)",
+                total, TimeUnit.NANOSECONDS.toMillis(elapsedNanos), Math.round(perSecond));
+        assertTrue(perSecond > 1_000, "expected thousands of keys per second but got " + perSecond);
+    }
+
+    @Test
+    void sequenceBlock_WhenDrained_ShouldReportUnusedValues() {
+        BusinessKeyBlockAllocator.SequenceBlock block = new BusinessKeyBlockAllocator.SequenceBlock(1L, 10L);
+        block.next();
+        block.next();
+
+        assertEquals(8L, block.drain());
+        assertTrue(block.isExhausted());
+        assertEquals(-1L, block.next());
+    }
+}
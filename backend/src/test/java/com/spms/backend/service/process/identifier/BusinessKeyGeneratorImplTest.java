@@ -15,6 +15,7 @@ import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -23,6 +24,9 @@ class BusinessKeyGeneratorImplTest {
     @Mock
     private KeyGeneratorRepository keyGeneratorRepository;
 
+    @Mock
+    private BusinessKeyBlockAllocator blockAllocator;
+
     @InjectMocks
     private BusinessKeyGeneratorImpl businessKeyGenerator;
 
@@ -94,7 +98,7 @@ class BusinessKeyGeneratorImplTest {
 
     @Test
     void generateBusinessKey_WhenNoExistingKey_ShouldStartSequenceAtOne() {
-        when(keyGeneratorRepository.findMaxSeqByPrefix("NEW")).thenReturn(Optional.empty());
+        when(blockAllocator.nextSequence("NEW")).thenReturn(1L);
         when(keyGeneratorRepository.save(any(BusinessKeyEntities.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
         BusinessKeyModel result = businessKeyGenerator.generateBusinessKey("NEW", "-");
@@ -104,13 +108,14 @@ class BusinessKeyGeneratorImplTest {
         assertEquals(1L, result.getSequence());
         assertEquals("-", result.getSplit());
         
-        verify(keyGeneratorRepository, times(1)).findMaxSeqByPrefix("NEW");
+        verify(blockAllocator, times(1)).nextSequence("NEW");
+        verify(keyGeneratorRepository, never()).findMaxSeqByPrefix(anyString());
         verify(keyGeneratorRepository, times(1)).save(any(BusinessKeyEntities.class));
     }
 
     @Test
     void generateBusinessKey_WhenExistingKey_ShouldIncrementSequence() {
-        when(keyGeneratorRepository.findMaxSeqByPrefix("EXISTING")).thenReturn(Optional.of(50L));
+        when(blockAllocator.nextSequence("EXISTING")).thenReturn(51L);
         when(keyGeneratorRepository.save(any(BusinessKeyEntities.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
         BusinessKeyModel result = businessKeyGenerator.generateBusinessKey("EXISTING", ":");
@@ -120,7 +125,7 @@ class BusinessKeyGeneratorImplTest {
         assertEquals(51L, result.getSequence());
         assertEquals(":", result.getSplit());
         
-        verify(keyGeneratorRepository, times(1)).findMaxSeqByPrefix("EXISTING");
+        verify(blockAllocator, times(1)).nextSequence("EXISTING");
         verify(keyGeneratorRepository, times(1)).save(any(BusinessKeyEntities.class));
     }
 }
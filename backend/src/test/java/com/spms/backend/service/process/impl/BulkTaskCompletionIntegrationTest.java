@@ -0,0 +1,179 @@
+package com.spms.backend.service.process.impl;
+
+import com.spms.backend.repository.entities.idm.User;
+import com.spms.backend.repository.idm.UserRepository;
+import com.spms.backend.service.model.process.TaskCompletionModel;
+import com.spms.backend.service.model.process.TaskCompletionResultModel;
+import com.spms.backend.service.model.process.TaskCompletionResultModel.Status;
+import com.spms.backend.service.process.ProcessInstanceService;
+import org.flowable.engine.HistoryService;
+import org.flowable.engine.RepositoryService;
+import org.flowable.engine.RuntimeService;
+import org.flowable.engine.TaskService;
+import org.flowable.engine.repository.Deployment;
+import org.flowable.task.api.Task;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.oauth2.client.registration.ClientRegistrationRepository;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * {@link ProcessInstanceService#completeTasks} against H2, logging the throughput of 1,000 tasks. Not
+ * transactional: every chunk commits on its own, so the test removes its deployment and user afterwards.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+public class BulkTaskCompletionIntegrationTest {
+
+    private static final Logger log = LoggerFactory.getLogger(BulkTaskCompletionIntegrationTest.class);
+
+    private static final String APPROVER = "bulk.approver";
+    private static final int TASKS = 1000;
+
+    private static final String PROCESS = """
+            <?xml version="1.0" encoding="UTF-8"?>
+            <definitions xmlns="http://www.omg.org/spec/BPMN/20100524/MODEL"
+                         xmlns:flowable="http://flowable.org/bpmn"
+                         targetNamespace="http://spms.com">
+              <process id="bulk-approval" name="Bulk Approval" isExecutable="true">
+                <startEvent id="start"/>
+                <sequenceFlow id="toApproval" sourceRef="start" targetRef="approval"/>
+                <userTask id="approval" name="Approve" flowable:assignee="${initiator}"/>
+                <sequenceFlow id="toDecision" sourceRef="approval" targetRef="decision"/>
+                <exclusiveGateway id="decision"/>
+                <sequenceFlow id="approved" sourceRef="decision" targetRef="end">
+                  <conditionExpression>${decision == 'approve'}</conditionExpression>
+                </sequenceFlow>
+                <sequenceFlow id="rejected" sourceRef="decision" targetRef="end">
+                  <conditionExpression>${decision == 'reject'}</conditionExpression>
+                </sequenceFlow>
+                <endEvent id="end"/>
+              </process>
+            </definitions>
+            """;
+
+    @MockitoBean
+    private ClientRegistrationRepository clientRegistrationRepository;
+
+    @Autowired
+    private ProcessInstanceService processInstanceService;
+
+    @Autowired
+    private RepositoryService repositoryService;
+
+    @Autowired
+    private RuntimeService runtimeService;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private HistoryService historyService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private Deployment deployment;
+    private User approver;
+
+    @BeforeEach
+    void setUp() {
+        deployment = repositoryService.createDeployment()
+                .addString("bulk-approval.bpmn20.xml", PROCESS)
+                .deploy();
+
+        approver = new User();
+        approver.setUsername(APPROVER);
+        approver.setEmail(APPROVER + "@email.com");
+        approver.setType(User.UserType.STAFF);
+        approver.setDescription("Bulk approver");
+        approver.setProvider("keycloak");
+        approver = userRepository.save(approver);
+    }
+
+    @AfterEach
+    void tearDown() {
+        repositoryService.deleteDeployment(deployment.getId(), true);
+        userRepository.delete(approver);
+    }
+
+    private Task startFor(String initiator) {
+        String instanceId = runtimeService.startProcessInstanceByKey("bulk-approval", Map.of("initiator", initiator))
+                .getId();
+        return taskService.createTaskQuery().processInstanceId(instanceId).singleResult();
+    }
+
+    private static TaskCompletionModel completion(Task task, String decision) {
+        return new TaskCompletionModel(task.getProcessInstanceId(), task.getId(), Map.of("decision", decision));
+    }
+
+    @Test
+    void completeTasks_ShouldCompleteThousandTasksAndIsolateFailures() {
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < TASKS; i++) {
+            tasks.add(startFor(APPROVER));
+        }
+        Task otherUsersTask = startFor("other.user");
+
+        List<TaskCompletionModel> completions = new ArrayList<>();
+        for (int i = 0; i < TASKS; i++) {
+            // The gateway has no flow for "bogus", so this one task fails inside its chunk
+            completions.add(completion(tasks.get(i), i == TASKS / 2 ? "bogus" : "approve"));
+        }
+        completions.add(completion(otherUsersTask, "approve"));
+        completions.add(new TaskCompletionModel(tasks.get(0).getProcessInstanceId(), "missing-task", Map.of()));
+        completions.add(completion(tasks.get(1), "reject"));
+
+        long start = System.nanoTime();
+        List<TaskCompletionResultModel> results = processInstanceService.completeTasks(completions, approver.getId());
+        double seconds = (System.nanoTime() - start) / 1e9;
+        log.info("Bulk completion: {} tasks in {} s, {} tasks/s", TASKS, String.format("%.2f", seconds),
+                String.format("%.0f", TASKS / seconds));
+
+        assertEquals(completions.size(), results.size());
+        for (int i = 0; i < TASKS; i++) {
+            Status expected = i == TASKS / 2 ? Status.FAILED : Status.COMPLETED;
+            assertEquals(expected, results.get(i).status(), "item " + i);
+            assertEquals(tasks.get(i).getId(), results.get(i).taskId());
+        }
+        assertEquals(Status.NOT_ASSIGNED, results.get(TASKS).status());
+        assertEquals(Status.NOT_FOUND, results.get(TASKS + 1).status());
+        assertEquals(Status.INVALID, results.get(TASKS + 2).status());
+
+        // Only the failed task and the other user's task are still open
+        assertEquals(1, taskService.createTaskQuery().taskAssignee(APPROVER).count());
+        assertEquals(tasks.get(TASKS / 2).getId(),
+                taskService.createTaskQuery().taskAssignee(APPROVER).singleResult().getId());
+        assertEquals(1, taskService.createTaskQuery().taskAssignee("other.user").count());
+        assertEquals(TASKS - 1, historyService.createHistoricProcessInstanceQuery()
+                .processDefinitionKey("bulk-approval").finished().count());
+    }
+
+    @Test
+    void completeTasks_ShouldMatchSingleCompletionResult() {
+        Task bulk = startFor(APPROVER);
+        Task single = startFor(APPROVER);
+
+        List<TaskCompletionResultModel> results =
+                processInstanceService.completeTasks(List.of(completion(bulk, "reject")), approver.getId());
+        processInstanceService.completeTask(single.getProcessInstanceId(), single.getId(), approver.getId(),
+                Map.of("decision", "reject"));
+
+        assertEquals(Status.COMPLETED, results.get(0).status());
+        assertEquals("reject", historyService.createHistoricVariableInstanceQuery()
+                .processInstanceId(bulk.getProcessInstanceId()).variableName("decision").singleResult().getValue());
+        assertEquals(0, taskService.createTaskQuery().taskAssignee(APPROVER).count());
+    }
+}
@@ -0,0 +1,172 @@
+package com.spms.backend.service.process.impl;
+
+import com.spms.backend.repository.entities.idm.User;
+import com.spms.backend.repository.idm.UserRepository;
+import com.spms.backend.service.model.process.CursorPage;
+import com.spms.backend.service.model.process.ProcessHistoryModel;
+import com.spms.backend.service.process.ProcessHistoryService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.security.oauth2.client.registration.ClientRegistrationRepository;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Page latency of {@link ProcessHistoryService#getHistoryHandledByUser} by offset and by cursor over
+ * a large history table.
+ * <p>
+ * Historic instances and identity links are inserted directly, one million by default; seeding takes
+ * a few minutes, so the benchmark only runs with {@code -Dspms.benchmark=true}. The number of seeded
+ * instances can be changed with {@code -Dspms.benchmark.instances}.
+ */
+@SpringBootTest
+@TestPropertySource("/application-test.properties")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@EnabledIfSystemProperty(named = "spms.benchmark", matches = "true")
+public class KeysetPaginationBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(KeysetPaginationBenchmarkTest.class);
+
+    private static final String BENCH_USER = "bench.handler";
+    private static final String ID_PREFIX = "bench-";
+    private static final int PAGE_SIZE = 20;
+    private static final int DEEP_PAGE = 100;
+    private static final int BATCH = 10_000;
+
+    @MockitoBean
+    private ClientRegistrationRepository clientRegistrationRepository;
+
+    @Autowired
+    private ProcessHistoryService processHistoryService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User handler;
+    private int instances;
+
+    @BeforeAll
+    void seed() {
+        instances = Integer.getInteger("spms.benchmark.instances", 1_000_000);
+        new ResourceDatabasePopulator(
+                new ClassPathResource("db/migration/V20261017_1600__Add_keyset_pagination_indexes.sql"))
+                .execute(dataSource);
+
+        handler = new User();
+        handler.setUsername(BENCH_USER);
+        handler.setEmail(BENCH_USER + "@email.com");
+        handler.setType(User.UserType.STAFF);
+        handler.setDescription("Benchmark handler");
+        handler.setProvider("keycloak");
+        handler = userRepository.save(handler);
+
+        long newest = System.currentTimeMillis();
+        List<Object[]> procinst = new ArrayList<>(BATCH);
+        List<Object[]> links = new ArrayList<>(BATCH);
+        for (int i = 0; i < instances; i++) {
+            String id = ID_PREFIX + i;
+            Timestamp start = new Timestamp(newest - i * 1000L);
+            procinst.add(new Object[]{id, id, "bench:1:1", start, new Timestamp(start.getTime() + 500)});
+            // Every other instance was handled by the benchmark user
+            String user = i % 2 == 0 ? BENCH_USER : "other.user" + (i % 100);
+            links.add(new Object[]{ID_PREFIX + "link-" + i, "participant", user, start, id});
+            if (procinst.size() == BATCH || i == instances - 1) {
+                jdbcTemplate.batchUpdate("INSERT INTO ACT_HI_PROCINST (ID_, PROC_INST_ID_, PROC_DEF_ID_, START_TIME_, END_TIME_) " +
+                        "VALUES (?, ?, ?, ?, ?)", procinst);
+                jdbcTemplate.batchUpdate("INSERT INTO ACT_HI_IDENTITYLINK (ID_, TYPE_, USER_ID_, CREATE_TIME_, PROC_INST_ID_) " +
+                        "VALUES (?, ?, ?, ?, ?)", links);
+                procinst.clear();
+                links.clear();
+            }
+        }
+    }
+
+    @AfterAll
+    void cleanup() {
+        jdbcTemplate.update("DELETE FROM ACT_HI_IDENTITYLINK WHERE ID_ LIKE ?", ID_PREFIX + "%");
+        jdbcTemplate.update("DELETE FROM ACT_HI_PROCINST WHERE ID_ LIKE ?", ID_PREFIX + "%");
+        if (handler != null) {
+            userRepository.delete(handler);
+        }
+    }
+
+    private static double millis(Runnable query, int runs) {
+        long begin = System.nanoTime();
+        for (int r = 0; r < runs; r++) {
+            query.run();
+        }
+        return (System.nanoTime() - begin) / 1_000_000.0 / runs;
+    }
+
+    @Test
+    void cursorPageLatency_ShouldNotDependOnDepth() {
+        Long userId = handler.getId();
+
+        // Walk to the deep page once, checking that pages neither overlap nor skip rows
+        Set<String> seen = new HashSet<>();
+        List<String> cursors = new ArrayList<>();
+        String cursor = null;
+        CursorPage<ProcessHistoryModel> page = null;
+        for (int p = 0; p < DEEP_PAGE; p++) {
+            cursors.add(cursor);
+            page = processHistoryService.getHistoryHandledByUser(userId, cursor, PAGE_SIZE, p == 0);
+            assertEquals(PAGE_SIZE, page.content().size());
+            for (ProcessHistoryModel model : page.content()) {
+                assertTrue(seen.add(model.getProcessInstanceId()), "instance returned twice: " + model.getProcessInstanceId());
+            }
+            if (p == 0) {
+                assertEquals((instances + 1) / 2, page.total());
+            } else {
+                assertNull(page.total());
+            }
+            cursor = page.nextCursor();
+        }
+        assertEquals(ID_PREFIX + 2 * (DEEP_PAGE * PAGE_SIZE - 1),
+                page.content().get(PAGE_SIZE - 1).getProcessInstanceId());
+
+        String firstCursor = cursors.get(0);
+        String deepCursor = cursors.get(DEEP_PAGE - 1);
+        for (int i = 0; i < 20; i++) {
+            processHistoryService.getHistoryHandledByUser(userId, firstCursor, PAGE_SIZE, false);
+            processHistoryService.getHistoryHandledByUser(userId, deepCursor, PAGE_SIZE, false);
+        }
+
+        int runs = 20;
+        double cursorFirst = millis(() -> processHistoryService.getHistoryHandledByUser(userId, firstCursor, PAGE_SIZE, false), runs);
+        double cursorDeep = millis(() -> processHistoryService.getHistoryHandledByUser(userId, deepCursor, PAGE_SIZE, false), runs);
+        double offsetFirst = millis(() -> processHistoryService.getHistoryHandledByUser(userId, PageRequest.of(0, PAGE_SIZE)), runs);
+        double offsetDeep = millis(() -> processHistoryService.getHistoryHandledByUser(userId, PageRequest.of(DEEP_PAGE - 1, PAGE_SIZE)), runs);
+
+        log.info("{} instances: {}", instances,
+                String.format("cursor page 1 %.2f ms, page %d %.2f ms; offset page 1 %.2f ms, page %d %.2f ms",
+                        cursorFirst, DEEP_PAGE, cursorDeep, offsetFirst, DEEP_PAGE, offsetDeep));
+        assertTrue(cursorDeep < Math.max(cursorFirst * 2, cursorFirst + 20),
+                "page " + DEEP_PAGE + " should cost about as much as page 1: " + cursorDeep + " vs " + cursorFirst + " ms");
+    }
+}
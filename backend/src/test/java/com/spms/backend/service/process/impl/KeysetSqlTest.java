@@ -0,0 +1,49 @@
+package com.spms.backend.service.process.impl;
+
+import com.spms.backend.service.exception.ValidationException;
+import com.spms.backend.service.model.process.CursorPage;
+import com.spms.backend.service.model.process.SeekCursor;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KeysetSqlTest {
+
+    @Test
+    void seekCursor_ShouldRoundTrip() {
+        SeekCursor cursor = new SeekCursor(new Date(1760000000123L), "12345:with-colon");
+
+        SeekCursor decoded = SeekCursor.decode(cursor.encode());
+
+        assertEquals(cursor, decoded);
+        assertNull(SeekCursor.decode(null));
+        assertNull(SeekCursor.decode(" "));
+        assertThrows(ValidationException.class, () -> SeekCursor.decode("not a cursor"));
+    }
+
+    @Test
+    void after_ShouldOnlyFilterWhenCursorGiven() {
+        assertEquals("", KeysetSql.after("START_TIME_", null));
+        assertEquals(" AND (RES.START_TIME_ < #{seekTime} OR (RES.START_TIME_ = #{seekTime} AND RES.ID_ < #{seekId}))",
+                KeysetSql.after("START_TIME_", new SeekCursor(new Date(), "1")));
+    }
+
+    @Test
+    void page_ShouldUseExtraRowOnlyToDetectNextPage() {
+        List<Integer> rows = List.of(5, 4, 3);
+
+        CursorPage<String> more = KeysetSql.page(rows, 2, i -> new SeekCursor(new Date(i), "id" + i), String::valueOf, 10L);
+        CursorPage<String> last = KeysetSql.page(rows, 3, i -> new SeekCursor(new Date(i), "id" + i), String::valueOf, null);
+
+        assertEquals(List.of("5", "4"), more.content());
+        assertEquals(new SeekCursor(new Date(4), "id4"), SeekCursor.decode(more.nextCursor()));
+        assertEquals(10L, more.total());
+        assertEquals(List.of("5", "4", "3"), last.content());
+        assertNull(last.nextCursor());
+        assertEquals(100, KeysetSql.pageSize(1000));
+        assertEquals(1, KeysetSql.pageSize(0));
+    }
+}
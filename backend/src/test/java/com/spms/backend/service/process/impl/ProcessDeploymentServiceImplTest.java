@@ -24,6 +24,7 @@ import org.springframework.data.domain.Pageable;
 
 import java.util.Collections;
 import java.util.Optional;
+import com.spms.backend.service.process.DeployedVersionResolver;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -43,6 +44,9 @@ public class ProcessDeploymentServiceImplTest {
     @Mock
     private ProcessEngine flowableEngine;
 
+    @Mock
+    private DeployedVersionResolver deployedVersionResolver;
+
     @InjectMocks
     private ProcessDeploymentServiceImpl processDeploymentService;
 
@@ -1,15 +1,18 @@
 package com.spms.backend.service.process.impl;
 
-import com.spms.backend.repository.entities.process.ProcessDefinitionEntity;
-import com.spms.backend.repository.entities.process.ProcessVersionEntity;
 import com.spms.backend.repository.process.ProcessVersionRepository;
 import com.spms.backend.service.exception.NotFoundException;
+import com.spms.backend.service.exception.SpmsRuntimeException;
 import com.spms.backend.service.exception.ValidationException;
 import com.spms.backend.service.idm.UserService;
 import com.spms.backend.service.model.process.BusinessKeyModel;
 import com.spms.backend.service.model.process.ProcessInstanceModel;
 import com.spms.backend.service.model.process.TaskModel;
+import com.spms.backend.service.model.idm.UserModel;
 import com.spms.backend.service.process.BusinessKeyGenerator;
+import com.spms.backend.service.process.DeployedVersionResolver;
+import com.spms.backend.service.process.engine.ProcessMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.flowable.engine.ProcessEngine;
 import org.flowable.engine.RuntimeService;
 import org.flowable.engine.TaskService;
@@ -17,13 +20,17 @@ import org.flowable.engine.history.HistoricProcessInstance;
 import org.flowable.engine.history.HistoricProcessInstanceQuery;
 import org.flowable.engine.runtime.ProcessInstance;
 import org.flowable.engine.runtime.ProcessInstanceBuilder;
+import org.flowable.engine.runtime.ProcessInstanceQuery;
 import org.flowable.task.api.Task;
 import org.flowable.task.api.TaskQuery;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -48,6 +55,12 @@ public class ProcessInstanceServiceImplTest {
     @Mock
     private ProcessVersionRepository processVersionRepository;
 
+    @Mock
+    private DeployedVersionResolver deployedVersionResolver;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
     private final String TEST_INSTANCE_ID = "instance123";
     private final String TEST_TASK_ID = "task456";
     private final Long TEST_USER_ID = 100L;
@@ -67,7 +80,10 @@ public class ProcessInstanceServiceImplTest {
                 flowableEngine,
                 businessKeyGenerator,
                 processVersionRepository,
-                null
+                null,
+                deployedVersionResolver,
+                new ProcessMetrics(new SimpleMeterRegistry()),
+                transactionManager
         );
         when(userService.getCurrentUserId()).thenReturn(TEST_USER_ID);
 
@@ -86,6 +102,8 @@ public class ProcessInstanceServiceImplTest {
         when(builder.variables(any())).thenReturn(builder);
         when(builder.processDefinitionKey(anyString())).thenReturn(builder);
         when(builder.businessKey(anyString())).thenReturn(builder);
+        when(builder.owner(any())).thenReturn(builder);
+        when(builder.transientVariables(any())).thenReturn(builder);
         
         ProcessInstance instance = mock(ProcessInstance.class);
         when(instance.getId()).thenReturn(TEST_INSTANCE_ID);
@@ -104,13 +122,12 @@ public class ProcessInstanceServiceImplTest {
         when(task.getAssignee()).thenReturn("user123");
         when(taskQuery.list()).thenReturn(Collections.singletonList(task));
 
-        ProcessVersionEntity processVersion = new ProcessVersionEntity();
-        var processDef= new ProcessDefinitionEntity();
-        processVersion.setProcessDefinition(processDef);
-        processVersion.setKey("test_key");
-
-        when(processVersionRepository.findByFlowableDefinitionId(anyString()))
-                .thenReturn(Optional.of(processVersion));
+        UserModel currentUser = new UserModel();
+        currentUser.setId(TEST_USER_ID);
+        currentUser.setUsername("starter");
+        when(userService.getCurrentUser()).thenReturn(currentUser);
+        when(deployedVersionResolver.resolve(1L)).thenReturn(Optional.of(
+                new DeployedVersionResolver.DeployedVersion(1L, 10L, "test_key", 7L)));
 
 
         ProcessInstanceModel result = processService.startInstance(
@@ -124,6 +141,21 @@ public class ProcessInstanceServiceImplTest {
         assertEquals(TEST_INSTANCE_ID, result.getInstanceId());
         assertEquals(1, result.getActiveTasks().size());
         assertEquals(TEST_TASK_ID, result.getActiveTasks().get(0).getTaskId());
+        verify(builder).processDefinitionKey("test_key");
+        verify(builder).owner("7");
+        verifyNoInteractions(processVersionRepository);
+    }
+
+    @Test
+    public void testStartInstance_WhenNoDeployedVersion_ShouldFail() {
+        UserModel currentUser = new UserModel();
+        currentUser.setId(TEST_USER_ID);
+        currentUser.setUsername("starter");
+        when(userService.getCurrentUser()).thenReturn(currentUser);
+        when(flowableEngine.getRuntimeService()).thenReturn(mock(RuntimeService.class));
+        when(deployedVersionResolver.resolve(2L)).thenReturn(Optional.empty());
+
+        assertThrows(SpmsRuntimeException.class, () -> processService.startInstance(2L, null, null, null));
     }
 
     @Test
@@ -137,11 +169,16 @@ public class ProcessInstanceServiceImplTest {
     public void testCompleteTask_Success() {
         TaskService taskService = mock(TaskService.class);
         when(flowableEngine.getTaskService()).thenReturn(taskService);
+        RuntimeService runtimeService = mock(RuntimeService.class);
+        when(flowableEngine.getRuntimeService()).thenReturn(runtimeService);
+        when(runtimeService.getVariables(eq(TEST_INSTANCE_ID), anyCollection())).thenReturn(Map.of());
         Map<String, Object> completeData = Map.of("approve", true);
 
         processService.completeTask(TEST_INSTANCE_ID, TEST_TASK_ID, TEST_USER_ID, completeData);
 
         verify(taskService).complete(TEST_TASK_ID, completeData);
+        // Written once through the completion, not again on the instance
+        verify(runtimeService, never()).setVariables(anyString(), anyMap());
     }
 
     @Test
@@ -250,4 +287,47 @@ public class ProcessInstanceServiceImplTest {
             processService.getInstanceTasks(null);
         });
     }
+
+    @Test
+    public void testGetInstances_ShouldLoadTasksOfPageWithOneQuery() {
+        RuntimeService runtimeService = mock(RuntimeService.class);
+        when(flowableEngine.getRuntimeService()).thenReturn(runtimeService);
+        ProcessInstanceQuery instanceQuery = mock(ProcessInstanceQuery.class);
+        when(runtimeService.createProcessInstanceQuery()).thenReturn(instanceQuery);
+        when(instanceQuery.orderByStartTime()).thenReturn(instanceQuery);
+        when(instanceQuery.desc()).thenReturn(instanceQuery);
+
+        List<ProcessInstance> instances = new ArrayList<>();
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            ProcessInstance instance = mock(ProcessInstance.class);
+            when(instance.getId()).thenReturn("instance" + i);
+            when(instance.getStartTime()).thenReturn(new java.util.Date());
+            instances.add(instance);
+
+            Task task = mock(Task.class);
+            when(task.getId()).thenReturn("task" + i);
+            when(task.getName()).thenReturn("Task " + i);
+            when(task.getProcessInstanceId()).thenReturn("instance" + i);
+            tasks.add(task);
+        }
+        when(instanceQuery.listPage(0, 20)).thenReturn(instances);
+
+        TaskService taskService = mock(TaskService.class);
+        when(flowableEngine.getTaskService()).thenReturn(taskService);
+        TaskQuery taskQuery = mock(TaskQuery.class);
+        when(taskService.createTaskQuery()).thenReturn(taskQuery);
+        when(taskQuery.processInstanceIdIn(anyCollection())).thenReturn(taskQuery);
+        when(taskQuery.list()).thenReturn(tasks);
+
+        List<ProcessInstanceModel> result = processService.getInstances(PageRequest.of(0, 20));
+
+        assertEquals(20, result.size());
+        assertEquals("task7", result.get(7).getActiveTasks().get(0).getTaskId());
+        // One instance query plus one task query for the whole page instead of N+1
+        verify(instanceQuery, times(1)).listPage(0, 20);
+        verify(taskQuery, times(1)).list();
+        verify(taskQuery, times(1)).processInstanceIdIn(anyCollection());
+        verify(taskQuery, never()).processInstanceId(anyString());
+    }
 }
@@ -0,0 +1,121 @@
+package com.spms.backend.service.process.impl;
+
+import com.spms.backend.service.model.idm.UserModel;
+import com.spms.backend.service.model.process.ProcessInstanceModel;
+import com.spms.backend.service.process.ProcessInstanceService;
+import org.flowable.engine.RepositoryService;
+import org.flowable.engine.RuntimeService;
+import org.flowable.engine.repository.Deployment;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.security.oauth2.client.registration.ClientRegistrationRepository;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Page latency of {@link ProcessInstanceService#getUserRelatedInstances} over a large runtime table.
+ * <p>
+ * Seeding takes a few minutes, so the benchmark only runs with {@code -Dspms.benchmark=true}.
+ * The number of seeded instances can be changed with {@code -Dspms.benchmark.instances}.
+ */
+@SpringBootTest
+@TestPropertySource("/application-test.properties")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@EnabledIfSystemProperty(named = "spms.benchmark", matches = "true")
+public class UserRelatedInstancesBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(UserRelatedInstancesBenchmarkTest.class);
+
+    private static final String BENCH_USER = "bench.approver";
+    private static final int PAGE_SIZE = 20;
+
+    @MockitoBean
+    private ClientRegistrationRepository clientRegistrationRepository;
+
+    @Autowired
+    private RuntimeService runtimeService;
+
+    @Autowired
+    private RepositoryService repositoryService;
+
+    @Autowired
+    private ProcessInstanceService processInstanceService;
+
+    private Deployment deployment;
+    private int instances;
+
+    @BeforeAll
+    void seed() {
+        instances = Integer.getInteger("spms.benchmark.instances", 50_000);
+        deployment = repositoryService.createDeployment()
+                .addClasspathResource("processes/simple-approval.bpmn20.xml")
+                .deploy();
+        for (int i = 0; i < instances; i++) {
+            // Every other instance belongs to the benchmark user
+            String initiator = i % 2 == 0 ? BENCH_USER : "other.user" + (i % 100);
+            runtimeService.startProcessInstanceByKey("simple-approval", Map.of("initiator", initiator));
+        }
+    }
+
+    @AfterAll
+    void cleanup() {
+        if (deployment != null) {
+            repositoryService.deleteDeployment(deployment.getId(), true);
+        }
+    }
+
+    @Test
+    void pageLatency_ShouldStayFlatAcrossPages() {
+        UserModel user = new UserModel();
+        user.setId(1L);
+        user.setUsername(BENCH_USER);
+
+        int lastPage = (instances / 2) / PAGE_SIZE - 1;
+        int[] pages = {0, 1, 10, lastPage / 4, lastPage / 2, lastPage};
+
+        // Warm up statement caches and the JIT
+        for (int i = 0; i < 20; i++) {
+            processInstanceService.getUserRelatedInstances(PageRequest.of(i, PAGE_SIZE), user);
+        }
+
+        Map<Integer, Double> latencyMs = new LinkedHashMap<>();
+        Set<String> seen = new HashSet<>();
+        for (int page : pages) {
+            int runs = 10;
+            long begin = System.nanoTime();
+            Page<ProcessInstanceModel> result = null;
+            for (int r = 0; r < runs; r++) {
+                result = processInstanceService.getUserRelatedInstances(PageRequest.of(page, PAGE_SIZE), user);
+            }
+            latencyMs.put(page, (System.nanoTime() - begin) / 1_000_000.0 / runs);
+
+            assertEquals(instances / 2, result.getTotalElements());
+            assertEquals(PAGE_SIZE, result.getContent().size());
+            for (ProcessInstanceModel model : result.getContent()) {
+                assertTrue(seen.add(model.getInstanceId()), "instance returned on two pages: " + model.getInstanceId());
+            }
+        }
+
+        latencyMs.forEach((page, ms) -> log.info("page {}: {} ms", page, String.format("%.2f", ms)));
+        double first = latencyMs.get(0);
+        double last = latencyMs.get(lastPage);
+        assertTrue(last < Math.max(first * 5, first + 50),
+                "deep pages should not be much slower than the first page: " + latencyMs);
+    }
+}
@@ -0,0 +1,295 @@
+package com.spms.backend.service.process.impl;
+
+import com.spms.backend.repository.entities.idm.User;
+import com.spms.backend.repository.entities.process.UserWorkItemEntity;
+import com.spms.backend.repository.entities.process.UserWorkItemStatus;
+import com.spms.backend.repository.entities.process.UserWorkTaskEntity;
+import com.spms.backend.repository.idm.UserRepository;
+import com.spms.backend.repository.process.UserWorkItemRepository;
+import com.spms.backend.repository.process.UserWorkTaskRepository;
+import com.spms.backend.service.model.process.ProcessInstanceModel;
+import com.spms.backend.service.model.process.TaskModel;
+import com.spms.backend.service.process.UserInstanceProcessService;
+import com.spms.backend.service.process.UserWorkItemService;
+import org.flowable.engine.RepositoryService;
+import org.flowable.engine.RuntimeService;
+import org.flowable.engine.TaskService;
+import org.flowable.engine.repository.Deployment;
+import org.flowable.task.api.Task;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.security.oauth2.client.registration.ClientRegistrationRepository;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The "my work" read model against H2: rows written by engine events and rows rebuilt from history.
+ * Not transactional, because the rebuild commits every batch on its own; the test removes its
+ * deployment, rows and users afterwards.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+public class UserWorkItemIntegrationTest {
+
+    private static final String INITIATOR = "work.initiator";
+    private static final String APPROVER = "work.approver";
+    private static final String DELEGATE = "work.delegate";
+
+    private static final String PROCESS = """
+            <?xml version="1.0" encoding="UTF-8"?>
+            <definitions xmlns="http://www.omg.org/spec/BPMN/20100524/MODEL"
+                         xmlns:flowable="http://flowable.org/bpmn"
+                         targetNamespace="http://spms.com">
+              <process id="work-item-review" name="Work Item Review" isExecutable="true">
+                <startEvent id="start"/>
+                <sequenceFlow id="toReview" sourceRef="start" targetRef="review"/>
+                <userTask id="review" name="Review" flowable:assignee="${approver}"/>
+                <sequenceFlow id="toEnd" sourceRef="review" targetRef="end"/>
+                <endEvent id="end"/>
+              </process>
+            </definitions>
+            """;
+
+    private static final String PARALLEL_PROCESS = """
+            <?xml version="1.0" encoding="UTF-8"?>
+            <definitions xmlns="http://www.omg.org/spec/BPMN/20100524/MODEL"
+                         xmlns:flowable="http://flowable.org/bpmn"
+                         targetNamespace="http://spms.com">
+              <process id="work-item-parallel" name="Work Item Parallel" isExecutable="true">
+                <startEvent id="start"/>
+                <sequenceFlow id="toFork" sourceRef="start" targetRef="fork"/>
+                <parallelGateway id="fork"/>
+                <sequenceFlow id="toReview" sourceRef="fork" targetRef="review"/>
+                <sequenceFlow id="toCheck" sourceRef="fork" targetRef="check"/>
+                <userTask id="review" name="Review" flowable:assignee="${approver}"/>
+                <userTask id="check" name="Check" flowable:assignee="${approver}"/>
+                <sequenceFlow id="reviewToJoin" sourceRef="review" targetRef="join"/>
+                <sequenceFlow id="checkToJoin" sourceRef="check" targetRef="join"/>
+                <parallelGateway id="join"/>
+                <sequenceFlow id="toEnd" sourceRef="join" targetRef="end"/>
+                <endEvent id="end"/>
+              </process>
+            </definitions>
+            """;
+
+    @MockitoBean
+    private ClientRegistrationRepository clientRegistrationRepository;
+
+    @Autowired
+    private UserInstanceProcessService userInstanceProcessService;
+
+    @Autowired
+    private UserWorkItemService userWorkItemService;
+
+    @Autowired
+    private UserWorkItemRepository workItemRepository;
+
+    @Autowired
+    private UserWorkTaskRepository workTaskRepository;
+
+    @Autowired
+    private RepositoryService repositoryService;
+
+    @Autowired
+    private RuntimeService runtimeService;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private Deployment deployment;
+    private User approver;
+    private final List<String> instanceIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        deployment = repositoryService.createDeployment()
+                .addString("work-item-review.bpmn20.xml", PROCESS)
+                .addString("work-item-parallel.bpmn20.xml", PARALLEL_PROCESS)
+                .deploy();
+
+        approver = new User();
+        approver.setUsername(APPROVER);
+        approver.setEmail(APPROVER + "@email.com");
+        approver.setType(User.UserType.STAFF);
+        approver.setDescription("Work item approver");
+        approver.setProvider("keycloak");
+        approver = userRepository.save(approver);
+    }
+
+    @AfterEach
+    void tearDown() {
+        instanceIds.forEach(id -> {
+            workItemRepository.deleteAll(workItemRepository.findByProcessInstanceId(id));
+            workTaskRepository.deleteAll(workTaskRepository.findByProcessInstanceId(id));
+        });
+        repositoryService.deleteDeployment(deployment.getId(), true);
+        userRepository.delete(approver);
+    }
+
+    private String start(String businessKey) {
+        String instanceId = runtimeService.createProcessInstanceBuilder()
+                .processDefinitionKey("work-item-review")
+                .businessKey(businessKey)
+                .variables(Map.of("initiator", INITIATOR, "approver", APPROVER))
+                .start()
+                .getId();
+        instanceIds.add(instanceId);
+        return instanceId;
+    }
+
+    private Map<String, UserWorkItemEntity> rows(String instanceId) {
+        return workItemRepository.findByProcessInstanceId(instanceId).stream()
+                .collect(Collectors.toMap(UserWorkItemEntity::getUsername, item -> item));
+    }
+
+    private Map<String, UserWorkTaskEntity> taskRows(String instanceId) {
+        return workTaskRepository.findByProcessInstanceId(instanceId).stream()
+                .collect(Collectors.toMap(UserWorkTaskEntity::getTaskId, row -> row));
+    }
+
+    private List<String> inbox() {
+        return userInstanceProcessService.getAssignedRunningUserTasks(approver.getId(), PageRequest.of(0, 10))
+                .getContent().stream().map(TaskModel::getTaskId).toList();
+    }
+
+    private Task task(String instanceId) {
+        return taskService.createTaskQuery().processInstanceId(instanceId).singleResult();
+    }
+
+    @Test
+    void engineEvents_ShouldMaintainRowsThroughTheLifecycle() {
+        String instanceId = start("WIR-0001");
+        Task task = task(instanceId);
+
+        Map<String, UserWorkItemEntity> rows = rows(instanceId);
+        assertEquals(Set.of(INITIATOR, APPROVER), rows.keySet());
+        UserWorkItemEntity initiator = rows.get(INITIATOR);
+        assertTrue(initiator.isInitiator());
+        assertEquals(UserWorkItemStatus.RUNNING, initiator.getStatus());
+        assertEquals("WIR-0001", initiator.getBusinessKey());
+        assertEquals("Work Item Review", initiator.getDefinitionName());
+        assertEquals("work-item-review", initiator.getDefinitionKey());
+        UserWorkItemEntity approverRow = rows.get(APPROVER);
+        assertFalse(approverRow.isInitiator());
+        UserWorkTaskEntity taskRow = taskRows(instanceId).get(task.getId());
+        assertEquals(APPROVER, taskRow.getUsername());
+        assertEquals("Review", taskRow.getTaskName());
+        assertFalse(taskRow.isSuspended());
+
+        Page<TaskModel> tasks = userInstanceProcessService.getAssignedRunningUserTasks(approver.getId(), PageRequest.of(0, 10));
+        assertEquals(List.of(task.getId()), tasks.getContent().stream().map(TaskModel::getTaskId).toList());
+        assertEquals("Review", tasks.getContent().get(0).getName());
+        Page<ProcessInstanceModel> running = userInstanceProcessService.getUserRelatedInstanceService(approver.getId(), PageRequest.of(0, 10));
+        assertEquals(List.of(instanceId), running.getContent().stream().map(ProcessInstanceModel::getInstanceId).toList());
+
+        // Suspended tasks leave the inbox until the instance is activated again
+        runtimeService.suspendProcessInstanceById(instanceId);
+        assertTrue(taskRows(instanceId).get(task.getId()).isSuspended());
+        assertTrue(inbox().isEmpty());
+        runtimeService.activateProcessInstanceById(instanceId);
+        assertEquals(List.of(task.getId()), inbox());
+
+        // Reassignment involves the delegate and moves the task row to them
+        taskService.setAssignee(task.getId(), DELEGATE);
+        assertEquals(Set.of(INITIATOR, APPROVER, DELEGATE), rows(instanceId).keySet());
+        assertEquals(DELEGATE, taskRows(instanceId).get(task.getId()).getUsername());
+        assertTrue(inbox().isEmpty());
+
+        taskService.complete(task.getId());
+        assertTrue(taskRows(instanceId).isEmpty());
+        rows = rows(instanceId);
+        assertEquals(Set.of(INITIATOR, APPROVER, DELEGATE), rows.keySet());
+        for (UserWorkItemEntity row : rows.values()) {
+            assertEquals(UserWorkItemStatus.COMPLETED, row.getStatus(), row.getUsername());
+            assertNotNull(row.getEndTime(), row.getUsername());
+        }
+        assertTrue(userInstanceProcessService.getUserRelatedInstanceService(approver.getId(), PageRequest.of(0, 10)).isEmpty());
+        Page<ProcessInstanceModel> history = userInstanceProcessService.getUserRelatedHistoryInstanceService(approver.getId(), PageRequest.of(0, 10));
+        assertEquals("COMPLETED", history.getContent().get(0).getStatus());
+    }
+
+    @Test
+    void deletedInstance_ShouldBeCancelled() {
+        String instanceId = start("WIR-0002");
+
+        runtimeService.deleteProcessInstance(instanceId, "withdrawn");
+
+        for (UserWorkItemEntity row : rows(instanceId).values()) {
+            assertEquals(UserWorkItemStatus.CANCELLED, row.getStatus(), row.getUsername());
+        }
+        assertTrue(taskRows(instanceId).isEmpty());
+    }
+
+    @Test
+    void parallelTasks_ShouldEachStayInTheInbox() {
+        String instanceId = runtimeService.createProcessInstanceBuilder()
+                .processDefinitionKey("work-item-parallel")
+                .businessKey("WIR-0007")
+                .variables(Map.of("initiator", INITIATOR, "approver", APPROVER))
+                .start()
+                .getId();
+        instanceIds.add(instanceId);
+        List<Task> tasks = taskService.createTaskQuery().processInstanceId(instanceId).list();
+        assertEquals(2, tasks.size());
+
+        assertEquals(Set.of(tasks.get(0).getId(), tasks.get(1).getId()), Set.copyOf(inbox()));
+
+        taskService.complete(tasks.get(0).getId());
+        assertEquals(List.of(tasks.get(1).getId()), inbox());
+        assertEquals(Set.of(tasks.get(1).getId()), taskRows(instanceId).keySet());
+    }
+
+    @Test
+    void rebuild_ShouldReproduceRowsFromHistory() {
+        String open = start("WIR-0003");
+        String reassigned = start("WIR-0004");
+        taskService.setAssignee(task(reassigned).getId(), DELEGATE);
+        String completed = start("WIR-0005");
+        taskService.complete(task(completed).getId());
+        String cancelled = start("WIR-0006");
+        runtimeService.deleteProcessInstance(cancelled, "withdrawn");
+        String suspended = start("WIR-0008");
+        runtimeService.suspendProcessInstanceById(suspended);
+
+        Map<String, Set<String>> live = new HashMap<>();
+        for (String id : instanceIds) {
+            live.put(id, summary(id));
+            workItemRepository.deleteAll(workItemRepository.findByProcessInstanceId(id));
+            workTaskRepository.deleteAll(workTaskRepository.findByProcessInstanceId(id));
+        }
+
+        assertTrue(userWorkItemService.rebuild() >= instanceIds.size());
+
+        for (String id : List.of(open, reassigned, completed, cancelled, suspended)) {
+            assertEquals(live.get(id), summary(id), id);
+        }
+        assertEquals("Work Item Review", rows(open).get(APPROVER).getDefinitionName());
+    }
+
+    private Set<String> summary(String instanceId) {
+        Set<String> summary = rows(instanceId).values().stream()
+                .map(row -> row.getUsername() + "|" + row.isInitiator() + "|" + row.getStatus() + "|" + row.getBusinessKey())
+                .collect(Collectors.toCollection(HashSet::new));
+        taskRows(instanceId).values().forEach(row -> summary.add(row.getTaskId() + "|" + row.getUsername() + "|"
+                + row.getTaskName() + "|" + row.isSuspended() + "|" + row.getCreateTime().getTime()));
+        return summary;
+    }
+}
@@ -0,0 +1,111 @@
+package com.spms.backend.service.sys.cache;
+
+import com.spms.backend.repository.entities.sys.CacheVersion;
+import com.spms.backend.repository.sys.CacheVersionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class CacheVersionsTest {
+
+    @Mock
+    private CacheVersionRepository repository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private CacheVersions cacheVersions;
+
+    @BeforeEach
+    void setUp() {
+        when(transactionManager.getTransaction(any())).thenAnswer(invocation -> new SimpleTransactionStatus());
+        cacheVersions = new CacheVersions(repository, transactionManager, Duration.ZERO);
+    }
+
+    @Test
+    void changed_ShouldReportChangesCommittedElsewhere() {
+        when(repository.findVersionByName("catalog")).thenReturn(Optional.of(3L), Optional.of(3L), Optional.of(4L));
+        CacheVersions.Tracker tracker = cacheVersions.tracker("catalog");
+
+        assertFalse(tracker.changed());
+        assertFalse(tracker.changed());
+        assertTrue(tracker.changed());
+    }
+
+    @Test
+    void changed_ShouldAskDatabaseOncePerInterval() {
+        cacheVersions = new CacheVersions(repository, transactionManager, Duration.ofHours(1));
+        when(repository.findVersionByName("catalog")).thenReturn(Optional.of(3L), Optional.of(4L));
+        CacheVersions.Tracker tracker = cacheVersions.tracker("catalog");
+
+        assertFalse(tracker.changed());
+        assertFalse(tracker.changed());
+
+        verify(repository, times(1)).findVersionByName("catalog");
+    }
+
+    @Test
+    void changed_ShouldKeepCachedDataWhenCheckFails() {
+        when(repository.findVersionByName("catalog"))
+                .thenReturn(Optional.of(3L))
+                .thenThrow(new DataAccessResourceFailureException("down"))
+                .thenReturn(Optional.of(3L));
+        CacheVersions.Tracker tracker = cacheVersions.tracker("catalog");
+
+        assertFalse(tracker.changed());
+        assertFalse(tracker.changed());
+        assertFalse(tracker.changed());
+    }
+
+    @Test
+    void increment_ShouldNotReportOwnChange() {
+        when(repository.findVersionByName("catalog")).thenReturn(Optional.of(3L), Optional.of(4L), Optional.of(4L));
+        when(repository.increment(eq("catalog"), anyLong())).thenReturn(1);
+        CacheVersions.Tracker tracker = cacheVersions.tracker("catalog");
+
+        assertFalse(tracker.changed());
+        cacheVersions.increment("catalog");
+
+        assertFalse(tracker.changed());
+        verify(repository).increment(eq("catalog"), anyLong());
+    }
+
+    @Test
+    void increment_ShouldReportChangeOfOtherNodeBeforeOwnChange() {
+        when(repository.findVersionByName("catalog")).thenReturn(Optional.of(3L), Optional.of(5L), Optional.of(5L));
+        when(repository.increment(eq("catalog"), anyLong())).thenReturn(1);
+        CacheVersions.Tracker tracker = cacheVersions.tracker("catalog");
+
+        assertFalse(tracker.changed());
+        cacheVersions.increment("catalog");
+
+        assertTrue(tracker.changed());
+    }
+
+    @Test
+    void increment_ShouldCreateMissingVersion() {
+        when(repository.increment(eq("catalog"), anyLong())).thenReturn(0, 1);
+        when(repository.findVersionByName("catalog")).thenReturn(Optional.of(1L));
+
+        cacheVersions.increment("catalog");
+
+        verify(repository).saveAndFlush(argThat((CacheVersion version) ->
+                "catalog".equals(version.getName()) && version.getVersion() == 0L));
+        verify(repository, times(2)).increment(eq("catalog"), anyLong());
+    }
+}
@@ -0,0 +1,81 @@
+package com.spms.backend.service.sys.cluster;
+
+import com.spms.backend.repository.entities.sys.NodeMetric;
+import com.spms.backend.repository.sys.NodeMetricRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class NodeMetricsTest {
+
+    @Mock
+    private NodeMetricRepository repository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private NodeMetrics nodeMetrics;
+
+    @BeforeEach
+    void setUp() {
+        when(transactionManager.getTransaction(any())).thenAnswer(invocation -> new SimpleTransactionStatus());
+        nodeMetrics = new NodeMetrics(repository, transactionManager, "node-a", Duration.ofDays(1));
+    }
+
+    private static NodeMetric metric(long id, String node, long value) {
+        NodeMetric metric = new NodeMetric();
+        metric.setId(id);
+        metric.setNode(node);
+        metric.setName("engine.commands");
+        metric.setValue(value);
+        return metric;
+    }
+
+    @Test
+    void add_ShouldCreateRowOfNodeOnFirstPublish() {
+        when(repository.add(eq("node-a"), eq("engine.commands"), eq(5L), anyLong())).thenReturn(0, 1);
+
+        nodeMetrics.add("engine.commands", 5);
+
+        verify(repository).saveAndFlush(argThat(metric -> metric.getNode().equals("node-a") && metric.getValue() == 0));
+        verify(repository, times(2)).add(eq("node-a"), eq("engine.commands"), eq(5L), anyLong());
+    }
+
+    @Test
+    void take_ShouldSumAllNodesAndLeaveLaterAdditions() {
+        when(repository.findByName("engine.commands"))
+                .thenReturn(List.of(metric(1, "node-a", 7), metric(2, "node-b", 0), metric(3, "node-c", 5)));
+
+        assertEquals(12, nodeMetrics.take("engine.commands"));
+
+        verify(repository).subtract(1L, 7L);
+        verify(repository).subtract(3L, 5L);
+        verify(repository, never()).subtract(eq(2L), anyLong());
+    }
+
+    @Test
+    void highest_ShouldOnlyCountNodesThatPublishedRecently() {
+        when(repository.findHighest(eq("start.p95"), anyLong())).thenReturn(null);
+
+        assertNull(nodeMetrics.highest("start.p95", Duration.ofSeconds(30)));
+
+        verify(repository).findHighest(eq("start.p95"), longThat(since ->
+                Math.abs(System.currentTimeMillis() - 30_000 - since) < 5_000));
+    }
+}
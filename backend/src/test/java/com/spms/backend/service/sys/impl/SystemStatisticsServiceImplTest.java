@@ -0,0 +1,215 @@
+package com.spms.backend.service.sys.impl;
+
+import com.spms.backend.config.StatisticsProperties;
+import com.spms.backend.model.SystemStatisticsModel;
+import com.spms.backend.repository.entities.sys.StatisticResolution;
+import com.spms.backend.repository.entities.sys.SystemStatisticRollup;
+import com.spms.backend.repository.entities.sys.SystemStatistics;
+import com.spms.backend.repository.sys.SystemStatisticRollupRepository;
+import com.spms.backend.repository.sys.SystemStatisticsRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class SystemStatisticsServiceImplTest {
+
+    private static final ZoneId ZONE = ZoneId.systemDefault();
+
+    @Mock
+    private SystemStatisticsRepository repository;
+    @Mock
+    private SystemStatisticRollupRepository rollupRepository;
+
+    private SystemStatisticsServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        service = new SystemStatisticsServiceImpl(repository, rollupRepository, List.of(), new StatisticsProperties());
+    }
+
+    private static Date at(int day, int hour, int minute, int second) {
+        return Date.from(LocalDateTime.of(2026, 10, day, hour, minute, second).atZone(ZONE).toInstant());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void recordStatistic_ShouldFoldSampleIntoEveryRollup() {
+        SystemStatisticRollup hourly = new SystemStatisticRollup();
+        hourly.setName("users");
+        hourly.setResolution(StatisticResolution.HOURLY);
+        // Loaded rows carry java.sql.Timestamp, which never equals a java.util.Date
+        hourly.setBucketStart(new Timestamp(at(17, 10, 0, 0).getTime()));
+        hourly.add(at(17, 10, 1, 0), 40L);
+        List<SystemStatisticRollup> existing = List.of(hourly);
+        when(rollupRepository.findByResolutionAndBucketStartInAndNameIn(any(), any(), any())).thenReturn(List.of());
+        when(rollupRepository.findByResolutionAndBucketStartInAndNameIn(eq(StatisticResolution.HOURLY), any(), any()))
+                .thenReturn(existing);
+
+        service.recordStatistic("users", "desc", at(17, 10, 7, 30), 42L);
+
+        verify(repository).saveAll(anyList());
+        ArgumentCaptor<Collection<SystemStatisticRollup>> saved = ArgumentCaptor.forClass(Collection.class);
+        verify(rollupRepository, times(3)).saveAll(saved.capture());
+        List<SystemStatisticRollup> rollups = saved.getAllValues().stream()
+                .map(batch -> {
+                    assertEquals(1, batch.size());
+                    return batch.iterator().next();
+                })
+                .toList();
+
+        assertEquals(StatisticResolution.FIVE_MINUTES, rollups.get(0).getResolution());
+        assertEquals(at(17, 10, 5, 0), rollups.get(0).getBucketStart());
+        assertEquals(1, rollups.get(0).getSampleCount());
+
+        assertSame(hourly, rollups.get(1));
+        assertEquals(2, hourly.getSampleCount());
+        assertEquals(40, hourly.getMinValue());
+        assertEquals(42, hourly.getMaxValue());
+        assertEquals(42, hourly.getLastValue());
+        assertEquals(41.0, hourly.getAverage());
+
+        assertEquals(at(17, 0, 0, 0), rollups.get(2).getBucketStart());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void recordStatistics_ShouldReadAndWriteEachResolutionOnce() {
+        when(rollupRepository.findByResolutionAndBucketStartInAndNameIn(any(), any(), any())).thenReturn(List.of());
+        List<SystemStatisticsModel> samples = List.of(
+                sample("users", at(17, 10, 1, 0), 1L),
+                sample("roles", at(17, 10, 1, 0), 2L),
+                sample("users", at(17, 10, 6, 0), 3L),
+                sample("empty", at(17, 10, 6, 0), null));
+
+        service.recordStatistics(samples);
+
+        ArgumentCaptor<List<SystemStatistics>> raw = ArgumentCaptor.forClass(List.class);
+        verify(repository).saveAll(raw.capture());
+        assertEquals(4, raw.getValue().size());
+
+        ArgumentCaptor<Collection<Date>> starts = ArgumentCaptor.forClass(Collection.class);
+        ArgumentCaptor<Collection<String>> names = ArgumentCaptor.forClass(Collection.class);
+        verify(rollupRepository).findByResolutionAndBucketStartInAndNameIn(
+                eq(StatisticResolution.FIVE_MINUTES), starts.capture(), names.capture());
+        assertEquals(Set.of(at(17, 10, 0, 0), at(17, 10, 5, 0)), Set.copyOf(starts.getValue()));
+        assertEquals(Set.of("users", "roles"), Set.copyOf(names.getValue()));
+
+        ArgumentCaptor<Collection<SystemStatisticRollup>> saved = ArgumentCaptor.forClass(Collection.class);
+        verify(rollupRepository, times(3)).saveAll(saved.capture());
+        // Five-minute: users@10:00, roles@10:00, users@10:05; hourly and daily: users, roles
+        assertEquals(3, saved.getAllValues().get(0).size());
+        assertEquals(2, saved.getAllValues().get(1).size());
+        assertEquals(2, saved.getAllValues().get(2).size());
+        SystemStatisticRollup usersHourly = saved.getAllValues().get(1).stream()
+                .filter(r -> r.getName().equals("users")).findFirst().orElseThrow();
+        assertEquals(2, usersHourly.getSampleCount());
+        assertEquals(3, usersHourly.getLastValue());
+    }
+
+    private static SystemStatisticsModel sample(String name, Date asOfDate, Long value) {
+        SystemStatisticsModel model = new SystemStatisticsModel();
+        model.setName(name);
+        model.setDescription(name + ".description");
+        model.setAsOfDate(asOfDate);
+        model.setValue(value);
+        return model;
+    }
+
+    @Test
+    void rollupAdd_ShouldKeepLatestSampleAsLast() {
+        SystemStatisticRollup rollup = new SystemStatisticRollup();
+        rollup.add(at(17, 10, 2, 0), 5L);
+        rollup.add(at(17, 10, 1, 0), 3L);
+
+        assertEquals(5, rollup.getLastValue());
+        assertEquals(3, rollup.getMinValue());
+    }
+
+    @Test
+    void getLatestStatisticByName_ShouldReadOneRow() {
+        SystemStatistics latest = new SystemStatistics();
+        latest.setName("users");
+        latest.setValue(7L);
+        latest.setAsOfDate(at(17, 10, 0, 0));
+        when(repository.findFirstByNameOrderByAsOfDateDesc("users")).thenReturn(Optional.of(latest));
+
+        SystemStatisticsModel model = service.getLatestStatisticByName("users");
+
+        assertEquals(7L, model.getValue());
+        assertEquals(StatisticResolution.RAW, model.getResolution());
+        assertNull(service.getLatestStatisticByName("missing"));
+    }
+
+    @Test
+    void chooseResolution_ShouldUseFinestResolutionWithinPointBudget() {
+        Date now = at(17, 12, 0, 0);
+        Date end = now;
+
+        assertEquals(StatisticResolution.RAW, service.chooseResolution(at(17, 10, 0, 0), end, now));
+        assertEquals(StatisticResolution.FIVE_MINUTES, service.chooseResolution(at(16, 12, 0, 0), end, now));
+        assertEquals(StatisticResolution.HOURLY, service.chooseResolution(at(10, 12, 0, 0), end, now));
+        Date yearAgo = new Date(now.getTime() - Duration.ofDays(365).toMillis());
+        assertEquals(StatisticResolution.DAILY, service.chooseResolution(yearAgo, end, now));
+        // Raw samples of last week are already gone, even for a short range
+        assertEquals(StatisticResolution.FIVE_MINUTES, service.chooseResolution(at(10, 12, 0, 0), at(10, 13, 0, 0), now));
+    }
+
+    @Test
+    void getStatisticsByDateRange_ShouldReadDailyBucketsForAYear() {
+        Date now = new Date();
+        Date start = new Date(now.getTime() - Duration.ofDays(365).toMillis());
+        SystemStatisticRollup bucket = new SystemStatisticRollup();
+        bucket.setName("users");
+        bucket.setResolution(StatisticResolution.DAILY);
+        bucket.setBucketStart(StatisticResolution.DAILY.bucketStart(start, ZONE));
+        bucket.add(start, 9L);
+        when(rollupRepository.findByNameAndResolutionAndBucketStartBetweenOrderByBucketStartAsc(
+                "users", StatisticResolution.DAILY, bucket.getBucketStart(), now)).thenReturn(List.of(bucket));
+
+        List<SystemStatisticsModel> models = service.getStatisticsByDateRange("users", start, now, null);
+
+        assertEquals(1, models.size());
+        assertEquals(StatisticResolution.DAILY, models.get(0).getResolution());
+        assertEquals(9L, models.get(0).getValue());
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    void applyRetention_ShouldDeleteEachResolutionByItsOwnCutoff() {
+        Date now = at(17, 12, 0, 0);
+        when(repository.deleteByAsOfDateBefore(any())).thenReturn(100);
+
+        Map<StatisticResolution, Integer> removed = service.applyRetention(now);
+
+        assertEquals(100, removed.get(StatisticResolution.RAW));
+        verify(repository).deleteByAsOfDateBefore(new Date(now.getTime() - Duration.ofDays(2).toMillis()));
+        verify(rollupRepository).deleteByResolutionAndBucketStartBefore(
+                eq(StatisticResolution.FIVE_MINUTES), eq(new Date(now.getTime() - Duration.ofDays(14).toMillis())));
+        verify(rollupRepository).deleteByResolutionAndBucketStartBefore(
+                eq(StatisticResolution.DAILY), eq(new Date(now.getTime() - Duration.ofDays(3650).toMillis())));
+    }
+}
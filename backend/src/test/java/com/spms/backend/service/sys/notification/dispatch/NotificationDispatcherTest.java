@@ -0,0 +1,255 @@
+package com.spms.backend.service.sys.notification.dispatch;
+
+import com.spms.backend.config.NotificationProperties;
+import com.spms.backend.service.sys.notification.event.NotificationEvent;
+import com.spms.backend.service.sys.notification.handler.NotificationHandler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class NotificationDispatcherTest {
+
+    private final NotificationDeadLetterStore deadLetters = mock(NotificationDeadLetterStore.class);
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private NotificationProperties properties;
+    private NotificationDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        properties = new NotificationProperties();
+        properties.setInitialBackoff(Duration.ofMillis(10));
+        properties.setMaxBackoff(Duration.ofMillis(40));
+        properties.setMaxAttempts(3);
+        properties.setOfferTimeout(Duration.ofMillis(50));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (dispatcher != null) {
+            dispatcher.destroy();
+        }
+    }
+
+    private NotificationDispatcher dispatcher(NotificationHandler... handlers) {
+        dispatcher = new NotificationDispatcher(List.of(handlers), properties, deadLetters, registry);
+        return dispatcher;
+    }
+
+    private static NotificationEvent event(String recipient) {
+        return new NotificationEvent(NotificationDispatcherTest.class, "TASK_ASSIGNED",
+                Map.of("email", recipient, "subject", "Task assigned"), Locale.ENGLISH) {
+        };
+    }
+
+    /**
+     * Records every batch it receives; fails the first {@code failures} deliveries.
+     */
+    private static class RecordingHandler implements NotificationHandler {
+        private final String channel;
+        private final AtomicInteger failures;
+        private final Duration window;
+        private final List<List<NotificationEvent>> batches = Collections.synchronizedList(new ArrayList<>());
+        private final CountDownLatch delivered;
+
+        RecordingHandler(String channel, int failures, Duration window, int expectedDeliveries) {
+            this.channel = channel;
+            this.failures = new AtomicInteger(failures);
+            this.window = window;
+            this.delivered = new CountDownLatch(expectedDeliveries);
+        }
+
+        @Override
+        public void handle(NotificationEvent event) {
+            if (failures.getAndDecrement() > 0) {
+                throw new IllegalStateException("channel down");
+            }
+            delivered.countDown();
+        }
+
+        @Override
+        public Map<NotificationEvent, Exception> handleBatch(List<NotificationEvent> events) {
+            batches.add(List.copyOf(events));
+            return NotificationHandler.super.handleBatch(events);
+        }
+
+        @Override
+        public Duration getBatchWindow() {
+            return window;
+        }
+
+        @Override
+        public String getChannelType() {
+            return channel;
+        }
+
+        @Override
+        public boolean isEnabled() {
+            return true;
+        }
+    }
+
+    @Test
+    void dispatch_ShouldRetryWithBackoffUntilDelivered() throws InterruptedException {
+        RecordingHandler handler = new RecordingHandler("EMAIL", 2, Duration.ZERO, 1);
+        dispatcher(handler);
+
+        dispatcher.dispatch(event("a@example.com"));
+
+        assertTrue(handler.delivered.await(2, TimeUnit.SECONDS));
+        assertEquals(3, handler.batches.size());
+        assertEquals(2.0, registry.get("spms.notification.retries").tag("channel", "EMAIL").counter().count());
+        verify(deadLetters, never()).store(any(), any(), anyInt(), any());
+    }
+
+    @Test
+    void dispatch_ShouldDeadLetterOnlyOnFailingChannel() throws InterruptedException {
+        RecordingHandler failing = new RecordingHandler("EMAIL", Integer.MAX_VALUE, Duration.ZERO, 1);
+        RecordingHandler working = new RecordingHandler("WEBSOCKET", 0, Duration.ZERO, 1);
+        dispatcher(failing, working);
+        NotificationEvent event = event("a@example.com");
+
+        dispatcher.dispatch(event);
+
+        assertTrue(working.delivered.await(2, TimeUnit.SECONDS));
+        verify(deadLetters, timeout(2000)).store(eq("EMAIL"), eq(event), eq(3), eq("channel down"));
+        verify(deadLetters, never()).store(eq("WEBSOCKET"), any(), anyInt(), any());
+        assertEquals(1, registry.get("spms.notification.latency")
+                .tags("channel", "EMAIL", "outcome", "dead_letter").timer().count());
+    }
+
+    @Test
+    void dispatch_ShouldCollectBatchWithinWindow() throws InterruptedException {
+        RecordingHandler handler = new RecordingHandler("EMAIL", 0, Duration.ofMillis(300), 3);
+        dispatcher(handler);
+
+        dispatcher.dispatch(event("a@example.com"));
+        dispatcher.dispatch(event("a@example.com"));
+        dispatcher.dispatch(event("b@example.com"));
+
+        assertTrue(handler.delivered.await(2, TimeUnit.SECONDS));
+        assertEquals(1, handler.batches.size());
+        assertEquals(3, handler.batches.get(0).size());
+    }
+
+    @Test
+    void dispatch_ShouldDeadLetterWhenQueueStaysFull() throws InterruptedException {
+        properties.setQueueCapacity(1);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        NotificationHandler blocking = new RecordingHandler("EMAIL", 0, Duration.ZERO, 0) {
+            @Override
+            public void handle(NotificationEvent event) {
+                started.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+        dispatcher(blocking);
+
+        dispatcher.dispatch(event("first@example.com"));
+        assertTrue(started.await(2, TimeUnit.SECONDS));
+        dispatcher.dispatch(event("second@example.com"));
+        NotificationEvent third = event("third@example.com");
+        long start = System.nanoTime();
+        dispatcher.dispatch(third);
+
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= 40);
+        verify(deadLetters).store("EMAIL", third, 1, NotificationDispatcher.QUEUE_FULL);
+        assertEquals(1, dispatcher.queueDepth("EMAIL"));
+        assertEquals(1.0, registry.get("spms.notification.queue.depth").tag("channel", "EMAIL").gauge().value());
+        release.countDown();
+    }
+
+    @Test
+    void dispatch_ShouldSkipDisabledChannels() throws InterruptedException {
+        RecordingHandler enabled = new RecordingHandler("EMAIL", 0, Duration.ZERO, 1);
+        RecordingHandler disabled = new RecordingHandler("WEBSOCKET", 0, Duration.ZERO, 1) {
+            @Override
+            public boolean isEnabled() {
+                return false;
+            }
+        };
+        dispatcher(enabled, disabled);
+
+        dispatcher.dispatch(event("a@example.com"));
+
+        assertTrue(enabled.delivered.await(2, TimeUnit.SECONDS));
+        assertTrue(disabled.batches.isEmpty());
+    }
+
+    @Test
+    void destroy_ShouldDeadLetterQueuedNotifications() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        NotificationHandler blocking = new RecordingHandler("EMAIL", 0, Duration.ZERO, 0) {
+            @Override
+            public void handle(NotificationEvent event) {
+                started.countDown();
+                try {
+                    Thread.sleep(200);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+        dispatcher(blocking);
+        dispatcher.dispatch(event("first@example.com"));
+        assertTrue(started.await(2, TimeUnit.SECONDS));
+        NotificationEvent queued = event("queued@example.com");
+        dispatcher.dispatch(queued);
+
+        dispatcher.destroy();
+        dispatcher = null;
+
+        verify(deadLetters).store("EMAIL", queued, 1, NotificationDispatcher.SHUTDOWN);
+    }
+
+    @Test
+    void destroy_ShouldDeadLetterNotificationsWaitingForRetry() {
+        properties.setInitialBackoff(Duration.ofMinutes(1));
+        properties.setMaxBackoff(Duration.ofMinutes(1));
+        RecordingHandler handler = new RecordingHandler("EMAIL", 1, Duration.ZERO, 1);
+        dispatcher(handler);
+        NotificationEvent event = event("a@example.com");
+        dispatcher.dispatch(event);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+        while (registry.get("spms.notification.retries").tag("channel", "EMAIL").counter().count() < 1
+                && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+
+        dispatcher.destroy();
+        dispatcher = null;
+
+        verify(deadLetters).store("EMAIL", event, 1, NotificationDispatcher.SHUTDOWN);
+        assertEquals(1, handler.batches.size());
+    }
+
+    @Test
+    void backoff_ShouldDoubleUpToMaximum() {
+        NotificationProperties defaults = new NotificationProperties();
+
+        assertEquals(Duration.ofSeconds(1), defaults.backoff(1));
+        assertEquals(Duration.ofSeconds(4), defaults.backoff(3));
+        assertEquals(Duration.ofMinutes(5), defaults.backoff(20));
+    }
+}
@@ -0,0 +1,133 @@
+package com.spms.backend.service.sys.notification.handler;
+
+import com.spms.backend.config.NotificationProperties;
+import com.spms.backend.service.sys.notification.event.NotificationEvent;
+import com.spms.backend.service.sys.notification.template.NotificationTemplateManage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class EmailNotificationHandlerTest {
+
+    private FakeSmtpServer server;
+    private NotificationTemplateManage templateManager;
+    private EmailNotificationHandler handler;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = new FakeSmtpServer(address -> address.startsWith("bad"));
+        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("127.0.0.1");
+        mailSender.setPort(server.port());
+        Properties mailProperties = new Properties();
+        mailProperties.put("mail.smtp.from", "spms@example.com");
+        mailProperties.put("mail.smtp.localhost", "localhost");
+        mailProperties.put("mail.smtp.timeout", "5000");
+        mailSender.setJavaMailProperties(mailProperties);
+
+        templateManager = mock(NotificationTemplateManage.class);
+        when(templateManager.renderTemplate(anyString(), any(), any())).thenReturn("<p>body</p>");
+        when(templateManager.renderFanOut(anyString(), any(), anyList())).thenAnswer(invocation ->
+                ((List<?>) invocation.getArgument(2)).stream().map(model -> "<p>body</p>").toList());
+        handler = new EmailNotificationHandler(mailSender, templateManager, new NotificationProperties());
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        server.close();
+    }
+
+    private static NotificationEvent event(String email, String subject) {
+        Map<String, Object> data = new HashMap<>();
+        if (email != null) {
+            data.put("email", email);
+        }
+        data.put("subject", subject);
+        return new NotificationEvent(EmailNotificationHandlerTest.class, "TASK_ASSIGNED", data, Locale.ENGLISH) {
+        };
+    }
+
+    @Test
+    void handleBatch_ShouldSendDigestPerRecipientOverOneConnection() {
+        List<NotificationEvent> events = List.of(
+                event("alice@example.com", "Leave request"),
+                event("bob@example.com", "Expense claim"),
+                event("alice@example.com", "Purchase order"));
+
+        Map<NotificationEvent, Exception> failures = handler.handleBatch(events);
+
+        assertTrue(failures.isEmpty());
+        assertEquals(1, server.connections());
+        assertEquals(2, server.messages().size());
+        FakeSmtpServer.ReceivedMessage digest = server.messages().get(0);
+        assertEquals(List.of("alice@example.com"), digest.recipients());
+        assertTrue(digest.data().contains("Subject: Purchase order (+1)"));
+        assertEquals(List.of("bob@example.com"), server.messages().get(1).recipients());
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Map<String, Object>> data = ArgumentCaptor.forClass(Map.class);
+        verify(templateManager).renderTemplate(eq(EmailNotificationHandler.DIGEST_TEMPLATE), eq(Locale.ENGLISH), data.capture());
+        assertEquals(2, data.getValue().get("count"));
+        verify(templateManager).renderFanOut(eq("email/task_assigned.ftl"), eq(Locale.ENGLISH), anyList());
+    }
+
+    @Test
+    void handleBatch_ShouldRenderSingleNotificationsOfOneTemplateTogether() {
+        List<NotificationEvent> events = List.of(
+                event("alice@example.com", "Leave request"),
+                event("bob@example.com", "Leave request"),
+                event("carol@example.com", "Leave request"));
+
+        Map<NotificationEvent, Exception> failures = handler.handleBatch(events);
+
+        assertTrue(failures.isEmpty());
+        assertEquals(3, server.messages().size());
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Map<String, Object>>> models = ArgumentCaptor.forClass(List.class);
+        verify(templateManager).renderFanOut(eq("email/task_assigned.ftl"), eq(Locale.ENGLISH), models.capture());
+        assertEquals(3, models.getValue().size());
+        verify(templateManager, never()).renderTemplate(anyString(), any(), any());
+    }
+
+    @Test
+    void handleBatch_ShouldReportOnlyRejectedRecipients() {
+        NotificationEvent rejected = event("bad@example.com", "Leave request");
+        NotificationEvent missing = event(null, "Leave request");
+        NotificationEvent good = event("carol@example.com", "Leave request");
+
+        Map<NotificationEvent, Exception> failures = handler.handleBatch(List.of(rejected, missing, good));
+
+        assertEquals(2, failures.size());
+        assertTrue(failures.containsKey(rejected));
+        assertTrue(failures.containsKey(missing));
+        assertEquals(1, server.messages().size());
+        assertEquals(List.of("carol@example.com"), server.messages().get(0).recipients());
+        assertEquals(1, server.connections());
+    }
+
+    @Test
+    void handleBatch_ShouldFailEveryNotificationWhenServerIsDown() throws IOException {
+        server.close();
+        List<NotificationEvent> events = List.of(event("alice@example.com", "a"), event("bob@example.com", "b"));
+
+        Map<NotificationEvent, Exception> failures = handler.handleBatch(events);
+
+        assertEquals(2, failures.size());
+    }
+}
@@ -0,0 +1,225 @@
+package com.spms.backend.service.sys.notification.handler;
+
+import com.spms.backend.config.WebSocketConfig;
+import com.spms.backend.config.WebSocketProperties;
+import com.spms.backend.service.sys.notification.event.NotificationEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.DispatcherServletAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.ServletWebServerFactoryAutoConfiguration;
+import org.springframework.boot.autoconfigure.websocket.servlet.WebSocketServletAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
+import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+import org.springframework.web.socket.server.support.DefaultHandshakeHandler;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.lang.reflect.Type;
+import java.security.Principal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Load test of per-user notification fan-out through the real broker configuration of
+ * {@link WebSocketConfig}.
+ * <p>
+ * Starts an embedded server with the broker, connects {@code sessions} in-process STOMP clients, one
+ * user each, subscribed to {@code /user/queue/notifications}, then pushes {@code rounds} notifications
+ * to every user through {@link WebSocketNotificationHandler#handleBatch}. Prints the latency from
+ * publishing a round to each delivery, and the time until the whole round arrived.
+ * <p>
+ * Not run by the test suite; needs about two file descriptors per session. Run from the IDE or with
+ * {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.spms.backend.service.sys.notification.handler.WebSocketFanOutLoadHarness
+ * -Dsessions=5000 -Drounds=5}.
+ */
+public class WebSocketFanOutLoadHarness {
+
+    private static final Logger log = LoggerFactory.getLogger(WebSocketFanOutLoadHarness.class);
+
+    private static final String ENDPOINT = "/ws-load";
+
+    @Configuration
+    @ImportAutoConfiguration({ServletWebServerFactoryAutoConfiguration.class,
+            DispatcherServletAutoConfiguration.class,
+            WebSocketServletAutoConfiguration.class})
+    @Import(WebSocketConfig.class)
+    static class HarnessConfig implements WebSocketMessageBrokerConfigurer {
+
+        @Bean
+        WebSocketProperties webSocketProperties() {
+            return new WebSocketProperties();
+        }
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+
+        /**
+         * Plain WebSocket endpoint without login; the user is taken from the {@code user} query parameter.
+         */
+        @Override
+        public void registerStompEndpoints(StompEndpointRegistry registry) {
+            registry.addEndpoint(ENDPOINT).setHandshakeHandler(new DefaultHandshakeHandler() {
+                @Override
+                protected Principal determineUser(ServerHttpRequest request,
+                                                  WebSocketHandler wsHandler,
+                                                  Map<String, Object> attributes) {
+                    String user = UriComponentsBuilder.fromUri(request.getURI()).build()
+                            .getQueryParams().getFirst("user");
+                    return () -> user;
+                }
+            });
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        int sessions = Integer.getInteger("sessions", 5000);
+        int rounds = Integer.getInteger("rounds", 5);
+
+        ServletWebServerApplicationContext context = (ServletWebServerApplicationContext) new SpringApplicationBuilder(HarnessConfig.class)
+                .web(WebApplicationType.SERVLET)
+                .properties("server.port=0", "server.tomcat.max-connections=" + (sessions + 100),
+                        "server.tomcat.accept-count=1000")
+                .run(args);
+        try {
+            int port = context.getWebServer().getPort();
+            WebSocketNotificationHandler handler = new WebSocketNotificationHandler(
+                    context.getBean(SimpMessagingTemplate.class), context.getBean(WebSocketProperties.class));
+
+            WebSocketStompClient client = new WebSocketStompClient(new StandardWebSocketClient());
+            client.setMessageConverter(new MappingJackson2MessageConverter());
+            client.setInboundMessageSizeLimit(64 * 1024);
+
+            AtomicLong roundStart = new AtomicLong();
+            long[] latencies = new long[sessions * rounds];
+            AtomicInteger received = new AtomicInteger();
+            CountDownLatch[] roundDone = new CountDownLatch[rounds];
+            for (int i = 0; i < rounds; i++) {
+                roundDone[i] = new CountDownLatch(sessions);
+            }
+
+            long connectStart = System.nanoTime();
+            List<StompSession> stompSessions = connect(client, port, sessions, new StompFrameHandler() {
+                @Override
+                public Type getPayloadType(StompHeaders headers) {
+                    return Map.class;
+                }
+
+                @Override
+                public void handleFrame(StompHeaders headers, Object payload) {
+                    long latency = System.nanoTime() - roundStart.get();
+                    int index = received.getAndIncrement();
+                    if (index < latencies.length) {
+                        latencies[index] = latency;
+                    }
+                    List<?> notifications = (List<?>) ((Map<?, ?>) payload).get("notifications");
+                    int round = ((Number) ((Map<?, ?>) notifications.get(0)).get("round")).intValue();
+                    roundDone[round].countDown();
+                }
+            });
+            log.info("Connected {} sessions in {} ms", stompSessions.size(),
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - connectStart));
+            // Subscriptions are registered asynchronously after the SUBSCRIBE frame
+            Thread.sleep(1000);
+
+            for (int round = 0; round < rounds; round++) {
+                List<NotificationEvent> events = new ArrayList<>(sessions);
+                for (int i = 0; i < sessions; i++) {
+                    Map<String, Object> data = new HashMap<>();
+                    data.put("username", "user" + i);
+                    data.put("taskId", "task-" + round + "-" + i);
+                    data.put("round", round);
+                    events.add(new NotificationEvent(WebSocketFanOutLoadHarness.class, "TASK_ASSIGNED", data, Locale.ENGLISH) {
+                    });
+                }
+                roundStart.set(System.nanoTime());
+                Map<NotificationEvent, Exception> failures = handler.handleBatch(events);
+                boolean complete = roundDone[round].await(60, TimeUnit.SECONDS);
+                log.info("Round {}: {} in {} ms, {} failed to publish", round,
+                        complete ? "delivered" : "INCOMPLETE (" + roundDone[round].getCount() + " missing)",
+                        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - roundStart.get()), failures.size());
+            }
+
+            int count = Math.min(received.get(), latencies.length);
+            long[] sorted = Arrays.copyOf(latencies, count);
+            Arrays.sort(sorted);
+            log.info("Deliveries: {}, latency {}", count,
+                    String.format("p50=%.1f ms p95=%.1f ms p99=%.1f ms max=%.1f ms",
+                            millis(sorted, 0.50), millis(sorted, 0.95), millis(sorted, 0.99), millis(sorted, 1.0)));
+            log.info("{} sessions evicted",
+                    context.getBean(MeterRegistry.class).find("spms.websocket.evictions").counter().count());
+
+            stompSessions.forEach(StompSession::disconnect);
+            client.stop();
+        } finally {
+            context.close();
+        }
+    }
+
+    private static List<StompSession> connect(WebSocketStompClient client, int port, int sessions,
+                                              StompFrameHandler frameHandler) throws InterruptedException {
+        List<StompSession> connected = new ArrayList<>(sessions);
+        // Bound the handshakes in flight so the accept backlog does not overflow
+        Semaphore inFlight = new Semaphore(200);
+        CountDownLatch done = new CountDownLatch(sessions);
+        for (int i = 0; i < sessions; i++) {
+            inFlight.acquire();
+            String url = "ws://localhost:" + port + ENDPOINT + "?user=user" + i;
+            client.connectAsync(url, new StompSessionHandlerAdapter() {
+                @Override
+                public void afterConnected(StompSession session, StompHeaders connectedHeaders) {
+                    session.subscribe("/user" + WebSocketConfig.NOTIFICATION_QUEUE, frameHandler);
+                }
+            }).whenComplete((session, error) -> {
+                if (session != null) {
+                    synchronized (connected) {
+                        connected.add(session);
+                    }
+                } else {
+                    log.warn("Connect failed", error);
+                }
+                inFlight.release();
+                done.countDown();
+            });
+        }
+        done.await(5, TimeUnit.MINUTES);
+        return connected;
+    }
+
+    private static double millis(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))] / 1_000_000.0;
+    }
+}
@@ -0,0 +1,97 @@
+package com.spms.backend.service.sys.notification.handler;
+
+import com.spms.backend.config.WebSocketConfig;
+import com.spms.backend.config.WebSocketProperties;
+import com.spms.backend.service.sys.notification.event.NotificationEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.messaging.MessageDeliveryException;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class WebSocketNotificationHandlerTest {
+
+    private SimpMessagingTemplate messagingTemplate;
+    private WebSocketNotificationHandler handler;
+
+    @BeforeEach
+    void setUp() {
+        messagingTemplate = mock(SimpMessagingTemplate.class);
+        handler = new WebSocketNotificationHandler(messagingTemplate, new WebSocketProperties());
+    }
+
+    private static NotificationEvent event(String username, String eventType, String taskId) {
+        Map<String, Object> data = new HashMap<>();
+        if (username != null) {
+            data.put("username", username);
+        }
+        data.put("taskId", taskId);
+        return new NotificationEvent(WebSocketNotificationHandlerTest.class, eventType, data, Locale.ENGLISH) {
+        };
+    }
+
+    @Test
+    void handleBatch_ShouldCoalescePerUserAndEventType() {
+        List<NotificationEvent> events = List.of(
+                event("alice", "TASK_ASSIGNED", "1"),
+                event("bob", "TASK_ASSIGNED", "2"),
+                event("alice", "TASK_ASSIGNED", "3"),
+                event("alice", "TASK_COMPLETED", "4"));
+
+        Map<NotificationEvent, Exception> failures = handler.handleBatch(events);
+
+        assertTrue(failures.isEmpty());
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Map<String, Object>> payload = ArgumentCaptor.forClass(Map.class);
+        verify(messagingTemplate, times(2)).convertAndSendToUser(eq("alice"), eq(WebSocketConfig.NOTIFICATION_QUEUE), payload.capture());
+        verify(messagingTemplate).convertAndSendToUser(eq("bob"), eq(WebSocketConfig.NOTIFICATION_QUEUE), any(Object.class));
+
+        Map<String, Object> assigned = payload.getAllValues().get(0);
+        assertEquals("TASK_ASSIGNED", assigned.get("eventType"));
+        assertEquals(2, assigned.get("count"));
+        List<?> notifications = (List<?>) assigned.get("notifications");
+        assertEquals("1", ((Map<?, ?>) notifications.get(0)).get("taskId"));
+        assertEquals("3", ((Map<?, ?>) notifications.get(1)).get("taskId"));
+        assertEquals("TASK_COMPLETED", payload.getAllValues().get(1).get("eventType"));
+    }
+
+    @Test
+    void handleBatch_ShouldSkipNotificationsWithoutUsername() {
+        Map<NotificationEvent, Exception> failures = handler.handleBatch(List.of(event(null, "TASK_ASSIGNED", "1")));
+
+        assertTrue(failures.isEmpty());
+        verify(messagingTemplate, never()).convertAndSendToUser(anyString(), anyString(), any(Object.class));
+    }
+
+    @Test
+    void handleBatch_ShouldReportOnlyTheFailedGroup() {
+        doThrow(new MessageDeliveryException("broker unavailable"))
+                .when(messagingTemplate).convertAndSendToUser(eq("alice"), anyString(), any(Object.class));
+        NotificationEvent first = event("alice", "TASK_ASSIGNED", "1");
+        NotificationEvent second = event("alice", "TASK_ASSIGNED", "2");
+        NotificationEvent other = event("bob", "TASK_ASSIGNED", "3");
+
+        Map<NotificationEvent, Exception> failures = handler.handleBatch(List.of(first, other, second));
+
+        assertEquals(2, failures.size());
+        assertTrue(failures.containsKey(first));
+        assertTrue(failures.containsKey(second));
+        assertFalse(failures.containsKey(other));
+    }
+
+    @Test
+    void getBatchWindow_ShouldUseCoalesceWindow() {
+        assertEquals(new WebSocketProperties().getCoalesceWindow(), handler.getBatchWindow());
+    }
+}
@@ -0,0 +1,117 @@
+package com.spms.backend.service.sys.notification.template;
+
+import com.spms.backend.config.NotificationProperties;
+import freemarker.cache.StringTemplateLoader;
+import freemarker.template.Configuration;
+import freemarker.template.Template;
+import freemarker.template.TemplateException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Renders one task notification for every participant of a process step: a template lookup and a
+ * {@link StringWriter} per recipient as before, the cached template per recipient, and
+ * {@link NotificationTemplateManagerFreeMakerImpl#renderFanOut}.
+ * <p>
+ * Not run by the test suite. Run from the IDE or with
+ * {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.spms.backend.service.sys.notification.template.NotificationFanOutBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NotificationFanOutBenchmark {
+
+    private static final String TEMPLATE = "email/task_assigned.ftl";
+
+    @Param({"1000"})
+    public int recipients;
+
+    private Configuration configuration;
+    private NotificationTemplateManagerFreeMakerImpl manager;
+    private List<Map<String, Object>> models;
+
+    @Setup
+    public void setUp() {
+        StringBuilder body = new StringBuilder("<#ftl output_format=\"HTML\"><html><body><p>Dear ${name},</p>");
+        body.append("<p>${task} of ${process} was assigned to you by ${assigner}.</p><table>");
+        for (int i = 0; i < 20; i++) {
+            body.append("<tr><td>Field ").append(i).append("</td><td>${process} / ${department}</td></tr>");
+        }
+        body.append("</table><p>Please complete it before ${dueDate}.</p></body></html>");
+        StringTemplateLoader loader = new StringTemplateLoader();
+        loader.putTemplate("en/" + TEMPLATE, body.toString());
+        configuration = new Configuration(Configuration.VERSION_2_3_34);
+        configuration.setTemplateLoader(loader);
+        manager = new NotificationTemplateManagerFreeMakerImpl(configuration, new NotificationProperties());
+
+        models = new ArrayList<>(recipients);
+        for (int i = 0; i < recipients; i++) {
+            Map<String, Object> model = new HashMap<>();
+            model.put("name", "Participant " + i);
+            model.put("email", "participant" + i + "@example.com");
+            model.put("task", "Department head approval");
+            model.put("process", "Annual leave request");
+            model.put("assigner", "Chan Tai Man");
+            model.put("department", "IT Infrastructure");
+            model.put("dueDate", "2026-10-23");
+            models.add(model);
+        }
+    }
+
+    @Benchmark
+    public List<String> lookupPerRecipient() throws IOException, TemplateException {
+        List<String> contents = new ArrayList<>(models.size());
+        for (Map<String, Object> model : models) {
+            Template template = configuration.getTemplate(Locale.ENGLISH.toLanguageTag() + "/" + TEMPLATE);
+            StringWriter writer = new StringWriter();
+            template.process(model, writer);
+            contents.add(writer.toString());
+        }
+        return contents;
+    }
+
+    @Benchmark
+    public List<String> cachedPerRecipient() {
+        List<String> contents = new ArrayList<>(models.size());
+        for (Map<String, Object> model : models) {
+            contents.add(manager.renderTemplate(TEMPLATE, Locale.ENGLISH, model));
+        }
+        return contents;
+    }
+
+    @Benchmark
+    public List<String> fanOut() {
+        return manager.renderFanOut(TEMPLATE, Locale.ENGLISH, models);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(NotificationFanOutBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
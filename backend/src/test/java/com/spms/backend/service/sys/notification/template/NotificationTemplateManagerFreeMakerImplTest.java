@@ -0,0 +1,207 @@
+package com.spms.backend.service.sys.notification.template;
+
+import com.spms.backend.config.NotificationProperties;
+import com.spms.backend.service.sys.notification.exception.NotificationProcessingException;
+import freemarker.cache.ClassTemplateLoader;
+import freemarker.cache.StringTemplateLoader;
+import freemarker.core.TemplateElement;
+import freemarker.template.Configuration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NotificationTemplateManagerFreeMakerImplTest {
+
+    private StringTemplateLoader loader;
+    private Configuration configuration;
+    private NotificationTemplateManagerFreeMakerImpl manager;
+
+    @BeforeEach
+    void setUp() {
+        loader = new StringTemplateLoader();
+        loader.putTemplate("en/email/task_assigned.ftl",
+                "<#ftl output_format=\"HTML\"><p>Dear ${name}, ${task} (${process}) is waiting for you.</p>");
+        loader.putTemplate("zh-CN/email/task_assigned.ftl",
+                "<#ftl output_format=\"HTML\"><p>${name}，您有新的任务：${task}</p>");
+        loader.putTemplate("en/email/shout.ftl", "${name?upper_case}: ${task}");
+        loader.putTemplate("en/email/vip.ftl",
+                "<#ftl output_format=\"HTML\"><#if name == \"bob\">VIP </#if>${name}: ${task}");
+        configuration = new Configuration(Configuration.VERSION_2_3_34);
+        configuration.setTemplateLoader(loader);
+        manager = new NotificationTemplateManagerFreeMakerImpl(configuration, new NotificationProperties());
+    }
+
+    private static Map<String, Object> model(String name, String task) {
+        Map<String, Object> model = new HashMap<>();
+        model.put("name", name);
+        model.put("task", task);
+        model.put("process", "Leave request");
+        return model;
+    }
+
+    @Test
+    void renderTemplate_ShouldFallBackToDefaultLocale() {
+        String content = manager.renderTemplate("email/task_assigned.ftl", Locale.forLanguageTag("zh-HK"),
+                model("Chan", "Approve"));
+
+        assertEquals("<p>Dear Chan, Approve (Leave request) is waiting for you.</p>", content);
+    }
+
+    @Test
+    void renderTemplate_ShouldUseLocaleDirectory() {
+        String content = manager.renderTemplate("email/task_assigned.ftl", Locale.SIMPLIFIED_CHINESE,
+                model("陈", "审批"));
+
+        assertEquals("<p>陈，您有新的任务：审批</p>", content);
+    }
+
+    @Test
+    void renderTemplate_ShouldCompileTemplateOncePerLocale() {
+        manager.renderTemplate("email/task_assigned.ftl", Locale.ENGLISH, model("a", "b"));
+        loader.putTemplate("en/email/task_assigned.ftl", "changed");
+
+        assertEquals(1, manager.cachedTemplateCount());
+        assertEquals("<p>Dear a, b (Leave request) is waiting for you.</p>",
+                manager.renderTemplate("email/task_assigned.ftl", Locale.ENGLISH, model("a", "b")));
+
+        manager.clearCache();
+        configuration.clearTemplateCache();
+        assertEquals("changed", manager.renderTemplate("email/task_assigned.ftl", Locale.ENGLISH, model("a", "b")));
+    }
+
+    @Test
+    void renderTemplate_ShouldPickUpChangedTemplateAfterUpdateDelay() {
+        configuration.setTemplateUpdateDelayMilliseconds(0);
+        manager.renderTemplate("email/task_assigned.ftl", Locale.ENGLISH, model("a", "b"));
+        loader.putTemplate("en/email/task_assigned.ftl", "changed ${name}", System.currentTimeMillis() + 60_000);
+
+        assertEquals("changed a", manager.renderTemplate("email/task_assigned.ftl", Locale.ENGLISH, model("a", "b")));
+        assertEquals(1, manager.cachedTemplateCount());
+    }
+
+    @Test
+    void renderTemplate_ShouldFailForMissingTemplate() {
+        assertThrows(NotificationProcessingException.class,
+                () -> manager.renderTemplate("email/unknown.ftl", Locale.ENGLISH, Map.of()));
+        assertThrows(NotificationProcessingException.class,
+                () -> manager.renderTemplate("email/unknown.ftl", Locale.ENGLISH, Map.of()));
+    }
+
+    @Test
+    void renderFanOut_ShouldMatchIndividualRendersWithEscaping() {
+        List<Map<String, Object>> models = new ArrayList<>();
+        models.add(model("Alice", "Approve leave"));
+        models.add(model("<b>Bob</b>", "Approve leave"));
+        models.add(model("Tom & Jerry", "Approve \"expense\""));
+
+        List<String> contents = manager.renderFanOut("email/task_assigned.ftl", Locale.ENGLISH, models);
+
+        assertEquals(3, contents.size());
+        for (int i = 0; i < models.size(); i++) {
+            assertEquals(manager.renderTemplate("email/task_assigned.ftl", Locale.ENGLISH, models.get(i)),
+                    contents.get(i));
+        }
+        assertTrue(contents.get(1).contains("&lt;b&gt;Bob&lt;/b&gt;"));
+    }
+
+    @Test
+    void renderFanOut_ShouldRenderEachRecipientWhenFieldIsTransformed() {
+        List<String> contents = manager.renderFanOut("email/shout.ftl", Locale.ENGLISH,
+                List.of(model("alice", "Approve"), model("bob", "Approve")));
+
+        assertEquals(List.of("ALICE: Approve", "BOB: Approve"), contents);
+    }
+
+    @Test
+    void renderFanOut_ShouldRenderEachRecipientWhenFieldIsTestedBetweenFirstAndLast() {
+        List<String> contents = manager.renderFanOut("email/vip.ftl", Locale.ENGLISH,
+                List.of(model("alice", "Approve"), model("bob", "Approve"), model("carol", "Approve")));
+
+        assertEquals(List.of("alice: Approve", "VIP bob: Approve", "carol: Approve"), contents);
+    }
+
+    @Test
+    void printsOnly_ShouldAcceptPlainInterpolationsOnly() {
+        Set<String> fields = Set.of("name");
+
+        assertTrue(NotificationTemplateManagerFreeMakerImpl.printsOnly(
+                manager.template("email/task_assigned.ftl", Locale.ENGLISH), fields));
+        assertFalse(NotificationTemplateManagerFreeMakerImpl.printsOnly(
+                manager.template("email/shout.ftl", Locale.ENGLISH), fields));
+        assertFalse(NotificationTemplateManagerFreeMakerImpl.printsOnly(
+                manager.template("email/vip.ftl", Locale.ENGLISH), fields));
+        assertFalse(NotificationTemplateManagerFreeMakerImpl.printsOnly(
+                manager.template("email/vip.ftl", Locale.ENGLISH), Set.of("task")));
+    }
+
+    @Test
+    void printsOnly_ShouldRejectElementsOutsideAllowlist() {
+        loader.putTemplate("en/email/path.ftl", "${name} ${ task } (${process.title})");
+        loader.putTemplate("en/email/compressed.ftl", "<#compress>${name}</#compress>");
+        loader.putTemplate("en/email/default.ftl", "${name!\"you\"}");
+        Set<String> fields = Set.of("name");
+
+        assertTrue(NotificationTemplateManagerFreeMakerImpl.printsOnly(
+                manager.template("email/path.ftl", Locale.ENGLISH), fields));
+        assertFalse(NotificationTemplateManagerFreeMakerImpl.printsOnly(
+                manager.template("email/path.ftl", Locale.ENGLISH), Set.of("process")));
+        assertFalse(NotificationTemplateManagerFreeMakerImpl.printsOnly(
+                manager.template("email/compressed.ftl", Locale.ENGLISH), fields));
+        assertFalse(NotificationTemplateManagerFreeMakerImpl.printsOnly(
+                manager.template("email/default.ftl", Locale.ENGLISH), fields));
+    }
+
+    @Test
+    @SuppressWarnings("deprecation")
+    void printsOnly_ShouldMatchSyntaxTreeOfFreeMarkerInUse() {
+        // printsOnly allows syntax tree elements by class name; review that allowlist when upgrading FreeMarker
+        assertEquals(Configuration.VERSION_2_3_34.intValue(), Configuration.getVersion().intValue());
+
+        Set<String> types = new HashSet<>();
+        collectTypes(manager.template("email/task_assigned.ftl", Locale.ENGLISH).getRootTreeNode(), types);
+
+        assertEquals(Set.of("freemarker.core.MixedContent", "freemarker.core.TextBlock",
+                "freemarker.core.DollarVariable"), types);
+    }
+
+    private static void collectTypes(TemplateElement element, Set<String> types) {
+        types.add(element.getClass().getName());
+        for (int i = 0; i < element.getChildCount(); i++) {
+            collectTypes(element.getChild(i), types);
+        }
+    }
+
+    @Test
+    void renderFanOut_ShouldRenderEachRecipientWhenValuesAreNotText() {
+        Map<String, Object> first = model("alice", "Approve");
+        first.put("process", 1);
+        Map<String, Object> second = model("bob", "Approve");
+        second.put("process", 2);
+
+        List<String> contents = manager.renderFanOut("email/task_assigned.ftl", Locale.ENGLISH, List.of(first, second));
+
+        assertEquals("<p>Dear alice, Approve (1) is waiting for you.</p>", contents.get(0));
+        assertEquals("<p>Dear bob, Approve (2) is waiting for you.</p>", contents.get(1));
+    }
+
+    @Test
+    void preload_ShouldCompileEmailTemplatesOnClasspath() {
+        Configuration classpath = new Configuration(Configuration.VERSION_2_3_34);
+        classpath.setTemplateLoader(new ClassTemplateLoader(getClass(), "/templates"));
+        NotificationTemplateManagerFreeMakerImpl preloading =
+                new NotificationTemplateManagerFreeMakerImpl(classpath, new NotificationProperties());
+
+        preloading.preload();
+
+        assertTrue(preloading.cachedTemplateCount() >= 2);
+    }
+}
@@ -0,0 +1,171 @@
+package com.spms.backend.service.timecard;
+
+import com.spms.backend.model.ProjectStatus;
+import com.spms.backend.repository.project.ProjectRepository;
+import com.spms.backend.repository.project.ProjectRepository.ProjectTaskView;
+import com.spms.backend.service.sys.cache.CacheVersions;
+import com.spms.backend.service.timecard.ProjectCatalog.CatalogRow;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class ProjectCatalogTest {
+
+    @Mock
+    private ProjectRepository projectRepository;
+
+    @Mock
+    private CacheVersions cacheVersions;
+
+    @Mock
+    private CacheVersions.Tracker sharedVersion;
+
+    private ProjectCatalog catalog;
+
+    @BeforeEach
+    void setUp() {
+        when(cacheVersions.tracker(ProjectCatalog.CACHE_NAME)).thenReturn(sharedVersion);
+        catalog = new ProjectCatalog(projectRepository, cacheVersions);
+        List<ProjectTaskView> rows = List.of(
+                row(1, "PRJ-2024A", "客户门户 Portal", 11L, "T-100"),
+                row(1, "PRJ-2024A", "客户门户 Portal", 12L, "T-200"),
+                row(2, "OPS01", "Operations", null, null));
+        when(projectRepository.findProjectTaskRows()).thenReturn(rows);
+    }
+
+    private static ProjectTaskView row(long projectId, String code, String name, Long taskId, String taskNumber) {
+        ProjectTaskView view = mock(ProjectTaskView.class);
+        when(view.getProjectId()).thenReturn(projectId);
+        when(view.getProjectCode()).thenReturn(code);
+        when(view.getProjectName()).thenReturn(name);
+        when(view.getStatus()).thenReturn(ProjectStatus.ACTIVE);
+        when(view.getTaskId()).thenReturn(taskId);
+        when(view.getTaskNumber()).thenReturn(taskNumber);
+        when(view.getTaskName()).thenReturn(taskNumber != null ? "Task " + taskNumber : null);
+        when(view.getActivity()).thenReturn("Dev");
+        return view;
+    }
+
+    private List<String> search(String search) {
+        return catalog.find(null, search, null, 100).stream()
+                .map(row -> row.project().projectCode() + (row.task() != null ? "/" + row.task().taskNumber() : ""))
+                .toList();
+    }
+
+    @Test
+    void find_ShouldMatchTermPrefixes() {
+        assertEquals(List.of("OPS01", "PRJ-2024A/T-100", "PRJ-2024A/T-200"), search(null));
+        assertEquals(List.of("PRJ-2024A/T-100", "PRJ-2024A/T-200"), search("prj-20"));
+        assertEquals(List.of("PRJ-2024A/T-100", "PRJ-2024A/T-200"), search("2024"));
+        assertEquals(List.of("PRJ-2024A/T-200"), search("200"));
+        assertEquals(List.of("OPS01"), search("01"));
+        assertEquals(List.of("PRJ-2024A/T-100", "PRJ-2024A/T-200"), search("门户"));
+        assertEquals(List.of("PRJ-2024A/T-100", "PRJ-2024A/T-200"), search("PORT"));
+        assertEquals(List.of(), search("ations"));
+    }
+
+    @Test
+    void find_ShouldStartAfterKey() {
+        List<CatalogRow> rows = catalog.find(null, null, new String[]{"Operations", "OPS01", ""}, 1);
+
+        assertEquals(1, rows.size());
+        assertEquals("T-100", rows.get(0).task().taskNumber());
+    }
+
+    @Test
+    void findByCode_ShouldReturnProjectWithTasks() {
+        ProjectCatalog.CatalogProject project = catalog.findByCode("PRJ-2024A").orElseThrow();
+
+        assertEquals(2, project.tasks().size());
+        assertEquals("Task T-100", project.tasks().get(0).taskName());
+        assertTrue(catalog.findByCode("NONE").isEmpty());
+        verify(projectRepository, times(1)).findProjectTaskRows();
+    }
+
+    @Test
+    void invalidate_ShouldReloadOnlyChangedProjects() {
+        catalog.findByCode("OPS01");
+        String etag = catalog.etag();
+        List<ProjectTaskView> reloaded = List.of(row(2, "OPS02", "Operations", 21L, "T-300"));
+        when(projectRepository.findProjectTaskRowsByProjectIdIn(anyCollection())).thenReturn(reloaded);
+
+        catalog.invalidateAfterCommit(2L);
+        catalog.invalidateAfterCommit(3L);
+
+        assertNotEquals(etag, catalog.etag());
+        assertTrue(catalog.findByCode("OPS01").isEmpty());
+        assertEquals("T-300", catalog.findByCode("OPS02").orElseThrow().tasks().get(0).taskNumber());
+        assertEquals(3, catalog.find(null, null, null, 100).size());
+        verify(projectRepository, times(1)).findProjectTaskRows();
+        verify(projectRepository).findProjectTaskRowsByProjectIdIn(new LinkedHashSet<>(List.of(2L, 3L)));
+    }
+
+    @Test
+    void invalidateAfterCommit_ShouldWaitForCommit() {
+        catalog.findByCode("OPS01");
+        long version = catalog.version();
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            catalog.invalidateAfterCommit(2L);
+            assertEquals(version, catalog.version());
+
+            List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+            synchronizations.forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertEquals(version + 1, catalog.version());
+        verify(cacheVersions).increment(ProjectCatalog.CACHE_NAME);
+    }
+
+    @Test
+    void invalidateAll_ShouldReloadEverything() {
+        catalog.findByCode("OPS01");
+
+        catalog.invalidateAll();
+        catalog.findByCode("OPS01");
+
+        verify(projectRepository, times(2)).findProjectTaskRows();
+        verify(cacheVersions).increment(ProjectCatalog.CACHE_NAME);
+    }
+
+    @Test
+    void find_ShouldReloadEverythingAfterChangeOnAnotherNode() {
+        catalog.findByCode("OPS01");
+        String etag = catalog.etag();
+
+        when(sharedVersion.changed()).thenReturn(true, false);
+        catalog.findByCode("OPS01");
+        catalog.findByCode("OPS01");
+
+        assertNotEquals(etag, catalog.etag());
+        verify(projectRepository, times(2)).findProjectTaskRows();
+        verify(cacheVersions, never()).increment(any());
+    }
+
+    @Test
+    void addTerms_ShouldStartAtWordsDigitsAndIdeographs() {
+        Set<String> terms = new LinkedHashSet<>();
+        ProjectCatalog.addTerms("PRJ-2024A", terms);
+        ProjectCatalog.addTerms("项目管理", terms);
+
+        assertEquals(List.of("prj-2024a", "2024a", "a", "项目管理", "目管理", "管理", "理"), List.copyOf(terms));
+    }
+}
@@ -0,0 +1,122 @@
+package com.spms.backend.service.timecard;
+
+import com.spms.backend.config.WorkingCalendarProperties;
+import com.spms.backend.repository.timecard.HolidayRepository;
+import com.spms.backend.service.sys.cache.CacheVersions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class WorkingCalendarTest {
+
+    // 2026-12-25 (Fri), 2027-01-01 (Fri) are holidays in CN
+    private static final LocalDate CHRISTMAS = LocalDate.of(2026, 12, 25);
+    private static final LocalDate NEW_YEAR = LocalDate.of(2027, 1, 1);
+
+    @Mock
+    private HolidayRepository holidayRepository;
+
+    @Mock
+    private CacheVersions cacheVersions;
+
+    @Mock
+    private CacheVersions.Tracker sharedVersion;
+
+    private final List<HolidayRepository.DateCountryView> holidays = new ArrayList<>();
+    private WorkingCalendar calendar;
+
+    @BeforeEach
+    void setUp() {
+        holidays.add(holiday(CHRISTMAS, "CN"));
+        holidays.add(holiday(NEW_YEAR, "CN"));
+        holidays.add(holiday(LocalDate.of(2026, 12, 28), "HK"));
+        when(holidayRepository.findActiveDateCountries()).thenAnswer(inv -> new ArrayList<>(holidays));
+        when(cacheVersions.tracker(WorkingCalendar.CACHE_NAME)).thenReturn(sharedVersion);
+        calendar = new WorkingCalendar(holidayRepository, new WorkingCalendarProperties(), cacheVersions);
+    }
+
+    private static HolidayRepository.DateCountryView holiday(LocalDate date, String country) {
+        return new HolidayRepository.DateCountryView() {
+            @Override
+            public LocalDate getHolidayDate() {
+                return date;
+            }
+
+            @Override
+            public String getCountry() {
+                return country;
+            }
+        };
+    }
+
+    @Test
+    void isWorkingDay_ShouldExcludeWeekendsAndHolidaysOfCountry() {
+        assertTrue(calendar.isWorkingDay(LocalDate.of(2026, 12, 24)));
+        assertFalse(calendar.isWorkingDay(CHRISTMAS));
+        assertFalse(calendar.isWorkingDay(LocalDate.of(2026, 12, 26)));
+        assertTrue(calendar.isWorkingDay(CHRISTMAS, "HK"));
+        assertFalse(calendar.isWorkingDay(LocalDate.of(2026, 12, 28), "HK"));
+    }
+
+    @Test
+    void addWorkingDays_ShouldSkipHolidaysAcrossYearBoundary() {
+        // Thu 24 Dec + 1 -> Mon 28 Dec; + 5 -> Mon 4 Jan (31 Dec is Thu, 1 Jan is a holiday)
+        assertEquals(LocalDate.of(2026, 12, 28), calendar.addWorkingDays(LocalDate.of(2026, 12, 24), 1));
+        assertEquals(LocalDate.of(2027, 1, 4), calendar.addWorkingDays(LocalDate.of(2026, 12, 24), 5));
+        assertEquals(LocalDate.of(2026, 12, 24), calendar.addWorkingDays(LocalDate.of(2027, 1, 4), -5));
+        assertEquals(CHRISTMAS, calendar.addWorkingDays(CHRISTMAS, 0));
+        // 2 年的工作日跨越多个位图
+        LocalDate far = calendar.addWorkingDays(LocalDate.of(2026, 1, 1), 600);
+        assertEquals(600, calendar.countWorkingDays(LocalDate.of(2026, 1, 2), far.plusDays(1)));
+    }
+
+    @Test
+    void countWorkingDays_ShouldMatchDayByDayCount() {
+        LocalDate from = LocalDate.of(2026, 11, 3);
+        LocalDate to = LocalDate.of(2027, 2, 17);
+        int expected = 0;
+        for (LocalDate d = from; d.isBefore(to); d = d.plusDays(1)) {
+            if (calendar.isWorkingDay(d)) expected++;
+        }
+
+        assertEquals(expected, calendar.countWorkingDays(from, to));
+        assertEquals(-expected, calendar.countWorkingDays(to, from));
+        assertEquals(0, calendar.countWorkingDays(from, from));
+    }
+
+    @Test
+    void refresh_ShouldSwapInNewHolidays() {
+        LocalDate boxingDay = LocalDate.of(2026, 12, 28);
+        assertTrue(calendar.isWorkingDay(boxingDay));
+
+        holidays.add(holiday(boxingDay, "CN"));
+        calendar.refreshAfterCommit();
+
+        assertFalse(calendar.isWorkingDay(boxingDay));
+        verify(holidayRepository, times(2)).findActiveDateCountries();
+        verify(cacheVersions).increment(WorkingCalendar.CACHE_NAME);
+    }
+
+    @Test
+    void isWorkingDay_ShouldReloadAfterChangeOnAnotherNode() {
+        LocalDate boxingDay = LocalDate.of(2026, 12, 28);
+        assertTrue(calendar.isWorkingDay(boxingDay));
+
+        holidays.add(holiday(boxingDay, "CN"));
+        when(sharedVersion.changed()).thenReturn(true, false);
+
+        assertFalse(calendar.isWorkingDay(boxingDay));
+        assertFalse(calendar.isWorkingDay(boxingDay));
+        verify(holidayRepository, times(2)).findActiveDateCountries();
+    }
+}
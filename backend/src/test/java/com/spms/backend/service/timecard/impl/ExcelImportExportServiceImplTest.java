@@ -0,0 +1,181 @@
+package com.spms.backend.service.timecard.impl;
+
+import com.spms.backend.config.ExcelImportProperties;
+import com.spms.backend.controller.dto.timecard.ImportResultDTO;
+import com.spms.backend.repository.project.ProjectRepository;
+import com.spms.backend.repository.timecard.HolidayRepository;
+import com.spms.backend.service.idm.UserService;
+import com.spms.backend.service.timecard.ProjectCatalog;
+import com.spms.backend.service.timecard.WorkingCalendar;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.io.ByteArrayOutputStream;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class ExcelImportExportServiceImplTest {
+
+    @Mock
+    private ProjectRepository projectRepository;
+    @Mock
+    private HolidayRepository holidayRepository;
+    @Mock
+    private UserService userService;
+    @Mock
+    private ProjectImportWriter projectImportWriter;
+    @Mock
+    private HolidayImportWriter holidayImportWriter;
+    @Mock
+    private WorkingCalendar workingCalendar;
+    @Mock
+    private ProjectCatalog projectCatalog;
+
+    private ExcelImportProperties properties;
+    private ExcelImportExportServiceImpl service;
+    private ProjectImportWriter.ImportState state;
+
+    @BeforeEach
+    void setUp() {
+        properties = new ExcelImportProperties();
+        properties.setChunkSize(3);
+        service = new ExcelImportExportServiceImpl(projectRepository, holidayRepository,
+                userService, projectImportWriter, holidayImportWriter, properties, workingCalendar,
+                projectCatalog);
+        state = new ProjectImportWriter.ImportState(new HashMap<>(), new HashMap<>(), 1L, 0L);
+        when(userService.getCurrentUserId()).thenReturn(1L);
+        when(projectImportWriter.start(1L)).thenReturn(state);
+        when(projectImportWriter.write(eq(state), anyList()))
+                .thenReturn(new ProjectImportWriter.WrittenKeys(Map.of(), Map.of()));
+    }
+
+    private MockMultipartFile workbook(int rows, String badCode) throws Exception {
+        try (XSSFWorkbook workbook = new XSSFWorkbook(); ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            Sheet sheet = workbook.createSheet("Projects");
+            sheet.createRow(0).createCell(0).setCellValue("Project Code");
+            for (int i = 1; i <= rows; i++) {
+                Row row = sheet.createRow(i);
+                row.createCell(0).setCellValue(i == 2 ? "" : (i == 4 ? badCode : "P" + i));
+                row.createCell(2).setCellValue("T" + i);
+            }
+            workbook.write(out);
+            return new MockMultipartFile("file", "projects.xlsx", null, out.toByteArray());
+        }
+    }
+
+    @Test
+    void importProjects_ShouldWriteInChunks() throws Exception {
+        ImportResultDTO result = service.importProjects(workbook(7, "P4"));
+
+        assertTrue(result.isSuccess());
+        // 第 3 行（Excel 行号）项目代码为空
+        assertEquals(6, result.getImported());
+        assertEquals(1, result.getFailed());
+        assertEquals(3, result.getErrors().get(0).getRow());
+        verify(projectImportWriter, times(2)).write(eq(state), anyList());
+        verify(projectCatalog).invalidateAll();
+    }
+
+    @Test
+    void importProjects_ShouldRetryFailedChunkRowByRow() throws Exception {
+        when(projectImportWriter.write(eq(state), argThat(rows -> rows.stream()
+                .anyMatch(r -> "BAD".equals(r.projectCode())))))
+                .thenThrow(new IllegalStateException("value too long"));
+
+        ImportResultDTO result = service.importProjects(workbook(7, "BAD"));
+
+        assertTrue(result.isSuccess());
+        assertEquals(5, result.getImported());
+        assertEquals(2, result.getFailed());
+        ImportResultDTO.ImportErrorDTO error = result.getErrors().get(1);
+        assertEquals(5, error.getRow());
+        assertEquals("BAD", error.getIdentifier());
+        assertTrue(error.getError().contains("value too long"));
+        // 一次分块写入失败，随后 3 行逐行重试，再写入最后一个分块
+        verify(projectImportWriter, times(5)).write(eq(state), anyList());
+    }
+
+    private MockMultipartFile holidayWorkbook(LocalDate... dates) throws Exception {
+        try (XSSFWorkbook workbook = new XSSFWorkbook(); ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            Sheet sheet = workbook.createSheet("Holidays");
+            sheet.createRow(0).createCell(0).setCellValue("Date");
+            for (int i = 0; i < dates.length; i++) {
+                Row row = sheet.createRow(i + 1);
+                row.createCell(0).setCellValue(dates[i].toString());
+                row.createCell(1).setCellValue("HK");
+            }
+            workbook.write(out);
+            return new MockMultipartFile("file", "holidays.xlsx", null, out.toByteArray());
+        }
+    }
+
+    private HolidayRepository.DateCountryView existing(LocalDate date, String country) {
+        return new HolidayRepository.DateCountryView() {
+            @Override
+            public LocalDate getHolidayDate() {
+                return date;
+            }
+
+            @Override
+            public String getCountry() {
+                return country;
+            }
+        };
+    }
+
+    @Test
+    void importHolidays_ShouldProbeOnceAndInsertNewDatesInBatch() throws Exception {
+        LocalDate newYear = LocalDate.of(2027, 1, 1);
+        LocalDate christmas = LocalDate.of(2027, 12, 25);
+        when(holidayRepository.findDateCountriesBetween(newYear, christmas))
+                .thenReturn(List.of(existing(newYear, "HK")));
+        when(holidayImportWriter.insert(anyList(), eq(false))).thenAnswer(inv -> ((List<?>) inv.getArgument(0)).size());
+
+        ImportResultDTO result = service.importHolidays(holidayWorkbook(newYear, christmas, christmas), false);
+
+        assertEquals(1, result.getImported());
+        assertEquals(2, result.getFailed());
+        assertEquals(List.of(4, 2), result.getErrors().stream().map(ImportResultDTO.ImportErrorDTO::getRow).toList());
+        verify(holidayRepository, times(1)).findDateCountriesBetween(any(), any());
+        verify(holidayRepository, never()).existsByHolidayDate(any());
+        verify(holidayRepository, never()).save(any());
+        verify(holidayImportWriter).insert(argThat(list -> list.size() == 1
+                && christmas.equals(list.get(0).getHolidayDate()) && "HK".equals(list.get(0).getCountry())), eq(false));
+        verify(workingCalendar).refreshAfterCommit();
+    }
+
+    @Test
+    void importHolidays_ShouldSkipExistingDatesInUpsertMode() throws Exception {
+        LocalDate newYear = LocalDate.of(2027, 1, 1);
+        LocalDate christmas = LocalDate.of(2027, 12, 25);
+        when(holidayRepository.findDateCountriesBetween(newYear, christmas))
+                .thenReturn(List.of(existing(newYear, "HK")));
+        when(holidayImportWriter.supportsUpsert()).thenReturn(true);
+        when(holidayImportWriter.insert(anyList(), eq(true))).thenAnswer(inv -> ((List<?>) inv.getArgument(0)).size());
+
+        ImportResultDTO result = service.importHolidays(holidayWorkbook(newYear, christmas, newYear), true);
+
+        assertEquals(1, result.getImported());
+        assertEquals(0, result.getFailed());
+        // The probe runs in upsert mode too: without a unique index ON CONFLICT would not skip anything
+        verify(holidayRepository, times(1)).findDateCountriesBetween(any(), any());
+        verify(holidayImportWriter).insert(argThat(list -> list.size() == 1
+                && christmas.equals(list.get(0).getHolidayDate())), eq(true));
+    }
+}
@@ -0,0 +1,65 @@
+package com.spms.backend.service.timecard.impl;
+
+import com.spms.backend.service.timecard.impl.ProjectSheetReader.ProjectImportRow;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProjectSheetReaderTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void read_ShouldStreamRowsAfterHeader() throws Exception {
+        Path file = tempDir.resolve("projects.xlsx");
+        try (XSSFWorkbook workbook = new XSSFWorkbook(); OutputStream out = Files.newOutputStream(file)) {
+            Sheet sheet = workbook.createSheet("Projects");
+            Row header = sheet.createRow(0);
+            String[] headers = {"Project Code", "Project Name", "Task Number", "Task Name", "Activity", "Status"};
+            for (int i = 0; i < headers.length; i++) {
+                header.createCell(i).setCellValue(headers[i]);
+            }
+            Row first = sheet.createRow(1);
+            first.createCell(0).setCellValue("P001");
+            first.createCell(1).setCellValue("Project One");
+            first.createCell(2).setCellValue(1001);
+            first.createCell(3).setCellValue("Design");
+            first.createCell(5).setCellValue("ACTIVE");
+            // 第 3 行为空，第 4 行只有项目名称
+            Row fourth = sheet.createRow(3);
+            fourth.createCell(1).setCellValue("No Code");
+            workbook.write(out);
+        }
+
+        List<ProjectImportRow> rows = new ArrayList<>();
+        ProjectSheetReader.read(file, rows::add);
+
+        assertEquals(2, rows.size());
+        ProjectImportRow first = rows.get(0);
+        assertEquals(2, first.rowNumber());
+        assertEquals("P001", first.projectCode());
+        assertEquals("Project One", first.projectName());
+        assertEquals("1001", first.taskNumber());
+        assertEquals("Design", first.taskName());
+        assertNull(first.activity());
+        assertEquals("ACTIVE", first.status());
+        assertTrue(first.hasTask());
+
+        ProjectImportRow second = rows.get(1);
+        assertEquals(4, second.rowNumber());
+        assertNull(second.projectCode());
+        assertEquals("No Code", second.projectName());
+        assertFalse(second.hasTask());
+    }
+}
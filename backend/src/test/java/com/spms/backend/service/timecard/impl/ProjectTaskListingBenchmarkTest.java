@@ -0,0 +1,188 @@
+package com.spms.backend.service.timecard.impl;
+
+import com.spms.backend.controller.dto.timecard.ProjectTaskDTO;
+import com.spms.backend.controller.dto.timecard.ProjectTaskPageDTO;
+import com.spms.backend.model.ProjectStatus;
+import com.spms.backend.repository.entities.project.ProjectEntity;
+import com.spms.backend.repository.entities.project.TaskEntity;
+import com.spms.backend.repository.project.ProjectRepository;
+import com.spms.backend.repository.project.TaskRepository;
+import com.spms.backend.service.timecard.ProjectCatalog;
+import com.spms.backend.service.timecard.TimecardService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.oauth2.client.registration.ClientRegistrationRepository;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Latency of the timecard project/task listing: the previous per-project task query loop against
+ * a full {@link ProjectCatalog} load (one projection query) and against {@link ProjectTaskListing}
+ * served from the loaded catalog.
+ * <p>
+ * Seeds 5k projects with 10 tasks each, so it only runs with {@code -Dspms.benchmark=true}.
+ */
+@SpringBootTest
+@TestPropertySource("/application-test.properties")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@EnabledIfSystemProperty(named = "spms.benchmark", matches = "true")
+public class ProjectTaskListingBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(ProjectTaskListingBenchmarkTest.class);
+
+    private static final int PROJECTS = 5_000;
+    private static final int TASKS_PER_PROJECT = 10;
+
+    @MockitoBean
+    private ClientRegistrationRepository clientRegistrationRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private TimecardService timecardService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ProjectCatalog projectCatalog;
+
+    @BeforeAll
+    void seed() {
+        long now = System.currentTimeMillis();
+        for (int batch = 0; batch < PROJECTS; batch += 500) {
+            int from = batch;
+            transactionTemplate.executeWithoutResult(status -> {
+                List<ProjectEntity> projects = new ArrayList<>();
+                for (int i = from; i < from + 500; i++) {
+                    ProjectEntity project = new ProjectEntity();
+                    project.setProjectCode(String.format("BP%05d", i));
+                    project.setProjectName(String.format("Bench project %05d", i));
+                    project.setStatus(ProjectStatus.ACTIVE);
+                    project.setIsActive(true);
+                    project.setCreatedAt(now);
+                    project.setUpdatedAt(now);
+                    project.setCreatedById(1L);
+                    project.setUpdatedById(1L);
+                    projects.add(project);
+                }
+                List<TaskEntity> tasks = new ArrayList<>();
+                for (ProjectEntity project : projectRepository.saveAll(projects)) {
+                    for (int t = 0; t < TASKS_PER_PROJECT; t++) {
+                        TaskEntity task = new TaskEntity();
+                        task.setTaskNumber(project.getProjectCode() + "-" + t);
+                        task.setTaskName("Task " + t);
+                        task.setActivity("Development");
+                        task.setProject(project);
+                        task.setIsActive(true);
+                        task.setCreatedAt(now);
+                        task.setUpdatedAt(now);
+                        task.setCreatedById(1L);
+                        task.setUpdatedById(1L);
+                        tasks.add(task);
+                    }
+                }
+                taskRepository.saveAll(tasks);
+            });
+        }
+        // Seeded through the repositories, so the services never invalidated the catalog
+        projectCatalog.invalidateAll();
+    }
+
+    @AfterAll
+    void cleanup() {
+        transactionTemplate.executeWithoutResult(status -> {
+            taskRepository.deleteAllInBatch();
+            projectRepository.deleteAllInBatch();
+        });
+        projectCatalog.invalidateAll();
+    }
+
+    /**
+     * The listing as it was built before: all active projects, then one task query per project.
+     */
+    private List<ProjectTaskDTO> perProjectQueries() {
+        return transactionTemplate.execute(status -> {
+            List<ProjectTaskDTO> result = new ArrayList<>();
+            for (ProjectEntity project : projectRepository.findAllActiveProjects()) {
+                for (TaskEntity task : taskRepository.findActiveTasksByProjectId(project.getId())) {
+                    ProjectTaskDTO dto = new ProjectTaskDTO();
+                    dto.setId(project.getId() + "-" + task.getId());
+                    dto.setProjectCode(project.getProjectCode());
+                    dto.setTaskNumber(task.getTaskNumber());
+                    result.add(dto);
+                }
+            }
+            return result;
+        });
+    }
+
+    private static double averageMs(int runs, Supplier<?> work) {
+        for (int i = 0; i < 3; i++) {
+            work.get();
+        }
+        long begin = System.nanoTime();
+        for (int i = 0; i < runs; i++) {
+            work.get();
+        }
+        return (System.nanoTime() - begin) / 1_000_000.0 / runs;
+    }
+
+    @Test
+    void listing_ShouldBeFasterThanPerProjectQueries() {
+        int rows = PROJECTS * TASKS_PER_PROJECT;
+        assertEquals(rows, perProjectQueries().size());
+        assertEquals(rows, timecardService.getActiveProjects(null).size());
+
+        double before = averageMs(5, this::perProjectQueries);
+        double load = averageMs(5, () -> {
+            projectCatalog.invalidateAll();
+            return timecardService.getActiveProjects(null, null, 1);
+        });
+        double after = averageMs(5, () -> timecardService.getActiveProjects(null));
+        double firstPage = averageMs(50, () -> timecardService.getActiveProjects(null, null, 50));
+        double search = averageMs(20, () -> timecardService.getActiveProjects("BP0421", null, 50));
+
+        log.info("per-project queries: {} ms", String.format("%8.2f", before));
+        log.info("catalog load:        {} ms", String.format("%8.2f", load));
+        log.info("full list (cached):  {} ms", String.format("%8.2f", after));
+        log.info("first page (50):     {} ms", String.format("%8.2f", firstPage));
+        log.info("search page (50):    {} ms", String.format("%8.2f", search));
+        assertTrue(load < before, "catalog load should beat per-project queries");
+        assertTrue(after < before, "cached listing should beat per-project queries");
+    }
+
+    @Test
+    void keysetPages_ShouldCoverEveryRowOnce() {
+        Set<String> seen = new HashSet<>();
+        String cursor = null;
+        do {
+            ProjectTaskPageDTO page = timecardService.getActiveProjects("BP01", cursor, 37);
+            page.getItems().forEach(item -> assertTrue(seen.add(item.getId()), "duplicate row " + item.getId()));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        // BP01000..BP01999 with 10 tasks each
+        assertEquals(1000 * TASKS_PER_PROJECT, seen.size());
+    }
+}
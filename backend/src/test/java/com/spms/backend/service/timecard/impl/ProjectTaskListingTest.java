@@ -0,0 +1,99 @@
+package com.spms.backend.service.timecard.impl;
+
+import com.spms.backend.controller.dto.timecard.ProjectTaskDTO;
+import com.spms.backend.controller.dto.timecard.ProjectTaskPageDTO;
+import com.spms.backend.model.ProjectStatus;
+import com.spms.backend.repository.project.ProjectRepository;
+import com.spms.backend.repository.project.ProjectRepository.ProjectTaskView;
+import com.spms.backend.service.sys.cache.CacheVersions;
+import com.spms.backend.service.timecard.ProjectCatalog;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class ProjectTaskListingTest {
+
+    @Mock
+    private ProjectRepository projectRepository;
+
+    private ProjectTaskListing listing;
+
+    @BeforeEach
+    void setUp() {
+        CacheVersions cacheVersions = mock(CacheVersions.class);
+        when(cacheVersions.tracker(anyString())).thenReturn(mock(CacheVersions.Tracker.class));
+        listing = new ProjectTaskListing(new ProjectCatalog(projectRepository, cacheVersions));
+        List<ProjectTaskView> rows = List.of(
+                row(2, "P2", "Beta", null, null),
+                row(1, "P1", "Alpha", 12L, "T-2"),
+                row(1, "P1", "Alpha", 11L, "T-1"),
+                row(3, "P3", "Gamma", 31L, "T-9", ProjectStatus.COMPLETED));
+        when(projectRepository.findProjectTaskRows()).thenReturn(rows);
+    }
+
+    static ProjectTaskView row(long projectId, String code, String name, Long taskId, String taskNumber) {
+        return row(projectId, code, name, taskId, taskNumber, ProjectStatus.ACTIVE);
+    }
+
+    static ProjectTaskView row(long projectId, String code, String name, Long taskId, String taskNumber,
+                               ProjectStatus status) {
+        ProjectTaskView view = mock(ProjectTaskView.class);
+        lenient().when(view.getProjectId()).thenReturn(projectId);
+        lenient().when(view.getProjectCode()).thenReturn(code);
+        lenient().when(view.getProjectName()).thenReturn(name);
+        lenient().when(view.getStatus()).thenReturn(status);
+        lenient().when(view.getTaskId()).thenReturn(taskId);
+        lenient().when(view.getTaskNumber()).thenReturn(taskNumber);
+        lenient().when(view.getTaskName()).thenReturn(taskNumber);
+        return view;
+    }
+
+    @Test
+    void page_ShouldReturnCursorOfLastRowWhenMoreRowsExist() {
+        ProjectTaskPageDTO page = listing.page(ProjectStatus.ACTIVE, null, null, 2);
+
+        assertEquals(2, page.getItems().size());
+        ProjectTaskDTO first = page.getItems().get(0);
+        assertEquals("1-11", first.getId());
+        assertEquals("T-1", first.getTaskNumber());
+        assertEquals("", first.getActivity());
+        assertArrayEquals(new String[]{"Alpha", "P1", "T-2"}, ProjectTaskListing.decodeCursor(page.getNextCursor()));
+    }
+
+    @Test
+    void page_ShouldContinueAfterCursorAndEndWithoutNextCursor() {
+        ProjectTaskPageDTO first = listing.page(ProjectStatus.ACTIVE, null, null, 2);
+        ProjectTaskPageDTO second = listing.page(ProjectStatus.ACTIVE, null, first.getNextCursor(), 2);
+
+        assertEquals(1, second.getItems().size());
+        assertEquals("2", second.getItems().get(0).getId());
+        assertEquals("", second.getItems().get(0).getTaskNumber());
+        assertNull(second.getNextCursor());
+    }
+
+    @Test
+    void list_ShouldFilterByStatusAndSearch() {
+        assertEquals(4, listing.list(null, null).size());
+        assertEquals(List.of("3-31"), listing.list(ProjectStatus.COMPLETED, null).stream()
+                .map(ProjectTaskDTO::getId).toList());
+        assertEquals(List.of("1-12"), listing.list(null, "t-2").stream()
+                .map(ProjectTaskDTO::getId).toList());
+    }
+
+    @Test
+    void decodeCursor_ShouldRejectGarbage() {
+        assertNull(ProjectTaskListing.decodeCursor(" "));
+        assertThrows(IllegalArgumentException.class, () -> ProjectTaskListing.decodeCursor("not a cursor!"));
+    }
+}
@@ -0,0 +1,37 @@
+package com.spms.backend.service.timecard.impl;
+
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StreamingSheetWriterTest {
+
+    @Test
+    void writeTo_ShouldWriteRowsBeyondWindowAndSampleWidths() throws Exception {
+        int rows = StreamingSheetWriter.ROW_WINDOW * 3;
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (StreamingSheetWriter writer = new StreamingSheetWriter("Projects", "Code", "Name", "Date")) {
+            for (int i = 0; i < rows; i++) {
+                writer.writeRow("P" + i, i == 0 ? "A rather long project name" : null, LocalDate.of(2026, 1, 1).plusDays(i));
+            }
+            writer.writeTo(out);
+            assertEquals(rows, writer.getRowCount());
+        }
+
+        try (XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(out.toByteArray()))) {
+            Sheet sheet = workbook.getSheet("Projects");
+            assertEquals(rows, sheet.getLastRowNum());
+            assertEquals("Code", sheet.getRow(0).getCell(0).getStringCellValue());
+            assertTrue(sheet.getRow(0).getCell(0).getCellStyle().getFontIndex() > 0);
+            assertEquals("P299", sheet.getRow(rows).getCell(0).getStringCellValue());
+            assertEquals(LocalDate.of(2026, 1, 1), sheet.getRow(1).getCell(2).getLocalDateTimeCellValue().toLocalDate());
+            assertTrue(sheet.getColumnWidth(1) > sheet.getColumnWidth(0));
+        }
+    }
+}